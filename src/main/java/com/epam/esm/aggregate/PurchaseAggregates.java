@@ -0,0 +1,272 @@
+package com.epam.esm.aggregate;
+
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.event.CatalogueClearedEvent;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.event.OrderPlacedEvent;
+import com.epam.esm.event.TagChangedEvent;
+import com.epam.esm.repository.OrderJdbcRepository;
+import com.epam.esm.repository.TagRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per-user order totals and tag usage counters, maintained as orders commit, that answer
+ * "the most used tag of the user with the highest total cost of orders" without reading the orders.
+ * <p>
+ * Totals and counters only grow when an order is placed, so the top spender and the most used tag of
+ * each user can be kept up to date by comparing the changed entries with the current ones.
+ * Ties are broken by the lowest id, as in the SQL version.
+ * <p>
+ * Counters follow the tags the certificates have now, like the SQL version. Changing the tags of a purchased
+ * certificate or deleting a counted tag therefore marks the aggregates as stale: they are not used until
+ * the next rebuild, which happens within {@code aggregates.stale-check-interval}. Independently, they are
+ * rebuilt from scratch and checked against the SQL version every {@code aggregates.rebuild-interval}.
+ * <p>
+ * A rebuild reads the orders in one read-only, repeatable-read transaction, so its reads agree with each other.
+ * Orders can commit in another order than their ids, so the orders placed during the rebuild are kept aside
+ * and, still within the snapshot, only those it does not contain are applied on top of it. An order that is
+ * at or below the highest id of the snapshot but only reported after the rebuild may or may not be part of it;
+ * it marks the aggregates as stale instead of being counted twice or not at all.
+ */
+@Slf4j
+@Component
+public class PurchaseAggregates {
+
+  private final OrderJdbcRepository orderJdbcRepository;
+  private final TagRepository tagRepository;
+  private final TransactionOperations snapshotTransaction;
+
+  private Map<Long, UserAggregate> users = new HashMap<>();
+  private Set<Long> purchasedCertificates = new HashSet<>();
+  private Set<Long> countedTags = new HashSet<>();
+  private UserAggregate topSpender;
+  private long includedUpToOrderId;
+  private List<OrderPlacedEvent> placedDuringRebuild;
+  private boolean invalidatedDuringRebuild;
+  private volatile boolean current;
+  private volatile Long mostUsedTag;
+
+  public PurchaseAggregates(OrderJdbcRepository orderJdbcRepository, TagRepository tagRepository,
+      PlatformTransactionManager transactionManager) {
+    this.orderJdbcRepository = orderJdbcRepository;
+    this.tagRepository = tagRepository;
+    TransactionTemplate snapshotTransaction = new TransactionTemplate(transactionManager);
+    snapshotTransaction.setReadOnly(true);
+    snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    this.snapshotTransaction = snapshotTransaction;
+  }
+
+  /**
+   * @return Whether the aggregates reflect every committed order and the current certificate tags.
+   */
+  public boolean isCurrent() {
+    return current;
+  }
+
+  /**
+   * @return The id of the most used tag of the user with the highest total cost of orders, or an empty Optional
+   * if there are no orders or none of that user's certificates has tags. Only meaningful when {@link #isCurrent()}.
+   */
+  public Optional<Long> findMostUsedTagOfTopSpender() {
+    return Optional.ofNullable(mostUsedTag);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    rebuild();
+  }
+
+  /**
+   * Recomputes the aggregates from the orders and compares the answer with the SQL version.
+   */
+  @Scheduled(initialDelayString = "${aggregates.rebuild-interval:PT1H}",
+      fixedDelayString = "${aggregates.rebuild-interval:PT1H}")
+  public void rebuildAndVerify() {
+    if (!rebuild()) {
+      return;
+    }
+    Optional<Long> expected = tagRepository.findMostUsedTagOfUserWithHighestTotalCostOfOrders();
+    Optional<Long> actual = findMostUsedTagOfTopSpender();
+    if (current && !expected.equals(actual)) {
+      log.warn("Purchase aggregates give most used tag {} but the orders give {}", actual, expected);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${aggregates.stale-check-interval:PT1M}")
+  public void rebuildIfStale() {
+    if (!current) {
+      rebuild();
+    }
+  }
+
+  /**
+   * Recomputes the aggregates from every order committed so far. Orders placed while the database is read
+   * are applied on top of the result, unless it already counts them.
+   *
+   * @return false if another rebuild was already running.
+   */
+  public boolean rebuild() {
+    synchronized (this) {
+      if (placedDuringRebuild != null) {
+        return false;
+      }
+      placedDuringRebuild = new ArrayList<>();
+      invalidatedDuringRebuild = false;
+    }
+
+    try {
+      snapshotTransaction.executeWithoutResult(status -> rebuildFromSnapshot());
+      return true;
+    } finally {
+      synchronized (this) {
+        placedDuringRebuild = null;
+      }
+    }
+  }
+
+  private void rebuildFromSnapshot() {
+    long upToOrderId = orderJdbcRepository.findMaxOrderId();
+    Map<Long, UserAggregate> rebuilt = new HashMap<>();
+    orderJdbcRepository.sumPriceByUser(upToOrderId)
+        .forEach((userId, spend) -> rebuilt.computeIfAbsent(userId, UserAggregate::new).spend = spend);
+    Set<Long> tags = new HashSet<>();
+    orderJdbcRepository.countTagsByUser(upToOrderId, usage -> {
+      rebuilt.computeIfAbsent(usage.userId(), UserAggregate::new).addTagUsage(usage.tagId(), usage.count());
+      tags.add(usage.tagId());
+    });
+    Set<Long> certificates = new HashSet<>(orderJdbcRepository.findPurchasedCertificateIds(upToOrderId));
+
+    synchronized (this) {
+      Set<Long> countedOrders = orderJdbcRepository.findExistingOrderIds(placedDuringRebuild.stream()
+          .map(OrderPlacedEvent::orderId)
+          .filter(orderId -> orderId <= upToOrderId)
+          .distinct()
+          .toList());
+      users = rebuilt;
+      countedTags = tags;
+      purchasedCertificates = certificates;
+      includedUpToOrderId = upToOrderId;
+      topSpender = null;
+      users.values().forEach(this::updateTopSpender);
+      Set<Long> appliedOrders = new HashSet<>(countedOrders);
+      placedDuringRebuild.stream().filter(event -> appliedOrders.add(event.orderId())).forEach(this::apply);
+      placedDuringRebuild = null;
+      mostUsedTag = topSpender == null ? null : topSpender.mostUsedTag();
+      current = !invalidatedDuringRebuild;
+      log.info("Purchase aggregates rebuilt for {} users up to order {}", users.size(), upToOrderId);
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onOrderPlaced(OrderPlacedEvent event) {
+    if (placedDuringRebuild != null) {
+      placedDuringRebuild.add(event);
+    } else if (event.orderId() <= includedUpToOrderId) {
+      invalidate();
+      return;
+    }
+    apply(event);
+    mostUsedTag = topSpender == null ? null : topSpender.mostUsedTag();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onCertificateChanged(CertificateChangedEvent event) {
+    CertificateResponseDTO before = event.before();
+    if (before == null || !purchasedCertificates.contains(before.certificateId())) {
+      return;
+    }
+    CertificateResponseDTO after = event.after();
+    if (after == null || !Objects.equals(tagSet(before.tagIds()), tagSet(after.tagIds()))) {
+      invalidate();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onTagChanged(TagChangedEvent event) {
+    if (event.before() != null && countedTags.contains(event.before().id())) {
+      invalidate();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onCatalogueCleared(CatalogueClearedEvent event) {
+    users = new HashMap<>();
+    purchasedCertificates = new HashSet<>();
+    countedTags = new HashSet<>();
+    topSpender = null;
+    includedUpToOrderId = 0;
+    mostUsedTag = null;
+    current = placedDuringRebuild == null;
+    invalidatedDuringRebuild = true;
+  }
+
+  private void apply(OrderPlacedEvent event) {
+    UserAggregate user = users.computeIfAbsent(event.userId(), UserAggregate::new);
+    user.spend += event.price();
+    if (event.tagIds() != null) {
+      for (Long tagId : event.tagIds()) {
+        user.addTagUsage(tagId, 1);
+        countedTags.add(tagId);
+      }
+    }
+    purchasedCertificates.add(event.certificateId());
+    updateTopSpender(user);
+  }
+
+  private void updateTopSpender(UserAggregate user) {
+    if (topSpender == null || user.spend > topSpender.spend
+        || (user.spend == topSpender.spend && user.userId < topSpender.userId)) {
+      topSpender = user;
+    }
+  }
+
+  private void invalidate() {
+    current = false;
+    invalidatedDuringRebuild = true;
+  }
+
+  private static Set<Long> tagSet(List<Long> tagIds) {
+    return tagIds == null ? Set.of() : new HashSet<>(tagIds);
+  }
+
+  private static final class UserAggregate {
+    private final long userId;
+    private final Map<Long, Long> tagUsage = new HashMap<>();
+    private double spend;
+    private long mostUsedTag = -1;
+    private long mostUsedTagCount;
+
+    private UserAggregate(long userId) {
+      this.userId = userId;
+    }
+
+    private void addTagUsage(long tagId, long count) {
+      long usage = tagUsage.merge(tagId, count, Long::sum);
+      if (usage > mostUsedTagCount || (usage == mostUsedTagCount && tagId < mostUsedTag)) {
+        mostUsedTag = tagId;
+        mostUsedTagCount = usage;
+      }
+    }
+
+    private Long mostUsedTag() {
+      return mostUsedTag < 0 ? null : mostUsedTag;
+    }
+  }
+}
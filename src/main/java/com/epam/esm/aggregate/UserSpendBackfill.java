@@ -0,0 +1,41 @@
+package com.epam.esm.aggregate;
+
+import com.epam.esm.repository.UserSpendJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Fills the user spend rollups from the existing orders, the first time the application starts with them.
+ * Later orders are added to the rollups as they are placed.
+ */
+@Slf4j
+@Component
+public class UserSpendBackfill {
+
+  private final UserSpendJdbcRepository userSpendJdbcRepository;
+  private final TransactionOperations transactionOperations;
+
+  public UserSpendBackfill(UserSpendJdbcRepository userSpendJdbcRepository, TransactionOperations transactionOperations) {
+    this.userSpendJdbcRepository = userSpendJdbcRepository;
+    this.transactionOperations = transactionOperations;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfillIfNeeded() {
+    if (userSpendJdbcRepository.isBackfillNeeded()) {
+      backfill();
+    }
+  }
+
+  /**
+   * Recomputes the rollups of every user in one transaction, while purchases wait to update them.
+   */
+  public void backfill() {
+    long start = System.currentTimeMillis();
+    transactionOperations.executeWithoutResult(status -> userSpendJdbcRepository.rebuild());
+    log.info("User spend rollups backfilled in {} ms", System.currentTimeMillis() - start);
+  }
+}
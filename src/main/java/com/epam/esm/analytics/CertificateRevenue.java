@@ -0,0 +1,4 @@
+package com.epam.esm.analytics;
+
+public record CertificateRevenue(long certificateId, long orders, double revenue) {
+}
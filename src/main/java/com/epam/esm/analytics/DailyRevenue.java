@@ -0,0 +1,6 @@
+package com.epam.esm.analytics;
+
+import java.time.LocalDate;
+
+public record DailyRevenue(LocalDate day, long orders, double revenue) {
+}
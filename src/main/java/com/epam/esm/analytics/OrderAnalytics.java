@@ -0,0 +1,206 @@
+package com.epam.esm.analytics;
+
+import com.epam.esm.event.CatalogueClearedEvent;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.CertificateTagLink;
+import com.epam.esm.repository.OrderJdbcRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Revenue analytics answered from an in-memory snapshot of the orders instead of aggregating them in the database.
+ * <p>
+ * The orders are streamed once into an {@link OrderFactTable}; every {@code analytics.refresh-interval} only the
+ * orders after the start of the late-order window below the id watermark are read again, those not in the table yet
+ * are appended, and the per-certificate and per-day totals are summed again in parallel over the columns. Queries
+ * read the latest published snapshot without locking.
+ * <p>
+ * The window, {@code analytics.late-order-window} ids wide, catches the orders committed after an order with a higher
+ * id was already read, as batched and multi-certificate purchases do. Orders committed even later are missed, as are
+ * deleted or detached orders, so the snapshot is rebuilt from scratch every {@code analytics.rebuild-interval}, and
+ * it is emptied when the catalogue is cleared. Revenue per tag follows the tags the certificates have at the last
+ * refresh, like the SQL version.
+ */
+@Slf4j
+@Component
+public class OrderAnalytics {
+
+  private static final Comparator<CertificateRevenue> BY_REVENUE = Comparator
+      .comparingDouble(CertificateRevenue::revenue).reversed()
+      .thenComparingLong(CertificateRevenue::certificateId);
+
+  private final OrderJdbcRepository orderJdbcRepository;
+  private final CertificateRepository certificateRepository;
+  private final TransactionOperations transactionOperations;
+  private final ForkJoinPool pool = ForkJoinPool.commonPool();
+  private final long lateOrderWindow;
+
+  private OrderFactTable table;
+  private volatile Snapshot snapshot = emptySnapshot();
+
+  public OrderAnalytics(OrderJdbcRepository orderJdbcRepository, CertificateRepository certificateRepository,
+      TransactionOperations transactionOperations,
+      @Value("${analytics.late-order-window:10000}") long lateOrderWindow) {
+    this.orderJdbcRepository = orderJdbcRepository;
+    this.certificateRepository = certificateRepository;
+    this.transactionOperations = transactionOperations;
+    this.lateOrderWindow = lateOrderWindow;
+    this.table = new OrderFactTable(lateOrderWindow);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    rebuild();
+  }
+
+  /**
+   * Reads every order again into a new table, while queries keep using the previous snapshot.
+   */
+  @Scheduled(initialDelayString = "${analytics.rebuild-interval:PT6H}",
+      fixedDelayString = "${analytics.rebuild-interval:PT6H}")
+  public synchronized void rebuild() {
+    OrderFactTable rebuilt = new OrderFactTable(lateOrderWindow);
+    load(rebuilt, null);
+    table = rebuilt;
+  }
+
+  /**
+   * Drops every order, so that the revenue of the deleted orders is no longer served; the next refresh reads the
+   * orders placed since from the start.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onCatalogueCleared(CatalogueClearedEvent event) {
+    table = new OrderFactTable(lateOrderWindow);
+    snapshot = emptySnapshot();
+  }
+
+  /**
+   * Appends the orders placed since the last refresh and publishes a new snapshot.
+   */
+  @Scheduled(initialDelayString = "${analytics.refresh-interval:PT1M}",
+      fixedDelayString = "${analytics.refresh-interval:PT1M}")
+  public synchronized void refresh() {
+    load(table, snapshot);
+  }
+
+  /**
+   * @return The highest id of the orders included in the snapshot.
+   */
+  public long getWatermark() {
+    return snapshot.facts().watermark();
+  }
+
+  /**
+   * @return The limit certificates with the highest revenue, by descending revenue and then id.
+   */
+  public List<CertificateRevenue> findTopCertificates(int limit) {
+    Snapshot current = snapshot;
+    RevenueTotals totals = current.totals();
+    PriorityQueue<CertificateRevenue> top = new PriorityQueue<>(limit + 1, BY_REVENUE.reversed());
+    for (int i = 0; i < totals.certificateRevenue.length; i++) {
+      if (totals.certificateOrders[i] > 0) {
+        top.add(new CertificateRevenue(current.facts().certificateIds()[i], totals.certificateOrders[i],
+            totals.certificateRevenue[i]));
+        if (top.size() > limit) {
+          top.poll();
+        }
+      }
+    }
+    List<CertificateRevenue> result = new ArrayList<>(top);
+    result.sort(BY_REVENUE);
+    return result;
+  }
+
+  /**
+   * @return The revenue of every tag found on a purchased certificate, by descending revenue and then id.
+   */
+  public List<TagRevenue> findRevenueByTag() {
+    Snapshot current = snapshot;
+    RevenueTotals totals = current.totals();
+    Map<Long, double[]> byTag = new HashMap<>();
+    for (int i = 0; i < totals.certificateRevenue.length; i++) {
+      long[] tagIds = current.tagsByCertificate().getOrDefault(current.facts().certificateIds()[i], new long[0]);
+      for (long tagId : tagIds) {
+        double[] tag = byTag.computeIfAbsent(tagId, id -> new double[2]);
+        tag[0] += totals.certificateOrders[i];
+        tag[1] += totals.certificateRevenue[i];
+      }
+    }
+    return byTag.entrySet().stream()
+        .map(tag -> new TagRevenue(tag.getKey(), (long) tag.getValue()[0], tag.getValue()[1]))
+        .filter(tag -> tag.orders() > 0)
+        .sorted(Comparator.comparingDouble(TagRevenue::revenue).reversed().thenComparingLong(TagRevenue::tagId))
+        .toList();
+  }
+
+  /**
+   * @param from The first day to include, or null for the first day with orders.
+   * @param to   The last day to include, or null for the last day with orders.
+   * @return The revenue of every day with orders between from and to, by day.
+   */
+  public List<DailyRevenue> findRevenueByDay(LocalDate from, LocalDate to) {
+    RevenueTotals totals = snapshot.totals();
+    int days = totals.dayRevenue.length;
+    int first = from == null ? 0 : (int) Math.min(days, Math.max(0, from.toEpochDay() - totals.firstDay));
+    int last = to == null ? days - 1 : (int) Math.max(-1, Math.min(days - 1, to.toEpochDay() - totals.firstDay));
+    List<DailyRevenue> revenue = new ArrayList<>();
+    for (int day = first; day <= last; day++) {
+      if (totals.dayOrders[day] > 0) {
+        revenue.add(new DailyRevenue(LocalDate.ofEpochDay(totals.firstDay + day), totals.dayOrders[day],
+            totals.dayRevenue[day]));
+      }
+    }
+    return revenue;
+  }
+
+  /**
+   * Streams the orders after the start of the late-order window of target into it, reloads the certificate tags, and publishes the
+   * result. The totals of previous are kept if no order was appended.
+   */
+  private void load(OrderFactTable target, Snapshot previous) {
+    long start = System.currentTimeMillis();
+    int sizeBefore = target.size();
+    Map<Long, long[]> tagsByCertificate = transactionOperations.execute(status -> {
+      orderJdbcRepository.streamOrdersAfter(target.windowStart(), target::append);
+      return loadTagsByCertificate();
+    });
+
+    OrderFacts facts = target.snapshot();
+    RevenueTotals totals = previous != null && facts.size() == sizeBefore ? previous.totals() : facts.aggregate(pool);
+    snapshot = new Snapshot(facts, totals, tagsByCertificate);
+    log.debug("Order analytics refreshed with {} new orders, up to order {}, in {} ms", facts.size() - sizeBefore,
+        facts.watermark(), System.currentTimeMillis() - start);
+  }
+
+  private Map<Long, long[]> loadTagsByCertificate() {
+    Map<Long, List<Long>> links = new HashMap<>();
+    try (Stream<CertificateTagLink> rows = certificateRepository.streamAllTagLinks()) {
+      rows.forEach(link -> links.computeIfAbsent(link.certificateId(), id -> new ArrayList<>()).add(link.tagId()));
+    }
+    Map<Long, long[]> tagsByCertificate = new HashMap<>(links.size() * 2);
+    links.forEach((certificateId, tagIds) ->
+        tagsByCertificate.put(certificateId, tagIds.stream().mapToLong(Long::longValue).toArray()));
+    return tagsByCertificate;
+  }
+
+  private Snapshot emptySnapshot() {
+    return new Snapshot(OrderFacts.EMPTY, OrderFacts.EMPTY.aggregate(pool), Map.of());
+  }
+
+  private record Snapshot(OrderFacts facts, RevenueTotals totals, Map<Long, long[]> tagsByCertificate) {}
+}
@@ -0,0 +1,124 @@
+package com.epam.esm.analytics;
+
+import com.epam.esm.index.LongIntHashMap;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Append-only columnar table of order facts: one primitive array per column instead of an object per order.
+ * <p>
+ * Certificate ids are dictionary-encoded into dense indexes, so per-certificate sums are array slots, and days are
+ * stored as epoch days. Not thread-safe: a single refresh appends at a time, and readers only use the
+ * {@link OrderFacts} views it publishes. Appending never changes the rows a published view covers, so views share
+ * the arrays with the table until they have to grow.
+ * <p>
+ * The ids of the orders within the late-order window below the watermark are kept, so that a refresh can read that
+ * window again for orders committed late without appending the ones it already has.
+ */
+final class OrderFactTable {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final LongIntHashMap certificateIndexes = new LongIntHashMap();
+  private long[] certificateIds = new long[64];
+  private int certificateCount;
+
+  private int[] certificates = new int[INITIAL_CAPACITY];
+  private double[] prices = new double[INITIAL_CAPACITY];
+  private int[] days = new int[INITIAL_CAPACITY];
+  private int size;
+  private int firstDay = Integer.MAX_VALUE;
+  private int lastDay = Integer.MIN_VALUE;
+  private long watermark;
+
+  private final long lateOrderWindow;
+  private final LongIntHashMap recentOrderIds = new LongIntHashMap();
+
+  /**
+   * @param lateOrderWindow How many order ids below the watermark are still checked for duplicates.
+   */
+  OrderFactTable(long lateOrderWindow) {
+    this.lateOrderWindow = lateOrderWindow;
+  }
+
+  /**
+   * @return The highest id of the appended orders.
+   */
+  long watermark() {
+    return watermark;
+  }
+
+  /**
+   * @return The id after which the orders have to be read again: the start of the late-order window.
+   */
+  long windowStart() {
+    return Math.max(0, watermark - lateOrderWindow);
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Appends an order unless it was already appended; orders below {@link #windowStart()} are not checked.
+   */
+  void append(long orderId, long certificateId, double price, LocalDate purchaseDay) {
+    if (recentOrderIds.containsKey(orderId)) {
+      return;
+    }
+    if (size == certificates.length) {
+      int capacity = size * 2;
+      certificates = Arrays.copyOf(certificates, capacity);
+      prices = Arrays.copyOf(prices, capacity);
+      days = Arrays.copyOf(days, capacity);
+    }
+    int day = Math.toIntExact(purchaseDay.toEpochDay());
+    certificates[size] = indexOf(certificateId);
+    prices[size] = price;
+    days[size] = day;
+    size++;
+    firstDay = Math.min(firstDay, day);
+    lastDay = Math.max(lastDay, day);
+    watermark = Math.max(watermark, orderId);
+    recentOrderIds.put(orderId, 1);
+    if (recentOrderIds.size() > 2 * lateOrderWindow + 1) {
+      forgetOrdersBeforeWindow();
+    }
+  }
+
+  OrderFacts snapshot() {
+    return new OrderFacts(watermark, size, certificates, prices, days, certificateIds, certificateCount,
+        firstDay, lastDay);
+  }
+
+  /**
+   * Ids are unique, so at most lateOrderWindow of them are inside the window and pruning at twice that keeps
+   * appending amortised constant time, even when the whole table is loaded at once.
+   */
+  private void forgetOrdersBeforeWindow() {
+    long windowStart = windowStart();
+    long[] forgotten = new long[recentOrderIds.size()];
+    int[] count = new int[1];
+    recentOrderIds.forEach((orderId, value) -> {
+      if (orderId <= windowStart) {
+        forgotten[count[0]++] = orderId;
+      }
+    });
+    for (int i = 0; i < count[0]; i++) {
+      recentOrderIds.remove(forgotten[i]);
+    }
+  }
+
+  private int indexOf(long certificateId) {
+    int index = certificateIndexes.get(certificateId) - 1;
+    if (index < 0) {
+      if (certificateCount == certificateIds.length) {
+        certificateIds = Arrays.copyOf(certificateIds, certificateCount * 2);
+      }
+      index = certificateCount++;
+      certificateIds[index] = certificateId;
+      certificateIndexes.put(certificateId, index + 1);
+    }
+    return index;
+  }
+}
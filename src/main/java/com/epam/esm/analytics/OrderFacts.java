@@ -0,0 +1,65 @@
+package com.epam.esm.analytics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Immutable view of the first {@code size} rows of an {@link OrderFactTable}.
+ *
+ * @param watermark        The id of the last order in the view.
+ * @param certificates     The dictionary index of the certificate of each order.
+ * @param certificateIds   The certificate id of each dictionary index, up to certificateCount.
+ * @param firstDay         The earliest epoch day of the orders, meaningless when size is 0.
+ * @param lastDay          The latest epoch day of the orders, meaningless when size is 0.
+ */
+record OrderFacts(long watermark, int size, int[] certificates, double[] prices, int[] days, long[] certificateIds,
+    int certificateCount, int firstDay, int lastDay) {
+
+  static final OrderFacts EMPTY = new OrderFactTable(0).snapshot();
+
+  /**
+   * Rows summed by a single task; below that, splitting costs more than the per-task arrays save.
+   */
+  private static final int MIN_ROWS_PER_TASK = 1 << 16;
+
+  /**
+   * Sums the revenue and the orders of every certificate and every day, splitting the rows into a few tasks per
+   * worker of the pool. Each task sums its rows into arrays of its own, which are added up when the tasks join.
+   */
+  RevenueTotals aggregate(ForkJoinPool pool) {
+    if (size == 0) {
+      return new RevenueTotals(certificateCount, 0, 0);
+    }
+    int rowsPerTask = Math.max(MIN_ROWS_PER_TASK, size / (pool.getParallelism() * 4) + 1);
+    return pool.invoke(new RevenueTask(0, size, rowsPerTask));
+  }
+
+  private final class RevenueTask extends RecursiveTask<RevenueTotals> {
+
+    private final int from;
+    private final int to;
+    private final int rowsPerTask;
+
+    RevenueTask(int from, int to, int rowsPerTask) {
+      this.from = from;
+      this.to = to;
+      this.rowsPerTask = rowsPerTask;
+    }
+
+    @Override
+    protected RevenueTotals compute() {
+      if (to - from <= rowsPerTask) {
+        RevenueTotals totals = new RevenueTotals(certificateCount, firstDay, lastDay - firstDay + 1);
+        for (int row = from; row < to; row++) {
+          totals.add(certificates[row], days[row] - firstDay, prices[row]);
+        }
+        return totals;
+      }
+      int middle = (from + to) >>> 1;
+      RevenueTask left = new RevenueTask(from, middle, rowsPerTask);
+      left.fork();
+      RevenueTotals right = new RevenueTask(middle, to, rowsPerTask).compute();
+      return right.merge(left.join());
+    }
+  }
+}
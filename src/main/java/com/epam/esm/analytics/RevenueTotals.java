@@ -0,0 +1,43 @@
+package com.epam.esm.analytics;
+
+/**
+ * Revenue and order count per certificate dictionary index and per day, the day arrays starting at firstDay.
+ */
+final class RevenueTotals {
+
+  final double[] certificateRevenue;
+  final long[] certificateOrders;
+  final int firstDay;
+  final double[] dayRevenue;
+  final long[] dayOrders;
+
+  RevenueTotals(int certificates, int firstDay, int days) {
+    this.certificateRevenue = new double[certificates];
+    this.certificateOrders = new long[certificates];
+    this.firstDay = firstDay;
+    this.dayRevenue = new double[days];
+    this.dayOrders = new long[days];
+  }
+
+  void add(int certificate, int day, double price) {
+    certificateRevenue[certificate] += price;
+    certificateOrders[certificate]++;
+    dayRevenue[day] += price;
+    dayOrders[day]++;
+  }
+
+  /**
+   * Adds other, which covers the same certificates and days, into these totals.
+   */
+  RevenueTotals merge(RevenueTotals other) {
+    for (int i = 0; i < certificateRevenue.length; i++) {
+      certificateRevenue[i] += other.certificateRevenue[i];
+      certificateOrders[i] += other.certificateOrders[i];
+    }
+    for (int i = 0; i < dayRevenue.length; i++) {
+      dayRevenue[i] += other.dayRevenue[i];
+      dayOrders[i] += other.dayOrders[i];
+    }
+    return this;
+  }
+}
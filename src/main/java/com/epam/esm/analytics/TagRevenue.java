@@ -0,0 +1,7 @@
+package com.epam.esm.analytics;
+
+/**
+ * The revenue of the orders of the certificates that currently have a tag.
+ */
+public record TagRevenue(long tagId, long orders, double revenue) {
+}
@@ -0,0 +1,91 @@
+package com.epam.esm.bulk;
+
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Writes certificates to a stream as NDJSON or CSV records, one per line unless a quoted CSV field has line breaks.
+ * <p>
+ * The CSV columns are those read by the import, preceded by the certificate id, so an export can be imported again,
+ * multi-line descriptions included.
+ * The first record is flushed as soon as it is written, the following ones when the buffer fills up.
+ */
+public class CertificateRecordWriter implements Consumer<CertificateResponseDTO> {
+
+  static final List<String> CSV_HEADER = List.of("id", "name", "description", "price", "duration", "tagIds");
+
+  private final DataFormat format;
+  private final Writer writer;
+  private final ObjectWriter jsonWriter;
+  private long written;
+
+  public CertificateRecordWriter(DataFormat format, OutputStream output, ObjectMapper objectMapper) {
+    this.format = format;
+    this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    this.jsonWriter = objectMapper.writerFor(CertificateResponseDTO.class);
+  }
+
+  /**
+   * Writes one certificate.
+   *
+   * @throws UncheckedIOException If the stream cannot be written, e.g. because the client went away.
+   */
+  @Override
+  public void accept(CertificateResponseDTO certificate) {
+    try {
+      if (written == 0 && format == DataFormat.CSV) {
+        writeLine(Csv.formatLine(CSV_HEADER));
+      }
+      writeLine(format == DataFormat.CSV ? toCsv(certificate) : jsonWriter.writeValueAsString(certificate));
+      if (++written == 1) {
+        writer.flush();
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Writes the CSV header if no certificate was written, and flushes the buffered records.
+   */
+  public void finish() throws IOException {
+    if (written == 0 && format == DataFormat.CSV) {
+      writeLine(Csv.formatLine(CSV_HEADER));
+    }
+    writer.flush();
+  }
+
+  public long getWritten() {
+    return written;
+  }
+
+  private void writeLine(String line) throws IOException {
+    writer.write(line);
+    writer.write('\n');
+  }
+
+  private static String toCsv(CertificateResponseDTO certificate) {
+    List<Object> fields = new ArrayList<>(CSV_HEADER.size());
+    fields.add(certificate.certificateId());
+    fields.add(certificate.name());
+    fields.add(certificate.description());
+    fields.add(certificate.price());
+    fields.add(certificate.duration());
+    fields.add(certificate.tagIds() == null ? null : certificate.tagIds().stream()
+        .map(String::valueOf)
+        .collect(Collectors.joining(Csv.LIST_SEPARATOR)));
+    return Csv.formatLine(fields);
+  }
+}
@@ -0,0 +1,113 @@
+package com.epam.esm.bulk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Minimal RFC 4180 field handling for CSV records: fields are separated by commas and may be enclosed in double
+ * quotes, with embedded quotes doubled. A quoted field may span lines; its line breaks are read back as {@code \n}.
+ */
+public final class Csv {
+
+  /**
+   * Separates the values of a multi-valued field, such as the tag ids of a certificate.
+   */
+  public static final String LIST_SEPARATOR = "|";
+
+  private static final char SEPARATOR = ',';
+  private static final char QUOTE = '"';
+
+  private Csv() {
+  }
+
+  /**
+   * Reads the rest of a record that starts with firstLine: while a quoted field is still open, the next lines of
+   * reader belong to the record too. Stops at the end of the stream, leaving the field open.
+   *
+   * @return The record, with its lines joined by {@code \n}.
+   */
+  public static String readRecord(String firstLine, BufferedReader reader) throws IOException {
+    int quotes = countQuotes(firstLine);
+    if (quotes % 2 == 0) {
+      return firstLine;
+    }
+    StringBuilder record = new StringBuilder(firstLine);
+    String line;
+    while (quotes % 2 != 0 && (line = reader.readLine()) != null) {
+      record.append('\n').append(line);
+      quotes += countQuotes(line);
+    }
+    return record.toString();
+  }
+
+  /**
+   * Quotes come in pairs, doubled ones included, so a record with an odd number of them ends in an open field.
+   */
+  private static int countQuotes(String text) {
+    int quotes = 0;
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) == QUOTE) {
+        quotes++;
+      }
+    }
+    return quotes;
+  }
+
+  /**
+   * Splits a CSV record into its fields.
+   *
+   * @throws IllegalArgumentException If a quoted field is not closed.
+   */
+  public static List<String> parseLine(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c != QUOTE) {
+          field.append(c);
+        } else if (i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+          field.append(QUOTE);
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == QUOTE) {
+        quoted = true;
+      } else if (c == SEPARATOR) {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("Unterminated quoted field");
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  /**
+   * Joins values into a CSV record, quoting the ones that contain a separator, a quote or a line break.
+   * Null values are written as empty fields.
+   */
+  public static String formatLine(List<?> values) {
+    return values.stream().map(Csv::formatField).collect(Collectors.joining(String.valueOf(SEPARATOR)));
+  }
+
+  private static String formatField(Object value) {
+    if (value == null) {
+      return "";
+    }
+    String text = value.toString();
+    if (text.indexOf(SEPARATOR) < 0 && text.indexOf(QUOTE) < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+      return text;
+    }
+    return QUOTE + text.replace("\"", "\"\"") + QUOTE;
+  }
+}
@@ -0,0 +1,57 @@
+package com.epam.esm.bulk;
+
+import static com.epam.esm.exceptions.Messages.UNSUPPORTED_DATA_FORMAT;
+
+import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.exceptions.ErrorCode;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Line-oriented formats of bulk certificate transfers: one record per line, so a body can be read
+ * and written as a stream without holding it in memory.
+ */
+public enum DataFormat {
+  NDJSON(DataFormat.NDJSON_VALUE),
+  CSV(DataFormat.CSV_VALUE);
+
+  public static final String NDJSON_VALUE = "application/x-ndjson";
+  public static final String CSV_VALUE = "text/csv";
+
+  private final MediaType mediaType;
+
+  DataFormat(String mediaType) {
+    this.mediaType = MediaType.parseMediaType(mediaType);
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * Picks the format of a request body or of a requested response.
+   *
+   * @param mediaType A Content-Type value, or the name of a format such as {@code csv}.
+   * @throws CustomizedException If the value matches neither format.
+   */
+  public static DataFormat from(String mediaType) {
+    if (mediaType != null) {
+      for (DataFormat format : values()) {
+        if (format.name().equalsIgnoreCase(mediaType)) {
+          return format;
+        }
+      }
+      try {
+        MediaType requested = MediaType.parseMediaType(mediaType);
+        for (DataFormat format : values()) {
+          if (format.mediaType.isCompatibleWith(requested)) {
+            return format;
+          }
+        }
+      } catch (InvalidMediaTypeException ex) {
+        // reported below
+      }
+    }
+    throw new CustomizedException(UNSUPPORTED_DATA_FORMAT.formatted(mediaType), ErrorCode.UNSUPPORTED_DATA_FORMAT);
+  }
+}
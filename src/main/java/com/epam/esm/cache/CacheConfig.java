@@ -0,0 +1,37 @@
+package com.epam.esm.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process caches of entities read by id.
+ * <p>
+ * Caffeine admits new entries with a frequency sketch (W-TinyLFU), so a burst of one-off reads does not
+ * push the few hot certificates out of the cache. Size and expiry come from the {@code cache.entities.spec}
+ * property, in Caffeine spec syntax.
+ * Evictions are deferred until the surrounding transaction commits, so a concurrent read cannot put back
+ * the row that is being changed.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  public static final String CERTIFICATES = "certificates";
+  public static final String TAGS = "tags";
+  public static final String USERS = "users";
+
+  @Bean
+  public CacheManager cacheManager(
+      @Value("${cache.entities.spec:maximumSize=10000,expireAfterWrite=10m}") String spec) {
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager(CERTIFICATES, TAGS, USERS);
+    cacheManager.setCaffeine(Caffeine.from(spec).recordStats());
+    cacheManager.setAllowNullValues(false);
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+}
@@ -0,0 +1,42 @@
+package com.epam.esm.cache;
+
+import static org.springframework.util.StringUtils.hasText;
+
+import com.epam.esm.filter.CountMode;
+import com.epam.esm.filter.KeysetCursor;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * A certificate search, normalized so that requests returning the same rows share one key:
+ * tag names are trimmed, lower-cased, de-duplicated and sorted, and the search word is lower-cased,
+ * the same way the filter compares them.
+ *
+ * @param position The offset of the page, or the encoded cursor it starts after.
+ */
+public record CertificateSearchKey(List<String> tagNames, String searchWord, String position, int size, String sort,
+                                   CountMode countMode) {
+
+  public static CertificateSearchKey of(List<String> tagNames, String searchWord, Pageable pageable,
+      CountMode countMode) {
+    return new CertificateSearchKey(normalize(tagNames), normalize(searchWord), String.valueOf(pageable.getOffset()),
+        pageable.getPageSize(), pageable.getSort().toString(), countMode);
+  }
+
+  public static CertificateSearchKey of(List<String> tagNames, String searchWord, KeysetCursor cursor, int size) {
+    return new CertificateSearchKey(normalize(tagNames), normalize(searchWord), cursor.encode(), size, cursor.sort(),
+        CountMode.NONE);
+  }
+
+  private static List<String> normalize(List<String> tagNames) {
+    if (tagNames == null) {
+      return List.of();
+    }
+    return tagNames.stream().map(name -> name.toLowerCase(Locale.ROOT).trim()).distinct().sorted().toList();
+  }
+
+  private static String normalize(String searchWord) {
+    return hasText(searchWord) ? searchWord.toLowerCase(Locale.ROOT) : null;
+  }
+}
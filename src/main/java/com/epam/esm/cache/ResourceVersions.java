@@ -0,0 +1,84 @@
+package com.epam.esm.cache;
+
+import com.epam.esm.event.CatalogueClearedEvent;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.event.TagChangedEvent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Strong entity tags of the tag and certificate resources, computed without reading them.
+ * <p>
+ * Tags are never modified, only created or deleted, so a single tag-table generation versions both a tag and
+ * every page of tags. A certificate is versioned by the sequence number of its last committed update or deletion,
+ * or 0 if it has not changed since startup; a catalogue generation covers the changes that reach every
+ * certificate at once (clearing the catalogue, or deleting a tag, which unlinks it without certificate events).
+ * Every tag starts with the startup epoch, so tags issued before a restart never match.
+ * <p>
+ * A changed certificate is evicted from the certificate cache before its version is bumped. The eviction done by
+ * {@code @CacheEvict} only runs once the transaction completes, possibly after this listener, and a read in between
+ * would otherwise serve the cached old certificate under the new entity tag.
+ */
+@Component
+public class ResourceVersions {
+
+  private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+  private final AtomicLong tagGeneration = new AtomicLong();
+  private final AtomicLong catalogueGeneration = new AtomicLong();
+  private final AtomicLong sequence = new AtomicLong();
+  private final Map<Long, Long> certificateVersions = new ConcurrentHashMap<>();
+  private final CacheManager cacheManager;
+
+  public ResourceVersions(CacheManager cacheManager) {
+    this.cacheManager = cacheManager;
+  }
+
+  /**
+   * @return The entity tag of a tag, and of every page of tags.
+   */
+  public String tagsTag() {
+    return "t" + epoch + "-" + tagGeneration.get();
+  }
+
+  /**
+   * @return The entity tag of the certificate with the given id.
+   */
+  public String certificateTag(long certificateId) {
+    return "c" + epoch + "-" + catalogueGeneration.get() + "-" + certificateId + "-"
+        + certificateVersions.getOrDefault(certificateId, 0L);
+  }
+
+  /**
+   * A created certificate needs no version: its id was never served before.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCertificateChanged(CertificateChangedEvent event) {
+    if (event.before() != null) {
+      Cache certificates = cacheManager.getCache(CacheConfig.CERTIFICATES);
+      if (certificates != null) {
+        certificates.evictIfPresent(event.before().certificateId());
+      }
+      certificateVersions.put(event.before().certificateId(), sequence.incrementAndGet());
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTagChanged(TagChangedEvent event) {
+    tagGeneration.incrementAndGet();
+    if (event.before() != null) {
+      catalogueGeneration.incrementAndGet();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogueCleared(CatalogueClearedEvent event) {
+    tagGeneration.incrementAndGet();
+    catalogueGeneration.incrementAndGet();
+    certificateVersions.clear();
+  }
+}
@@ -0,0 +1,79 @@
+package com.epam.esm.cache;
+
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.event.CatalogueClearedEvent;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.event.TagChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Results of certificate searches, by normalized search.
+ * <p>
+ * Every entry is stored under the write generation current when it was read. Any committed change to a
+ * certificate or a tag bumps the generation, so older entries are never hit again and simply age out of the
+ * cache: invalidation costs one increment, whatever the number of cached searches.
+ * A search that misses is run once even when many requests for it arrive together.
+ * <p>
+ * Searches read the in-memory indexes, so the indexes apply a change before the generation is bumped: otherwise a
+ * search run in between would cache a result missing the change under the new generation.
+ */
+@Component
+public class SearchResultCache {
+
+  /**
+   * Order of the change listeners of the indexes read by searches, which run before {@link #GENERATION_ORDER}.
+   */
+  public static final int INDEX_ORDER = 0;
+  public static final int GENERATION_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+  private final Cache<GenerationKey, Slice<CertificateResponseDTO>> results;
+  private final AtomicLong generation = new AtomicLong();
+
+  public SearchResultCache(@Value("${cache.searches.spec:maximumSize=1000,expireAfterWrite=1m}") String spec) {
+    this.results = Caffeine.from(spec).recordStats().build();
+  }
+
+  /**
+   * Returns the cached result of search, or runs and caches it.
+   */
+  public Slice<CertificateResponseDTO> get(CertificateSearchKey search, Supplier<Slice<CertificateResponseDTO>> loader) {
+    return results.get(new GenerationKey(generation.get(), search), key -> loader.get());
+  }
+
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  public Cache<?, ?> getNativeCache() {
+    return results;
+  }
+
+  @Order(GENERATION_ORDER)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCertificateChanged(CertificateChangedEvent event) {
+    generation.incrementAndGet();
+  }
+
+  @Order(GENERATION_ORDER)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTagChanged(TagChangedEvent event) {
+    generation.incrementAndGet();
+  }
+
+  @Order(GENERATION_ORDER)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogueCleared(CatalogueClearedEvent event) {
+    generation.incrementAndGet();
+  }
+
+  private record GenerationKey(long generation, CertificateSearchKey search) {}
+}
@@ -0,0 +1,61 @@
+package com.epam.esm.controller;
+
+import com.epam.esm.dto.CertificateRevenueDTO;
+import com.epam.esm.dto.DailyRevenueDTO;
+import com.epam.esm.dto.TagRevenueDTO;
+import com.epam.esm.service.AnalyticsService;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+  private final AnalyticsService analyticsService;
+
+  public AnalyticsController(AnalyticsService analyticsService) {
+    this.analyticsService = analyticsService;
+  }
+
+  /**
+   * Reports the certificates that brought the most revenue.
+   *
+   * @param limit The number of certificates to return.
+   * @return A ResponseEntity containing the certificates by descending revenue.
+   */
+  @GetMapping("/certificates/top")
+  public ResponseEntity<List<CertificateRevenueDTO>> getTopCertificates(@RequestParam(defaultValue = "10") int limit) {
+    return ResponseEntity.ok(analyticsService.getTopCertificates(limit));
+  }
+
+  /**
+   * Reports the revenue of the certificates of every tag.
+   *
+   * @return A ResponseEntity containing the tags by descending revenue.
+   */
+  @GetMapping("/tags/revenue")
+  public ResponseEntity<List<TagRevenueDTO>> getRevenueByTag() {
+    return ResponseEntity.ok(analyticsService.getRevenueByTag());
+  }
+
+  /**
+   * Reports the revenue of every day with orders.
+   *
+   * @param from The first day to include, as an ISO date.
+   * @param to The last day to include, as an ISO date.
+   * @return A ResponseEntity containing the revenue of each day, by day.
+   */
+  @GetMapping("/revenue/daily")
+  public ResponseEntity<List<DailyRevenueDTO>> getRevenueByDay(
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to) {
+    return ResponseEntity.ok(analyticsService.getRevenueByDay(from, to));
+  }
+}
@@ -0,0 +1,52 @@
+package com.epam.esm.controller;
+
+import com.epam.esm.cache.SearchResultCache;
+import com.epam.esm.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/cache")
+public class CacheController {
+
+  static final String CERTIFICATE_SEARCHES = "certificateSearches";
+
+  private final CacheManager cacheManager;
+  private final SearchResultCache searchResultCache;
+
+  public CacheController(CacheManager cacheManager, SearchResultCache searchResultCache) {
+    this.cacheManager = cacheManager;
+    this.searchResultCache = searchResultCache;
+  }
+
+  /**
+   * Reports the size and the hit, miss and eviction counters of every entity cache and of the certificate search cache.
+   *
+   * @return A ResponseEntity containing the statistics of each cache, by cache name.
+   */
+  @GetMapping("/stats")
+  public ResponseEntity<Map<String, CacheStatsDTO>> getCacheStats() {
+    Map<String, CacheStatsDTO> statistics = new TreeMap<>();
+    for (String name : cacheManager.getCacheNames()) {
+      org.springframework.cache.Cache cache = cacheManager.getCache(name);
+      if (cache != null && cache.getNativeCache() instanceof Cache<?, ?> caffeineCache) {
+        statistics.put(name, toStats(caffeineCache));
+      }
+    }
+    statistics.put(CERTIFICATE_SEARCHES, toStats(searchResultCache.getNativeCache()));
+    return ResponseEntity.ok(statistics);
+  }
+
+  private static CacheStatsDTO toStats(Cache<?, ?> cache) {
+    CacheStats stats = cache.stats();
+    return new CacheStatsDTO(cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(),
+        stats.evictionCount());
+  }
+}
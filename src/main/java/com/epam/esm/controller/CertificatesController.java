@@ -6,25 +6,39 @@ import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 import static org.springframework.http.HttpStatus.OK;
 
+import com.epam.esm.bulk.CertificateRecordWriter;
+import com.epam.esm.bulk.DataFormat;
+import com.epam.esm.cache.ResourceVersions;
 import com.epam.esm.dto.CertificateRequestDTO;
 import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.ImportReportDTO;
+import com.epam.esm.dto.SuggestionDTO;
+import com.epam.esm.filter.CountMode;
+import com.epam.esm.filter.KeysetCursor;
 import com.epam.esm.model.GiftCertificate;
 import com.epam.esm.service.AuditReaderService;
+import com.epam.esm.service.CertificateImportService;
 import com.epam.esm.service.CertificateService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.query.AuditEntity;
 import org.hibernate.envers.query.AuditQuery;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -32,9 +46,12 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/certificate")
@@ -46,6 +63,36 @@ public class CertificatesController {
     @Autowired
     private AuditReaderService auditReaderService;
 
+    @Autowired
+    private CertificateImportService certificateImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    private static final CursorLinks<CertificateResponseDTO> CURSOR_LINKS = new CursorLinks<>(
+        CertificateResponseDTO::certificateId,
+        Map.of(KeysetCursor.ID, CertificateResponseDTO::certificateId,
+            "name", CertificateResponseDTO::name,
+            "price", CertificateResponseDTO::price,
+            "duration", CertificateResponseDTO::duration));
+
+
+    /**
+     * Imports certificates from an NDJSON or CSV body, read as a stream and loaded in batches.
+     * Invalid lines are reported and skipped; they do not abort the import.
+     *
+     * @param contentType The format of the body.
+     * @param body        The certificates to import, one per line.
+     * @return A ResponseEntity containing the number of imported and failed lines and the line errors.
+     */
+    @PostMapping(value = "/import", consumes = {DataFormat.NDJSON_VALUE, DataFormat.CSV_VALUE}, produces = {"application/json"})
+    public ResponseEntity<ImportReportDTO> importCertificates(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                              InputStream body) {
+        return ResponseEntity.ok(certificateImportService.importCertificates(body, DataFormat.from(contentType)));
+    }
 
     /**
      * Saves a new certificate and links it to a list of Tags.
@@ -65,7 +112,7 @@ public class CertificatesController {
 
         EntityModel<CertificateResponseDTO> resource = EntityModel.of(returnDTO);
         resource.add(linkTo(methodOn(CertificatesController.class)
-            .getCertificate(returnDTO.certificateId())).withSelfRel());
+            .getCertificate(returnDTO.certificateId(), null)).withSelfRel());
 
         return ResponseEntity.status(CREATED).body(resource);
     }
@@ -75,16 +122,23 @@ public class CertificatesController {
      * Fetches a certificate by its ID.
      *
      * @param id The id of the certificate to be retrieved.
+     * @param request The request, answered with 304 Not Modified if it holds the current entity tag of the certificate.
      * @return A ResponseEntity containing the certificate as a CertificateResponseDTO.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<EntityModel<CertificateResponseDTO>> getCertificate(@PathVariable long id) {
+    public ResponseEntity<EntityModel<CertificateResponseDTO>> getCertificate(@PathVariable long id, WebRequest request) {
+        String etag = resourceVersions.certificateTag(id);
+        Optional<ResponseEntity<EntityModel<CertificateResponseDTO>>> notModified =
+            ConditionalGet.notModified(request, etag);
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
+
         CertificateResponseDTO certificateDTO = certificateService.getGiftCertificate(id);
         EntityModel<CertificateResponseDTO> resource = EntityModel.of(certificateDTO);
-        resource.add(linkTo(methodOn(CertificatesController.class)
-            .getCertificate(id)).withSelfRel());
+        resource.add(linkTo(CertificatesController.class).slash(id).withSelfRel());
 
-        return ResponseEntity.status(OK).body(resource);
+        return ConditionalGet.ok(etag).body(resource);
     }
 
     /**
@@ -111,12 +165,18 @@ public class CertificatesController {
 
     /**
      * Fetches all certificates that match the given criteria.
+     * Without a cursor the page number is used; with a cursor the page after it is sought directly,
+     * and the {@code next} link always carries the cursor of the last returned certificate.
+     * The count parameter selects how the total is obtained: {@code exact} (default), {@code estimated},
+     * or {@code none}, which skips the count query and returns no page metadata.
      *
      * @param tagName The names of the tags the certificates should have.
      * @param searchWord The word to search for in the certificate's name and description.
      * @param page The number of the page to retrieve.
      * @param size The number of records in a page.
      * @param sort The property by which to sort the results.
+     * @param count The count mode: exact, estimated or none.
+     * @param cursor The opaque position returned in a previous {@code next} link.
      * @param assembler Helps convert the Page into a PagedModel.
      * @return A ResponseEntity containing a PagedModel of CertificateResponseDTOs.
      */
@@ -127,18 +187,72 @@ public class CertificatesController {
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "10") int size,
         @RequestParam(defaultValue = "id") String sort,
+        @RequestParam(defaultValue = "exact") String count,
+        @RequestParam(required = false) String cursor,
         PagedResourcesAssembler<CertificateResponseDTO> assembler) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sort));
-        Page<CertificateResponseDTO> certificatesPage =
-            certificateService.getFilteredCertificates(tagName, searchWord, pageable);
-
         Link selfLink = linkTo(methodOn(CertificatesController.class).getFilteredCertificates(tagName,
-            searchWord, page, size, sort, assembler)).withSelfRel();
+            searchWord, page, size, sort, count, cursor, assembler)).withSelfRel();
+
+        Slice<CertificateResponseDTO> certificates;
+        if (cursor != null) {
+            certificates = certificateService.getFilteredCertificatesAfter(tagName, searchWord,
+                KeysetCursor.decode(cursor, sort), size);
+        } else {
+            Pageable pageable = PageRequest.of(page, size, KeysetCursor.sortBy(sort));
+            certificates = certificateService.getFilteredCertificates(tagName, searchWord, pageable, CountMode.from(count));
+        }
+
+        Link nextPageLink = linkTo(methodOn(CertificatesController.class).getFilteredCertificates(tagName,
+            searchWord, page + 1, size, sort, count, null, assembler)).withRel(IanaLinkRelations.NEXT);
+        PagedModel<EntityModel<CertificateResponseDTO>> model =
+            CURSOR_LINKS.toModel(certificates, assembler, this::toModel, selfLink, nextPageLink);
+
+        return ResponseEntity.ok(CURSOR_LINKS.withCursorNext(model, certificates, sort,
+            next -> linkTo(methodOn(CertificatesController.class).getFilteredCertificates(tagName,
+                searchWord, 0, size, sort, count, next, assembler))));
+    }
+
+    /**
+     * Suggests certificates for a partly typed name, tolerating typos.
+     *
+     * @param prefix The beginning of a certificate name.
+     * @param limit The maximum number of suggestions.
+     * @return A ResponseEntity containing the ids and names of the suggested certificates.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggestCertificates(
+        @RequestParam String prefix,
+        @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(certificateService.suggestCertificates(prefix, limit));
+    }
 
-        return ResponseEntity.ok(assembler.toModel(certificatesPage,
-            cert -> EntityModel.of(cert,
-                linkTo(CertificatesController.class).slash(cert.certificateId()).withSelfRel()), selfLink));
+    /**
+     * Streams every certificate matching the filters as NDJSON or CSV, one certificate per line.
+     * Unlike the paged listing, there is no count query and no links, and the certificates are written
+     * while they are read from the database.
+     *
+     * @param tagName The tags that the certificates should have.
+     * @param searchWord The word to filter certificates by.
+     * @param sort The property by which to sort the certificates.
+     * @param format The output format: ndjson or csv.
+     * @return A ResponseEntity whose body writes the certificates.
+     */
+    @GetMapping(value = "/export", produces = {DataFormat.NDJSON_VALUE, DataFormat.CSV_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportCertificates(
+        @RequestParam(required = false) List<String> tagName,
+        @RequestParam(required = false) String searchWord,
+        @RequestParam(defaultValue = "id") String sort,
+        @RequestParam(defaultValue = "ndjson") String format) {
+
+        DataFormat dataFormat = DataFormat.from(format);
+        Sort order = KeysetCursor.sortBy(sort);
+        StreamingResponseBody body = output -> {
+            CertificateRecordWriter writer = new CertificateRecordWriter(dataFormat, output, objectMapper);
+            certificateService.exportCertificates(tagName, searchWord, order, writer);
+            writer.finish();
+        };
+        return ResponseEntity.ok().contentType(dataFormat.getMediaType()).body(body);
     }
 
     /**
@@ -171,8 +285,12 @@ public class CertificatesController {
             requestDTO.tagIds());
 
         EntityModel<CertificateResponseDTO> resource = EntityModel.of(returnCertificate);
-        resource.add(linkTo(methodOn(CertificatesController.class).getCertificate(id)).withSelfRel());
+        resource.add(linkTo(methodOn(CertificatesController.class).getCertificate(id, null)).withSelfRel());
 
         return ResponseEntity.status(OK).body(resource);
     }
+
+    private EntityModel<CertificateResponseDTO> toModel(CertificateResponseDTO cert) {
+        return EntityModel.of(cert, linkTo(CertificatesController.class).slash(cert.certificateId()).withSelfRel());
+    }
 }
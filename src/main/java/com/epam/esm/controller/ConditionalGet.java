@@ -0,0 +1,37 @@
+package com.epam.esm.controller;
+
+import java.util.Optional;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Answers conditional reads from an entity tag known before the resource is loaded,
+ * so an unchanged resource costs neither a query nor its serialization.
+ * Clients may keep the responses, but must revalidate them before every reuse.
+ */
+final class ConditionalGet {
+
+  static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+  private ConditionalGet() {
+  }
+
+  /**
+   * @return A 304 response if the request's If-None-Match matches etag, otherwise an empty Optional.
+   */
+  static <T> Optional<ResponseEntity<T>> notModified(WebRequest request, String etag) {
+    if (!request.checkNotModified(etag)) {
+      return Optional.empty();
+    }
+    return Optional.of(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build());
+  }
+
+  /**
+   * @return A 200 response builder carrying etag and the revalidation policy.
+   */
+  static ResponseEntity.BodyBuilder ok(String etag) {
+    return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE);
+  }
+}
@@ -0,0 +1,89 @@
+package com.epam.esm.controller;
+
+import com.epam.esm.filter.KeysetCursor;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Links;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+
+/**
+ * Builds the keyset {@code next} links of a paged resource.
+ * A cursor can only be issued when the sort property is part of the returned DTO,
+ * otherwise the offset-based links are left untouched.
+ *
+ * @param <T> The DTO type of the paged resource.
+ */
+final class CursorLinks<T> {
+
+  private final Function<T, Long> idOf;
+  private final Map<String, Function<T, ?>> sortKeys;
+
+  CursorLinks(Function<T, Long> idOf, Map<String, Function<T, ?>> sortKeys) {
+    this.idOf = idOf;
+    this.sortKeys = sortKeys;
+  }
+
+  /**
+   * Wraps a keyset slice, which has no total count, in a PagedModel without page metadata.
+   */
+  PagedModel<EntityModel<T>> toModel(Slice<T> slice, Function<T, EntityModel<T>> toEntityModel, Link selfLink) {
+    List<EntityModel<T>> content = slice.getContent().stream().map(toEntityModel).toList();
+    return PagedModel.of(content, (PagedModel.PageMetadata) null, selfLink);
+  }
+
+  /**
+   * Wraps a Page with its page metadata, or a count-free Slice without it.
+   *
+   * @param nextPageLink The offset-based link to the following page, added to a Slice that has one.
+   */
+  PagedModel<EntityModel<T>> toModel(Slice<T> slice, PagedResourcesAssembler<T> assembler,
+      Function<T, EntityModel<T>> toEntityModel, Link selfLink, Link nextPageLink) {
+    if (slice instanceof Page<T> page) {
+      return assembler.toModel(page, toEntityModel::apply, selfLink);
+    }
+    PagedModel<EntityModel<T>> model = toModel(slice, toEntityModel, selfLink);
+    if (slice.hasNext()) {
+      model.add(nextPageLink);
+    }
+    return model;
+  }
+
+  /**
+   * Points the {@code next} link of the model at a cursor positioned after the last element of the slice.
+   *
+   * @param linkToCursor Builds the link to the same resource for a given cursor token.
+   */
+  <M extends RepresentationModel<?>> M withCursorNext(M model, Slice<T> slice, String sort,
+      Function<String, WebMvcLinkBuilder> linkToCursor) {
+    nextCursor(slice, sort).ifPresent(token -> {
+      Links links = model.getLinks().without(IanaLinkRelations.NEXT);
+      model.removeLinks();
+      model.add(links);
+      model.add(linkToCursor.apply(token).withRel(IanaLinkRelations.NEXT));
+    });
+    return model;
+  }
+
+  private Optional<String> nextCursor(Slice<T> slice, String sort) {
+    Function<T, ?> sortKey = sortKeys.get(sort);
+    if (!slice.hasNext() || !slice.hasContent() || sortKey == null) {
+      return Optional.empty();
+    }
+    T last = slice.getContent().get(slice.getNumberOfElements() - 1);
+    Object value = sortKey.apply(last);
+    if (value == null) {
+      return Optional.empty();
+    }
+    return Optional.of(new KeysetCursor(sort, value.toString(), idOf.apply(last)).encode());
+  }
+}
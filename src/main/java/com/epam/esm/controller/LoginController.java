@@ -1,6 +1,8 @@
 package com.epam.esm.controller;
 
+import com.epam.esm.dto.AccessTokenDTO;
 import com.epam.esm.service.LoginService;
+import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -12,15 +14,22 @@ public class LoginController {
 
   @Autowired
   private LoginService loginService;
+
+  /**
+   * Checks the credentials of a user.
+   *
+   * @return A ResponseEntity containing the access token to send as a Bearer token with the following requests,
+   * or a 401 status if the credentials are not correct.
+   */
   @PostMapping("/api/login")
   public ResponseEntity<?> loginUser(
       @RequestParam("username") String username,
       @RequestParam("password") String password) {
 
-    boolean isAuthenticated = loginService.checkAuthentication(username, password);
+    Optional<AccessTokenDTO> token = loginService.checkAuthentication(username, password);
 
-    if(isAuthenticated) {
-      return ResponseEntity.ok().body("User logged in successfully.");
+    if(token.isPresent()) {
+      return ResponseEntity.ok().body(token.get());
     } else {
       return ResponseEntity.status(401).body("Authentication failed, user or password not correct.");
     }
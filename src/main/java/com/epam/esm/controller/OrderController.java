@@ -3,13 +3,23 @@ package com.epam.esm.controller;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import com.epam.esm.dto.CheckoutRequestDTO;
+import com.epam.esm.dto.CheckoutResponseDTO;
 import com.epam.esm.dto.OrderRequestDTO;
 import com.epam.esm.dto.OrderResponseDTO;
+import com.epam.esm.dto.OrderStatusDTO;
+import com.epam.esm.filter.CountMode;
+import com.epam.esm.filter.KeysetCursor;
+import com.epam.esm.filter.PurchaseTimeSpecification;
 import com.epam.esm.model.Order;
 import com.epam.esm.service.AuditReaderService;
+import com.epam.esm.service.OrderIdempotencyService;
+import com.epam.esm.service.OrderIngestionService;
 import com.epam.esm.service.OrderService;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.query.AuditEntity;
 import org.hibernate.envers.query.AuditQuery;
@@ -17,9 +27,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +41,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -41,31 +56,102 @@ public class OrderController {
   @Autowired
   private AuditReaderService auditReaderService;
 
-  public OrderController(OrderService orderService, AuditReaderService auditReaderService) {
+  @Autowired
+  private OrderIngestionService orderIngestionService;
+
+  @Autowired
+  private OrderIdempotencyService orderIdempotencyService;
+
+  private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+  private static final CursorLinks<OrderResponseDTO> CURSOR_LINKS = new CursorLinks<>(
+      OrderResponseDTO::orderId,
+      Map.of(KeysetCursor.ID, OrderResponseDTO::orderId,
+          "price", OrderResponseDTO::purchaseCost,
+          "purchaseTime", OrderResponseDTO::purchaseDate));
+
+  public OrderController(OrderService orderService, AuditReaderService auditReaderService,
+      OrderIngestionService orderIngestionService, OrderIdempotencyService orderIdempotencyService) {
     this.orderService = orderService;
     this.auditReaderService = auditReaderService;
+    this.orderIngestionService = orderIngestionService;
+    this.orderIdempotencyService = orderIdempotencyService;
   }
 
   /**
    * Processes the purchase of a Gift Certificate by a User.
+   * A request repeated with the same Idempotency-Key gets the Order placed by the first one instead of a new Order.
    *
    * @param orderRequestDto Contains the ids of the User and the Gift Certificate.
+   * @param idempotencyKey An optional key chosen by the client, identifying the purchase across its retries.
    * @return A ResponseEntity containing the OrderResponseDTO.
    */
   @PostMapping
-  public ResponseEntity<EntityModel<OrderResponseDTO>> purchaseGiftCertificate(@RequestBody OrderRequestDTO orderRequestDto) {
-    OrderResponseDTO OrderResponseDTO = orderService.purchaseGiftCertificate(orderRequestDto.userId(), orderRequestDto.certificateId());
+  public ResponseEntity<EntityModel<OrderResponseDTO>> purchaseGiftCertificate(@RequestBody OrderRequestDTO orderRequestDto,
+      @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+    OrderResponseDTO OrderResponseDTO = idempotencyKey == null
+        ? orderService.purchaseGiftCertificate(orderRequestDto.userId(), orderRequestDto.certificateId())
+        : orderIdempotencyService.purchaseGiftCertificate(idempotencyKey, orderRequestDto.userId(),
+            orderRequestDto.certificateId());
     EntityModel<OrderResponseDTO> resource = EntityModel.of(OrderResponseDTO);
     resource.add(linkTo(methodOn(OrderController.class).getOrder(OrderResponseDTO.orderId())).withSelfRel());
     return ResponseEntity.ok(resource);
   }
 
+  /**
+   * Processes the purchase of several Gift Certificates by a User in one transaction, as one Order per certificate bought.
+   *
+   * @param checkoutRequestDto Contains the id of the User and the ids of the Gift Certificates with their quantities.
+   * @return A ResponseEntity containing the CheckoutResponseDTO, linked to each placed Order.
+   */
+  @PostMapping("/checkout")
+  public ResponseEntity<EntityModel<CheckoutResponseDTO>> checkout(@RequestBody CheckoutRequestDTO checkoutRequestDto) {
+    CheckoutResponseDTO checkout = orderService.checkout(checkoutRequestDto);
+    EntityModel<CheckoutResponseDTO> resource = EntityModel.of(checkout);
+    checkout.orders().forEach(order ->
+        resource.add(linkTo(methodOn(OrderController.class).getOrder(order.orderId())).withRel("orders")));
+    return ResponseEntity.ok(resource);
+  }
+
+  /**
+   * Accepts the purchase of a Gift Certificate by a User, to be placed asynchronously with other orders.
+   *
+   * @param orderRequestDto Contains the ids of the User and the Gift Certificate.
+   * @return A 202 ResponseEntity containing the tracking status of the purchase, located at its status lookup.
+   */
+  @PostMapping("/async")
+  public ResponseEntity<EntityModel<OrderStatusDTO>> submitGiftCertificatePurchase(
+      @RequestBody OrderRequestDTO orderRequestDto) {
+    OrderStatusDTO status = orderIngestionService.submit(orderRequestDto.userId(), orderRequestDto.certificateId());
+    EntityModel<OrderStatusDTO> resource = toModel(status);
+    return ResponseEntity.accepted()
+        .location(resource.getRequiredLink(IanaLinkRelations.SELF).toUri())
+        .body(resource);
+  }
+
+  /**
+   * Fetches the status of a purchase accepted for asynchronous placement.
+   *
+   * @param trackingId The tracking id returned when the purchase was accepted.
+   * @return A ResponseEntity containing the status, linked to the Order once it is placed.
+   */
+  @GetMapping("/async/{trackingId}")
+  public ResponseEntity<EntityModel<OrderStatusDTO>> getPurchaseStatus(@PathVariable String trackingId) {
+    return ResponseEntity.ok(toModel(orderIngestionService.getStatus(trackingId)));
+  }
+
   /**
    * Retrieves a pageable and sortable list of all orders.
+   * With a cursor, the page after it is sought directly instead of using the page number.
+   * With a purchase time range, the orders in it are returned by purchase time, and paged only by cursor.
    *
    * @param page The number of the page to retrieve.
    * @param size The number of records in a page.
    * @param sort The property to sort the results by.
+   * @param count How the total is obtained: exact, estimated or none (no count query, no page metadata).
+   * @param cursor The opaque position returned in a previous {@code next} link.
+   * @param from The inclusive lower bound of the purchase time, as an ISO date-time.
+   * @param to The exclusive upper bound of the purchase time, as an ISO date-time.
    * @param assembler Helps convert the Page into a PagedModel.
    * @return A ResponseEntity containing a PagedModel of OrderResponseDTO.
    */
@@ -74,19 +160,49 @@ public class OrderController {
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "10") int size,
       @RequestParam(defaultValue = "id") String sort,
+      @RequestParam(defaultValue = "exact") String count,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to,
       PagedResourcesAssembler<OrderResponseDTO> assembler) {
 
-    Pageable pageable = PageRequest.of(page, size, Sort.by(sort));
-    Page<OrderResponseDTO> ordersPage = orderService.getAllOrders(pageable);
+    if (from != null || to != null) {
+      return getOrdersBetween(size, count, cursor, from, to, assembler);
+    }
 
     Link selfLink = linkTo(methodOn(OrderController.class)
-        .getAllOrders(page, size, sort, assembler)).withSelfRel();
+        .getAllOrders(page, size, sort, count, cursor, null, null, assembler)).withSelfRel();
 
-    return ResponseEntity.ok(assembler.toModel(ordersPage,
-        OrderResponseDTO -> EntityModel.of(OrderResponseDTO,
-            linkTo(methodOn(OrderController.class).getOrder(OrderResponseDTO.orderId())).withSelfRel()), selfLink));
+    Slice<OrderResponseDTO> orders;
+    if (cursor != null) {
+      orders = orderService.getAllOrdersAfter(KeysetCursor.decode(cursor, sort), size);
+    } else {
+      Pageable pageable = PageRequest.of(page, size, KeysetCursor.sortBy(sort));
+      orders = orderService.getAllOrders(pageable, CountMode.from(count));
+    }
+
+    Link nextPageLink = linkTo(methodOn(OrderController.class)
+        .getAllOrders(page + 1, size, sort, count, null, null, null, assembler)).withRel(IanaLinkRelations.NEXT);
+    PagedModel<EntityModel<OrderResponseDTO>> model =
+        CURSOR_LINKS.toModel(orders, assembler, this::toModel, selfLink, nextPageLink);
+
+    return ResponseEntity.ok(CURSOR_LINKS.withCursorNext(model, orders, sort,
+        next -> linkTo(methodOn(OrderController.class).getAllOrders(0, size, sort, count, next, null, null, assembler))));
   }
 
+  private ResponseEntity<PagedModel<EntityModel<OrderResponseDTO>>> getOrdersBetween(int size, String count, String cursor,
+      LocalDateTime from, LocalDateTime to, PagedResourcesAssembler<OrderResponseDTO> assembler) {
+    String sort = PurchaseTimeSpecification.PURCHASE_TIME;
+    KeysetCursor position = cursor == null ? null : KeysetCursor.decode(cursor, sort);
+    Slice<OrderResponseDTO> orders = orderService.getOrdersBetween(from, to, position, size);
+
+    Link selfLink = linkTo(methodOn(OrderController.class)
+        .getAllOrders(0, size, sort, count, cursor, from, to, assembler)).withSelfRel();
+    PagedModel<EntityModel<OrderResponseDTO>> model = CURSOR_LINKS.toModel(orders, this::toModel, selfLink);
+
+    return ResponseEntity.ok(CURSOR_LINKS.withCursorNext(model, orders, sort,
+        next -> linkTo(methodOn(OrderController.class).getAllOrders(0, size, sort, count, next, from, to, assembler))));
+  }
 
   /**
    * Fetches an order by its ID.
@@ -159,4 +275,16 @@ public class OrderController {
     return ResponseEntity.ok(resultList);
   }
 
+  private EntityModel<OrderStatusDTO> toModel(OrderStatusDTO status) {
+    EntityModel<OrderStatusDTO> resource = EntityModel.of(status,
+        linkTo(methodOn(OrderController.class).getPurchaseStatus(status.trackingId())).withSelfRel());
+    if (status.orderId() != null) {
+      resource.add(linkTo(methodOn(OrderController.class).getOrder(status.orderId())).withRel("order"));
+    }
+    return resource;
+  }
+
+  private EntityModel<OrderResponseDTO> toModel(OrderResponseDTO order) {
+    return EntityModel.of(order, linkTo(methodOn(OrderController.class).getOrder(order.orderId())).withSelfRel());
+  }
 }
@@ -7,13 +7,17 @@ import static org.springframework.http.HttpStatus.NO_CONTENT;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.ResponseEntity.status;
 
+import com.epam.esm.cache.ResourceVersions;
 import com.epam.esm.dto.TagRequestDTO;
 import com.epam.esm.dto.TagResponseDTO;
+import com.epam.esm.dto.TagUsageDTO;
 import com.epam.esm.model.Tag;
 import com.epam.esm.service.AuditReaderService;
 import com.epam.esm.service.TagService;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.query.AuditEntity;
 import org.hibernate.envers.query.AuditQuery;
@@ -34,6 +38,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/tag")
@@ -45,9 +50,14 @@ public class TagsController {
     @Autowired
     private AuditReaderService auditReaderService;
 
-    public TagsController(TagService tagService, AuditReaderService auditReaderService) {
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    public TagsController(TagService tagService, AuditReaderService auditReaderService,
+        ResourceVersions resourceVersions) {
         this.tagService = tagService;
         this.auditReaderService = auditReaderService;
+        this.resourceVersions = resourceVersions;
     }
 
     /**
@@ -66,6 +76,31 @@ public class TagsController {
         return status(CREATED).body(resource);
     }
 
+    /**
+     * Creates many Tags at once, reusing the ones that already exist.
+     *
+     * @param names The names of the Tags.
+     * @return A ResponseEntity containing the id of the Tag of every distinct name.
+     */
+    @PostMapping(value = "/bulk", consumes = {"application/json"}, produces = {"application/json"})
+    public ResponseEntity<Map<String, Long>> postTags(@RequestBody List<String> names) {
+        return ResponseEntity.ok(tagService.saveTags(names));
+    }
+
+    /**
+     * Searches the Tags whose name starts with a prefix, ignoring case.
+     *
+     * @param prefix The beginning of the Tag names.
+     * @param limit The maximum number of Tags to return.
+     * @return A ResponseEntity containing the matching Tags in name order.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<TagResponseDTO>> searchTags(
+        @RequestParam(defaultValue = "") String prefix,
+        @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(tagService.searchTags(prefix, limit));
+    }
+
     /**
      * Fetches all Tags according to the given paging and sorting parameters.
      *
@@ -73,6 +108,7 @@ public class TagsController {
      * @param size The size of the pages.
      * @param sort The property by which to sort the results.
      * @param assembler Helps convert the Page into a PagedModel.
+     * @param request The request, answered with 304 Not Modified if it holds the current entity tag of the Tags.
      * @return A ResponseEntity containing a PagedModel with all Tags.
      */
     @GetMapping
@@ -80,7 +116,15 @@ public class TagsController {
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "10") int size,
         @RequestParam(defaultValue = "id") String sort,
-        PagedResourcesAssembler<TagResponseDTO> assembler) {
+        PagedResourcesAssembler<TagResponseDTO> assembler,
+        WebRequest request) {
+
+        String etag = resourceVersions.tagsTag();
+        Optional<ResponseEntity<PagedModel<EntityModel<TagResponseDTO>>>> notModified =
+            ConditionalGet.notModified(request, etag);
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(sort));
 
@@ -90,6 +134,29 @@ public class TagsController {
             tagDTO -> EntityModel.of(tagDTO,
                 linkTo(TagsController.class).slash(tagDTO.id()).withSelfRel()));
 
+        return ConditionalGet.ok(etag).body(pagedModel);
+    }
+
+    /**
+     * Fetches all Tags ordered by the number of certificates that have them, most used first.
+     *
+     * @param page The number of the page to retrieve.
+     * @param size The size of the pages.
+     * @param assembler Helps convert the Page into a PagedModel.
+     * @return A ResponseEntity containing a PagedModel with the Tags and their number of certificates.
+     */
+    @GetMapping(params = "sort=usage")
+    public ResponseEntity<PagedModel<EntityModel<TagUsageDTO>>> getTagsByUsage(
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "10") int size,
+        PagedResourcesAssembler<TagUsageDTO> assembler) {
+
+        Page<TagUsageDTO> tagPage = tagService.getTagsByUsage(PageRequest.of(page, size));
+
+        PagedModel<EntityModel<TagUsageDTO>> pagedModel = assembler.toModel(tagPage,
+            tagDTO -> EntityModel.of(tagDTO,
+                linkTo(TagsController.class).slash(tagDTO.id()).withSelfRel()));
+
         return ResponseEntity.ok(pagedModel);
     }
 
@@ -124,14 +191,34 @@ public class TagsController {
      * Fetches a tag by its ID.
      *
      * @param id The id of the Tag to be retrieved.
+     * @param request The request, answered with 304 Not Modified if it holds the current entity tag of the Tag.
      * @return A ResponseEntity containing the TagResponseDTO.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<EntityModel<TagResponseDTO>> getTag(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<TagResponseDTO>> getTag(@PathVariable Long id, WebRequest request) {
+        String etag = resourceVersions.tagsTag();
+        Optional<ResponseEntity<EntityModel<TagResponseDTO>>> notModified = ConditionalGet.notModified(request, etag);
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
+
         TagResponseDTO tagResponseDTO = tagService.getTag(id);
         EntityModel<TagResponseDTO> resource = EntityModel.of(tagResponseDTO);
-        resource.add(linkTo(methodOn(TagsController.class).getTag(id)).withSelfRel());
-        return ResponseEntity.ok(resource);
+        resource.add(linkTo(TagsController.class).slash(id).withSelfRel());
+        return ConditionalGet.ok(etag).body(resource);
+    }
+
+    /**
+     * Fetches the Tags most often found on the same certificates as a Tag.
+     *
+     * @param id The id of the Tag.
+     * @param limit The maximum number of Tags to return.
+     * @return A ResponseEntity containing the related Tags and the number of certificates they share with it.
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<TagUsageDTO>> getRelatedTags(@PathVariable long id,
+        @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(tagService.getRelatedTags(id, limit));
     }
 
     /**
@@ -4,21 +4,25 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 import com.epam.esm.dto.UserDTO;
+import com.epam.esm.dto.UserSpendSummaryDTO;
+import com.epam.esm.filter.CountMode;
+import com.epam.esm.filter.KeysetCursor;
 import com.epam.esm.model.User;
 import com.epam.esm.service.AuditReaderService;
 import com.epam.esm.service.UserService;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.query.AuditEntity;
 import org.hibernate.envers.query.AuditQuery;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.ResponseEntity;
@@ -38,6 +42,10 @@ public class UserController {
   @Autowired
   private AuditReaderService auditReaderService;
 
+  private static final CursorLinks<UserDTO> CURSOR_LINKS = new CursorLinks<>(
+      UserDTO::id,
+      Map.of(KeysetCursor.ID, UserDTO::id, "name", UserDTO::name));
+
   public UserController(UserService userService, AuditReaderService auditReaderService) {
     this.userService = userService;
     this.auditReaderService = auditReaderService;
@@ -45,10 +53,13 @@ public class UserController {
 
   /**
    * Retrieves a list of all Users, paged according to the provided parameters.
+   * With a cursor, the page after it is sought directly instead of using the page number.
    *
    * @param page The number of the page to retrieve.
    * @param size The number of records in a page.
    * @param sort The property to sort the results by.
+   * @param count How the total is obtained: exact, estimated or none (no count query, no page metadata).
+   * @param cursor The opaque position returned in a previous {@code next} link.
    * @param assembler Assembles the paged results into the required format.
    * @return A ResponseEntity containing the paged list of users in the response body.
    */
@@ -57,15 +68,27 @@ public class UserController {
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "10") int size,
       @RequestParam(defaultValue = "id") String sort,
+      @RequestParam(defaultValue = "exact") String count,
+      @RequestParam(required = false) String cursor,
       PagedResourcesAssembler<UserDTO> assembler) {
 
-    Pageable pageable = PageRequest.of(page, size, Sort.by(sort));
-    Page<UserDTO> userDTOPage = userService.getAllUsers(pageable);
-
     Link selfLink = linkTo(methodOn(UserController.class)
-        .getAllUsers(page, size, sort, assembler)).withSelfRel();
+        .getAllUsers(page, size, sort, count, cursor, assembler)).withSelfRel();
+
+    Slice<UserDTO> users;
+    if (cursor != null) {
+      users = userService.getAllUsersAfter(KeysetCursor.decode(cursor, sort), size);
+    } else {
+      Pageable pageable = PageRequest.of(page, size, KeysetCursor.sortBy(sort));
+      users = userService.getAllUsers(pageable, CountMode.from(count));
+    }
+
+    Link nextPageLink = linkTo(methodOn(UserController.class)
+        .getAllUsers(page + 1, size, sort, count, null, assembler)).withRel(IanaLinkRelations.NEXT);
+    PagedModel<EntityModel<UserDTO>> model = CURSOR_LINKS.toModel(users, assembler, EntityModel::of, selfLink, nextPageLink);
 
-    return ResponseEntity.ok(assembler.toModel(userDTOPage, selfLink));
+    return ResponseEntity.ok(CURSOR_LINKS.withCursorNext(model, users, sort,
+        next -> linkTo(methodOn(UserController.class).getAllUsers(0, size, sort, count, next, assembler))));
   }
 
   /**
@@ -82,6 +105,20 @@ public class UserController {
     return ResponseEntity.ok(resource);
   }
 
+  /**
+   * Retrieves the number and total cost of the orders of a User, over its lifetime and per month.
+   *
+   * @param id The id of the User.
+   * @return A ResponseEntity containing the UserSpendSummaryDTO, linked to the User.
+   */
+  @GetMapping("/{id}/summary")
+  public ResponseEntity<EntityModel<UserSpendSummaryDTO>> getUserSummary(@PathVariable Long id) {
+    EntityModel<UserSpendSummaryDTO> resource = EntityModel.of(userService.getSpendSummary(id));
+    resource.add(linkTo(methodOn(UserController.class).getUserSummary(id)).withSelfRel());
+    resource.add(linkTo(methodOn(UserController.class).getUser(id)).withRel("user"));
+    return ResponseEntity.ok(resource);
+  }
+
   /**
    * Fetches all revisions of a User by id.
    *
@@ -0,0 +1,7 @@
+package com.epam.esm.dto;
+
+/**
+ * A bearer token to send as {@code Authorization: Bearer <accessToken>}, valid for expiresIn seconds.
+ */
+public record AccessTokenDTO(String accessToken, String tokenType, long expiresIn) {
+}
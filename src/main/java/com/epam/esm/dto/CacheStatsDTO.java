@@ -0,0 +1,3 @@
+package com.epam.esm.dto;
+
+public record CacheStatsDTO(long size, long hitCount, long missCount, double hitRate, long evictionCount) {}
@@ -0,0 +1,4 @@
+package com.epam.esm.dto;
+
+public record CertificateRevenueDTO(Long certificateId, String name, long orders, double revenue) {
+}
@@ -0,0 +1,6 @@
+package com.epam.esm.dto;
+
+/**
+ * A line of a checkout: a certificate and the number of times it is bought, 1 if absent.
+ */
+public record CheckoutItemDTO(Long certificateId, Integer quantity) { }
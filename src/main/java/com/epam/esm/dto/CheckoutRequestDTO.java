@@ -0,0 +1,5 @@
+package com.epam.esm.dto;
+
+import java.util.List;
+
+public record CheckoutRequestDTO(Long userId, List<CheckoutItemDTO> items) { }
@@ -0,0 +1,9 @@
+package com.epam.esm.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The orders placed by a checkout, one per certificate bought, with their total cost.
+ */
+public record CheckoutResponseDTO(UserDTO user, List<OrderResponseDTO> orders, Double totalCost, LocalDateTime purchaseDate) { }
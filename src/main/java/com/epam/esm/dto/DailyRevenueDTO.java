@@ -0,0 +1,6 @@
+package com.epam.esm.dto;
+
+import java.time.LocalDate;
+
+public record DailyRevenueDTO(LocalDate day, long orders, double revenue) {
+}
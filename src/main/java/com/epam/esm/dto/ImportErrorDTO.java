@@ -0,0 +1,3 @@
+package com.epam.esm.dto;
+
+public record ImportErrorDTO(long line, String message) {}
@@ -0,0 +1,6 @@
+package com.epam.esm.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.YearMonth;
+
+public record MonthlySpendDTO(@JsonFormat(pattern = "yyyy-MM") YearMonth month, long orderCount, double spend) { }
@@ -0,0 +1,26 @@
+package com.epam.esm.dto;
+
+/**
+ * The progress of an order accepted for asynchronous placement.
+ * The order id is only set once the order is placed, the message only once it has failed.
+ */
+public record OrderStatusDTO(String trackingId, Status status, Long orderId, String message) {
+
+  public enum Status {
+    QUEUED,
+    PLACED,
+    FAILED
+  }
+
+  public static OrderStatusDTO queued(String trackingId) {
+    return new OrderStatusDTO(trackingId, Status.QUEUED, null, null);
+  }
+
+  public static OrderStatusDTO placed(String trackingId, Long orderId) {
+    return new OrderStatusDTO(trackingId, Status.PLACED, orderId, null);
+  }
+
+  public static OrderStatusDTO failed(String trackingId, String message) {
+    return new OrderStatusDTO(trackingId, Status.FAILED, null, message);
+  }
+}
@@ -0,0 +1,3 @@
+package com.epam.esm.dto;
+
+public record SuggestionDTO(Long certificateId, String name) {}
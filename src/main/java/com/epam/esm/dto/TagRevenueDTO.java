@@ -0,0 +1,7 @@
+package com.epam.esm.dto;
+
+/**
+ * A tag with the number and the revenue of the orders of the certificates that have it.
+ */
+public record TagRevenueDTO(Long id, String name, long orders, double revenue) {
+}
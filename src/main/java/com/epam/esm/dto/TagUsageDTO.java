@@ -0,0 +1,7 @@
+package com.epam.esm.dto;
+
+/**
+ * A tag with the number of certificates that have it, or that have it together with another tag.
+ */
+public record TagUsageDTO(Long id, String name, long certificates) {
+}
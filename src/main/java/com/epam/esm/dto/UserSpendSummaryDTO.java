@@ -0,0 +1,13 @@
+package com.epam.esm.dto;
+
+import java.util.List;
+
+/**
+ * The number and total cost of the orders of a user, over their lifetime and per month, oldest month first.
+ */
+public record UserSpendSummaryDTO(Long userId, long orderCount, double totalSpend, List<MonthlySpendDTO> months) {
+
+  public static UserSpendSummaryDTO empty(Long userId) {
+    return new UserSpendSummaryDTO(userId, 0, 0, List.of());
+  }
+}
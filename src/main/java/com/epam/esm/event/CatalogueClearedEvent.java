@@ -0,0 +1,8 @@
+package com.epam.esm.event;
+
+/**
+ * Published when all certificates, tags, users and orders have been wiped,
+ * so that in-memory structures built from them can start over.
+ */
+public record CatalogueClearedEvent() {
+}
@@ -0,0 +1,19 @@
+package com.epam.esm.event;
+
+import com.epam.esm.dto.CertificateResponseDTO;
+
+/**
+ * Published whenever a certificate is created, updated or deleted.
+ * Listeners receive the state before and after the change:
+ * before is null for a new certificate, after is null for a deleted one.
+ */
+public record CertificateChangedEvent(CertificateResponseDTO before, CertificateResponseDTO after) {
+
+  public static CertificateChangedEvent created(CertificateResponseDTO certificate) {
+    return new CertificateChangedEvent(null, certificate);
+  }
+
+  public static CertificateChangedEvent deleted(CertificateResponseDTO certificate) {
+    return new CertificateChangedEvent(certificate, null);
+  }
+}
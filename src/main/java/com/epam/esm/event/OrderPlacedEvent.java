@@ -0,0 +1,9 @@
+package com.epam.esm.event;
+
+import java.util.List;
+
+/**
+ * Published when an order is saved, with the tags its certificate had at that time.
+ */
+public record OrderPlacedEvent(Long orderId, Long userId, Long certificateId, Double price, List<Long> tagIds) {
+}
@@ -0,0 +1,18 @@
+package com.epam.esm.event;
+
+import com.epam.esm.dto.TagResponseDTO;
+
+/**
+ * Published whenever a tag is created or deleted.
+ * before is null for a new tag, after is null for a deleted one.
+ */
+public record TagChangedEvent(TagResponseDTO before, TagResponseDTO after) {
+
+  public static TagChangedEvent created(TagResponseDTO tag) {
+    return new TagChangedEvent(null, tag);
+  }
+
+  public static TagChangedEvent deleted(TagResponseDTO tag) {
+    return new TagChangedEvent(tag, null);
+  }
+}
@@ -33,9 +33,15 @@ public enum ErrorCode {
   ORDER_INTERNAL_SERVER_ERROR("500"+"_04", HttpStatus.INTERNAL_SERVER_ERROR),
   ORDER_BAD_REQUEST("402"+"_04", HttpStatus.BAD_REQUEST),
   ORDER_CONVERSION_ERROR("405"+"_04", HttpStatus.EXPECTATION_FAILED),
+  ORDER_QUEUE_FULL("503"+"_04", HttpStatus.SERVICE_UNAVAILABLE),
+  IDEMPOTENCY_KEY_REUSED("422"+"_04", HttpStatus.UNPROCESSABLE_ENTITY),
+  IDEMPOTENCY_KEY_IN_PROGRESS("409"+"_04", HttpStatus.CONFLICT),
 
   //GENERAL
-  DATABASE_ERROR("400", HttpStatus.SERVICE_UNAVAILABLE);
+  DATABASE_ERROR("400", HttpStatus.SERVICE_UNAVAILABLE),
+  INVALID_CURSOR("402", HttpStatus.BAD_REQUEST),
+  INVALID_COUNT_MODE("402"+"_06", HttpStatus.BAD_REQUEST),
+  UNSUPPORTED_DATA_FORMAT("415", HttpStatus.UNSUPPORTED_MEDIA_TYPE);
   private final String errorCode;
   private final HttpStatus status;
   ErrorCode(String errorCode, HttpStatus status) {
@@ -5,14 +5,45 @@ public class Messages {
     //Certificates
     public static final String CERTIFICATE_ALREADY_EXISTS = "This certificate already exists in id %d";
     public static final String CERTIFICATE_WITH_ID_NOT_FOUND = "Could not find a certificate with id %d";
+    public static final String CERTIFICATE_SORT_NOT_SUPPORTED = "Certificates cannot be sorted by %s";
+    public static final String CERTIFICATE_ALREADY_IMPORTED = "A certificate named %s appears earlier in this import";
+    public static final String NON_EXISTING_TAGS = "Non existing tags %s";
+    public static final String INVALID_SUGGESTION_LIMIT = "The number of suggestions must be between 1 and %d";
 
     //Tags
     public static final String TAG_ALREADY_EXISTS = "This tag already exists in id %d";
     public static final String TAG_ID_NOT_FOUND = "Could not find a tag with id %d";
     public static final String NOT_VALID_TAG_REQUEST = "Tag name cannot be empty";
     public static final String TAG_CANNOT_BE_SAVED = "Tag could not be saved";
+    public static final String INVALID_TAG_SEARCH_LIMIT = "The number of tags searched must be between 1 and %d";
+    public static final String INVALID_RELATED_TAG_LIMIT = "The number of related tags must be between 1 and %d";
 
     //User
     public static final String USER_ID_NOT_FOUND = "Could not find any user with id %d";
 
+    //Order
+    public static final String ORDER_QUEUE_FULL = "Too many orders are waiting to be placed, retry later";
+    public static final String TRACKING_ID_NOT_FOUND = "No order is tracked with id %s";
+    public static final String INVALID_IDEMPOTENCY_KEY = "The Idempotency-Key must be a non-blank value of at most %d characters";
+    public static final String IDEMPOTENCY_KEY_REUSED = "The Idempotency-Key %s was already used for another purchase";
+    public static final String IDEMPOTENCY_KEY_IN_PROGRESS = "The purchase with Idempotency-Key %s is still in progress";
+    public static final String EMPTY_CHECKOUT = "A checkout must contain at least one item";
+    public static final String INVALID_CHECKOUT_ITEM = "Every checkout item needs a certificate id and a quantity of at least 1";
+    public static final String CHECKOUT_TOO_LARGE = "A checkout can buy at most %d certificates";
+    public static final String CHECKOUT_CERTIFICATES_NOT_FOUND = "Certificates with IDs %s not found.";
+    public static final String INVALID_ORDER_RANGE = "The purchase time range from %s to %s is empty";
+
+    //Bulk transfers
+    public static final String UNSUPPORTED_DATA_FORMAT = "Unsupported data format %s, expected NDJSON or CSV";
+    public static final String MALFORMED_CSV_HEADER = "The CSV header is malformed: %s";
+    public static final String MISSING_CSV_COLUMNS = "The CSV header must contain the columns %s";
+
+    //Analytics
+    public static final String INVALID_ANALYTICS_LIMIT = "The limit must be between 1 and %d";
+    public static final String INVALID_DAY_RANGE = "The day range from %s to %s is empty";
+
+    //Paging
+    public static final String INVALID_CURSOR = "The page cursor is not valid for sorting by %s";
+    public static final String INVALID_COUNT_MODE = "Unknown count mode %s, expected exact, none or estimated";
+
 }
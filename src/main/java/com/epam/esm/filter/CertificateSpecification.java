@@ -10,6 +10,7 @@ import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import lombok.NonNull;
 import org.springframework.data.jpa.domain.Specification;
@@ -17,10 +18,35 @@ import org.springframework.data.jpa.domain.Specification;
 public class CertificateSpecification implements Specification<GiftCertificate> {
   private final List<String> tagNames;
   private final String searchWord;
+  private final Collection<Long> candidateIds;
 
   public CertificateSpecification(List<String> tagNames, String searchWord) {
+    this(tagNames, searchWord, null);
+  }
+
+  /**
+   * @param candidateIds When not null, restricts the result to these certificate ids
+   *                     (e.g. candidates already narrowed down by an in-memory index).
+   */
+  public CertificateSpecification(List<String> tagNames, String searchWord, Collection<Long> candidateIds) {
     this.tagNames = tagNames;
     this.searchWord = searchWord;
+    this.candidateIds = candidateIds;
+  }
+
+  public List<String> getTagNames() {
+    return tagNames;
+  }
+
+  public String getSearchWord() {
+    return searchWord;
+  }
+
+  /**
+   * @return The ids the result is restricted to, or null if it is not restricted.
+   */
+  public Collection<Long> getCandidateIds() {
+    return candidateIds;
   }
 
   @Override
@@ -31,6 +57,10 @@ public class CertificateSpecification implements Specification<GiftCertificate>
 
     List<Predicate> predicates = new ArrayList<>();
 
+    if (this.candidateIds != null) {
+      predicates.add(root.get("id").in(this.candidateIds));
+    }
+
     if (this.tagNames != null && !this.tagNames.isEmpty()) {
       List<Predicate> tagPredicates = new ArrayList<>();
       for (String singleTagName : tagNames) {
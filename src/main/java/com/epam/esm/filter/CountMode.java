@@ -0,0 +1,35 @@
+package com.epam.esm.filter;
+
+import static com.epam.esm.exceptions.Messages.INVALID_COUNT_MODE;
+
+import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.exceptions.ErrorCode;
+import java.util.Locale;
+
+/**
+ * How the total of a paged list is obtained.
+ * <ul>
+ *   <li>{@code EXACT}: a {@code count(*)} with the same filter is run next to the page query.</li>
+ *   <li>{@code NONE}: no count at all; one extra row is read to know whether there is a next page.</li>
+ *   <li>{@code ESTIMATED}: no count query on the request path; the total comes from planner statistics,
+ *   the in-memory indexes or a periodically refreshed count, and is only approximate.</li>
+ * </ul>
+ */
+public enum CountMode {
+  EXACT,
+  NONE,
+  ESTIMATED;
+
+  /**
+   * Parses the {@code count} request parameter, ignoring case.
+   *
+   * @throws CustomizedException If the value is not one of the modes.
+   */
+  public static CountMode from(String value) {
+    try {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException | NullPointerException ex) {
+      throw new CustomizedException(INVALID_COUNT_MODE.formatted(value), ErrorCode.INVALID_COUNT_MODE);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.epam.esm.filter;
+
+import static com.epam.esm.exceptions.Messages.INVALID_CURSOR;
+
+import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.exceptions.ErrorCode;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position of the last row a client has seen in a list sorted by {@code sort} and then by id.
+ * The next page is everything strictly after {@code (value, id)}, so it can be read with an index seek
+ * instead of skipping an ever-growing OFFSET.
+ * <p>
+ * Clients only ever see the opaque token produced by {@link #encode()}.
+ */
+public record KeysetCursor(String sort, String value, Long id) {
+
+  private static final String SEPARATOR = "\n";
+  public static final String ID = "id";
+
+  /**
+   * The ordering shared by offset and keyset paging: the requested property, then id as a tie-breaker,
+   * so that both modes walk the rows in exactly the same order.
+   */
+  public static Sort sortBy(String sort) {
+    return ID.equals(sort) ? Sort.by(ID) : Sort.by(sort).and(Sort.by(ID));
+  }
+
+  public Pageable firstPage(int size) {
+    return PageRequest.of(0, size, sortBy(sort));
+  }
+
+  public String encode() {
+    String raw = sort + SEPARATOR + value + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a token produced by {@link #encode()}.
+   *
+   * @param token        The opaque cursor received from the client.
+   * @param expectedSort The sort property of the current request; the cursor must have been issued for it.
+   * @return The decoded cursor.
+   * @throws CustomizedException If the token is malformed or was issued for another sort property.
+   */
+  public static KeysetCursor decode(String token, String expectedSort) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = raw.split(SEPARATOR, -1);
+      if (parts.length == 3 && parts[0].equals(expectedSort)) {
+        return new KeysetCursor(parts[0], parts[1], Long.valueOf(parts[2]));
+      }
+    } catch (IllegalArgumentException ex) {
+      // reported below
+    }
+    throw new CustomizedException(INVALID_CURSOR.formatted(expectedSort), ErrorCode.INVALID_CURSOR);
+  }
+}
@@ -0,0 +1,75 @@
+package com.epam.esm.filter;
+
+import static com.epam.esm.exceptions.Messages.INVALID_CURSOR;
+
+import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.exceptions.ErrorCode;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import lombok.NonNull;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Seek predicate for keyset paging: {@code (sort, id) > (cursor.value, cursor.id)},
+ * written out as {@code sort > value OR (sort = value AND id > lastId)}.
+ */
+public class KeysetSpecification<T> implements Specification<T> {
+  private final KeysetCursor cursor;
+
+  public KeysetSpecification(KeysetCursor cursor) {
+    this.cursor = cursor;
+  }
+
+  @Override
+  public Predicate toPredicate(
+      @NonNull Root<T> root,
+      @NonNull CriteriaQuery<?> query,
+      @NonNull CriteriaBuilder criteriaBuilder) {
+
+    Path<Long> id = root.get(KeysetCursor.ID);
+    if (KeysetCursor.ID.equals(cursor.sort())) {
+      return criteriaBuilder.greaterThan(id, cursor.id());
+    }
+
+    Path<Comparable<Object>> sortKey;
+    try {
+      sortKey = root.get(cursor.sort());
+    } catch (IllegalArgumentException ex) {
+      throw new CustomizedException(INVALID_CURSOR.formatted(cursor.sort()), ErrorCode.INVALID_CURSOR, ex);
+    }
+    Comparable<Object> value = parse(cursor.value(), sortKey.getJavaType());
+
+    return criteriaBuilder.or(
+        criteriaBuilder.greaterThan(sortKey, value),
+        criteriaBuilder.and(
+            criteriaBuilder.equal(sortKey, value),
+            criteriaBuilder.greaterThan(id, cursor.id())));
+  }
+
+  @SuppressWarnings("unchecked")
+  private Comparable<Object> parse(String value, Class<?> type) {
+    try {
+      Object parsed;
+      if (type == Long.class || type == long.class) {
+        parsed = Long.valueOf(value);
+      } else if (type == Integer.class || type == int.class) {
+        parsed = Integer.valueOf(value);
+      } else if (type == Double.class || type == double.class) {
+        parsed = Double.valueOf(value);
+      } else if (type == LocalDateTime.class) {
+        parsed = LocalDateTime.parse(value);
+      } else if (type == String.class) {
+        parsed = value;
+      } else {
+        throw new IllegalArgumentException("Unsupported keyset type " + type);
+      }
+      return (Comparable<Object>) parsed;
+    } catch (RuntimeException ex) {
+      throw new CustomizedException(INVALID_CURSOR.formatted(cursor.sort()), ErrorCode.INVALID_CURSOR, ex);
+    }
+  }
+}
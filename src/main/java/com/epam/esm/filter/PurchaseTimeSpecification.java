@@ -0,0 +1,46 @@
+package com.epam.esm.filter;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.NonNull;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Range predicate {@code from <= purchaseTime < to} on orders; either bound may be left open.
+ * Being a plain comparison on the partition key, it lets the database skip the monthly partitions outside the range.
+ */
+public class PurchaseTimeSpecification<T> implements Specification<T> {
+
+  public static final String PURCHASE_TIME = "purchaseTime";
+
+  private final LocalDateTime from;
+  private final LocalDateTime to;
+
+  public PurchaseTimeSpecification(LocalDateTime from, LocalDateTime to) {
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  public Predicate toPredicate(
+      @NonNull Root<T> root,
+      @NonNull CriteriaQuery<?> query,
+      @NonNull CriteriaBuilder criteriaBuilder) {
+
+    Path<LocalDateTime> purchaseTime = root.get(PURCHASE_TIME);
+    List<Predicate> predicates = new ArrayList<>();
+    if (from != null) {
+      predicates.add(criteriaBuilder.greaterThanOrEqualTo(purchaseTime, from));
+    }
+    if (to != null) {
+      predicates.add(criteriaBuilder.lessThan(purchaseTime, to));
+    }
+    return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+  }
+}
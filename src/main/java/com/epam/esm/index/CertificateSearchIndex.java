@@ -0,0 +1,176 @@
+package com.epam.esm.index;
+
+import com.epam.esm.cache.SearchResultCache;
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.event.CatalogueClearedEvent;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.CertificateText;
+import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory trigram index over certificate names and descriptions.
+ * <p>
+ * A certificate can only contain a search word as a substring if it contains every trigram of that word,
+ * so intersecting the trigram postings gives a small superset of the rows matched by
+ * {@code lower(name) LIKE '%word%' OR lower(description) LIKE '%word%'}.
+ * The database still applies the LIKE filter, but only to those candidate ids.
+ */
+@Slf4j
+@Component
+public class CertificateSearchIndex {
+
+  static final int GRAM_LENGTH = 3;
+
+  private final CertificateRepository certificateRepository;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, RoaringBitmap> postings = new HashMap<>();
+  private volatile boolean ready;
+
+  public CertificateSearchIndex(CertificateRepository certificateRepository) {
+    this.certificateRepository = certificateRepository;
+  }
+
+  /**
+   * Loads every certificate once the application has started.
+   */
+  @Transactional
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    lock.writeLock().lock();
+    try (Stream<CertificateText> rows = certificateRepository.streamAllText()) {
+      postings.clear();
+      rows.forEach(text -> add(text.id(), text.name(), text.description()));
+      ready = true;
+      log.info("Certificate search index built with {} trigrams", postings.size());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the ids of the certificates whose name or description may contain the given word.
+   *
+   * @param searchWord The word to look up.
+   * @return The candidate ids, or an empty Optional if the index cannot answer for this word
+   * (index not built yet, word shorter than a trigram or containing LIKE wildcards).
+   */
+  public Optional<RoaringBitmap> findCandidates(String searchWord) {
+    if (!ready || searchWord == null) {
+      return Optional.empty();
+    }
+    String word = fold(searchWord);
+    if (word.length() < GRAM_LENGTH || word.indexOf('%') >= 0 || word.indexOf('_') >= 0) {
+      return Optional.empty();
+    }
+
+    lock.readLock().lock();
+    try {
+      List<RoaringBitmap> lists = new ArrayList<>();
+      for (String gram : trigrams(word)) {
+        RoaringBitmap ids = postings.get(gram);
+        if (ids == null) {
+          return Optional.of(new RoaringBitmap());
+        }
+        lists.add(ids);
+      }
+      lists.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+
+      RoaringBitmap candidates = lists.get(0).clone();
+      for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+        candidates.and(lists.get(i));
+      }
+      return Optional.of(candidates);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Order(SearchResultCache.INDEX_ORDER)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCertificateChanged(CertificateChangedEvent event) {
+    lock.writeLock().lock();
+    try {
+      CertificateResponseDTO before = event.before();
+      CertificateResponseDTO after = event.after();
+      if (before != null) {
+        remove(before.certificateId(), before.name(), before.description());
+      }
+      if (after != null) {
+        add(after.certificateId(), after.name(), after.description());
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Order(SearchResultCache.INDEX_ORDER)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogueCleared(CatalogueClearedEvent event) {
+    lock.writeLock().lock();
+    try {
+      postings.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void add(Long id, String name, String description) {
+    int docId = Math.toIntExact(id);
+    for (String gram : documentTrigrams(name, description)) {
+      postings.computeIfAbsent(gram, key -> new RoaringBitmap()).add(docId);
+    }
+  }
+
+  private void remove(Long id, String name, String description) {
+    int docId = Math.toIntExact(id);
+    for (String gram : documentTrigrams(name, description)) {
+      RoaringBitmap ids = postings.get(gram);
+      if (ids != null && ids.checkedRemove(docId) && ids.isEmpty()) {
+        postings.remove(gram);
+      }
+    }
+  }
+
+  private static Set<String> documentTrigrams(String name, String description) {
+    Set<String> grams = new HashSet<>();
+    if (name != null) {
+      grams.addAll(trigrams(fold(name)));
+    }
+    if (description != null) {
+      grams.addAll(trigrams(fold(description)));
+    }
+    return grams;
+  }
+
+  static Set<String> trigrams(String text) {
+    Set<String> grams = new HashSet<>();
+    for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+      grams.add(text.substring(i, i + GRAM_LENGTH));
+    }
+    return grams;
+  }
+
+  static String fold(String text) {
+    return text.toLowerCase(Locale.ROOT);
+  }
+}
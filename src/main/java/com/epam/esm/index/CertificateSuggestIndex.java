@@ -0,0 +1,210 @@
+package com.epam.esm.index;
+
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.SuggestionDTO;
+import com.epam.esm.event.CatalogueClearedEvent;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.CertificateText;
+import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory certificate name suggestions.
+ * <p>
+ * Names are kept case-folded in a sorted map, so the names starting with a prefix are a contiguous range
+ * read in alphabetical order. When the prefix matches fewer names than requested, the rest is filled with
+ * fuzzy matches: names sharing at least {@link #MIN_SIMILARITY} of the trigrams of the prefix, most similar
+ * first, which tolerates a typo or two. To bound the time of a lookup, at most {@link #MAX_SCORED_POSTINGS}
+ * posting entries are scored, starting from the rarest trigrams.
+ */
+@Slf4j
+@Component
+public class CertificateSuggestIndex {
+
+  static final double MIN_SIMILARITY = 0.4;
+  static final int MAX_SCORED_POSTINGS = 100_000;
+
+  private static final char KEY_SEPARATOR = '\u0000';
+
+  private final CertificateRepository certificateRepository;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final NavigableMap<String, SuggestionDTO> byName = new TreeMap<>();
+  private final Map<Long, SuggestionDTO> byId = new HashMap<>();
+  private final Map<String, RoaringBitmap> postings = new HashMap<>();
+  private volatile boolean ready;
+
+  public CertificateSuggestIndex(CertificateRepository certificateRepository) {
+    this.certificateRepository = certificateRepository;
+  }
+
+  /**
+   * Loads every certificate name once the application has started.
+   */
+  @Transactional
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    lock.writeLock().lock();
+    try (Stream<CertificateText> rows = certificateRepository.streamAllText()) {
+      clear();
+      rows.forEach(text -> add(text.id(), text.name()));
+      ready = true;
+      log.info("Certificate suggest index built for {} names", byId.size());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns up to limit certificates whose name starts with prefix, ignoring case, followed by fuzzy matches.
+   *
+   * @param prefix The beginning of a certificate name, as typed so far.
+   * @param limit  The maximum number of suggestions.
+   * @return The suggestions, or an empty Optional if the index is not built yet.
+   */
+  public Optional<List<SuggestionDTO>> suggest(String prefix, int limit) {
+    if (!ready || prefix == null) {
+      return Optional.empty();
+    }
+    String folded = CertificateSearchIndex.fold(prefix.stripLeading());
+    if (folded.isEmpty()) {
+      return Optional.of(List.of());
+    }
+
+    lock.readLock().lock();
+    try {
+      Map<Long, SuggestionDTO> suggestions = new LinkedHashMap<>();
+      for (SuggestionDTO suggestion : byName.subMap(folded, true, folded + Character.MAX_VALUE, false).values()) {
+        if (suggestions.size() == limit) {
+          break;
+        }
+        suggestions.put(suggestion.certificateId(), suggestion);
+      }
+      if (suggestions.size() < limit && folded.length() >= CertificateSearchIndex.GRAM_LENGTH) {
+        addFuzzyMatches(folded, limit, suggestions);
+      }
+      return Optional.of(List.copyOf(suggestions.values()));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCertificateChanged(CertificateChangedEvent event) {
+    lock.writeLock().lock();
+    try {
+      CertificateResponseDTO before = event.before();
+      CertificateResponseDTO after = event.after();
+      if (before != null) {
+        remove(before.certificateId());
+      }
+      if (after != null) {
+        add(after.certificateId(), after.name());
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogueCleared(CatalogueClearedEvent event) {
+    lock.writeLock().lock();
+    try {
+      clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void addFuzzyMatches(String folded, int limit, Map<Long, SuggestionDTO> suggestions) {
+    Set<String> grams = CertificateSearchIndex.trigrams(folded);
+    List<RoaringBitmap> lists = grams.stream()
+        .map(postings::get)
+        .filter(Objects::nonNull)
+        .sorted(Comparator.comparingInt(RoaringBitmap::getCardinality))
+        .toList();
+
+    Map<Integer, Integer> shared = new HashMap<>();
+    long scored = 0;
+    for (RoaringBitmap ids : lists) {
+      scored += ids.getCardinality();
+      if (scored > MAX_SCORED_POSTINGS) {
+        break;
+      }
+      ids.forEach((int id) -> shared.merge(id, 1, Integer::sum));
+    }
+
+    int minShared = (int) Math.ceil(MIN_SIMILARITY * grams.size());
+    List<Map.Entry<Integer, Integer>> matches = new ArrayList<>();
+    for (Map.Entry<Integer, Integer> match : shared.entrySet()) {
+      if (match.getValue() >= minShared && !suggestions.containsKey(match.getKey().longValue())) {
+        matches.add(match);
+      }
+    }
+    matches.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+        .thenComparing(match -> byId.get(match.getKey().longValue()).name()));
+    for (int i = 0; i < matches.size() && suggestions.size() < limit; i++) {
+      SuggestionDTO suggestion = byId.get(matches.get(i).getKey().longValue());
+      suggestions.put(suggestion.certificateId(), suggestion);
+    }
+  }
+
+  private void add(Long id, String name) {
+    if (name == null) {
+      return;
+    }
+    SuggestionDTO suggestion = new SuggestionDTO(id, name);
+    String folded = CertificateSearchIndex.fold(name);
+    byId.put(id, suggestion);
+    byName.put(key(folded, id), suggestion);
+    int docId = Math.toIntExact(id);
+    for (String gram : CertificateSearchIndex.trigrams(folded)) {
+      postings.computeIfAbsent(gram, key -> new RoaringBitmap()).add(docId);
+    }
+  }
+
+  private void remove(Long id) {
+    SuggestionDTO suggestion = byId.remove(id);
+    if (suggestion == null) {
+      return;
+    }
+    String folded = CertificateSearchIndex.fold(suggestion.name());
+    byName.remove(key(folded, id));
+    int docId = Math.toIntExact(id);
+    for (String gram : CertificateSearchIndex.trigrams(folded)) {
+      RoaringBitmap ids = postings.get(gram);
+      if (ids != null && ids.checkedRemove(docId) && ids.isEmpty()) {
+        postings.remove(gram);
+      }
+    }
+  }
+
+  private void clear() {
+    byName.clear();
+    byId.clear();
+    postings.clear();
+  }
+
+  private static String key(String foldedName, Long id) {
+    return foldedName + KEY_SEPARATOR + id;
+  }
+}
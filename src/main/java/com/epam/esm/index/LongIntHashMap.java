@@ -0,0 +1,175 @@
+package com.epam.esm.index;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to int counts, without boxing either of them.
+ * <p>
+ * Linear probing with backward-shift deletion, so removals leave no tombstones behind.
+ * A count that drops to zero removes its key. Not thread-safe: callers guard it with their own lock.
+ */
+public final class LongIntHashMap {
+
+  private static final int MIN_CAPACITY = 8;
+
+  private long[] keys;
+  private int[] values;
+  private boolean[] used;
+  private int size;
+
+  public LongIntHashMap() {
+    this(MIN_CAPACITY);
+  }
+
+  public LongIntHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+    keys = new long[capacity];
+    values = new int[capacity];
+    used = new boolean[capacity];
+  }
+
+  /**
+   * @return The count of key, or 0 if it is absent.
+   */
+  public int get(long key) {
+    int slot = find(key);
+    return slot < 0 ? 0 : values[slot];
+  }
+
+  public boolean containsKey(long key) {
+    return find(key) >= 0;
+  }
+
+  /**
+   * Sets the count of key, keeping it even when the count is zero.
+   */
+  public void put(long key, int value) {
+    int slot = slotOf(key);
+    if (!used[slot]) {
+      insert(slot, key, value);
+    } else {
+      values[slot] = value;
+    }
+  }
+
+  /**
+   * Adds delta to the count of key, removing the key once its count reaches zero.
+   *
+   * @return The new count.
+   */
+  public int add(long key, int delta) {
+    int slot = slotOf(key);
+    if (!used[slot]) {
+      if (delta != 0) {
+        insert(slot, key, delta);
+      }
+      return delta;
+    }
+    int value = values[slot] + delta;
+    if (value == 0) {
+      removeSlot(slot);
+    } else {
+      values[slot] = value;
+    }
+    return value;
+  }
+
+  public void remove(long key) {
+    int slot = find(key);
+    if (slot >= 0) {
+      removeSlot(slot);
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    Arrays.fill(used, false);
+    size = 0;
+  }
+
+  public void forEach(Entry consumer) {
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (used[slot]) {
+        consumer.accept(keys[slot], values[slot]);
+      }
+    }
+  }
+
+  /**
+   * Receives the entries of a {@link LongIntHashMap}.
+   */
+  @FunctionalInterface
+  public interface Entry {
+
+    void accept(long key, int value);
+  }
+
+  private int find(long key) {
+    int slot = slotOf(key);
+    return used[slot] ? slot : -1;
+  }
+
+  private int slotOf(long key) {
+    int mask = keys.length - 1;
+    int slot = hash(key) & mask;
+    while (used[slot] && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void insert(int slot, long key, int value) {
+    keys[slot] = key;
+    values[slot] = value;
+    used[slot] = true;
+    if (++size * 2 > keys.length) {
+      resize(keys.length << 1);
+    }
+  }
+
+  private void removeSlot(int slot) {
+    int mask = keys.length - 1;
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    while (used[next]) {
+      int home = hash(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        keys[hole] = keys[next];
+        values[hole] = values[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    used[hole] = false;
+    size--;
+  }
+
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    boolean[] oldUsed = used;
+    keys = new long[capacity];
+    values = new int[capacity];
+    used = new boolean[capacity];
+    for (int slot = 0; slot < oldKeys.length; slot++) {
+      if (oldUsed[slot]) {
+        int target = slotOf(oldKeys[slot]);
+        keys[target] = oldKeys[slot];
+        values[target] = oldValues[slot];
+        used[target] = true;
+      }
+    }
+  }
+
+  private static int hash(long key) {
+    long mixed = key * 0x9E3779B97F4A7C15L;
+    return (int) (mixed ^ (mixed >>> 32));
+  }
+}
@@ -0,0 +1,118 @@
+package com.epam.esm.index;
+
+import com.epam.esm.dto.TagResponseDTO;
+import com.epam.esm.event.CatalogueClearedEvent;
+import com.epam.esm.event.TagChangedEvent;
+import com.epam.esm.model.Tag;
+import com.epam.esm.repository.TagRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory dictionary of every tag, sorted by case-folded name.
+ * <p>
+ * The tags matching a prefix are a contiguous run found by binary search. Lookups read an immutable snapshot
+ * without locking; a tag change builds and publishes a new snapshot, which is cheap for a few thousand tags.
+ */
+@Slf4j
+@Component
+public class TagDictionary {
+
+  private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::foldedName)
+      .thenComparing(entry -> entry.tag().id());
+
+  private final TagRepository tagRepository;
+  private volatile Entry[] entries = new Entry[0];
+  private volatile boolean ready;
+
+  public TagDictionary(TagRepository tagRepository) {
+    this.tagRepository = tagRepository;
+  }
+
+  /**
+   * Loads every tag once the application has started.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void build() {
+    List<Entry> loaded = new ArrayList<>();
+    for (Tag tag : tagRepository.findAll()) {
+      loaded.add(entry(new TagResponseDTO(tag.getId(), tag.getName())));
+    }
+    publish(loaded);
+    ready = true;
+    log.info("Tag dictionary built for {} tags", loaded.size());
+  }
+
+  /**
+   * Returns up to limit tags whose name starts with prefix, ignoring case, in name order.
+   *
+   * @return The matching tags, or an empty Optional if the dictionary is not built yet.
+   */
+  public Optional<List<TagResponseDTO>> findByPrefix(String prefix, int limit) {
+    if (!ready || prefix == null) {
+      return Optional.empty();
+    }
+    String folded = fold(prefix);
+    Entry[] snapshot = entries;
+
+    int low = 0;
+    int high = snapshot.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (snapshot[middle].foldedName().compareTo(folded) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    List<TagResponseDTO> tags = new ArrayList<>(Math.min(limit, snapshot.length - low));
+    for (int i = low; i < snapshot.length && tags.size() < limit && snapshot[i].foldedName().startsWith(folded); i++) {
+      tags.add(snapshot[i].tag());
+    }
+    return Optional.of(tags);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onTagChanged(TagChangedEvent event) {
+    List<Entry> updated = new ArrayList<>(Arrays.asList(entries));
+    if (event.before() != null) {
+      updated.removeIf(entry -> entry.tag().id().equals(event.before().id()));
+    }
+    if (event.after() != null) {
+      updated.removeIf(entry -> entry.tag().id().equals(event.after().id()));
+      updated.add(entry(event.after()));
+    }
+    publish(updated);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onCatalogueCleared(CatalogueClearedEvent event) {
+    entries = new Entry[0];
+  }
+
+  private void publish(List<Entry> updated) {
+    Entry[] sorted = updated.toArray(new Entry[0]);
+    Arrays.sort(sorted, ORDER);
+    entries = sorted;
+  }
+
+  private static Entry entry(TagResponseDTO tag) {
+    return new Entry(fold(tag.name()), tag);
+  }
+
+  private static String fold(String name) {
+    return name == null ? "" : name.toLowerCase(Locale.ROOT);
+  }
+
+  private record Entry(String foldedName, TagResponseDTO tag) {}
+}
@@ -0,0 +1,188 @@
+package com.epam.esm.index;
+
+import com.epam.esm.cache.SearchResultCache;
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.TagResponseDTO;
+import com.epam.esm.event.CatalogueClearedEvent;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.event.TagChangedEvent;
+import com.epam.esm.model.Tag;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.CertificateTagLink;
+import com.epam.esm.repository.TagRepository;
+import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory tag to certificate posting lists, stored as compressed bitmaps.
+ * <p>
+ * A tag filter term matches every tag whose name contains it (the same semantics as
+ * {@code lower(tag_name) LIKE '%term%'}), so each term resolves to the union of the postings of its
+ * matching tags, and a multi-term filter is the intersection of those unions.
+ * Term to tag id resolutions are cached until the set of tags changes.
+ */
+@Slf4j
+@Component
+public class TagPostingIndex {
+
+  private final CertificateRepository certificateRepository;
+  private final TagRepository tagRepository;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Long, String> tagNames = new HashMap<>();
+  private final Map<Long, RoaringBitmap> postings = new HashMap<>();
+  private final Map<String, List<Long>> resolvedTerms = new ConcurrentHashMap<>();
+  private volatile boolean ready;
+
+  public TagPostingIndex(CertificateRepository certificateRepository, TagRepository tagRepository) {
+    this.certificateRepository = certificateRepository;
+    this.tagRepository = tagRepository;
+  }
+
+  /**
+   * Loads every tag and certificate-tag link once the application has started.
+   */
+  @Transactional
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    lock.writeLock().lock();
+    try (Stream<CertificateTagLink> links = certificateRepository.streamAllTagLinks()) {
+      tagNames.clear();
+      postings.clear();
+      resolvedTerms.clear();
+      for (Tag tag : tagRepository.findAll()) {
+        tagNames.put(tag.getId(), fold(tag.getName()));
+      }
+      links.forEach(link -> postingsOf(link.tagId()).add(Math.toIntExact(link.certificateId())));
+      ready = true;
+      log.info("Tag posting index built for {} tags", tagNames.size());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the ids of the certificates that have, for every given term, at least one tag whose name contains it.
+   *
+   * @param terms The tag name filter terms.
+   * @return The matching certificate ids, or an empty Optional if there are no terms
+   * or the index cannot answer (not built yet, or a term contains LIKE wildcards).
+   */
+  public Optional<RoaringBitmap> findCandidates(List<String> terms) {
+    if (!ready || terms == null || terms.isEmpty()) {
+      return Optional.empty();
+    }
+    List<String> foldedTerms = terms.stream().map(term -> fold(term).trim()).toList();
+    if (foldedTerms.stream().anyMatch(term -> term.indexOf('%') >= 0 || term.indexOf('_') >= 0)) {
+      return Optional.empty();
+    }
+
+    lock.readLock().lock();
+    try {
+      List<RoaringBitmap> perTerm = new ArrayList<>();
+      for (String term : foldedTerms) {
+        RoaringBitmap union = new RoaringBitmap();
+        for (Long tagId : resolvedTerms.computeIfAbsent(term, this::resolve)) {
+          union.or(postings.getOrDefault(tagId, new RoaringBitmap()));
+        }
+        if (union.isEmpty()) {
+          return Optional.of(union);
+        }
+        perTerm.add(union);
+      }
+      perTerm.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+
+      RoaringBitmap result = perTerm.get(0);
+      for (int i = 1; i < perTerm.size() && !result.isEmpty(); i++) {
+        result.and(perTerm.get(i));
+      }
+      return Optional.of(result);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Order(SearchResultCache.INDEX_ORDER)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCertificateChanged(CertificateChangedEvent event) {
+    lock.writeLock().lock();
+    try {
+      CertificateResponseDTO before = event.before();
+      CertificateResponseDTO after = event.after();
+      if (before != null && before.tagIds() != null) {
+        int docId = Math.toIntExact(before.certificateId());
+        before.tagIds().forEach(tagId -> postingsOf(tagId).remove(docId));
+      }
+      if (after != null && after.tagIds() != null) {
+        int docId = Math.toIntExact(after.certificateId());
+        after.tagIds().forEach(tagId -> postingsOf(tagId).add(docId));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Order(SearchResultCache.INDEX_ORDER)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTagChanged(TagChangedEvent event) {
+    lock.writeLock().lock();
+    try {
+      TagResponseDTO before = event.before();
+      TagResponseDTO after = event.after();
+      if (before != null) {
+        tagNames.remove(before.id());
+        postings.remove(before.id());
+      }
+      if (after != null) {
+        tagNames.put(after.id(), fold(after.name()));
+      }
+      resolvedTerms.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Order(SearchResultCache.INDEX_ORDER)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogueCleared(CatalogueClearedEvent event) {
+    lock.writeLock().lock();
+    try {
+      tagNames.clear();
+      postings.clear();
+      resolvedTerms.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private List<Long> resolve(String term) {
+    return tagNames.entrySet().stream()
+        .filter(entry -> entry.getValue().contains(term))
+        .map(Map.Entry::getKey)
+        .toList();
+  }
+
+  private RoaringBitmap postingsOf(Long tagId) {
+    return postings.computeIfAbsent(tagId, key -> new RoaringBitmap());
+  }
+
+  private static String fold(String name) {
+    return name == null ? "" : name.toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,350 @@
+package com.epam.esm.index;
+
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.event.CatalogueClearedEvent;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.event.TagChangedEvent;
+import com.epam.esm.model.Tag;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.CertificateTagLink;
+import com.epam.esm.repository.TagRepository;
+import com.epam.esm.repository.TagUsage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory tag usage statistics: the number of certificates of every tag, and a sparse symmetric matrix
+ * of the number of certificates sharing each pair of tags.
+ * <p>
+ * Both are kept in primitive-keyed maps and updated from certificate and tag changes, so usage rankings
+ * and related tags are answered without aggregating gift_certificate_tag. The usage ranking is a sorted
+ * snapshot, rebuilt on the first read after a change.
+ * <p>
+ * Certificate changes are applied as deltas, so none may be counted twice. The build reads one repeatable-read
+ * snapshot, and keeps the changes reported meanwhile aside, as the snapshot may or may not contain them. Each
+ * certificate they touch then has its counts from the snapshot replaced by its state after its first change,
+ * read in the same snapshot, and its later changes are applied as usual.
+ */
+@Slf4j
+@Component
+public class TagStatistics {
+
+  private final CertificateRepository certificateRepository;
+  private final TagRepository tagRepository;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private LongIntHashMap usage = new LongIntHashMap();
+  private Map<Long, LongIntHashMap> cooccurrence = new HashMap<>();
+  private List<Object> changedDuringBuild;
+  private volatile long[] ranking;
+  private volatile boolean ready;
+
+  public TagStatistics(CertificateRepository certificateRepository, TagRepository tagRepository) {
+    this.certificateRepository = certificateRepository;
+    this.tagRepository = tagRepository;
+  }
+
+  /**
+   * Counts every tag and certificate-tag link once the application has started.
+   */
+  @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    lock.writeLock().lock();
+    try {
+      changedDuringBuild = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    try (Stream<CertificateTagLink> links = certificateRepository.streamAllTagLinksByCertificate()) {
+      LongIntHashMap builtUsage = new LongIntHashMap();
+      Map<Long, LongIntHashMap> builtCooccurrence = new HashMap<>();
+      for (Tag tag : tagRepository.findAll()) {
+        builtUsage.put(tag.getId(), 0);
+      }
+
+      List<Long> tagIds = new ArrayList<>();
+      long[] certificateId = {-1};
+      links.forEach(link -> {
+        if (link.certificateId() != certificateId[0]) {
+          count(builtUsage, builtCooccurrence, tagIds, 1);
+          tagIds.clear();
+          certificateId[0] = link.certificateId();
+        }
+        tagIds.add(link.tagId());
+      });
+      count(builtUsage, builtCooccurrence, tagIds, 1);
+
+      lock.writeLock().lock();
+      try {
+        usage = builtUsage;
+        cooccurrence = builtCooccurrence;
+        replay(changedDuringBuild);
+        ranking = null;
+        ready = true;
+        log.info("Tag statistics built for {} tags and {} tag pairs", usage.size(), pairCount());
+      } finally {
+        lock.writeLock().unlock();
+      }
+    } finally {
+      lock.writeLock().lock();
+      try {
+        changedDuringBuild = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  /**
+   * Returns a page of tags ordered by descending certificate count, then by id.
+   *
+   * @return The tags of the page with their certificate count, or an empty Optional if the statistics are not built yet.
+   */
+  public Optional<Page<TagUsage>> findByUsage(Pageable pageable) {
+    if (!ready) {
+      return Optional.empty();
+    }
+    long[] snapshot = ranking;
+    if (snapshot == null) {
+      snapshot = rank();
+    }
+
+    int from = (int) Math.min(pageable.getOffset(), snapshot.length);
+    int to = Math.min(from + pageable.getPageSize(), snapshot.length);
+    List<TagUsage> content = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      content.add(new TagUsage(snapshot[i] & 0xFFFFFFFFL, Integer.MAX_VALUE - (snapshot[i] >>> 32)));
+    }
+    return Optional.of(new PageImpl<>(content, pageable, snapshot.length));
+  }
+
+  /**
+   * Returns the tags most often found on the same certificates as a tag, by descending shared count, then by id.
+   *
+   * @param tagId The id of the tag.
+   * @param limit The maximum number of tags to return.
+   * @return The related tags with the number of certificates they share with tagId,
+   * or an empty Optional if the statistics are not built yet.
+   */
+  public Optional<List<TagUsage>> findRelated(long tagId, int limit) {
+    if (!ready) {
+      return Optional.empty();
+    }
+    PriorityQueue<TagUsage> top = new PriorityQueue<>(limit + 1, (left, right) -> left.count() != right.count()
+        ? Long.compare(left.count(), right.count())
+        : Long.compare(right.tagId(), left.tagId()));
+
+    lock.readLock().lock();
+    try {
+      LongIntHashMap row = cooccurrence.get(tagId);
+      if (row != null) {
+        row.forEach((relatedId, count) -> {
+          top.add(new TagUsage(relatedId, count));
+          if (top.size() > limit) {
+            top.poll();
+          }
+        });
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    List<TagUsage> related = new ArrayList<>(top.size());
+    while (!top.isEmpty()) {
+      related.add(top.poll());
+    }
+    Collections.reverse(related);
+    return Optional.of(related);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCertificateChanged(CertificateChangedEvent event) {
+    lock.writeLock().lock();
+    try {
+      if (changedDuringBuild != null) {
+        changedDuringBuild.add(event);
+      }
+      apply(event);
+      ranking = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * A deleted tag is unlinked from its certificates in bulk, without certificate events,
+   * so its counts and its row and column of the matrix are dropped here.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTagChanged(TagChangedEvent event) {
+    lock.writeLock().lock();
+    try {
+      if (changedDuringBuild != null) {
+        changedDuringBuild.add(event);
+      }
+      apply(event);
+      ranking = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogueCleared(CatalogueClearedEvent event) {
+    lock.writeLock().lock();
+    try {
+      if (changedDuringBuild != null) {
+        changedDuringBuild.add(event);
+      }
+      usage.clear();
+      cooccurrence.clear();
+      ranking = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Applies the changes reported during the build on top of its snapshot. Tag changes are idempotent and applied
+   * again; a clearing of the catalogue drops the snapshot, after which every change is applied as a delta.
+   */
+  private void replay(List<Object> changes) {
+    Set<Long> changedCertificates = new HashSet<>();
+    for (Object change : changes) {
+      if (change instanceof CertificateChangedEvent event) {
+        changedCertificates.add(certificateIdOf(event));
+      }
+    }
+    Map<Long, List<Long>> snapshotTags = new HashMap<>();
+    if (!changedCertificates.isEmpty()) {
+      certificateRepository.findTagLinksByCertificateIds(changedCertificates).forEach(link ->
+          snapshotTags.computeIfAbsent(link.certificateId(), id -> new ArrayList<>()).add(link.tagId()));
+    }
+
+    Set<Long> replaced = new HashSet<>();
+    boolean cleared = false;
+    for (Object change : changes) {
+      if (change instanceof CertificateChangedEvent event) {
+        long certificateId = certificateIdOf(event);
+        if (!cleared && replaced.add(certificateId)) {
+          count(usage, cooccurrence, snapshotTags.getOrDefault(certificateId, List.of()), -1);
+          if (event.after() != null && event.after().tagIds() != null) {
+            count(usage, cooccurrence, event.after().tagIds(), 1);
+          }
+        } else {
+          apply(event);
+        }
+      } else if (change instanceof TagChangedEvent event) {
+        apply(event);
+      } else if (change instanceof CatalogueClearedEvent) {
+        usage.clear();
+        cooccurrence.clear();
+        cleared = true;
+      }
+    }
+  }
+
+  private static long certificateIdOf(CertificateChangedEvent event) {
+    return (event.before() != null ? event.before() : event.after()).certificateId();
+  }
+
+  private void apply(CertificateChangedEvent event) {
+    CertificateResponseDTO before = event.before();
+    CertificateResponseDTO after = event.after();
+    if (before != null && before.tagIds() != null) {
+      count(usage, cooccurrence, before.tagIds(), -1);
+    }
+    if (after != null && after.tagIds() != null) {
+      count(usage, cooccurrence, after.tagIds(), 1);
+    }
+  }
+
+  private void apply(TagChangedEvent event) {
+    if (event.before() != null) {
+      long tagId = event.before().id();
+      usage.remove(tagId);
+      LongIntHashMap row = cooccurrence.remove(tagId);
+      if (row != null) {
+        row.forEach((relatedId, count) -> {
+          LongIntHashMap relatedRow = cooccurrence.get(relatedId);
+          relatedRow.remove(tagId);
+          if (relatedRow.isEmpty()) {
+            cooccurrence.remove(relatedId);
+          }
+        });
+      }
+    }
+    if (event.after() != null && !usage.containsKey(event.after().id())) {
+      usage.put(event.after().id(), 0);
+    }
+  }
+
+  /**
+   * Sorts the tags by usage. Every entry packs the inverted count in its high half and the tag id in its low half,
+   * so a plain ascending sort of the longs orders them by descending count, then by id.
+   */
+  private long[] rank() {
+    lock.readLock().lock();
+    try {
+      long[] sorted = new long[usage.size()];
+      int[] index = {0};
+      usage.forEach((tagId, count) ->
+          sorted[index[0]++] = (long) (Integer.MAX_VALUE - count) << 32 | Math.toIntExact(tagId));
+      Arrays.sort(sorted);
+      ranking = sorted;
+      return sorted;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static void count(LongIntHashMap usage, Map<Long, LongIntHashMap> cooccurrence, Collection<Long> tagIds,
+      int delta) {
+    long[] distinct = tagIds.stream().mapToLong(Long::longValue).distinct().toArray();
+    for (int i = 0; i < distinct.length; i++) {
+      if (delta > 0 || usage.containsKey(distinct[i])) {
+        usage.put(distinct[i], usage.get(distinct[i]) + delta);
+      }
+      for (int j = 0; j < distinct.length; j++) {
+        if (i != j) {
+          addPair(cooccurrence, distinct[i], distinct[j], delta);
+        }
+      }
+    }
+  }
+
+  private static void addPair(Map<Long, LongIntHashMap> cooccurrence, long tagId, long relatedId, int delta) {
+    LongIntHashMap row = cooccurrence.computeIfAbsent(tagId, key -> new LongIntHashMap());
+    row.add(relatedId, delta);
+    if (row.isEmpty()) {
+      cooccurrence.remove(tagId);
+    }
+  }
+
+  private long pairCount() {
+    return cooccurrence.values().stream().mapToLong(LongIntHashMap::size).sum() / 2;
+  }
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -27,7 +28,7 @@ import org.hibernate.envers.Audited;
 @Entity
 @JsonIdentityInfo(generator= ObjectIdGenerators.PropertyGenerator.class, property="id")
 @Audited
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "orders_purchase_time_idx", columnList = "purchase_time, id"))
 public class Order {
 
   @Id
@@ -0,0 +1,47 @@
+package com.epam.esm.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDate;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rollup of the orders of a user purchased in one calendar month, identified by its first day.
+ * Maintained like {@link UserSpendSummary}.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@IdClass(UserMonthlySpend.Key.class)
+@Table(name = "user_monthly_spend")
+public class UserMonthlySpend {
+
+  @Id
+  @Column(name = "user_id")
+  private Long userId;
+
+  @Id
+  @Column(name = "spend_month")
+  private LocalDate spendMonth;
+
+  @Column(name = "order_count", nullable = false)
+  private long orderCount;
+
+  @Column(name = "spend", nullable = false)
+  private double spend;
+
+  @Getter
+  @NoArgsConstructor
+  @EqualsAndHashCode
+  public static class Key implements Serializable {
+
+    private Long userId;
+    private LocalDate spendMonth;
+  }
+}
@@ -0,0 +1,30 @@
+package com.epam.esm.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rollup of the orders of a user: their number and total cost.
+ * Maintained with plain SQL by {@link com.epam.esm.repository.UserSpendJdbcRepository} in the transaction
+ * that inserts the orders; mapped so that the table is part of the schema.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "user_spend_summary")
+public class UserSpendSummary {
+
+  @Id
+  @Column(name = "user_id")
+  private Long userId;
+
+  @Column(name = "order_count", nullable = false)
+  private long orderCount;
+
+  @Column(name = "total_spend", nullable = false)
+  private double totalSpend;
+}
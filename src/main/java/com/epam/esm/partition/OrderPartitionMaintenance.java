@@ -0,0 +1,92 @@
+package com.epam.esm.partition;
+
+import com.epam.esm.repository.OrderPartitionRepository;
+import java.time.YearMonth;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Keeps the {@code orders} table partitioned by month of purchase.
+ * <p>
+ * The first time the application starts on PostgreSQL, the table created from the entity is converted, before the
+ * other startup jobs read the orders. From then on the partitions of the next {@code orders.partitions.months-ahead}
+ * months are kept created, and, when {@code orders.partitions.retention-months} is set, the partitions of the
+ * months older than that are detached. Detached orders leave the listings and the aggregates rebuilt from the
+ * orders, but stay counted in the user spend rollups. On other databases the table is left as it is.
+ */
+@Slf4j
+@Component
+public class OrderPartitionMaintenance {
+
+  private final OrderPartitionRepository orderPartitionRepository;
+  private final TransactionOperations transactionOperations;
+  private final int monthsAhead;
+  private final int retentionMonths;
+  private Boolean supported;
+
+  public OrderPartitionMaintenance(OrderPartitionRepository orderPartitionRepository,
+      TransactionOperations transactionOperations,
+      @Value("${orders.partitions.months-ahead:3}") int monthsAhead,
+      @Value("${orders.partitions.retention-months:0}") int retentionMonths) {
+    this.orderPartitionRepository = orderPartitionRepository;
+    this.transactionOperations = transactionOperations;
+    this.monthsAhead = monthsAhead;
+    this.retentionMonths = retentionMonths;
+  }
+
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    maintain();
+  }
+
+  @Scheduled(initialDelayString = "${orders.partitions.maintenance-interval:PT12H}",
+      fixedDelayString = "${orders.partitions.maintenance-interval:PT12H}")
+  public void maintain() {
+    maintain(YearMonth.now());
+  }
+
+  /**
+   * Partitions the table if needed, creates the partitions up to monthsAhead after the current month and detaches
+   * those older than the retention.
+   *
+   * @param current The month purchases are currently placed in.
+   */
+  public synchronized void maintain(YearMonth current) {
+    if (supported == null) {
+      supported = orderPartitionRepository.isSupported();
+    }
+    if (!supported) {
+      return;
+    }
+
+    YearMonth last = current.plusMonths(monthsAhead);
+    if (!orderPartitionRepository.isPartitioned()) {
+      long start = System.currentTimeMillis();
+      transactionOperations.executeWithoutResult(status -> orderPartitionRepository.partition(current, last));
+      log.info("Orders table partitioned by month in {} ms", System.currentTimeMillis() - start);
+    } else {
+      for (YearMonth month = current; !month.isAfter(last); month = month.plusMonths(1)) {
+        orderPartitionRepository.createPartition(month);
+      }
+    }
+
+    if (retentionMonths > 0) {
+      YearMonth oldest = current.minusMonths(retentionMonths);
+      orderPartitionRepository.findPartitions().stream()
+          .filter(month -> month.isBefore(oldest))
+          .sorted()
+          .forEach(month -> {
+            orderPartitionRepository.detachPartition(month);
+            log.info("Detached the orders partition of {}", month);
+          });
+    }
+  }
+}
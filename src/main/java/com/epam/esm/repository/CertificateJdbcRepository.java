@@ -0,0 +1,357 @@
+package com.epam.esm.repository;
+
+import static com.epam.esm.exceptions.Messages.CERTIFICATE_SORT_NOT_SUPPORTED;
+import static com.epam.esm.exceptions.Messages.INVALID_CURSOR;
+import static org.springframework.util.StringUtils.hasText;
+
+import com.epam.esm.dto.CertificateRequestDTO;
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.SuggestionDTO;
+import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.exceptions.ErrorCode;
+import com.epam.esm.filter.CertificateSpecification;
+import com.epam.esm.filter.KeysetCursor;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Certificate listing that maps SQL rows straight to CertificateResponseDTOs, streaming export, and batched bulk inserts.
+ * <p>
+ * Each page is a single statement: the tag ids of a certificate are aggregated into an array by a
+ * correlated {@code array_agg}, so there is no per-certificate select of the EAGER tag collection,
+ * and no entity is loaded into the persistence context.
+ */
+@Repository
+public class CertificateJdbcRepository {
+
+  private static final String SELECT_CERTIFICATES = """
+      SELECT c.certificate_id, c.certificate_name, c.description, c.price, c.duration,
+             (SELECT array_agg(ct.tag_id ORDER BY ct.tag_id)
+                FROM gift_certificate_tag ct
+               WHERE ct.certificate_id = c.certificate_id) AS tag_ids
+        FROM certificates c""";
+
+  private static final String COUNT_CERTIFICATES = "SELECT count(*) FROM certificates c";
+
+  private static final String TAG_NAME_CONDITION = """
+      EXISTS (SELECT 1
+                FROM gift_certificate_tag ct
+                JOIN tag t ON t.tag_id = ct.tag_id
+               WHERE ct.certificate_id = c.certificate_id
+                 AND lower(t.tag_name) LIKE :%s)""";
+
+  private static final String INSERT_CERTIFICATE = """
+      INSERT INTO certificates (certificate_name, description, price, duration, create_date, last_update_date)
+      VALUES (?, ?, ?, ?, ?, ?)""";
+
+  private static final String INSERT_CERTIFICATE_TAG =
+      "INSERT INTO gift_certificate_tag (certificate_id, tag_id) VALUES (?, ?)";
+
+  private static final String INSERT_CERTIFICATE_AUDIT = """
+      INSERT INTO certificates_AUDIT_LOG (certificate_id, rev, revtype, certificate_name, description, price, duration,
+                                          create_date, last_update_date)
+      VALUES (?, ?, 0, ?, ?, ?, ?, ?, ?)""";
+
+  private static final String INSERT_CERTIFICATE_TAG_AUDIT =
+      "INSERT INTO gift_certificate_tag_AUDIT_LOG (rev, revtype, certificate_id, tag_id) VALUES (?, 0, ?, ?)";
+
+  private static final SortColumn ID_COLUMN = new SortColumn("c.certificate_id", Long::valueOf);
+
+  private static final Map<String, SortColumn> SORT_COLUMNS = Map.of(
+      KeysetCursor.ID, ID_COLUMN,
+      "name", new SortColumn("c.certificate_name", value -> value),
+      "description", new SortColumn("c.description", value -> value),
+      "price", new SortColumn("c.price", Double::valueOf),
+      "duration", new SortColumn("c.duration", Long::valueOf),
+      "createDate", new SortColumn("c.create_date", value -> value),
+      "lastUpdateDate", new SortColumn("c.last_update_date", value -> value));
+
+  private static final RowMapper<CertificateResponseDTO> ROW_MAPPER = (rs, rowNum) -> new CertificateResponseDTO(
+      rs.getLong("certificate_id"),
+      rs.getString("certificate_name"),
+      rs.getString("description"),
+      rs.getObject("price", Double.class),
+      rs.getObject("duration", Long.class),
+      tagIds(rs));
+
+  /**
+   * Rows fetched per round trip when streaming; with the PostgreSQL driver this makes the query a
+   * forward-only cursor instead of a fully buffered result, provided it runs inside a transaction.
+   */
+  static final int STREAM_FETCH_SIZE = 1000;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+  public CertificateJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+    JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+    streaming.setFetchSize(STREAM_FETCH_SIZE);
+    this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+  }
+
+  /**
+   * Reads one certificate with its tag ids in a single statement, without hydrating the entity and its tags.
+   */
+  public Optional<CertificateResponseDTO> findById(long id) {
+    return jdbcTemplate.query(SELECT_CERTIFICATES + " WHERE c.certificate_id = :id", Map.of("id", id), ROW_MAPPER)
+        .stream()
+        .findFirst();
+  }
+
+  /**
+   * Reads the existing certificates among ids with their tag ids, in a single statement.
+   *
+   * @return The certificates by id.
+   */
+  public Map<Long, CertificateResponseDTO> findAllById(Collection<Long> ids) {
+    Map<Long, CertificateResponseDTO> certificates = new HashMap<>();
+    if (!ids.isEmpty()) {
+      jdbcTemplate.query(SELECT_CERTIFICATES + " WHERE c.certificate_id IN (:ids)", Map.of("ids", ids), ROW_MAPPER)
+          .forEach(certificate -> certificates.put(certificate.certificateId(), certificate));
+    }
+    return certificates;
+  }
+
+  /**
+   * Reads a page of the certificates matched by the filter. The count query is skipped when the page
+   * itself shows the total, i.e. on a first or last page that is not full.
+   *
+   * @throws CustomizedException If the page is sorted by a property that is not a certificate column.
+   */
+  public Page<CertificateResponseDTO> findPage(CertificateSpecification filter, Pageable pageable) {
+    List<CertificateResponseDTO> content = findRows(filter, null, pageable, pageable.getPageSize());
+    return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+  }
+
+  /**
+   * Reads the certificates matched by the filter as a Slice, without counting them.
+   *
+   * @param after When not null, only the certificates after this cursor are read, and the offset is ignored.
+   * @throws CustomizedException If the sort property is not a certificate column or the cursor value is invalid.
+   */
+  public Slice<CertificateResponseDTO> findSlice(CertificateSpecification filter, KeysetCursor after,
+      Pageable pageable) {
+    List<CertificateResponseDTO> rows = findRows(filter, after, pageable, pageable.getPageSize() + 1);
+    boolean hasNext = rows.size() > pageable.getPageSize();
+    return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+  }
+
+  /**
+   * Passes every certificate matched by the filter to action, one row at a time, while the rows are read
+   * {@value #STREAM_FETCH_SIZE} at a time from a forward-only cursor. Must be called inside a transaction
+   * for the rows not to be buffered by the driver.
+   *
+   * @throws CustomizedException If the sort property is not a certificate column.
+   */
+  public void streamAll(CertificateSpecification filter, Sort sort, Consumer<CertificateResponseDTO> action) {
+    MapSqlParameterSource params = new MapSqlParameterSource();
+    String sql = SELECT_CERTIFICATES + where(filter, null, params) + orderBy(sort);
+    streamingJdbcTemplate.query(sql, params, (RowCallbackHandler) rs -> action.accept(ROW_MAPPER.mapRow(rs, rs.getRow())));
+  }
+
+  /**
+   * Reads the certificates whose name starts with prefix, ignoring case, in name order.
+   */
+  public List<SuggestionDTO> findSuggestions(String prefix, int limit) {
+    String pattern = prefix.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    return jdbcTemplate.query("""
+            SELECT certificate_id, certificate_name FROM certificates
+             WHERE lower(certificate_name) LIKE :prefix
+             ORDER BY lower(certificate_name), certificate_id
+             LIMIT :limit""",
+        new MapSqlParameterSource("prefix", pattern).addValue("limit", limit),
+        (rs, rowNum) -> new SuggestionDTO(rs.getLong("certificate_id"), rs.getString("certificate_name")));
+  }
+
+  public long count(CertificateSpecification filter) {
+    MapSqlParameterSource params = new MapSqlParameterSource();
+    Long count = jdbcTemplate.queryForObject(COUNT_CERTIFICATES + where(filter, null, params), params, Long.class);
+    return count == null ? 0 : count;
+  }
+
+  /**
+   * @return The ids of the certificates named by any of the given names, by name.
+   */
+  public Map<String, Long> findIdsByName(Collection<String> names) {
+    Map<String, Long> ids = new HashMap<>();
+    if (!names.isEmpty()) {
+      jdbcTemplate.query("SELECT certificate_id, certificate_name FROM certificates WHERE certificate_name IN (:names)",
+          Map.of("names", names), rs -> {
+            ids.put(rs.getString("certificate_name"), rs.getLong("certificate_id"));
+          });
+    }
+    return ids;
+  }
+
+  /**
+   * Inserts certificates and their tag links with two JDBC batches.
+   *
+   * @param certificates The certificates to insert, with the ids of existing tags.
+   * @param timestamp    The creation and last update date of every certificate.
+   * @return The generated certificate ids, in the order of certificates.
+   */
+  public List<Long> insertAll(List<CertificateRequestDTO> certificates, String timestamp) {
+    List<Long> ids = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<List<Long>>) connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(INSERT_CERTIFICATE, new String[] {"certificate_id"})) {
+        for (CertificateRequestDTO certificate : certificates) {
+          statement.setString(1, certificate.name());
+          statement.setString(2, certificate.description());
+          statement.setDouble(3, certificate.price());
+          statement.setLong(4, certificate.duration());
+          statement.setString(5, timestamp);
+          statement.setString(6, timestamp);
+          statement.addBatch();
+        }
+        statement.executeBatch();
+
+        List<Long> generatedIds = new ArrayList<>(certificates.size());
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+          while (keys.next()) {
+            generatedIds.add(keys.getLong(1));
+          }
+        }
+        return generatedIds;
+      }
+    });
+
+    jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_CERTIFICATE_TAG, tagLinks(ids, certificates, null));
+    return ids;
+  }
+
+  /**
+   * Writes the Envers audit rows of certificates inserted by {@link #insertAll}, as additions in one revision.
+   */
+  public void auditInserted(Number revision, List<Long> ids, List<CertificateRequestDTO> certificates,
+      String timestamp) {
+    List<Object[]> rows = new ArrayList<>(certificates.size());
+    for (int i = 0; i < certificates.size(); i++) {
+      CertificateRequestDTO certificate = certificates.get(i);
+      rows.add(new Object[] {ids.get(i), revision, certificate.name(), certificate.description(), certificate.price(),
+          certificate.duration(), timestamp, timestamp});
+    }
+    jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_CERTIFICATE_AUDIT, rows);
+    jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_CERTIFICATE_TAG_AUDIT, tagLinks(ids, certificates, revision));
+  }
+
+  private static List<Object[]> tagLinks(List<Long> ids, List<CertificateRequestDTO> certificates, Number revision) {
+    List<Object[]> links = new ArrayList<>();
+    for (int i = 0; i < certificates.size(); i++) {
+      for (Long tagId : certificates.get(i).tagIds()) {
+        links.add(revision == null ? new Object[] {ids.get(i), tagId} : new Object[] {revision, ids.get(i), tagId});
+      }
+    }
+    return links;
+  }
+
+  private List<CertificateResponseDTO> findRows(CertificateSpecification filter, KeysetCursor after,
+      Pageable pageable, int limit) {
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue("limit", limit)
+        .addValue("offset", after == null ? pageable.getOffset() : 0);
+    String sql = SELECT_CERTIFICATES + where(filter, after, params) + orderBy(pageable.getSort())
+        + " LIMIT :limit OFFSET :offset";
+    return jdbcTemplate.query(sql, params, ROW_MAPPER);
+  }
+
+  private String where(CertificateSpecification filter, KeysetCursor after, MapSqlParameterSource params) {
+    List<String> conditions = new ArrayList<>();
+
+    if (filter.getCandidateIds() != null) {
+      conditions.add(filter.getCandidateIds().isEmpty() ? "1 = 0" : "c.certificate_id IN (:candidateIds)");
+      params.addValue("candidateIds", filter.getCandidateIds());
+    }
+
+    List<String> tagNames = filter.getTagNames();
+    if (tagNames != null) {
+      for (int i = 0; i < tagNames.size(); i++) {
+        String parameter = "tagName" + i;
+        conditions.add(TAG_NAME_CONDITION.formatted(parameter));
+        params.addValue(parameter, "%" + tagNames.get(i).toLowerCase().trim() + "%");
+      }
+    }
+
+    if (hasText(filter.getSearchWord())) {
+      conditions.add("(lower(c.certificate_name) LIKE :searchWord OR lower(c.description) LIKE :searchWord)");
+      params.addValue("searchWord", "%" + filter.getSearchWord().toLowerCase() + "%");
+    }
+
+    if (after != null) {
+      conditions.add(seek(after, params));
+    }
+
+    return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+  }
+
+  private String seek(KeysetCursor after, MapSqlParameterSource params) {
+    params.addValue("afterId", after.id());
+    if (KeysetCursor.ID.equals(after.sort())) {
+      return ID_COLUMN.name() + " > :afterId";
+    }
+    SortColumn column = SORT_COLUMNS.get(after.sort());
+    if (column == null) {
+      throw new CustomizedException(INVALID_CURSOR.formatted(after.sort()), ErrorCode.INVALID_CURSOR);
+    }
+    try {
+      params.addValue("afterValue", column.parse().apply(after.value()));
+    } catch (NumberFormatException ex) {
+      throw new CustomizedException(INVALID_CURSOR.formatted(after.sort()), ErrorCode.INVALID_CURSOR, ex);
+    }
+    return "(%1$s > :afterValue OR (%1$s = :afterValue AND %2$s > :afterId))".formatted(column.name(), ID_COLUMN.name());
+  }
+
+  private static String orderBy(Sort sort) {
+    List<String> orders = new ArrayList<>();
+    boolean byId = false;
+    for (Sort.Order order : sort) {
+      SortColumn column = SORT_COLUMNS.get(order.getProperty());
+      if (column == null) {
+        throw new CustomizedException(CERTIFICATE_SORT_NOT_SUPPORTED.formatted(order.getProperty()),
+            ErrorCode.CERTIFICATE_BAD_REQUEST);
+      }
+      orders.add(column.name() + (order.isAscending() ? " ASC" : " DESC"));
+      byId |= column == ID_COLUMN;
+    }
+    if (!byId) {
+      orders.add(ID_COLUMN.name() + " ASC");
+    }
+    return " ORDER BY " + String.join(", ", orders);
+  }
+
+  private static List<Long> tagIds(ResultSet rs) throws SQLException {
+    List<Long> tagIds = new ArrayList<>();
+    Array array = rs.getArray("tag_ids");
+    if (array != null) {
+      for (Object tagId : (Object[]) array.getArray()) {
+        tagIds.add(((Number) tagId).longValue());
+      }
+      array.free();
+    }
+    return tagIds;
+  }
+
+  private record SortColumn(String name, Function<String, Object> parse) {}
+}
@@ -0,0 +1,9 @@
+package com.epam.esm.repository;
+
+import java.util.List;
+
+/**
+ * The part of a certificate an order needs: its current price and the tags the purchase is counted under.
+ */
+public record CertificatePrice(Long certificateId, Double price, List<Long> tagIds) {
+}
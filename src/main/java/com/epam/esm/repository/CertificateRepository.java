@@ -2,20 +2,39 @@ package com.epam.esm.repository;
 
 import com.epam.esm.model.GiftCertificate;
 import com.epam.esm.model.Tag;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface CertificateRepository extends JpaRepository<GiftCertificate, Long> {
+public interface CertificateRepository extends JpaRepository<GiftCertificate, Long>, JpaSpecificationExecutor<GiftCertificate> {
   @NonNull
   Page<GiftCertificate> findAll(@NonNull Specification<GiftCertificate> spec,@NonNull Pageable pageable);
   Optional<GiftCertificate> findByName(String certificateName);
   List<GiftCertificate> findAllByTagsContaining(Tag tag);
 
+  @Query("select new com.epam.esm.repository.CertificateText(c.id, c.name, c.description) from GiftCertificate c")
+  Stream<CertificateText> streamAllText();
+
+  @Query("select new com.epam.esm.repository.CertificateTagLink(c.id, t.id) from GiftCertificate c join c.tags t")
+  Stream<CertificateTagLink> streamAllTagLinks();
+
+  @Query("select new com.epam.esm.repository.CertificateTagLink(c.id, t.id) from GiftCertificate c join c.tags t"
+      + " order by c.id")
+  Stream<CertificateTagLink> streamAllTagLinksByCertificate();
+
+  @Query("select new com.epam.esm.repository.CertificateTagLink(c.id, t.id) from GiftCertificate c join c.tags t"
+      + " where c.id in :ids")
+  List<CertificateTagLink> findTagLinksByCertificateIds(@Param("ids") Collection<Long> certificateIds);
+
 }
@@ -0,0 +1,7 @@
+package com.epam.esm.repository;
+
+/**
+ * A single row of the gift_certificate_tag join table.
+ */
+public record CertificateTagLink(Long certificateId, Long tagId) {
+}
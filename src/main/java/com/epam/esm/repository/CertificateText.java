@@ -0,0 +1,7 @@
+package com.epam.esm.repository;
+
+/**
+ * Searchable text of a certificate, read without hydrating the entity and its tags.
+ */
+public record CertificateText(Long id, String name, String description) {
+}
@@ -0,0 +1,9 @@
+package com.epam.esm.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order to insert with {@link OrderJdbcRepository#insertAll}.
+ */
+public record NewOrder(Long userId, Long certificateId, Double price, LocalDateTime purchaseTime) {
+}
@@ -0,0 +1,212 @@
+package com.epam.esm.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based order statements: aggregates used to rebuild and check the in-memory ones, batched order inserts, and
+ * the order stream behind the analytics snapshot.
+ */
+@Repository
+public class OrderJdbcRepository {
+
+  private static final String SUM_PRICE_BY_USER = """
+      SELECT o.user_id, SUM(o.price) AS spend
+        FROM orders o
+       WHERE o.id <= :upToOrderId
+       GROUP BY o.user_id""";
+
+  private static final String COUNT_TAGS_BY_USER = """
+      SELECT o.user_id, ct.tag_id, COUNT(*) AS usage
+        FROM orders o
+        JOIN gift_certificate_tag ct ON ct.certificate_id = o.certificate_id
+       WHERE o.id <= :upToOrderId
+       GROUP BY o.user_id, ct.tag_id""";
+
+  private static final String SELECT_PRICES = """
+      SELECT c.certificate_id, c.price, ct.tag_id
+        FROM certificates c
+        LEFT JOIN gift_certificate_tag ct ON ct.certificate_id = c.certificate_id
+       WHERE c.certificate_id IN (:ids)""";
+
+  private static final String INSERT_ORDER =
+      "INSERT INTO orders (user_id, certificate_id, price, purchase_time, create_date) VALUES (?, ?, ?, ?, ?)";
+
+  private static final String INSERT_ORDER_AUDIT = """
+      INSERT INTO orders_AUDIT_LOG (id, rev, revtype, user_id, certificate_id, price, purchase_time, create_date)
+      VALUES (?, ?, 0, ?, ?, ?, ?, ?)""";
+
+  private static final String SELECT_ORDER_FACTS = """
+      SELECT o.id, o.certificate_id, o.price, CAST(o.purchase_time AS DATE) AS purchase_day
+        FROM orders o
+       WHERE o.id > ?
+       ORDER BY o.id""";
+
+  static final int STREAM_FETCH_SIZE = 10_000;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  public OrderJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * @return The highest order id, or 0 if there are no orders.
+   */
+  public long findMaxOrderId() {
+    Long maxId = jdbcTemplate.getJdbcTemplate().queryForObject("SELECT MAX(id) FROM orders", Long.class);
+    return maxId == null ? 0 : maxId;
+  }
+
+  /**
+   * @return The total price of the orders of each user, among the orders up to upToOrderId, by user id.
+   */
+  public Map<Long, Double> sumPriceByUser(long upToOrderId) {
+    Map<Long, Double> spend = new HashMap<>();
+    jdbcTemplate.query(SUM_PRICE_BY_USER, Map.of("upToOrderId", upToOrderId),
+        (RowCallbackHandler) rs -> spend.put(rs.getLong("user_id"), rs.getDouble("spend")));
+    return spend;
+  }
+
+  /**
+   * @return The ids of the certificates bought by the orders up to upToOrderId.
+   */
+  public List<Long> findPurchasedCertificateIds(long upToOrderId) {
+    return jdbcTemplate.queryForList("SELECT DISTINCT certificate_id FROM orders WHERE id <= :upToOrderId",
+        Map.of("upToOrderId", upToOrderId), Long.class);
+  }
+
+  /**
+   * Passes, for each user and tag, the number of orders up to upToOrderId whose certificate has that tag.
+   */
+  public void countTagsByUser(long upToOrderId, Consumer<UserTagUsage> action) {
+    jdbcTemplate.query(COUNT_TAGS_BY_USER, Map.of("upToOrderId", upToOrderId), (RowCallbackHandler) rs ->
+        action.accept(new UserTagUsage(rs.getLong("user_id"), rs.getLong("tag_id"), rs.getLong("usage"))));
+  }
+
+  /**
+   * @return The ids among orderIds that belong to an existing order.
+   */
+  public Set<Long> findExistingOrderIds(Collection<Long> orderIds) {
+    if (orderIds.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM orders WHERE id IN (:ids)",
+        Map.of("ids", orderIds), Long.class));
+  }
+
+  /**
+   * @return The ids among userIds that belong to an existing user.
+   */
+  public Set<Long> findExistingUserIds(Collection<Long> userIds) {
+    if (userIds.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM users WHERE id IN (:ids)",
+        Map.of("ids", userIds), Long.class));
+  }
+
+  /**
+   * @return The price and tag ids of the existing certificates among certificateIds, by certificate id.
+   */
+  public Map<Long, CertificatePrice> findPrices(Collection<Long> certificateIds) {
+    Map<Long, CertificatePrice> prices = new HashMap<>();
+    if (!certificateIds.isEmpty()) {
+      jdbcTemplate.query(SELECT_PRICES, Map.of("ids", certificateIds), (RowCallbackHandler) rs -> {
+        double price = rs.getDouble("price");
+        List<Long> tagIds = prices.computeIfAbsent(rs.getLong("certificate_id"),
+            id -> new CertificatePrice(id, price, new ArrayList<>())).tagIds();
+        long tagId = rs.getLong("tag_id");
+        if (!rs.wasNull()) {
+          tagIds.add(tagId);
+        }
+      });
+    }
+    return prices;
+  }
+
+  /**
+   * Inserts orders with one JDBC batch.
+   *
+   * @param orders     The orders to insert.
+   * @param createDate The creation timestamp of every order.
+   * @return The generated ids, in the order of orders.
+   */
+  public List<Long> insertAll(List<NewOrder> orders, String createDate) {
+    return jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<List<Long>>) connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(INSERT_ORDER, new String[] {"id"})) {
+        for (NewOrder order : orders) {
+          statement.setLong(1, order.userId());
+          statement.setLong(2, order.certificateId());
+          statement.setDouble(3, order.price());
+          statement.setObject(4, order.purchaseTime());
+          statement.setString(5, createDate);
+          statement.addBatch();
+        }
+        statement.executeBatch();
+
+        List<Long> ids = new ArrayList<>(orders.size());
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+          while (keys.next()) {
+            ids.add(keys.getLong(1));
+          }
+        }
+        return ids;
+      }
+    });
+  }
+
+  /**
+   * Writes the Envers audit rows of orders inserted by {@link #insertAll}, as additions in one revision.
+   */
+  public void auditInserted(Number revision, List<Long> ids, List<NewOrder> orders, String createDate) {
+    List<Object[]> rows = new ArrayList<>(orders.size());
+    for (int i = 0; i < orders.size(); i++) {
+      NewOrder order = orders.get(i);
+      rows.add(new Object[] {ids.get(i), revision, order.userId(), order.certificateId(), order.price(),
+          order.purchaseTime(), createDate});
+    }
+    jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_ORDER_AUDIT, rows);
+  }
+
+  /**
+   * Passes the orders after afterOrderId to sink, in id order, fetching {@value #STREAM_FETCH_SIZE} rows at a time
+   * instead of reading the whole result first. PostgreSQL only fetches in batches inside a transaction.
+   */
+  public void streamOrdersAfter(long afterOrderId, OrderFactSink sink) {
+    jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Void>) connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(SELECT_ORDER_FACTS)) {
+        statement.setFetchSize(STREAM_FETCH_SIZE);
+        statement.setLong(1, afterOrderId);
+        try (ResultSet rs = statement.executeQuery()) {
+          while (rs.next()) {
+            sink.accept(rs.getLong(1), rs.getLong(2), rs.getDouble(3), rs.getObject(4, LocalDate.class));
+          }
+        }
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Receives the columns of the orders streamed by {@link #streamOrdersAfter}, without an object per order.
+   */
+  @FunctionalInterface
+  public interface OrderFactSink {
+
+    void accept(long orderId, long certificateId, double price, LocalDate purchaseDay);
+  }
+}
@@ -0,0 +1,140 @@
+package com.epam.esm.repository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Monthly range partitions of the {@code orders} table by {@code purchase_time}, on PostgreSQL.
+ * <p>
+ * Each month is a partition named {@code orders_pYYYY_MM}, so a query bounded on the purchase time only reads the
+ * months it overlaps, and an old month leaves the table with a metadata-only {@code DETACH PARTITION} instead of a
+ * {@code DELETE}. The primary key becomes {@code (id, purchase_time)}, as a partitioned table's unique constraints
+ * must contain the partition key; ids still come from the identity sequence, so they stay unique on their own.
+ * There is no default partition: months are created ahead of the purchases, and a default partition would have to
+ * be scanned every time one is.
+ */
+@Repository
+public class OrderPartitionRepository {
+
+  private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+  private static final Pattern PARTITION_NAME = Pattern.compile("orders_p(\\d{4})_(\\d{2})");
+
+  private static final String IS_PARTITIONED =
+      "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('orders'))";
+
+  private static final String CREATE_PARTITIONED_ORDERS = """
+      CREATE TABLE orders (
+          id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+          user_id        BIGINT NOT NULL REFERENCES users (id),
+          certificate_id BIGINT NOT NULL REFERENCES certificates (certificate_id),
+          price          DOUBLE PRECISION NOT NULL,
+          purchase_time  TIMESTAMP(6) NOT NULL,
+          create_date    VARCHAR(255)
+      ) PARTITION BY RANGE (purchase_time)""";
+
+  private static final String COPY_ORDERS = """
+      INSERT INTO orders (id, user_id, certificate_id, price, purchase_time, create_date)
+      SELECT id, user_id, certificate_id, price, purchase_time, create_date
+        FROM orders_unpartitioned""";
+
+  private static final String RESTART_IDS =
+      "SELECT setval(pg_get_serial_sequence('orders', 'id'), COALESCE(MAX(id), 0) + 1, false) FROM orders";
+
+  private static final String SELECT_PARTITIONS = """
+      SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+       WHERE i.inhparent = to_regclass('orders')""";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public OrderPartitionRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * @return Whether the database supports declarative partitioning, i.e. is PostgreSQL.
+   */
+  public boolean isSupported() {
+    return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+        "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+  }
+
+  public boolean isPartitioned() {
+    return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED, Boolean.class));
+  }
+
+  /**
+   * Replaces the plain {@code orders} table created from the entity by a partitioned one holding the same rows,
+   * with a partition for every month from the earliest order, or {@code from}, to the latest order, or
+   * {@code through}. Purchases wait for the table lock until the transaction commits. Must run in a transaction.
+   */
+  public void partition(YearMonth from, YearMonth through) {
+    jdbcTemplate.execute("LOCK TABLE orders IN ACCESS EXCLUSIVE MODE");
+    jdbcTemplate.execute("ALTER TABLE orders RENAME TO orders_unpartitioned");
+    jdbcTemplate.execute(CREATE_PARTITIONED_ORDERS);
+
+    YearMonth first = min(from, monthOf("SELECT MIN(purchase_time) FROM orders_unpartitioned"));
+    YearMonth last = max(through, monthOf("SELECT MAX(purchase_time) FROM orders_unpartitioned"));
+    for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+      createPartition(month);
+    }
+
+    jdbcTemplate.update(COPY_ORDERS);
+    jdbcTemplate.execute("DROP TABLE orders_unpartitioned");
+    jdbcTemplate.execute("ALTER TABLE orders ADD PRIMARY KEY (id, purchase_time)");
+    jdbcTemplate.execute("CREATE INDEX orders_purchase_time_idx ON orders (purchase_time, id)");
+    jdbcTemplate.queryForObject(RESTART_IDS, Long.class);
+  }
+
+  /**
+   * Creates the partition of a month, unless it already exists.
+   */
+  public void createPartition(YearMonth month) {
+    jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS %s PARTITION OF orders FOR VALUES FROM ('%s') TO ('%s')"
+        .formatted(partitionName(month), month.atDay(1), month.plusMonths(1).atDay(1)));
+  }
+
+  /**
+   * Detaches the partition of a month from {@code orders}. Its rows are kept in the standalone table
+   * {@code orders_pYYYY_MM}, to be archived or dropped.
+   */
+  public void detachPartition(YearMonth month) {
+    jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION " + partitionName(month));
+  }
+
+  /**
+   * @return The months that have a partition attached to {@code orders}, in no particular order.
+   */
+  public List<YearMonth> findPartitions() {
+    return jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class).stream()
+        .map(PARTITION_NAME::matcher)
+        .filter(Matcher::matches)
+        .map(name -> YearMonth.of(Integer.parseInt(name.group(1)), Integer.parseInt(name.group(2))))
+        .toList();
+  }
+
+  private static String partitionName(YearMonth month) {
+    return "orders_p" + PARTITION_SUFFIX.format(month);
+  }
+
+  private YearMonth monthOf(String query) {
+    LocalDateTime time = jdbcTemplate.queryForObject(query, LocalDateTime.class);
+    return time == null ? null : YearMonth.from(time);
+  }
+
+  private static YearMonth min(YearMonth month, YearMonth other) {
+    return other == null || month.isBefore(other) ? month : other;
+  }
+
+  private static YearMonth max(YearMonth month, YearMonth other) {
+    return other == null || month.isAfter(other) ? month : other;
+  }
+}
@@ -0,0 +1,74 @@
+package com.epam.esm.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Table;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Approximate row counts that do not scan the table on every request.
+ * <p>
+ * Unfiltered lists use the planner statistics of the table ({@code pg_class.reltuples}, kept up to date by
+ * autovacuum/ANALYZE). Filtered lists, and tables that were never analyzed, use an exact count that is
+ * cached for {@link #COUNT_TTL}.
+ */
+@Repository
+public class RowCountEstimator {
+
+  static final Duration COUNT_TTL = Duration.ofMinutes(1);
+  static final int MAX_CACHED_COUNTS = 1000;
+
+  private final EntityManager entityManager;
+  private final Map<Object, CachedCount> cachedCounts = new ConcurrentHashMap<>();
+
+  public RowCountEstimator(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  /**
+   * Estimates the number of rows of the table an entity is mapped to.
+   *
+   * @param entityClass The entity, annotated with {@link Table}.
+   * @param exactCount  Counts the rows exactly, used when the table has no statistics yet.
+   * @return The estimated number of rows.
+   */
+  public long estimateRows(Class<?> entityClass, LongSupplier exactCount) {
+    String table = entityClass.getAnnotation(Table.class).name();
+    List<?> rows = entityManager
+        .createNativeQuery("SELECT reltuples FROM pg_class WHERE oid = to_regclass(?1)")
+        .setParameter(1, table)
+        .getResultList();
+    if (!rows.isEmpty() && rows.get(0) instanceof Number reltuples && reltuples.doubleValue() >= 0) {
+      return Math.round(reltuples.doubleValue());
+    }
+    return cachedCount(table, exactCount);
+  }
+
+  /**
+   * Returns the count last computed for the key, recomputing it once it is older than {@link #COUNT_TTL}.
+   *
+   * @param key        Identifies what is counted, e.g. the filter values.
+   * @param exactCount Counts the rows exactly.
+   * @return The cached count.
+   */
+  public long cachedCount(Object key, LongSupplier exactCount) {
+    Instant now = Instant.now();
+    CachedCount cached = cachedCounts.get(key);
+    if (cached != null && cached.takenAt().plus(COUNT_TTL).isAfter(now)) {
+      return cached.count();
+    }
+    if (cachedCounts.size() >= MAX_CACHED_COUNTS) {
+      cachedCounts.clear();
+    }
+    long count = exactCount.getAsLong();
+    cachedCounts.put(key, new CachedCount(count, now));
+    return count;
+  }
+
+  private record CachedCount(long count, Instant takenAt) {}
+}
@@ -0,0 +1,72 @@
+package com.epam.esm.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import java.util.function.LongSupplier;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Runs a Specification as a Slice: one extra row is fetched to know whether there is a next page,
+ * and no count query is issued.
+ */
+@Repository
+public class SliceQueryRepository {
+
+  private final EntityManager entityManager;
+
+  public SliceQueryRepository(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  public <T> Slice<T> findSlice(Class<T> domainClass, Specification<T> spec, Pageable pageable) {
+    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<T> query = criteriaBuilder.createQuery(domainClass);
+    Root<T> root = query.from(domainClass);
+
+    Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    query.select(root).orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+    TypedQuery<T> typedQuery = entityManager.createQuery(query);
+    typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset()));
+    typedQuery.setMaxResults(pageable.getPageSize() + 1);
+    List<T> rows = typedQuery.getResultList();
+
+    boolean hasNext = rows.size() > pageable.getPageSize();
+    List<T> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+    return new SliceImpl<>(content, pageable, hasNext);
+  }
+
+  /**
+   * Runs a Specification as a Page whose total is given by the caller instead of a count query.
+   *
+   * @param estimatedTotal Supplies the approximate number of matching rows.
+   */
+  public <T> Page<T> findEstimatedPage(Class<T> domainClass, Specification<T> spec, Pageable pageable,
+      LongSupplier estimatedTotal) {
+    return toEstimatedPage(findSlice(domainClass, spec, pageable), estimatedTotal);
+  }
+
+  /**
+   * Turns a Slice into a Page with an estimated total, raised to at least what the slice proves to exist.
+   */
+  public static <T> Page<T> toEstimatedPage(Slice<T> slice, LongSupplier estimatedTotal) {
+    Pageable pageable = slice.getPageable();
+    long seen = pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+    return new PageImpl<>(slice.getContent(), pageable, Math.max(estimatedTotal.getAsLong(), seen));
+  }
+}
@@ -0,0 +1,178 @@
+package com.epam.esm.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based tag statements that act on many tags or certificate links in a single statement.
+ */
+@Repository
+public class TagJdbcRepository {
+
+  /**
+   * Names per multi-row insert or lookup, well below the limit of bind parameters per statement.
+   */
+  public static final int INSERT_CHUNK_SIZE = 1000;
+
+  private static final String INSERT_TAG_AUDIT =
+      "INSERT INTO tag_AUDIT_LOG (tag_id, rev, revtype, tag_name) VALUES (?, ?, 0, ?)";
+
+  private static final String SELECT_DUPLICATE_NAMES = """
+      SELECT tag_name
+        FROM tag
+       GROUP BY tag_name
+      HAVING COUNT(*) > 1
+       ORDER BY tag_name
+       LIMIT :limit""";
+
+  private static final String SELECT_USAGE = """
+      SELECT t.tag_id, COUNT(ct.certificate_id) AS certificates
+        FROM tag t
+        LEFT JOIN gift_certificate_tag ct ON ct.tag_id = t.tag_id
+       GROUP BY t.tag_id
+       ORDER BY certificates DESC, t.tag_id
+       LIMIT :limit OFFSET :offset""";
+
+  private static final String SELECT_RELATED = """
+      SELECT other.tag_id, COUNT(*) AS certificates
+        FROM gift_certificate_tag ct
+        JOIN gift_certificate_tag other ON other.certificate_id = ct.certificate_id AND other.tag_id <> ct.tag_id
+       WHERE ct.tag_id = :tagId
+       GROUP BY other.tag_id
+       ORDER BY certificates DESC, other.tag_id
+       LIMIT :limit""";
+
+  private static final String AUDIT_UNLINKED_CERTIFICATES = """
+      INSERT INTO certificates_AUDIT_LOG (certificate_id, rev, revtype, certificate_name, description, price, duration,
+                                          create_date, last_update_date)
+      SELECT c.certificate_id, :rev, 1, c.certificate_name, c.description, c.price, c.duration,
+             c.create_date, c.last_update_date
+        FROM certificates c
+       WHERE c.certificate_id IN (SELECT ct.certificate_id FROM gift_certificate_tag ct WHERE ct.tag_id = :tagId)""";
+
+  private static final String AUDIT_DELETED_LINKS = """
+      INSERT INTO gift_certificate_tag_AUDIT_LOG (rev, revtype, certificate_id, tag_id)
+      SELECT :rev, 2, ct.certificate_id, ct.tag_id
+        FROM gift_certificate_tag ct
+       WHERE ct.tag_id = :tagId""";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  public TagJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * @return The ids among tagIds that belong to an existing tag.
+   */
+  public Set<Long> findExistingIds(Collection<Long> tagIds) {
+    if (tagIds.isEmpty()) {
+      return new HashSet<>();
+    }
+    return new HashSet<>(jdbcTemplate.queryForList("SELECT tag_id FROM tag WHERE tag_id IN (:tagIds)",
+        Map.of("tagIds", tagIds), Long.class));
+  }
+
+  /**
+   * Unlinks a tag from every certificate with one DELETE, after writing the Envers audit rows the per-certificate
+   * saves would have written: a modification of each linked certificate and a deletion of each link.
+   *
+   * @param tagId    The tag to unlink.
+   * @param revision The Envers revision of the current transaction.
+   * @return The number of certificates the tag was unlinked from.
+   */
+  public int deleteCertificateLinks(long tagId, Number revision) {
+    Map<String, Object> params = Map.of("tagId", tagId, "rev", revision);
+    jdbcTemplate.update(AUDIT_UNLINKED_CERTIFICATES, params);
+    jdbcTemplate.update(AUDIT_DELETED_LINKS, params);
+    return jdbcTemplate.update("DELETE FROM gift_certificate_tag WHERE tag_id = :tagId", params);
+  }
+
+  /**
+   * Looks the names up {@value #INSERT_CHUNK_SIZE} at a time, so that any number of names fits the bind parameters.
+   *
+   * @return The ids of the tags named by any of the given names, by name.
+   */
+  public Map<String, Long> findIdsByName(Collection<String> names) {
+    Map<String, Long> ids = new HashMap<>();
+    List<String> nameList = List.copyOf(names);
+    for (int from = 0; from < nameList.size(); from += INSERT_CHUNK_SIZE) {
+      List<String> chunk = nameList.subList(from, Math.min(from + INSERT_CHUNK_SIZE, nameList.size()));
+      jdbcTemplate.query("SELECT tag_id, tag_name FROM tag WHERE tag_name IN (:names)", Map.of("names", chunk),
+          (RowCallbackHandler) rs -> ids.put(rs.getString("tag_name"), rs.getLong("tag_id")));
+    }
+    return ids;
+  }
+
+  /**
+   * @return Up to limit names shared by more than one tag, in name order.
+   */
+  public List<String> findDuplicateNames(int limit) {
+    return jdbcTemplate.queryForList(SELECT_DUPLICATE_NAMES, Map.of("limit", limit), String.class);
+  }
+
+  /**
+   * Inserts tags with multi-row inserts that skip the names already taken, including by concurrent transactions,
+   * and writes the Envers audit rows of the rows actually inserted. Relies on the uk_tag_name constraint, which
+   * {@code TagService} checks can exist when the application starts.
+   *
+   * @param names    The names of the tags to insert.
+   * @param revision The Envers revision of the current transaction.
+   * @return The ids of the tags inserted by this call, by name. Names skipped because of a conflict are absent.
+   */
+  public Map<String, Long> insertMissing(List<String> names, Number revision) {
+    Map<String, Long> inserted = new HashMap<>();
+    for (int from = 0; from < names.size(); from += INSERT_CHUNK_SIZE) {
+      List<String> chunk = names.subList(from, Math.min(from + INSERT_CHUNK_SIZE, names.size()));
+      String sql = "INSERT INTO tag (tag_name) VALUES " + String.join(", ", Collections.nCopies(chunk.size(), "(?)"))
+          + " ON CONFLICT DO NOTHING";
+      jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Void>) connection -> {
+        try (PreparedStatement statement = connection.prepareStatement(sql, new String[] {"tag_id", "tag_name"})) {
+          for (int i = 0; i < chunk.size(); i++) {
+            statement.setString(i + 1, chunk.get(i));
+          }
+          statement.executeUpdate();
+          try (ResultSet keys = statement.getGeneratedKeys()) {
+            while (keys.next()) {
+              inserted.put(keys.getString("tag_name"), keys.getLong("tag_id"));
+            }
+          }
+        }
+        return null;
+      });
+    }
+
+    List<Object[]> auditRows = inserted.entrySet().stream()
+        .map(entry -> new Object[] {entry.getValue(), revision, entry.getKey()})
+        .toList();
+    jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_TAG_AUDIT, auditRows);
+    return inserted;
+  }
+
+  /**
+   * @return A page of tags ordered by descending number of certificates, then by id, with that number.
+   */
+  public List<TagUsage> findUsage(long offset, int limit) {
+    return jdbcTemplate.query(SELECT_USAGE, Map.of("offset", offset, "limit", limit),
+        (rs, rowNum) -> new TagUsage(rs.getLong("tag_id"), rs.getLong("certificates")));
+  }
+
+  /**
+   * @return The tags sharing the most certificates with a tag, by descending shared count, then by id, with that count.
+   */
+  public List<TagUsage> findRelated(long tagId, int limit) {
+    return jdbcTemplate.query(SELECT_RELATED, Map.of("tagId", tagId, "limit", limit),
+        (rs, rowNum) -> new TagUsage(rs.getLong("tag_id"), rs.getLong("certificates")));
+  }
+}
@@ -14,31 +14,28 @@ public interface TagRepository extends JpaRepository<Tag, Long>{
   @NonNull
   Page<Tag> findAll(@NonNull Pageable pageable);
 
-  String SELECT_TAG_IDS = "SELECT ct.tag_id FROM certificates cert";
-  //fetches id of tags associated to each certificate
+  List<Tag> findByNameStartingWithIgnoreCaseOrderByNameAsc(String prefix, Pageable pageable);
 
-  String JOIN_CERTIFICATES_WITH_TAGS = "JOIN gift_certificate_tag ct ON cert.certificate_id = ct.certificate_id";
-  //performs inner join with certificates_tag table to get a list of tags for each certificate
+  String SELECT_TAG_IDS = "SELECT ct.tag_id FROM orders o";
+  //fetches the tag ids of ordered certificates
 
-  String CERTIFICATE_CONDITION = "WHERE cert.certificate_id IN ";
-  //filter previous list by the next condition
+  String JOIN_ORDERS_WITH_TAGS = "JOIN gift_certificate_tag ct ON o.certificate_id = ct.certificate_id";
+  //performs inner join with certificates_tag table to get the tags of the certificate of each order
 
-  String ORDER_ID_SUBQUERY = "(SELECT o.certificate_id FROM orders o WHERE o.id IN ";
-  //get certificate ids from the orders that meet the next condition
+  String USER_CONDITION = "WHERE o.user_id = ";
+  //keep only the orders of the user selected by the next subquery
 
-  String ORDER_IDS = "(SELECT ord.id FROM orders ord";
-  //get every order ids from orders list
+  String TOP_SPENDER_SUBQUERY = "(SELECT ord.user_id FROM orders ord " +
+      "GROUP BY ord.user_id ORDER BY SUM(ord.price) DESC, ord.user_id LIMIT 1)";
+  //group every order by user and take the user with the highest sum of purchasing costs (lowest id on a tie).
+  //The ORDER BY ... LIMIT 1 must stay in a scalar subquery: inside an IN list the order would be ignored
 
-  String GROUP_BY_USER_ORDER = "GROUP BY ord.user_id,ord.id ORDER BY SUM(ord.price) DESC))";
-  //group them by user and order, ordering them by the sum of the purchasing costs in descendant order
+  String GROUP_AND_SORT_BY_TAG_COUNT = "GROUP BY ct.tag_id ORDER BY COUNT(ct.tag_id) DESC, ct.tag_id LIMIT 1";
+  //group that user's tags by tag_id, order them in descendant order of use
+  //and get the first element with limit 1 (lowest id on a tie). That returns a tag id
 
-  String GROUP_AND_SORT_BY_TAG_COUNT = "GROUP BY ct.tag_id ORDER BY COUNT(ct.tag_id) DESC LIMIT 1";
-  //now I have a list of tags after applying the filter to certificates. Then, I group them by tag_id
-  //order them in descendant order and get the first element with limit 1. That returns a tag id
-
-  String FINAL_QUERY = SELECT_TAG_IDS + " " + JOIN_CERTIFICATES_WITH_TAGS + " " +
-      CERTIFICATE_CONDITION + ORDER_ID_SUBQUERY + ORDER_IDS + " " +
-      GROUP_BY_USER_ORDER + " " + GROUP_AND_SORT_BY_TAG_COUNT;
+  String FINAL_QUERY = SELECT_TAG_IDS + " " + JOIN_ORDERS_WITH_TAGS + " " +
+      USER_CONDITION + TOP_SPENDER_SUBQUERY + " " + GROUP_AND_SORT_BY_TAG_COUNT;
 
   @Query(value= FINAL_QUERY, nativeQuery = true)
   Optional<Long> findMostUsedTagOfUserWithHighestTotalCostOfOrders();
@@ -0,0 +1,7 @@
+package com.epam.esm.repository;
+
+/**
+ * Number of certificates that have a tag, alone or together with another tag.
+ */
+public record TagUsage(long tagId, long count) {
+}
@@ -1,7 +1,14 @@
 package com.epam.esm.repository;
 
+import com.epam.esm.dto.UserDTO;
 import com.epam.esm.model.User;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -9,4 +16,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
   User findByUsername(String username);
 
+  @EntityGraph(attributePaths = "roles")
+  Optional<User> findWithRolesByUsername(String username);
+
+  @Query("select new com.epam.esm.dto.UserDTO(u.id, u.name) from User u where u.id in :ids")
+  List<UserDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
 }
@@ -0,0 +1,165 @@
+package com.epam.esm.repository;
+
+import com.epam.esm.dto.MonthlySpendDTO;
+import com.epam.esm.dto.UserSpendSummaryDTO;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The per-user and per-user-per-month order rollups.
+ * <p>
+ * Placed orders are added to them with upserts in the transaction that inserts the orders, so a summary is read
+ * with a single statement instead of aggregating the orders. Rows are upserted in key order, so concurrent
+ * purchases of the same users lock them in the same order and do not deadlock.
+ */
+@Repository
+public class UserSpendJdbcRepository {
+
+  private static final String UPSERT_SUMMARY = """
+      INSERT INTO user_spend_summary (user_id, order_count, total_spend) VALUES (?, ?, ?)
+      ON CONFLICT (user_id) DO UPDATE
+         SET order_count = user_spend_summary.order_count + EXCLUDED.order_count,
+             total_spend = user_spend_summary.total_spend + EXCLUDED.total_spend""";
+
+  private static final String UPSERT_MONTH = """
+      INSERT INTO user_monthly_spend (user_id, spend_month, order_count, spend) VALUES (?, ?, ?, ?)
+      ON CONFLICT (user_id, spend_month) DO UPDATE
+         SET order_count = user_monthly_spend.order_count + EXCLUDED.order_count,
+             spend = user_monthly_spend.spend + EXCLUDED.spend""";
+
+  private static final String SELECT_SUMMARY = """
+      SELECT s.order_count, s.total_spend, m.spend_month, m.order_count AS month_order_count, m.spend AS month_spend
+        FROM user_spend_summary s
+        LEFT JOIN user_monthly_spend m ON m.user_id = s.user_id
+       WHERE s.user_id = :userId
+       ORDER BY m.spend_month""";
+
+  /**
+   * Blocks the upserts of concurrent purchases until the rebuild commits, and waits for the purchases that already
+   * upserted to commit, so that their orders are visible to the rebuild.
+   */
+  private static final String LOCK_ROLLUPS = "LOCK TABLE user_spend_summary, user_monthly_spend IN EXCLUSIVE MODE";
+
+  private static final String REBUILD_SUMMARIES = """
+      INSERT INTO user_spend_summary (user_id, order_count, total_spend)
+      SELECT o.user_id, COUNT(*), SUM(o.price)
+        FROM orders o
+       GROUP BY o.user_id""";
+
+  private static final String REBUILD_MONTHS = """
+      INSERT INTO user_monthly_spend (user_id, spend_month, order_count, spend)
+      SELECT o.user_id, CAST(date_trunc('month', o.purchase_time) AS DATE), COUNT(*), SUM(o.price)
+        FROM orders o
+       GROUP BY o.user_id, CAST(date_trunc('month', o.purchase_time) AS DATE)""";
+
+  private static final Comparator<MonthKey> MONTH_ORDER =
+      Comparator.comparing(MonthKey::userId).thenComparing(MonthKey::month);
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  public UserSpendJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Adds placed orders to the rollups of their users, with one JDBC batch per rollup.
+   */
+  public void addOrders(List<NewOrder> orders) {
+    if (orders.isEmpty()) {
+      return;
+    }
+    Map<Long, Spend> byUser = new TreeMap<>();
+    Map<MonthKey, Spend> byMonth = new TreeMap<>(MONTH_ORDER);
+    for (NewOrder order : orders) {
+      byUser.computeIfAbsent(order.userId(), id -> new Spend()).add(order.price());
+      byMonth.computeIfAbsent(new MonthKey(order.userId(), YearMonth.from(order.purchaseTime()).atDay(1)),
+          key -> new Spend()).add(order.price());
+    }
+
+    List<Object[]> summaries = new ArrayList<>(byUser.size());
+    byUser.forEach((userId, spend) -> summaries.add(new Object[] {userId, spend.count, spend.total}));
+    List<Object[]> months = new ArrayList<>(byMonth.size());
+    byMonth.forEach((key, spend) ->
+        months.add(new Object[] {key.userId(), Date.valueOf(key.month()), spend.count, spend.total}));
+
+    JdbcTemplate template = jdbcTemplate.getJdbcTemplate();
+    template.batchUpdate(UPSERT_SUMMARY, summaries);
+    template.batchUpdate(UPSERT_MONTH, months);
+  }
+
+  /**
+   * Reads the rollups of a user in a single statement.
+   *
+   * @return The summary of the user, or an empty Optional if no order of the user was rolled up.
+   */
+  public Optional<UserSpendSummaryDTO> findSummary(long userId) {
+    List<MonthlySpendDTO> months = new ArrayList<>();
+    long[] orderCount = {-1};
+    double[] totalSpend = {0};
+    jdbcTemplate.query(SELECT_SUMMARY, Map.of("userId", userId), (RowCallbackHandler) rs -> {
+      orderCount[0] = rs.getLong("order_count");
+      totalSpend[0] = rs.getDouble("total_spend");
+      Date month = rs.getDate("spend_month");
+      if (month != null) {
+        months.add(new MonthlySpendDTO(YearMonth.from(month.toLocalDate()), rs.getLong("month_order_count"),
+            rs.getDouble("month_spend")));
+      }
+    });
+    return orderCount[0] < 0
+        ? Optional.empty()
+        : Optional.of(new UserSpendSummaryDTO(userId, orderCount[0], totalSpend[0], months));
+  }
+
+  /**
+   * @return Whether no order is rolled up, while there are orders.
+   */
+  public boolean isBackfillNeeded() {
+    return Boolean.TRUE.equals(jdbcTemplate.getJdbcTemplate().queryForObject(
+        "SELECT NOT EXISTS (SELECT 1 FROM user_spend_summary) AND EXISTS (SELECT 1 FROM orders)", Boolean.class));
+  }
+
+  /**
+   * Empties both rollups, for when every order is deleted.
+   */
+  public void deleteAll() {
+    JdbcTemplate template = jdbcTemplate.getJdbcTemplate();
+    template.update("DELETE FROM user_monthly_spend");
+    template.update("DELETE FROM user_spend_summary");
+  }
+
+  /**
+   * Recomputes both rollups from the orders. Must run in a transaction.
+   */
+  public void rebuild() {
+    JdbcTemplate template = jdbcTemplate.getJdbcTemplate();
+    template.execute(LOCK_ROLLUPS);
+    template.update("DELETE FROM user_monthly_spend");
+    template.update("DELETE FROM user_spend_summary");
+    template.update(REBUILD_SUMMARIES);
+    template.update(REBUILD_MONTHS);
+  }
+
+  private record MonthKey(Long userId, LocalDate month) {}
+
+  private static final class Spend {
+
+    private long count;
+    private double total;
+
+    void add(double price) {
+      count++;
+      total += price;
+    }
+  }
+}
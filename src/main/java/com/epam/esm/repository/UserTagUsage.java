@@ -0,0 +1,7 @@
+package com.epam.esm.repository;
+
+/**
+ * Number of orders of a user whose certificate has a tag.
+ */
+public record UserTagUsage(long userId, long tagId, long count) {
+}
@@ -0,0 +1,9 @@
+package com.epam.esm.security;
+
+import java.util.List;
+
+/**
+ * The principal of a request authenticated with an access token, read from the token alone.
+ */
+public record AuthenticatedUser(Long id, String username, List<String> roles) {
+}
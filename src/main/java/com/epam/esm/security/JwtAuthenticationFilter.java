@@ -0,0 +1,52 @@
+package com.epam.esm.security;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import lombok.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <access token>} from the token alone.
+ * A request with a missing or invalid token goes on unauthenticated, and is rejected if its path needs a user.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+  private static final String BEARER = "Bearer ";
+  private static final String ROLE_PREFIX = "ROLE_";
+
+  private final JwtTokenService jwtTokenService;
+
+  public JwtAuthenticationFilter(JwtTokenService jwtTokenService) {
+    this.jwtTokenService = jwtTokenService;
+  }
+
+  @Override
+  protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain) throws ServletException, IOException {
+    String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+    if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+      try {
+        AuthenticatedUser user = jwtTokenService.verify(header.substring(BEARER.length()).trim());
+        List<SimpleGrantedAuthority> authorities = user.roles().stream()
+            .map(role -> new SimpleGrantedAuthority(role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role))
+            .toList();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(user, null, authorities));
+        SecurityContextHolder.setContext(context);
+      } catch (JwtException | IllegalArgumentException ex) {
+        SecurityContextHolder.clearContext();
+      }
+    }
+    filterChain.doFilter(request, response);
+  }
+}
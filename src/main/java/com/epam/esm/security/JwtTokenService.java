@@ -0,0 +1,84 @@
+package com.epam.esm.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import javax.crypto.SecretKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues and verifies the HMAC-signed access tokens returned by {@code /api/login}.
+ * <p>
+ * The key and the parser are built once, so verifying a token is a signature check and a few claim reads, without
+ * reaching the database or hashing a password. The key comes from {@code security.jwt.secret}, a Base64 value of
+ * at least 256 bits shared by every instance, and the application does not start without it. For local development
+ * only, {@code security.jwt.allow-random-secret=true} signs with a random key generated at startup instead, whose
+ * tokens are only accepted by the instance that issued them until it restarts.
+ */
+@Slf4j
+@Component
+public class JwtTokenService {
+
+  static final String USER_ID = "uid";
+  static final String ROLES = "roles";
+
+  private final SecretKey key;
+  private final JwtParser parser;
+  private final Duration timeToLive;
+
+  public JwtTokenService(@Value("${security.jwt.secret:}") String secret,
+      @Value("${security.jwt.allow-random-secret:false}") boolean randomSecretAllowed,
+      @Value("${security.jwt.ttl:PT1H}") Duration timeToLive) {
+    if (secret.isBlank()) {
+      if (!randomSecretAllowed) {
+        throw new IllegalStateException("security.jwt.secret must be set to a Base64 key of at least 256 bits");
+      }
+      log.warn("security.jwt.secret is not set, access tokens are signed with a random key of this instance");
+      this.key = Jwts.SIG.HS256.key().build();
+    } else {
+      this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
+    this.parser = Jwts.parser().verifyWith(key).build();
+    this.timeToLive = timeToLive;
+  }
+
+  public Duration getTimeToLive() {
+    return timeToLive;
+  }
+
+  /**
+   * @return A signed token identifying the user with its id and roles, expiring after the configured time to live.
+   */
+  public String issue(Long userId, String username, Collection<String> roles) {
+    Instant now = Instant.now();
+    return Jwts.builder()
+        .subject(username)
+        .claim(USER_ID, userId)
+        .claim(ROLES, List.copyOf(roles))
+        .issuedAt(Date.from(now))
+        .expiration(Date.from(now.plus(timeToLive)))
+        .signWith(key)
+        .compact();
+  }
+
+  /**
+   * @return The user the token was issued for.
+   * @throws JwtException if the token is malformed, not signed with the key, or expired.
+   */
+  public AuthenticatedUser verify(String token) {
+    Claims claims = parser.parseSignedClaims(token).getPayload();
+    List<?> roles = claims.get(ROLES, List.class);
+    return new AuthenticatedUser(claims.get(USER_ID, Long.class), claims.getSubject(),
+        roles == null ? List.of() : roles.stream().map(String::valueOf).toList());
+  }
+}
@@ -0,0 +1,105 @@
+package com.epam.esm.service;
+
+import static com.epam.esm.exceptions.Messages.INVALID_ANALYTICS_LIMIT;
+import static com.epam.esm.exceptions.Messages.INVALID_DAY_RANGE;
+
+import com.epam.esm.analytics.CertificateRevenue;
+import com.epam.esm.analytics.OrderAnalytics;
+import com.epam.esm.analytics.TagRevenue;
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.CertificateRevenueDTO;
+import com.epam.esm.dto.DailyRevenueDTO;
+import com.epam.esm.dto.TagRevenueDTO;
+import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.exceptions.ErrorCode;
+import com.epam.esm.repository.CertificateJdbcRepository;
+import com.epam.esm.repository.TagRepository;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Revenue reports over the orders, computed from the {@link OrderAnalytics} snapshot.
+ * The database is only asked for the names of the certificates and tags of a report.
+ */
+@Service
+public class AnalyticsService {
+
+  public static final int MAX_LIMIT = 1000;
+
+  private final OrderAnalytics orderAnalytics;
+  private final CertificateJdbcRepository certificateJdbcRepository;
+  private final TagRepository tagRepository;
+
+  public AnalyticsService(OrderAnalytics orderAnalytics, CertificateJdbcRepository certificateJdbcRepository,
+      TagRepository tagRepository) {
+    this.orderAnalytics = orderAnalytics;
+    this.certificateJdbcRepository = certificateJdbcRepository;
+    this.tagRepository = tagRepository;
+  }
+
+  /**
+   * @param limit The number of certificates to return, from 1 to {@link #MAX_LIMIT}.
+   * @return The certificates with the highest revenue, by descending revenue. A certificate deleted since its
+   * orders were placed has no name.
+   * @throws CustomizedException if the limit is out of range, or if there is a database access error.
+   */
+  public List<CertificateRevenueDTO> getTopCertificates(int limit) {
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new CustomizedException(INVALID_ANALYTICS_LIMIT.formatted(MAX_LIMIT), ErrorCode.ORDER_BAD_REQUEST);
+    }
+    List<CertificateRevenue> top = orderAnalytics.findTopCertificates(limit);
+    Map<Long, CertificateResponseDTO> certificates;
+    try {
+      certificates = certificateJdbcRepository.findAllById(top.stream().map(CertificateRevenue::certificateId).toList());
+    } catch (DataAccessException ex) {
+      throw new CustomizedException("Database error while getting the top certificates", ErrorCode.ORDER_DATABASE_ERROR, ex);
+    }
+    return top.stream()
+        .map(revenue -> {
+          CertificateResponseDTO certificate = certificates.get(revenue.certificateId());
+          return new CertificateRevenueDTO(revenue.certificateId(), certificate == null ? null : certificate.name(),
+              revenue.orders(), revenue.revenue());
+        })
+        .toList();
+  }
+
+  /**
+   * @return The revenue of every tag found on a purchased certificate, by descending revenue.
+   * @throws CustomizedException if there is a database access error.
+   */
+  public List<TagRevenueDTO> getRevenueByTag() {
+    List<TagRevenue> revenues = orderAnalytics.findRevenueByTag();
+    Map<Long, String> names = new HashMap<>();
+    try {
+      if (!revenues.isEmpty()) {
+        tagRepository.findAllById(revenues.stream().map(TagRevenue::tagId).toList())
+            .forEach(tag -> names.put(tag.getId(), tag.getName()));
+      }
+    } catch (DataAccessException ex) {
+      throw new CustomizedException("Database error while getting the revenue by tag", ErrorCode.ORDER_DATABASE_ERROR, ex);
+    }
+    return revenues.stream()
+        .map(revenue -> new TagRevenueDTO(revenue.tagId(), names.get(revenue.tagId()), revenue.orders(),
+            revenue.revenue()))
+        .toList();
+  }
+
+  /**
+   * @param from The first day to include, or null for no lower bound.
+   * @param to   The last day to include, or null for no upper bound.
+   * @return The revenue of every day with orders in the range, by day.
+   * @throws CustomizedException if from is after to.
+   */
+  public List<DailyRevenueDTO> getRevenueByDay(LocalDate from, LocalDate to) {
+    if (from != null && to != null && from.isAfter(to)) {
+      throw new CustomizedException(INVALID_DAY_RANGE.formatted(from, to), ErrorCode.ORDER_BAD_REQUEST);
+    }
+    return orderAnalytics.findRevenueByDay(from, to).stream()
+        .map(revenue -> new DailyRevenueDTO(revenue.day(), revenue.orders(), revenue.revenue()))
+        .toList();
+  }
+}
@@ -3,6 +3,7 @@ package com.epam.esm.service;
 import jakarta.persistence.EntityManager;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.AuditReaderFactory;
+import org.hibernate.envers.DefaultRevisionEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,4 +17,14 @@ public class AuditReaderService {
     return AuditReaderFactory.get(entityManager);
   }
 
+  /**
+   * Returns the number of the Envers revision of the current transaction, creating it if needed.
+   * The revision is flushed, so audit rows written with plain SQL in the same transaction can reference it.
+   */
+  public Number getCurrentRevisionNumber() {
+    DefaultRevisionEntity revision = getReader().getCurrentRevision(DefaultRevisionEntity.class, true);
+    entityManager.flush();
+    return revision.getId();
+  }
+
 }
@@ -0,0 +1,318 @@
+package com.epam.esm.service;
+
+import static com.epam.esm.exceptions.Messages.CERTIFICATE_ALREADY_EXISTS;
+import static com.epam.esm.exceptions.Messages.CERTIFICATE_ALREADY_IMPORTED;
+import static com.epam.esm.exceptions.Messages.MALFORMED_CSV_HEADER;
+import static com.epam.esm.exceptions.Messages.MISSING_CSV_COLUMNS;
+import static com.epam.esm.exceptions.Messages.NON_EXISTING_TAGS;
+
+import com.epam.esm.bulk.Csv;
+import com.epam.esm.bulk.DataFormat;
+import com.epam.esm.dto.CertificateRequestDTO;
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.ImportErrorDTO;
+import com.epam.esm.dto.ImportReportDTO;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.exceptions.ErrorCode;
+import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.repository.CertificateJdbcRepository;
+import com.epam.esm.repository.TagJdbcRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Loads certificates from an NDJSON or CSV stream.
+ * <p>
+ * Records are read one line at a time and imported in batches of {@link #BATCH_SIZE}: per batch, the names
+ * are checked with one IN query, the tag ids not seen earlier in the import with another, and the certificates
+ * and their tag links are inserted with JDBC batches in one transaction. A record that cannot be imported is
+ * reported with its line number and the load goes on.
+ */
+@Slf4j
+@Service
+public class CertificateImportService {
+
+  static final int BATCH_SIZE = 500;
+  static final int MAX_REPORTED_ERRORS = 1000;
+  static final List<String> CSV_COLUMNS = List.of("name", "description", "price", "duration", "tagIds");
+
+  private static final Comparator<ImportErrorDTO> ERROR_ORDER = Comparator.comparingLong(ImportErrorDTO::line);
+  private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+
+  private final CertificateJdbcRepository certificateJdbcRepository;
+  private final TagJdbcRepository tagJdbcRepository;
+  private final AuditReaderService auditReaderService;
+  private final TransactionOperations transactionOperations;
+  private final ObjectMapper objectMapper;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public CertificateImportService(CertificateJdbcRepository certificateJdbcRepository,
+      TagJdbcRepository tagJdbcRepository, AuditReaderService auditReaderService,
+      TransactionOperations transactionOperations, ObjectMapper objectMapper,
+      ApplicationEventPublisher eventPublisher) {
+    this.certificateJdbcRepository = certificateJdbcRepository;
+    this.tagJdbcRepository = tagJdbcRepository;
+    this.auditReaderService = auditReaderService;
+    this.transactionOperations = transactionOperations;
+    this.objectMapper = objectMapper;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * Imports every certificate of the stream.
+   * NDJSON lines have the shape of a CertificateRequestDTO; CSV starts with a header naming the columns
+   * name, description, price, duration and optionally tagIds, whose ids are separated by {@code |}. Quoted CSV
+   * fields may span lines, and errors are reported at the first line of their record.
+   *
+   * @param input  The records, in UTF-8.
+   * @param format The format of the records.
+   * @return The number of imported and failed records, and the errors of the first failed lines.
+   * @throws CustomizedException If the stream cannot be read or the CSV header is invalid.
+   */
+  public ImportReportDTO importCertificates(InputStream input, DataFormat format) {
+    ImportRun run = new ImportRun();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      long lineNumber = 0;
+      Function<String, CertificateRequestDTO> parser = this::parseJson;
+      if (format == DataFormat.CSV) {
+        parser = csvParser(reader.readLine());
+        lineNumber++;
+      }
+
+      String line;
+      while ((line = reader.readLine()) != null) {
+        long recordLine = ++lineNumber;
+        if (line.isBlank()) {
+          continue;
+        }
+        if (format == DataFormat.CSV) {
+          line = Csv.readRecord(line, reader);
+          lineNumber += line.chars().filter(c -> c == '\n').count();
+        }
+        try {
+          CertificateRequestDTO certificate = parser.apply(line);
+          Optional<String> validationMessage = CertificateService.validateRequest(new GiftCertificate(
+              certificate.name(), certificate.description(), certificate.price(), certificate.duration()));
+          if (validationMessage.isPresent()) {
+            run.fail(recordLine, validationMessage.get());
+          } else {
+            run.batch.add(new ImportLine(recordLine, certificate));
+          }
+        } catch (IllegalArgumentException ex) {
+          run.fail(recordLine, ex.getMessage());
+        }
+        if (run.batch.size() >= BATCH_SIZE) {
+          importBatch(run);
+        }
+      }
+      importBatch(run);
+    } catch (IOException ex) {
+      throw new CustomizedException("Error reading the certificates to import", ErrorCode.CERTIFICATE_BAD_REQUEST, ex);
+    }
+    List<ImportErrorDTO> errors = new ArrayList<>(run.errors);
+    errors.sort(ERROR_ORDER);
+    return new ImportReportDTO(run.imported, run.failed, errors);
+  }
+
+  private void importBatch(ImportRun run) {
+    List<ImportLine> lines = new ArrayList<>(run.batch);
+    run.batch.clear();
+    if (lines.isEmpty()) {
+      return;
+    }
+
+    Set<Long> unseenTagIds = new HashSet<>();
+    lines.forEach(line -> unseenTagIds.addAll(line.certificate().tagIds()));
+    unseenTagIds.removeAll(run.existingTagIds);
+    unseenTagIds.removeAll(run.missingTagIds);
+    if (!unseenTagIds.isEmpty()) {
+      Set<Long> foundTagIds = tagJdbcRepository.findExistingIds(unseenTagIds);
+      run.existingTagIds.addAll(foundTagIds);
+      unseenTagIds.removeAll(foundTagIds);
+      run.missingTagIds.addAll(unseenTagIds);
+    }
+
+    Map<String, Long> existingNames = certificateJdbcRepository.findIdsByName(
+        lines.stream().map(line -> line.certificate().name()).toList());
+    Map<String, Long> batchNames = new HashMap<>();
+
+    List<ImportLine> accepted = new ArrayList<>(lines.size());
+    for (ImportLine line : lines) {
+      CertificateRequestDTO certificate = line.certificate();
+      List<Long> missingTags = certificate.tagIds().stream().filter(run.missingTagIds::contains).toList();
+      if (!missingTags.isEmpty()) {
+        run.fail(line.number(), NON_EXISTING_TAGS.formatted(missingTags));
+      } else if (existingNames.containsKey(certificate.name())) {
+        run.fail(line.number(), CERTIFICATE_ALREADY_EXISTS.formatted(existingNames.get(certificate.name())));
+      } else if (batchNames.putIfAbsent(certificate.name(), line.number()) != null) {
+        run.fail(line.number(), CERTIFICATE_ALREADY_IMPORTED.formatted(certificate.name()));
+      } else {
+        accepted.add(line);
+      }
+    }
+    if (accepted.isEmpty()) {
+      return;
+    }
+
+    insertLines(run, accepted);
+  }
+
+  /**
+   * Inserts lines in one transaction. If it fails, each half is retried on its own, down to the single line
+   * causing the failure, so a bad record costs about log2(lines) extra transactions and only fails its own line.
+   */
+  private void insertLines(ImportRun run, List<ImportLine> lines) {
+    List<CertificateRequestDTO> certificates = lines.stream().map(ImportLine::certificate).toList();
+    try {
+      transactionOperations.executeWithoutResult(status -> insert(certificates));
+      run.imported += certificates.size();
+    } catch (DataAccessException ex) {
+      if (lines.size() == 1) {
+        log.warn("Import of line {} failed", lines.get(0).number(), ex);
+        run.fail(lines.get(0).number(), "Database error while importing certificate");
+        return;
+      }
+      int half = lines.size() / 2;
+      insertLines(run, lines.subList(0, half));
+      insertLines(run, lines.subList(half, lines.size()));
+    }
+  }
+
+  private void insert(List<CertificateRequestDTO> certificates) {
+    String timestamp = TIMESTAMP_FORMAT.format(LocalDateTime.now(ZoneOffset.UTC));
+    List<Long> ids = certificateJdbcRepository.insertAll(certificates, timestamp);
+    certificateJdbcRepository.auditInserted(auditReaderService.getCurrentRevisionNumber(), ids, certificates, timestamp);
+
+    for (int i = 0; i < certificates.size(); i++) {
+      CertificateRequestDTO certificate = certificates.get(i);
+      eventPublisher.publishEvent(CertificateChangedEvent.created(new CertificateResponseDTO(ids.get(i),
+          certificate.name(), certificate.description(), certificate.price(), certificate.duration(),
+          certificate.tagIds())));
+    }
+  }
+
+  private CertificateRequestDTO parseJson(String line) {
+    try {
+      return withUniqueTagIds(objectMapper.readValue(line, CertificateRequestDTO.class));
+    } catch (JsonProcessingException ex) {
+      throw new IllegalArgumentException("Malformed JSON: " + ex.getOriginalMessage());
+    }
+  }
+
+  private Function<String, CertificateRequestDTO> csvParser(String header) {
+    List<String> columns;
+    try {
+      columns = header == null ? List.of() : Csv.parseLine(header).stream().map(String::trim).toList();
+    } catch (IllegalArgumentException ex) {
+      throw new CustomizedException(MALFORMED_CSV_HEADER.formatted(ex.getMessage()), ErrorCode.CERTIFICATE_BAD_REQUEST, ex);
+    }
+    if (!columns.containsAll(CSV_COLUMNS.subList(0, 4))) {
+      throw new CustomizedException(MISSING_CSV_COLUMNS.formatted(CSV_COLUMNS.subList(0, 4)), ErrorCode.CERTIFICATE_BAD_REQUEST);
+    }
+    int name = columns.indexOf("name");
+    int description = columns.indexOf("description");
+    int price = columns.indexOf("price");
+    int duration = columns.indexOf("duration");
+    int tagIds = columns.indexOf("tagIds");
+
+    return line -> {
+      List<String> fields = Csv.parseLine(line);
+      if (fields.size() != columns.size()) {
+        throw new IllegalArgumentException("Expected %d fields but found %d".formatted(columns.size(), fields.size()));
+      }
+      return new CertificateRequestDTO(
+          fields.get(name),
+          fields.get(description),
+          parseNumber(fields.get(price), Double::valueOf),
+          parseNumber(fields.get(duration), Long::valueOf),
+          tagIds < 0 || fields.get(tagIds).isBlank() ? List.of() : splitTagIds(fields.get(tagIds)));
+    };
+  }
+
+  private static List<Long> splitTagIds(String tagIds) {
+    Set<Long> ids = new LinkedHashSet<>();
+    for (String tagId : tagIds.split(Pattern.quote(Csv.LIST_SEPARATOR), -1)) {
+      if (tagId.isBlank()) {
+        throw new IllegalArgumentException("Empty tag id in " + tagIds);
+      }
+      ids.add(parseNumber(tagId, Long::valueOf));
+    }
+    return List.copyOf(ids);
+  }
+
+  private static <T> T parseNumber(String value, Function<String, T> parser) {
+    if (value.isBlank()) {
+      return null;
+    }
+    try {
+      return parser.apply(value.trim());
+    } catch (NumberFormatException ex) {
+      throw new IllegalArgumentException("Invalid number " + value);
+    }
+  }
+
+  private static CertificateRequestDTO withUniqueTagIds(CertificateRequestDTO certificate) {
+    if (certificate == null) {
+      throw new IllegalArgumentException("Expected a certificate but found null");
+    }
+    Set<Long> ids = new LinkedHashSet<>();
+    if (certificate.tagIds() != null) {
+      for (Long tagId : certificate.tagIds()) {
+        if (tagId == null) {
+          throw new IllegalArgumentException("Null tag id in " + certificate.tagIds());
+        }
+        ids.add(tagId);
+      }
+    }
+    return new CertificateRequestDTO(certificate.name(), certificate.description(), certificate.price(),
+        certificate.duration(), List.copyOf(ids));
+  }
+
+  private record ImportLine(long number, CertificateRequestDTO certificate) {}
+
+  private static final class ImportRun {
+    private final List<ImportLine> batch = new ArrayList<>(BATCH_SIZE);
+    private final Set<Long> existingTagIds = new HashSet<>();
+    private final Set<Long> missingTagIds = new LinkedHashSet<>();
+    private final PriorityQueue<ImportErrorDTO> errors = new PriorityQueue<>(ERROR_ORDER.reversed());
+    private long imported;
+    private long failed;
+
+    /**
+     * Counts a failed line. Errors are not reported in line order, so only the lowest lines are kept.
+     */
+    private void fail(long line, String message) {
+      failed++;
+      errors.add(new ImportErrorDTO(line, message));
+      if (errors.size() > MAX_REPORTED_ERRORS) {
+        errors.poll();
+      }
+    }
+  }
+}
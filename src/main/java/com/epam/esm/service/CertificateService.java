@@ -3,43 +3,90 @@ package com.epam.esm.service;
 import static com.epam.esm.exceptions.ErrorCode.CERTIFICATE_BAD_REQUEST;
 import static com.epam.esm.exceptions.Messages.CERTIFICATE_ALREADY_EXISTS;
 import static com.epam.esm.exceptions.Messages.CERTIFICATE_WITH_ID_NOT_FOUND;
+import static com.epam.esm.exceptions.Messages.INVALID_SUGGESTION_LIMIT;
 import static java.lang.Double.isInfinite;
 import static java.lang.Double.isNaN;
 
+import com.epam.esm.cache.CacheConfig;
+import com.epam.esm.cache.CertificateSearchKey;
+import com.epam.esm.cache.SearchResultCache;
 import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.SuggestionDTO;
 import com.epam.esm.dto.errors.ErrorDTO;
+import com.epam.esm.event.CertificateChangedEvent;
 import com.epam.esm.exceptions.CustomizedException;
 import com.epam.esm.exceptions.ErrorCode;
 import com.epam.esm.filter.CertificateSpecification;
+import com.epam.esm.filter.CountMode;
+import com.epam.esm.filter.KeysetCursor;
+import com.epam.esm.index.CertificateSearchIndex;
+import com.epam.esm.index.CertificateSuggestIndex;
+import com.epam.esm.index.TagPostingIndex;
 import com.epam.esm.model.GiftCertificate;
 import com.epam.esm.model.Tag;
+import com.epam.esm.repository.CertificateJdbcRepository;
 import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.RowCountEstimator;
+import com.epam.esm.repository.SliceQueryRepository;
 import com.epam.esm.repository.TagRepository;
 import jakarta.transaction.Transactional;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 @Slf4j
 @Service
 public class CertificateService {
 
+    /**
+     * Above this many candidates an IN list costs more than it saves, so the plain filter is used instead.
+     */
+    static final int MAX_INDEXED_CANDIDATES = 1000;
+
+    static final int MAX_SUGGESTIONS = 50;
+
     private final CertificateRepository certificateRepository;
     private final TagRepository tagRepository;
+    private final CertificateSearchIndex searchIndex;
+    private final TagPostingIndex tagIndex;
+    private final CertificateSuggestIndex suggestIndex;
+    private final CertificateJdbcRepository certificateJdbcRepository;
+    private final RowCountEstimator rowCountEstimator;
+    private final SearchResultCache searchResultCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CertificateService(CertificateRepository certificateRepository, TagRepository tagRepository) {
+    public CertificateService(CertificateRepository certificateRepository, TagRepository tagRepository,
+        CertificateSearchIndex searchIndex, TagPostingIndex tagIndex, CertificateSuggestIndex suggestIndex,
+        CertificateJdbcRepository certificateJdbcRepository,
+        RowCountEstimator rowCountEstimator, SearchResultCache searchResultCache, ApplicationEventPublisher eventPublisher) {
         this.certificateRepository = certificateRepository;
         this.tagRepository = tagRepository;
+        this.searchIndex = searchIndex;
+        this.tagIndex = tagIndex;
+        this.suggestIndex = suggestIndex;
+        this.certificateJdbcRepository = certificateJdbcRepository;
+        this.rowCountEstimator = rowCountEstimator;
+        this.searchResultCache = searchResultCache;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -64,7 +111,9 @@ public class CertificateService {
                 giftCertificate.setTags(tags);
                 GiftCertificate savedGiftCertificate = certificateRepository.save(giftCertificate);
 
-                return convertToCertificateDTO(savedGiftCertificate);
+                CertificateResponseDTO savedDTO = convertToCertificateDTO(savedGiftCertificate);
+                eventPublisher.publishEvent(CertificateChangedEvent.created(savedDTO));
+                return savedDTO;
             } else {
                 GiftCertificate foundCertificate = tryToFindCertificate.get();
                 Long idFound = foundCertificate.getId();
@@ -83,6 +132,7 @@ public class CertificateService {
      * @return The certificate in the form of a CertificateResponseDTO.
      * @throws CustomizedException If giftCertificateId is null, does not exist, or if there is a database error during retrieval.
      */
+    @Cacheable(cacheNames = CacheConfig.CERTIFICATES, key = "#giftCertificateId")
     public CertificateResponseDTO getGiftCertificate(@NonNull Long giftCertificateId) {
         try {
             Optional<GiftCertificate> giftCertificate = certificateRepository.findById(giftCertificateId);
@@ -101,6 +151,9 @@ public class CertificateService {
 
     /**
      * Retrieves a page of certificates filtered by tagNames and a searchWord.
+     * The in-memory indexes first narrow the filter down to candidate ids; when there are few enough of them,
+     * the query is restricted to those ids and the tag joins are skipped.
+     * The rows are read straight into CertificateResponseDTOs, with their tag ids, in a single query.
      *
      * @param tagNames   The tags that the certificates should have.
      * @param searchWord The word to filter certificates by.
@@ -114,14 +167,184 @@ public class CertificateService {
         Pageable pageable) {
 
         try {
-            Specification<GiftCertificate> spec = new CertificateSpecification(tagNames, searchWord);
-            Page<GiftCertificate> certificatesPage = certificateRepository.findAll(spec, pageable);
-            return certificatesPage.map(this::convertToCertificateDTO);
+            Optional<CertificateSpecification> spec = filterSpecification(tagNames, searchWord);
+            if (spec.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            return certificateJdbcRepository.findPage(spec.get(), pageable);
         } catch (DataAccessException ex) {
             throw new CustomizedException("Database error while getting filtered certificates", ErrorCode.CERTIFICATE_DATABASE_ERROR, ex);
         }
     }
 
+    /**
+     * Retrieves a page of certificates filtered by tagNames and a searchWord, obtaining its total as
+     * requested by countMode.
+     * Results are cached by normalized search until the next change to a certificate or a tag.
+     *
+     * @param tagNames   The tags that the certificates should have.
+     * @param searchWord The word to filter certificates by.
+     * @param pageable   The details of the page to retrieve.
+     * @param countMode  How the total number of matching certificates is obtained.
+     * @return A Page for the EXACT and ESTIMATED modes, a Slice without total for the NONE mode.
+     * @throws CustomizedException If there is a database error during retrieval.
+     */
+    public Slice<CertificateResponseDTO> getFilteredCertificates(
+        List<String> tagNames,
+        String searchWord,
+        Pageable pageable,
+        CountMode countMode) {
+
+        return searchResultCache.get(CertificateSearchKey.of(tagNames, searchWord, pageable, countMode),
+            () -> findFilteredCertificates(tagNames, searchWord, pageable, countMode));
+    }
+
+    private Slice<CertificateResponseDTO> findFilteredCertificates(
+        List<String> tagNames,
+        String searchWord,
+        Pageable pageable,
+        CountMode countMode) {
+
+        if (countMode == CountMode.EXACT) {
+            return getFilteredCertificates(tagNames, searchWord, pageable);
+        }
+        try {
+            Optional<CertificateSpecification> spec = filterSpecification(tagNames, searchWord);
+            if (spec.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            Slice<CertificateResponseDTO> certificates = certificateJdbcRepository.findSlice(spec.get(), null, pageable);
+            return countMode == CountMode.NONE
+                ? certificates
+                : SliceQueryRepository.toEstimatedPage(certificates, () -> estimateCount(tagNames, searchWord, spec.get()));
+        } catch (DataAccessException ex) {
+            throw new CustomizedException("Database error while getting filtered certificates", ErrorCode.CERTIFICATE_DATABASE_ERROR, ex);
+        }
+    }
+
+    /**
+     * Retrieves the certificates filtered by tagNames and a searchWord that come after the given cursor,
+     * seeking past it instead of counting an offset.
+     * Results are cached like those of {@link #getFilteredCertificates(List, String, Pageable, CountMode)}.
+     *
+     * @param tagNames   The tags that the certificates should have.
+     * @param searchWord The word to filter certificates by.
+     * @param cursor     The position of the last certificate of the previous page.
+     * @param size       The number of certificates to retrieve.
+     * @return A slice of filtered certificates in the form of CertificateResponseDTOs.
+     * @throws CustomizedException If there is a database error during retrieval.
+     */
+    public Slice<CertificateResponseDTO> getFilteredCertificatesAfter(
+        List<String> tagNames,
+        String searchWord,
+        KeysetCursor cursor,
+        int size) {
+
+        return searchResultCache.get(CertificateSearchKey.of(tagNames, searchWord, cursor, size),
+            () -> findFilteredCertificatesAfter(tagNames, searchWord, cursor, size));
+    }
+
+    private Slice<CertificateResponseDTO> findFilteredCertificatesAfter(
+        List<String> tagNames,
+        String searchWord,
+        KeysetCursor cursor,
+        int size) {
+
+        try {
+            Optional<CertificateSpecification> spec = filterSpecification(tagNames, searchWord);
+            if (spec.isEmpty()) {
+                return new SliceImpl<>(List.of(), cursor.firstPage(size), false);
+            }
+            return certificateJdbcRepository.findSlice(spec.get(), cursor, cursor.firstPage(size));
+        } catch (DataAccessException ex) {
+            throw new CustomizedException("Database error while getting filtered certificates", ErrorCode.CERTIFICATE_DATABASE_ERROR, ex);
+        }
+    }
+
+    /**
+     * Suggests certificates for a partly typed name: the names starting with prefix, then names close to it.
+     * Until the in-memory index is built, only names starting with prefix are read from the database.
+     *
+     * @param prefix The beginning of a certificate name.
+     * @param limit  The maximum number of suggestions.
+     * @return The ids and names of the suggested certificates.
+     * @throws CustomizedException If limit is out of range, or if there is a database error during retrieval.
+     */
+    public List<SuggestionDTO> suggestCertificates(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new CustomizedException(INVALID_SUGGESTION_LIMIT.formatted(MAX_SUGGESTIONS), CERTIFICATE_BAD_REQUEST);
+        }
+        if (!StringUtils.hasText(prefix)) {
+            return List.of();
+        }
+        try {
+            return suggestIndex.suggest(prefix, limit)
+                .orElseGet(() -> certificateJdbcRepository.findSuggestions(prefix.stripLeading(), limit));
+        } catch (DataAccessException ex) {
+            throw new CustomizedException("Database error while suggesting certificates", ErrorCode.CERTIFICATE_DATABASE_ERROR, ex);
+        }
+    }
+
+    /**
+     * Passes every certificate filtered by tagNames and a searchWord to action, in sort order, reading them
+     * through a forward-only cursor so that memory use does not depend on the number of certificates.
+     *
+     * @param tagNames   The tags that the certificates should have.
+     * @param searchWord The word to filter certificates by.
+     * @param sort       The order in which the certificates are passed.
+     * @param action     Receives each certificate.
+     * @throws CustomizedException If the sort property is not supported, or if there is a database error during retrieval.
+     */
+    @Transactional
+    public void exportCertificates(List<String> tagNames, String searchWord, Sort sort,
+                                   Consumer<CertificateResponseDTO> action) {
+        try {
+            Optional<CertificateSpecification> spec = filterSpecification(tagNames, searchWord);
+            if (spec.isPresent()) {
+                certificateJdbcRepository.streamAll(spec.get(), sort, action);
+            }
+        } catch (DataAccessException ex) {
+            throw new CustomizedException("Database error while exporting certificates", ErrorCode.CERTIFICATE_DATABASE_ERROR, ex);
+        }
+    }
+
+    /**
+     * Builds the filter for tagNames and searchWord, narrowed down by the in-memory indexes.
+     *
+     * @return The filter to run, or an empty Optional if the indexes already prove that nothing matches.
+     */
+    private Optional<CertificateSpecification> filterSpecification(List<String> tagNames, String searchWord) {
+        Optional<RoaringBitmap> byTags = tagIndex.findCandidates(tagNames);
+        Optional<RoaringBitmap> byWord = searchIndex.findCandidates(searchWord);
+        Optional<RoaringBitmap> candidates = byTags.isPresent() && byWord.isPresent()
+            ? Optional.of(RoaringBitmap.and(byTags.get(), byWord.get()))
+            : byTags.or(() -> byWord);
+
+        if (candidates.isPresent() && candidates.get().isEmpty()) {
+            return Optional.empty();
+        }
+        if (candidates.isPresent() && candidates.get().getCardinality() <= MAX_INDEXED_CANDIDATES) {
+            List<Long> ids = candidates.get().stream().mapToObj(Long::valueOf).toList();
+            return Optional.of(new CertificateSpecification(byTags.isPresent() ? null : tagNames, searchWord, ids));
+        }
+        return Optional.of(new CertificateSpecification(tagNames, searchWord));
+    }
+
+    /**
+     * Estimates the number of certificates matched by spec: the number of index candidates when the filter
+     * was narrowed down to them, the table statistics when there is no filter, and a cached count otherwise.
+     */
+    private long estimateCount(List<String> tagNames, String searchWord, CertificateSpecification spec) {
+        if (spec.getCandidateIds() != null) {
+            return spec.getCandidateIds().size();
+        }
+        if ((tagNames == null || tagNames.isEmpty()) && !StringUtils.hasText(searchWord)) {
+            return rowCountEstimator.estimateRows(GiftCertificate.class, certificateRepository::count);
+        }
+        return rowCountEstimator.cachedCount(Arrays.asList(GiftCertificate.class, tagNames, searchWord),
+            () -> certificateJdbcRepository.count(spec));
+    }
+
     /**
      * Deletes the certificate identified by certificateId.
      *
@@ -129,13 +352,17 @@ public class CertificateService {
      * @throws CustomizedException If certificateId does not exist, or if there is a database error during deletion.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CERTIFICATES, key = "#certificateId")
     public void deleteGiftCertificate(Long certificateId) {
 
-        if(!certificateRepository.existsById(certificateId)){
+        Optional<GiftCertificate> certificate = certificateRepository.findById(certificateId);
+        if(certificate.isEmpty()){
             throw new CustomizedException(CERTIFICATE_WITH_ID_NOT_FOUND.formatted(certificateId), ErrorCode.CERTIFICATE_NOT_FOUND);
         }
         try {
-            certificateRepository.deleteById(certificateId);
+            CertificateResponseDTO deletedDTO = convertToCertificateDTO(certificate.get());
+            certificateRepository.delete(certificate.get());
+            eventPublisher.publishEvent(CertificateChangedEvent.deleted(deletedDTO));
         } catch (DataAccessException ex) {
             throw new CustomizedException("Database error during deleting certificate with id " + certificateId, ErrorCode.CERTIFICATE_DATABASE_ERROR, ex);
         }
@@ -151,6 +378,7 @@ public class CertificateService {
      * @throws CustomizedException If certificateId is null, does not exist, or if there is a database error during update.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CERTIFICATES, key = "#certificateId")
     public CertificateResponseDTO updateGiftCertificate(@NonNull Long certificateId, GiftCertificate updates, List<Long> newTagIdsList) {
 
         try {
@@ -164,6 +392,7 @@ public class CertificateService {
             }
 
             GiftCertificate existingCertificate = optCertificate.get();
+            CertificateResponseDTO previousDTO = convertToCertificateDTO(existingCertificate);
 
             if (updates.getName() != null) {
                 existingCertificate.setName(updates.getName());
@@ -184,7 +413,9 @@ public class CertificateService {
 
             GiftCertificate updatedCertificate = certificateRepository.save(existingCertificate);
 
-            return convertToCertificateDTO(updatedCertificate);
+            CertificateResponseDTO updatedDTO = convertToCertificateDTO(updatedCertificate);
+            eventPublisher.publishEvent(new CertificateChangedEvent(previousDTO, updatedDTO));
+            return updatedDTO;
         } catch (DataAccessException ex){
             throw new CustomizedException("Database error during update certificate with id " + certificateId, ErrorCode.CERTIFICATE_DATABASE_ERROR, ex);
 
@@ -209,7 +440,7 @@ public class CertificateService {
         return Optional.empty();
     }
 
-    private Optional<String> validateRequest(GiftCertificate giftCertificate) {
+    static Optional<String> validateRequest(GiftCertificate giftCertificate) {
 
         List<String> errors = new ArrayList<>();
 
@@ -1,5 +1,10 @@
 package com.epam.esm.service;
 
+import com.epam.esm.cache.CacheConfig;
+import com.epam.esm.dto.TagResponseDTO;
+import com.epam.esm.event.CatalogueClearedEvent;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.event.TagChangedEvent;
 import com.epam.esm.exceptions.CustomizedException;
 import com.epam.esm.exceptions.ErrorCode;
 import com.epam.esm.model.GiftCertificate;
@@ -11,7 +16,9 @@ import com.epam.esm.repository.OrderRepository;
 import com.epam.esm.repository.RoleRepository;
 import com.epam.esm.repository.TagRepository;
 import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.UserSpendJdbcRepository;
 import com.github.javafaker.Faker;
+import jakarta.transaction.Transactional;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -20,6 +27,8 @@ import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.IntStream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -42,18 +51,32 @@ public class GenerationService {
   @Autowired
   private CertificateRepository giftCertificateRepository;
 
+  @Autowired
+  private UserSpendJdbcRepository userSpendJdbcRepository;
+
   @Autowired
   private PasswordEncoder passwordEncoder;
 
+  @Autowired
+  private CertificateService certificateService;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
   Faker faker = new Faker();
   Random random = new Random();
 
+  @Transactional
+  @CacheEvict(cacheNames = {CacheConfig.CERTIFICATES, CacheConfig.TAGS, CacheConfig.USERS}, allEntries = true)
   public void deleteData() {
     try {
       orderRepository.deleteAll();
+      userSpendJdbcRepository.deleteAll();
       giftCertificateRepository.deleteAll();
       tagRepository.deleteAll();
       userRepository.deleteAll();
+      userRepository.flush();
+      eventPublisher.publishEvent(new CatalogueClearedEvent());
     } catch (DataAccessException ex) {
       throw new CustomizedException("Error deleting data from repositories",
           ErrorCode.DATABASE_ERROR, ex);
@@ -109,7 +132,8 @@ public class GenerationService {
         Tag tag = new Tag();
         tag.setName(tagName);
 
-        tagRepository.save(tag);
+        Tag savedTag = tagRepository.save(tag);
+        eventPublisher.publishEvent(TagChangedEvent.created(new TagResponseDTO(savedTag.getId(), savedTag.getName())));
       });
     } catch (DataAccessException ex) {
       throw new CustomizedException("Error generating tags", ErrorCode.DATABASE_ERROR, ex);
@@ -123,7 +147,8 @@ public class GenerationService {
       for (int i = 0; i < 5000; i++) {
         GiftCertificate certificate = new GiftCertificate();
         certificateCreation(certificate, tags);
-        giftCertificateRepository.save(certificate);
+        GiftCertificate savedCertificate = giftCertificateRepository.save(certificate);
+        eventPublisher.publishEvent(CertificateChangedEvent.created(certificateService.convertToCertificateDTO(savedCertificate)));
       }
     } catch (DataAccessException ex) {
       throw new CustomizedException("Error generating certificates", ErrorCode.DATABASE_ERROR, ex);
@@ -1,28 +1,45 @@
 package com.epam.esm.service;
 
+import com.epam.esm.dto.AccessTokenDTO;
+import com.epam.esm.model.Role;
 import com.epam.esm.model.User;
 import com.epam.esm.repository.UserRepository;
+import com.epam.esm.security.JwtTokenService;
+import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
 public class LoginService {
+
+  private static final String TOKEN_TYPE = "Bearer";
+
   @Autowired
   private UserRepository userRepository;
 
   @Autowired
   private PasswordEncoder passwordEncoder;
 
-  public boolean checkAuthentication(String username, String password) {
+  @Autowired
+  private JwtTokenService jwtTokenService;
 
-    User user = userRepository.findByUsername(username);
-    if (user != null) {
-      return passwordEncoder.matches(password, user.getPassword());
-    }
-    return false;
+  /**
+   * Checks the credentials of a user and issues an access token for the following requests, so the password is
+   * only hashed once per login instead of once per request.
+   *
+   * @return The access token, carrying the id and the roles of the user, or an empty Optional if the username or
+   * the password is not correct.
+   */
+  public Optional<AccessTokenDTO> checkAuthentication(String username, String password) {
+    return userRepository.findWithRolesByUsername(username)
+        .filter(user -> passwordEncoder.matches(password, user.getPassword()))
+        .map(this::issueToken);
   }
 
-  //add permission checker
-  //check role and give permission to POST, GET, DELETE, PATCH
+  private AccessTokenDTO issueToken(User user) {
+    String token = jwtTokenService.issue(user.getId(), user.getUsername(),
+        user.getRoles().stream().map(Role::getName).toList());
+    return new AccessTokenDTO(token, TOKEN_TYPE, jwtTokenService.getTimeToLive().toSeconds());
+  }
 }
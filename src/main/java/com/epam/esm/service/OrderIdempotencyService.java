@@ -0,0 +1,108 @@
+package com.epam.esm.service;
+
+import static com.epam.esm.exceptions.Messages.IDEMPOTENCY_KEY_IN_PROGRESS;
+import static com.epam.esm.exceptions.Messages.IDEMPOTENCY_KEY_REUSED;
+import static com.epam.esm.exceptions.Messages.INVALID_IDEMPOTENCY_KEY;
+
+import com.epam.esm.dto.OrderResponseDTO;
+import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.exceptions.ErrorCode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Places each purchase sent with an {@code Idempotency-Key} at most once.
+ * <p>
+ * The first request with a key places the order, and the keys stay mapped to their result for a bounded time, so a
+ * retried request gets the original order back without reaching the order tables. A duplicate arriving while the
+ * first one is still being placed waits for its result instead of placing a second order. A key whose purchase
+ * failed is released, so the client can retry with it. Keys are scoped to the user sending them and kept in memory,
+ * per instance. A duplicate waits at most {@code orders.idempotency.wait-timeout} for the first request.
+ */
+@Service
+public class OrderIdempotencyService {
+
+  public static final int MAX_KEY_LENGTH = 255;
+
+  private final OrderService orderService;
+  private final Cache<PurchaseKey, Purchase> purchases;
+  private final Duration waitTimeout;
+
+  public OrderIdempotencyService(OrderService orderService,
+      @Value("${orders.idempotency.spec:maximumSize=100000,expireAfterWrite=24h}") String purchasesSpec,
+      @Value("${orders.idempotency.wait-timeout:PT10S}") Duration waitTimeout) {
+    this.orderService = orderService;
+    this.purchases = Caffeine.from(purchasesSpec).build();
+    this.waitTimeout = waitTimeout;
+  }
+
+  /**
+   * Places the purchase of a certificate by a user, unless it was already placed with the same key.
+   *
+   * @param idempotencyKey The key chosen by the client for this purchase.
+   * @param userId         The id of the user purchasing the certificate.
+   * @param certificateId  The id of the certificate to purchase.
+   * @return The order placed by the first request with this key.
+   * @throws CustomizedException if the key is blank or too long, if it was used for another purchase, if the
+   *                             purchase with this key is still in progress after the wait timeout, or if the
+   *                             purchase fails.
+   */
+  public OrderResponseDTO purchaseGiftCertificate(String idempotencyKey, Long userId, Long certificateId) {
+    if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      throw new CustomizedException(INVALID_IDEMPOTENCY_KEY.formatted(MAX_KEY_LENGTH), ErrorCode.ORDER_BAD_REQUEST);
+    }
+
+    PurchaseKey key = new PurchaseKey(userId, idempotencyKey);
+    Purchase purchase = new Purchase(certificateId, new CompletableFuture<>());
+    Purchase existing = purchases.asMap().putIfAbsent(key, purchase);
+    if (existing != null) {
+      if (!Objects.equals(existing.certificateId(), certificateId)) {
+        throw new CustomizedException(IDEMPOTENCY_KEY_REUSED.formatted(idempotencyKey), ErrorCode.IDEMPOTENCY_KEY_REUSED);
+      }
+      return await(idempotencyKey, existing);
+    }
+
+    try {
+      OrderResponseDTO order = orderService.purchaseGiftCertificate(userId, certificateId);
+      purchase.result().complete(order);
+      return order;
+    } catch (Throwable ex) {
+      purchases.asMap().remove(key, purchase);
+      purchase.result().completeExceptionally(ex);
+      throw ex;
+    }
+  }
+
+  private OrderResponseDTO await(String idempotencyKey, Purchase purchase) {
+    try {
+      return purchase.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (ex.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(ex.getCause());
+    } catch (TimeoutException ex) {
+      throw new CustomizedException(IDEMPOTENCY_KEY_IN_PROGRESS.formatted(idempotencyKey),
+          ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new CustomizedException(IDEMPOTENCY_KEY_IN_PROGRESS.formatted(idempotencyKey),
+          ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS);
+    }
+  }
+
+  private record PurchaseKey(Long userId, String idempotencyKey) {}
+
+  private record Purchase(Long certificateId, CompletableFuture<OrderResponseDTO> result) {}
+}
@@ -0,0 +1,224 @@
+package com.epam.esm.service;
+
+import static com.epam.esm.exceptions.Messages.ORDER_QUEUE_FULL;
+import static com.epam.esm.exceptions.Messages.TRACKING_ID_NOT_FOUND;
+
+import com.epam.esm.dto.OrderStatusDTO;
+import com.epam.esm.event.OrderPlacedEvent;
+import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.exceptions.ErrorCode;
+import com.epam.esm.repository.CertificatePrice;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.NewOrder;
+import com.epam.esm.repository.OrderJdbcRepository;
+import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.UserSpendJdbcRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Places orders asynchronously, for clients that opt into it during purchase peaks.
+ * <p>
+ * A purchase is validated and put on a bounded queue, and the caller gets a tracking id at once. A single writer
+ * drains the queue and group-commits whatever has accumulated, up to {@code orders.async.batch-size} orders:
+ * one transaction, one IN query for the users, one for the certificate prices and tags, one JDBC batch of
+ * inserts and one of audit rows, all in the same Envers revision, and one batch per user spend rollup.
+ * When the queue is full the purchase is rejected, so the callers slow down instead of the connection pool.
+ * Statuses are kept for a bounded time.
+ */
+@Slf4j
+@Service
+public class OrderIngestionService {
+
+  private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+  private static final long POLL_TIMEOUT_MILLIS = 100;
+
+  private final UserRepository userRepository;
+  private final CertificateRepository certificateRepository;
+  private final OrderJdbcRepository orderJdbcRepository;
+  private final AuditReaderService auditReaderService;
+  private final UserSpendJdbcRepository userSpendJdbcRepository;
+  private final TransactionOperations transactionOperations;
+  private final ApplicationEventPublisher eventPublisher;
+  private final BlockingQueue<PendingOrder> queue;
+  private final int batchSize;
+  private final Cache<String, OrderStatusDTO> statuses;
+  private volatile boolean running = true;
+  private Thread writer;
+
+  public OrderIngestionService(UserRepository userRepository, CertificateRepository certificateRepository,
+      OrderJdbcRepository orderJdbcRepository, AuditReaderService auditReaderService,
+      UserSpendJdbcRepository userSpendJdbcRepository, TransactionOperations transactionOperations, ApplicationEventPublisher eventPublisher,
+      @Value("${orders.async.queue-capacity:10000}") int queueCapacity,
+      @Value("${orders.async.batch-size:500}") int batchSize,
+      @Value("${orders.async.statuses.spec:maximumSize=100000,expireAfterWrite=1h}") String statusesSpec) {
+    this.userRepository = userRepository;
+    this.certificateRepository = certificateRepository;
+    this.orderJdbcRepository = orderJdbcRepository;
+    this.auditReaderService = auditReaderService;
+    this.userSpendJdbcRepository = userSpendJdbcRepository;
+    this.transactionOperations = transactionOperations;
+    this.eventPublisher = eventPublisher;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = batchSize;
+    this.statuses = Caffeine.from(statusesSpec).build();
+  }
+
+  /**
+   * Validates a purchase and queues it for placement.
+   *
+   * @param userId        The id of the user purchasing the certificate.
+   * @param certificateId The id of the certificate to purchase.
+   * @return The QUEUED status of the purchase, with its tracking id.
+   * @throws CustomizedException if the user or the certificate is not found, or if the queue is full.
+   */
+  public OrderStatusDTO submit(Long userId, Long certificateId) {
+    if (userId == null || !userRepository.existsById(userId)) {
+      throw new CustomizedException("User with id " + userId + " not found.", ErrorCode.USER_NOT_FOUND);
+    }
+    if (certificateId == null || !certificateRepository.existsById(certificateId)) {
+      throw new CustomizedException("Certificate with ID " + certificateId + " not found.", ErrorCode.CERTIFICATE_NOT_FOUND);
+    }
+
+    OrderStatusDTO status = OrderStatusDTO.queued(UUID.randomUUID().toString());
+    statuses.put(status.trackingId(), status);
+    if (!running || !queue.offer(new PendingOrder(status.trackingId(), userId, certificateId))) {
+      statuses.invalidate(status.trackingId());
+      throw new CustomizedException(ORDER_QUEUE_FULL, ErrorCode.ORDER_QUEUE_FULL);
+    }
+    return status;
+  }
+
+  /**
+   * @return The current status of the purchase with the given tracking id.
+   * @throws CustomizedException if no purchase is tracked with that id, or its status has expired.
+   */
+  public OrderStatusDTO getStatus(String trackingId) {
+    OrderStatusDTO status = statuses.getIfPresent(trackingId);
+    if (status == null) {
+      throw new CustomizedException(TRACKING_ID_NOT_FOUND.formatted(trackingId), ErrorCode.ORDER_NOT_FOUND);
+    }
+    return status;
+  }
+
+  /**
+   * Starts the writer once the application has started.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void start() {
+    if (writer == null) {
+      writer = new Thread(this::drain, "order-writer");
+      writer.setDaemon(true);
+      writer.start();
+    }
+  }
+
+  /**
+   * Stops accepting purchases and lets the writer place the queued ones before it exits.
+   */
+  @PreDestroy
+  public synchronized void stop() throws InterruptedException {
+    running = false;
+    if (writer != null) {
+      writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+  }
+
+  private void drain() {
+    List<PendingOrder> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingOrder first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        if (first != null) {
+          batch.add(first);
+          queue.drainTo(batch, batchSize - 1);
+          writeBatch(batch);
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException ex) {
+        log.error("Unexpected error while placing {} queued orders", batch.size(), ex);
+        batch.forEach(order -> statuses.put(order.trackingId(),
+            OrderStatusDTO.failed(order.trackingId(), "Unexpected error while placing order")));
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  /**
+   * Places a batch of queued orders in one transaction and records the status of each.
+   */
+  void writeBatch(List<PendingOrder> batch) {
+    try {
+      List<OrderStatusDTO> results = transactionOperations.execute(status -> place(batch));
+      results.forEach(result -> statuses.put(result.trackingId(), result));
+    } catch (DataAccessException ex) {
+      log.warn("Placement of {} queued orders failed", batch.size(), ex);
+      batch.forEach(order -> statuses.put(order.trackingId(),
+          OrderStatusDTO.failed(order.trackingId(), "Database error while placing order")));
+    }
+  }
+
+  private List<OrderStatusDTO> place(List<PendingOrder> batch) {
+    Set<Long> userIds = orderJdbcRepository.findExistingUserIds(batch.stream().map(PendingOrder::userId).toList());
+    Map<Long, CertificatePrice> prices = orderJdbcRepository.findPrices(
+        batch.stream().map(PendingOrder::certificateId).toList());
+
+    List<OrderStatusDTO> results = new ArrayList<>(batch.size());
+    List<PendingOrder> accepted = new ArrayList<>(batch.size());
+    LocalDateTime purchaseTime = LocalDateTime.now();
+    List<NewOrder> orders = new ArrayList<>(batch.size());
+    for (PendingOrder order : batch) {
+      CertificatePrice certificate = prices.get(order.certificateId());
+      if (!userIds.contains(order.userId())) {
+        results.add(OrderStatusDTO.failed(order.trackingId(), "User with id " + order.userId() + " not found."));
+      } else if (certificate == null) {
+        results.add(OrderStatusDTO.failed(order.trackingId(),
+            "Certificate with ID " + order.certificateId() + " not found."));
+      } else {
+        accepted.add(order);
+        orders.add(new NewOrder(order.userId(), order.certificateId(), certificate.price(), purchaseTime));
+      }
+    }
+    if (orders.isEmpty()) {
+      return results;
+    }
+
+    String createDate = TIMESTAMP_FORMAT.format(LocalDateTime.now(ZoneOffset.UTC));
+    List<Long> ids = orderJdbcRepository.insertAll(orders, createDate);
+    orderJdbcRepository.auditInserted(auditReaderService.getCurrentRevisionNumber(), ids, orders, createDate);
+    userSpendJdbcRepository.addOrders(orders);
+
+    for (int i = 0; i < orders.size(); i++) {
+      NewOrder order = orders.get(i);
+      eventPublisher.publishEvent(new OrderPlacedEvent(ids.get(i), order.userId(), order.certificateId(),
+          order.price(), prices.get(order.certificateId()).tagIds()));
+      results.add(OrderStatusDTO.placed(accepted.get(i).trackingId(), ids.get(i)));
+    }
+    return results;
+  }
+
+  record PendingOrder(String trackingId, Long userId, Long certificateId) {}
+}
@@ -1,40 +1,90 @@
 package com.epam.esm.service;
 
+import static com.epam.esm.exceptions.Messages.CHECKOUT_CERTIFICATES_NOT_FOUND;
+import static com.epam.esm.exceptions.Messages.CHECKOUT_TOO_LARGE;
+import static com.epam.esm.exceptions.Messages.EMPTY_CHECKOUT;
+import static com.epam.esm.exceptions.Messages.INVALID_CHECKOUT_ITEM;
+import static com.epam.esm.exceptions.Messages.INVALID_ORDER_RANGE;
 
 import com.epam.esm.dto.CertificateDTO;
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.CheckoutItemDTO;
+import com.epam.esm.dto.CheckoutRequestDTO;
+import com.epam.esm.dto.CheckoutResponseDTO;
 import com.epam.esm.dto.OrderResponseDTO;
 import com.epam.esm.dto.UserDTO;
+import com.epam.esm.event.OrderPlacedEvent;
 import com.epam.esm.exceptions.CustomizedException;
 import com.epam.esm.exceptions.ErrorCode;
-import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.filter.CountMode;
+import com.epam.esm.filter.KeysetCursor;
+import com.epam.esm.filter.KeysetSpecification;
+import com.epam.esm.filter.PurchaseTimeSpecification;
 import com.epam.esm.model.Order;
-import com.epam.esm.model.Tag;
 import com.epam.esm.model.User;
+import com.epam.esm.repository.CertificateJdbcRepository;
 import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.NewOrder;
+import com.epam.esm.repository.OrderJdbcRepository;
 import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.RowCountEstimator;
+import com.epam.esm.repository.SliceQueryRepository;
 import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.UserSpendJdbcRepository;
 import jakarta.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 @Service
 public class OrderService {
 
+  public static final int MAX_CHECKOUT_QUANTITY = 1000;
+  private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+
   private final OrderRepository orderRepository;
   private final UserRepository userRepository;
   private final CertificateRepository certificateRepository;
+  private final CertificateJdbcRepository certificateJdbcRepository;
+  private final OrderJdbcRepository orderJdbcRepository;
+  private final AuditReaderService auditReaderService;
+  private final UserSpendJdbcRepository userSpendJdbcRepository;
+  private final SliceQueryRepository sliceQueryRepository;
+  private final RowCountEstimator rowCountEstimator;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public OrderService(OrderRepository orderRepository, UserRepository userRepository, CertificateRepository certificateRepository) {
+  public OrderService(OrderRepository orderRepository, UserRepository userRepository, CertificateRepository certificateRepository,
+      CertificateJdbcRepository certificateJdbcRepository, OrderJdbcRepository orderJdbcRepository,
+      AuditReaderService auditReaderService, UserSpendJdbcRepository userSpendJdbcRepository,
+      SliceQueryRepository sliceQueryRepository,
+      RowCountEstimator rowCountEstimator, ApplicationEventPublisher eventPublisher) {
     this.orderRepository = orderRepository;
     this.userRepository = userRepository;
     this.certificateRepository = certificateRepository;
+    this.certificateJdbcRepository = certificateJdbcRepository;
+    this.orderJdbcRepository = orderJdbcRepository;
+    this.auditReaderService = auditReaderService;
+    this.userSpendJdbcRepository = userSpendJdbcRepository;
+    this.sliceQueryRepository = sliceQueryRepository;
+    this.rowCountEstimator = rowCountEstimator;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -47,7 +97,67 @@ public class OrderService {
   public Page<OrderResponseDTO> getAllOrders(Pageable pageable) {
     Page<Order> ordersPage = handleDBError(() -> orderRepository.findAll(pageable),
         "Database error while getting all orders");
-    return ordersPage.map(this::convertToOrderDTO);
+    return ordersPage.map(converterFor(ordersPage.getContent()));
+  }
+
+  /**
+   * Retrieves a page with all orders available in the system, obtaining its total as requested by countMode.
+   * Each order is represented as an OrderResponseDTO.
+   * @param pageable Specifies the details of the page of orders to be retrieved such as the page number and size.
+   * @param countMode How the total number of orders is obtained.
+   * @return A Page for the EXACT and ESTIMATED modes, a Slice without total for the NONE mode.
+   * @throws CustomizedException if there is a database access error.
+   */
+  public Slice<OrderResponseDTO> getAllOrders(Pageable pageable, CountMode countMode) {
+    Slice<Order> ordersSlice = switch (countMode) {
+      case EXACT -> handleDBError(() -> orderRepository.findAll(pageable),
+          "Database error while getting all orders");
+      case NONE -> handleDBError(() -> sliceQueryRepository.findSlice(Order.class, Specification.where(null), pageable),
+          "Database error while getting all orders");
+      case ESTIMATED -> handleDBError(() -> sliceQueryRepository.findEstimatedPage(Order.class, Specification.where(null),
+              pageable, () -> rowCountEstimator.estimateRows(Order.class, orderRepository::count)),
+          "Database error while getting all orders");
+    };
+    return ordersSlice.map(converterFor(ordersSlice.getContent()));
+  }
+
+  /**
+   * Retrieves the orders that come after the given cursor, seeking past it instead of counting an offset.
+   * Each order is represented as an OrderResponseDTO.
+   * @param cursor The position of the last order of the previous page.
+   * @param size The number of orders to retrieve.
+   * @return A slice of OrderResponseDTO objects in the sort order the cursor was issued for.
+   * @throws CustomizedException if there is a database access error.
+   */
+  public Slice<OrderResponseDTO> getAllOrdersAfter(KeysetCursor cursor, int size) {
+    Slice<Order> ordersSlice = handleDBError(() -> sliceQueryRepository.findSlice(Order.class,
+            new KeysetSpecification<>(cursor), cursor.firstPage(size)),
+        "Database error while getting all orders");
+    return ordersSlice.map(converterFor(ordersSlice.getContent()));
+  }
+
+  /**
+   * Retrieves the orders purchased within a time range, sorted by purchase time and then by id, seeking past the
+   * cursor instead of counting an offset. Only the monthly partitions overlapping the range are read.
+   * Each order is represented as an OrderResponseDTO.
+   * @param from The inclusive lower bound of the purchase time, or null for no lower bound.
+   * @param to The exclusive upper bound of the purchase time, or null for no upper bound.
+   * @param cursor The position of the last order of the previous page, or null for the first page.
+   * @param size The number of orders to retrieve.
+   * @return A slice of OrderResponseDTO objects, without a total count.
+   * @throws CustomizedException if the range is empty, or if there is a database access error.
+   */
+  public Slice<OrderResponseDTO> getOrdersBetween(LocalDateTime from, LocalDateTime to, KeysetCursor cursor, int size) {
+    if (from != null && to != null && !from.isBefore(to)) {
+      throw new CustomizedException(INVALID_ORDER_RANGE.formatted(from, to), ErrorCode.ORDER_BAD_REQUEST);
+    }
+    Specification<Order> range = new PurchaseTimeSpecification<>(from, to);
+    Specification<Order> spec = cursor == null ? range : range.and(new KeysetSpecification<>(cursor));
+    Pageable pageable = PageRequest.of(0, size, KeysetCursor.sortBy(PurchaseTimeSpecification.PURCHASE_TIME));
+
+    Slice<Order> ordersSlice = handleDBError(() -> sliceQueryRepository.findSlice(Order.class, spec, pageable),
+        "Database error while getting orders between " + from + " and " + to);
+    return ordersSlice.map(converterFor(ordersSlice.getContent()));
   }
 
   /**
@@ -63,7 +173,9 @@ public class OrderService {
         "Database error while retrieving orders for user id:" + userId);
 
     try {
-      return ordersPage.map(this::convertToOrderDTO);
+      return ordersPage.map(converterFor(ordersPage.getContent()));
+    } catch (CustomizedException ex) {
+      throw ex;
     } catch (Exception ex) {
       throw new CustomizedException("Error while converting order to OrderDTO",
           ErrorCode.ORDER_CONVERSION_ERROR, ex);
@@ -84,7 +196,9 @@ public class OrderService {
     if (optionalOrder.isPresent()) {
       Order order = optionalOrder.get();
       try {
-        return convertToOrderDTO(order);
+        return converterFor(List.of(order)).apply(order);
+      } catch (CustomizedException ex) {
+        throw ex;
       } catch (Exception ex) {
         throw new CustomizedException("Error while converting order to OrderDTO",
             ErrorCode.ORDER_CONVERSION_ERROR, ex);
@@ -96,6 +210,9 @@ public class OrderService {
   }
   /**
    * Facilitates the purchase of a gift certificate for a user.
+   * The certificate entity and its EAGER tags are not loaded: the price and the response fields come from a single-statement
+   * read of the certificate with its tag ids, and the order references the certificate through a proxy. The user is still
+   * loaded, as Envers reads it at commit to record the change of its orders.
    * @param userId Specifies the ID of the user purchasing the certificate.
    * @param certificateId Specifies the ID of the certificate to be purchased.
    * @return An OrderResponseDTO object containing the details of the purchase.
@@ -104,22 +221,97 @@ public class OrderService {
   @Transactional
   public OrderResponseDTO purchaseGiftCertificate(Long userId, Long certificateId) {
     User user = getUser(userId);
-    GiftCertificate certificate = getCertificate(certificateId);
+    CertificateResponseDTO certificate = getCertificate(certificateId);
 
-    Order order = new Order(user, certificate, certificate.getPrice(), LocalDateTime.now());
+    Order order = new Order(user, certificateRepository.getReferenceById(certificateId), certificate.price(), LocalDateTime.now());
     Order savedOrder = orderRepository.save(order);
+    userSpendJdbcRepository.addOrders(List.of(new NewOrder(userId, certificateId, savedOrder.getPrice(),
+        savedOrder.getPurchaseTime())));
+
+    OrderResponseDTO savedDTO = new OrderResponseDTO(savedOrder.getId(), mapToUserDTO(user), mapToCertificateDTO(certificate),
+        savedOrder.getPrice(), savedOrder.getPurchaseTime());
+    eventPublisher.publishEvent(new OrderPlacedEvent(savedDTO.orderId(), userId, certificateId, savedDTO.purchaseCost(),
+        certificate.tagIds()));
+    return savedDTO;
+  }
 
-    return convertToOrderDTO(savedOrder);
+
+  /**
+   * Places the purchase of several certificates by a user, as one order per certificate bought.
+   * The certificates are read in one statement, the orders inserted in one JDBC batch, and all of them
+   * are recorded in the same Envers revision.
+   * @param checkout Specifies the ID of the user and the certificates to purchase, with their quantities.
+   * @return A CheckoutResponseDTO with the placed orders, in the order of the items, and their total cost.
+   * @throws CustomizedException if the checkout is empty or too large, if an item has no certificate ID or a quantity
+   * below 1, or if the user or one of the certificates is not found.
+   */
+  @Transactional
+  public CheckoutResponseDTO checkout(CheckoutRequestDTO checkout) {
+    List<CheckoutItemDTO> items = validateCheckout(checkout);
+    User user = getUser(checkout.userId());
+    Map<Long, CertificateResponseDTO> certificates = certificateJdbcRepository.findAllById(
+        items.stream().map(CheckoutItemDTO::certificateId).collect(Collectors.toSet()));
+    List<Long> missing = items.stream().map(CheckoutItemDTO::certificateId)
+        .filter(id -> !certificates.containsKey(id)).distinct().toList();
+    if (!missing.isEmpty()) {
+      throw new CustomizedException(CHECKOUT_CERTIFICATES_NOT_FOUND.formatted(missing), ErrorCode.CERTIFICATE_NOT_FOUND);
+    }
+
+    LocalDateTime purchaseTime = LocalDateTime.now();
+    List<NewOrder> orders = new ArrayList<>();
+    for (CheckoutItemDTO item : items) {
+      CertificateResponseDTO certificate = certificates.get(item.certificateId());
+      for (int i = 0; i < quantityOf(item); i++) {
+        orders.add(new NewOrder(user.getId(), certificate.certificateId(), certificate.price(), purchaseTime));
+      }
+    }
+    String createDate = TIMESTAMP_FORMAT.format(LocalDateTime.now(ZoneOffset.UTC));
+    List<Long> ids = orderJdbcRepository.insertAll(orders, createDate);
+    orderJdbcRepository.auditInserted(auditReaderService.getCurrentRevisionNumber(), ids, orders, createDate);
+    userSpendJdbcRepository.addOrders(orders);
+
+    UserDTO userDTO = mapToUserDTO(user);
+    List<OrderResponseDTO> placed = new ArrayList<>(orders.size());
+    double totalCost = 0;
+    for (int i = 0; i < orders.size(); i++) {
+      NewOrder order = orders.get(i);
+      CertificateResponseDTO certificate = certificates.get(order.certificateId());
+      placed.add(new OrderResponseDTO(ids.get(i), userDTO, mapToCertificateDTO(certificate), order.price(), purchaseTime));
+      totalCost += order.price();
+      eventPublisher.publishEvent(new OrderPlacedEvent(ids.get(i), user.getId(), order.certificateId(), order.price(),
+          certificate.tagIds()));
+    }
+    return new CheckoutResponseDTO(userDTO, placed, totalCost, purchaseTime);
+  }
+
+  private List<CheckoutItemDTO> validateCheckout(CheckoutRequestDTO checkout) {
+    if (checkout == null || checkout.items() == null || checkout.items().isEmpty()) {
+      throw new CustomizedException(EMPTY_CHECKOUT, ErrorCode.ORDER_BAD_REQUEST);
+    }
+    long quantity = 0;
+    for (CheckoutItemDTO item : checkout.items()) {
+      if (item == null || item.certificateId() == null || (item.quantity() != null && item.quantity() < 1)) {
+        throw new CustomizedException(INVALID_CHECKOUT_ITEM, ErrorCode.ORDER_BAD_REQUEST);
+      }
+      quantity += quantityOf(item);
+    }
+    if (quantity > MAX_CHECKOUT_QUANTITY) {
+      throw new CustomizedException(CHECKOUT_TOO_LARGE.formatted(MAX_CHECKOUT_QUANTITY), ErrorCode.ORDER_BAD_REQUEST);
+    }
+    return checkout.items();
   }
 
+  private static int quantityOf(CheckoutItemDTO item) {
+    return item.quantity() == null ? 1 : item.quantity();
+  }
 
   private User getUser(Long userId) {
     return userRepository.findById(userId)
         .orElseThrow(() -> new CustomizedException("User with id " + userId + " not found.", ErrorCode.USER_NOT_FOUND));
   }
 
-  private GiftCertificate getCertificate(Long certificateId) {
-    return certificateRepository.findById(certificateId)
+  private CertificateResponseDTO getCertificate(Long certificateId) {
+    return certificateJdbcRepository.findById(certificateId)
         .orElseThrow(() -> new CustomizedException("Certificate with ID " + certificateId + " not found.", ErrorCode.CERTIFICATE_NOT_FOUND));
   }
 
@@ -127,29 +319,51 @@ public class OrderService {
     return new UserDTO(user.getId(), user.getName());
   }
 
-  private CertificateDTO mapToCertificateDTO(GiftCertificate certificate) {
-    List<Long> tagIds = certificate.getTags().stream().map(Tag::getId).collect(Collectors.toList());
-    return new CertificateDTO(certificate.getId(), certificate.getName(),
-        certificate.getDescription(), certificate.getPrice(),
-        certificate.getDuration(), tagIds);
+  private CertificateDTO mapToCertificateDTO(CertificateResponseDTO certificate) {
+    return new CertificateDTO(certificate.certificateId(), certificate.name(), certificate.description(),
+        certificate.price(), certificate.duration(), certificate.tagIds());
   }
 
-  private OrderResponseDTO convertToOrderDTO(Order order) {
+  /**
+   * Prepares the conversion of a page of orders with two statements, whatever its size: the users and the certificates
+   * with their tag ids are read by id, instead of initializing the lazy associations of every order one by one.
+   * Only the ids of the associations are read from the orders, which does not initialize them.
+   */
+  private Function<Order, OrderResponseDTO> converterFor(List<Order> orders) {
+    Set<Long> userIds = new HashSet<>();
+    Set<Long> certificateIds = new HashSet<>();
     try {
-      UserDTO userDTO = mapToUserDTO(order.getUser());
+      for (Order order : orders) {
+        userIds.add(order.getUser().getId());
+        certificateIds.add(order.getCertificate().getId());
+      }
+    } catch (NullPointerException ex) {
+      throw new CustomizedException("Error while converting order to OrderDTO", ErrorCode.ORDER_CONVERSION_ERROR, ex);
+    }
 
-    CertificateDTO certificateDTO = mapToCertificateDTO(order.getCertificate());
+    Map<Long, UserDTO> users = userIds.isEmpty() ? Map.of() : handleDBError(() -> userRepository.findSummariesByIdIn(userIds)
+        .stream().collect(Collectors.toMap(UserDTO::id, Function.identity())), "Database error while reading order users");
+    Map<Long, CertificateResponseDTO> certificates = handleDBError(() -> certificateJdbcRepository.findAllById(certificateIds),
+        "Database error while reading order certificates");
+    return order -> convertToOrderDTO(order, users, certificates);
+  }
 
-    return new OrderResponseDTO(order.getId(), userDTO, certificateDTO,
+  private OrderResponseDTO convertToOrderDTO(Order order, Map<Long, UserDTO> users,
+      Map<Long, CertificateResponseDTO> certificates) {
+    UserDTO userDTO = users.get(order.getUser().getId());
+    CertificateResponseDTO certificate = certificates.get(order.getCertificate().getId());
+    if (userDTO == null || certificate == null) {
+      throw new CustomizedException("Error while converting order to OrderDTO", ErrorCode.ORDER_CONVERSION_ERROR);
+    }
+    return new OrderResponseDTO(order.getId(), userDTO, mapToCertificateDTO(certificate),
         order.getPrice(), order.getPurchaseTime());
-  }catch (NullPointerException ex) {
-    throw new CustomizedException("Error while converting order to OrderDTO", ErrorCode.ORDER_CONVERSION_ERROR, ex);
-  }
   }
 
   private <T> T handleDBError(Callable<T> dbOperation, String errorMessage) {
     try {
       return dbOperation.call();
+    } catch (CustomizedException ex) {
+      throw ex;
     } catch (DataAccessException ex) {
       throw new CustomizedException(errorMessage, ErrorCode.ORDER_DATABASE_ERROR, ex);
     } catch (Exception ex) {
@@ -1,24 +1,45 @@
 package com.epam.esm.service;
 
+import static com.epam.esm.exceptions.Messages.INVALID_RELATED_TAG_LIMIT;
+import static com.epam.esm.exceptions.Messages.INVALID_TAG_SEARCH_LIMIT;
 import static com.epam.esm.exceptions.Messages.NOT_VALID_TAG_REQUEST;
 import static com.epam.esm.exceptions.Messages.TAG_ALREADY_EXISTS;
 import static com.epam.esm.exceptions.Messages.TAG_CANNOT_BE_SAVED;
 import static com.epam.esm.exceptions.Messages.TAG_ID_NOT_FOUND;
 
+import com.epam.esm.aggregate.PurchaseAggregates;
+import com.epam.esm.cache.CacheConfig;
 import com.epam.esm.dto.TagResponseDTO;
+import com.epam.esm.dto.TagUsageDTO;
+import com.epam.esm.event.TagChangedEvent;
 import com.epam.esm.exceptions.CustomizedException;
 import com.epam.esm.exceptions.ErrorCode;
-import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.index.TagDictionary;
+import com.epam.esm.index.TagStatistics;
 import com.epam.esm.model.Tag;
-import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.TagJdbcRepository;
 import com.epam.esm.repository.TagRepository;
+import com.epam.esm.repository.TagUsage;
 import jakarta.transaction.Transactional;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
@@ -26,13 +47,45 @@ import org.springframework.stereotype.Service;
 @Service
 public class TagService {
 
+    static final int MAX_SEARCH_RESULTS = 100;
+    static final int MAX_RELATED_TAGS = 100;
+    static final int MAX_REPORTED_DUPLICATE_NAMES = 10;
+
     private final TagRepository tagRepository;
-    private final CertificateRepository certificateRepository;
+    private final TagJdbcRepository tagJdbcRepository;
+    private final AuditReaderService auditReaderService;
+    private final TagDictionary tagDictionary;
+    private final TagStatistics tagStatistics;
+    private final PurchaseAggregates purchaseAggregates;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public TagService(TagRepository tagRepository, CertificateRepository certificateRepository) {
+    public TagService(TagRepository tagRepository, TagJdbcRepository tagJdbcRepository,
+        AuditReaderService auditReaderService, TagDictionary tagDictionary, TagStatistics tagStatistics,
+        PurchaseAggregates purchaseAggregates, ApplicationEventPublisher eventPublisher) {
         this.tagRepository = tagRepository;
-        this.certificateRepository = certificateRepository;
+        this.tagJdbcRepository = tagJdbcRepository;
+        this.auditReaderService = auditReaderService;
+        this.tagDictionary = tagDictionary;
+        this.tagStatistics = tagStatistics;
+        this.purchaseAggregates = purchaseAggregates;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Stops the application when tag names are duplicated. The uk_tag_name constraint that bulk saving relies on is
+     * added by the schema update, which only logs a warning when existing rows violate it, so without this check
+     * {@link #saveTags} would silently create more duplicates.
+     *
+     * @throws IllegalStateException if any tag name is used by more than one tag.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkTagNamesAreUnique() {
+        List<String> duplicates = tagJdbcRepository.findDuplicateNames(MAX_REPORTED_DUPLICATE_NAMES);
+        if (!duplicates.isEmpty()) {
+            throw new IllegalStateException("Tag names must be unique before uk_tag_name can be created, merge the"
+                + " tags named " + duplicates + (duplicates.size() == MAX_REPORTED_DUPLICATE_NAMES ? " and more" : ""));
+        }
     }
 
     /**
@@ -58,21 +111,65 @@ public class TagService {
             tag.setName(tagName);
 
             Tag savedTag = tagRepository.save(tag);
-            return convertTagToTagReturnDTO(savedTag);
+            TagResponseDTO savedDTO = convertTagToTagReturnDTO(savedTag);
+            eventPublisher.publishEvent(TagChangedEvent.created(savedDTO));
+            return savedDTO;
         } catch (DataAccessException ex){
             throw new CustomizedException(TAG_CANNOT_BE_SAVED, ErrorCode.TAG_DATABASE_ERROR, ex);
         }
     }
 
+    /**
+     * Saves many tags at once, reusing the ones that already exist.
+     * Existing names are looked up with one query and the missing ones are inserted with multi-row inserts
+     * that skip names inserted concurrently, which are then looked up, so the call never fails on a duplicate name.
+     *
+     * @param tagNames The names of the tags. Should not be null, nor contain null or empty names.
+     * @return The id of the tag of every distinct name, in request order.
+     * @throws CustomizedException if a name is null or empty, or if there is a database error during saving.
+     */
+    @Transactional
+    public Map<String, Long> saveTags(List<String> tagNames) {
+        if (tagNames == null || tagNames.stream().anyMatch(name -> name == null || name.isEmpty())) {
+            throw new CustomizedException(NOT_VALID_TAG_REQUEST, ErrorCode.TAG_BAD_REQUEST);
+        }
+
+        try {
+            Set<String> names = new LinkedHashSet<>(tagNames);
+            Map<String, Long> ids = tagJdbcRepository.findIdsByName(names);
+            List<String> missing = names.stream().filter(name -> !ids.containsKey(name)).toList();
+            if (!missing.isEmpty()) {
+                Map<String, Long> inserted = tagJdbcRepository.insertMissing(missing,
+                    auditReaderService.getCurrentRevisionNumber());
+                inserted.forEach((name, id) -> eventPublisher.publishEvent(
+                    TagChangedEvent.created(new TagResponseDTO(id, name))));
+                ids.putAll(inserted);
+                if (inserted.size() < missing.size()) {
+                    ids.putAll(tagJdbcRepository.findIdsByName(
+                        missing.stream().filter(name -> !inserted.containsKey(name)).toList()));
+                }
+            }
+
+            Map<String, Long> result = new LinkedHashMap<>();
+            names.forEach(name -> result.put(name, ids.get(name)));
+            return result;
+        } catch (DataAccessException ex) {
+            throw new CustomizedException(TAG_CANNOT_BE_SAVED, ErrorCode.TAG_DATABASE_ERROR, ex);
+        }
+    }
+
     /**
      * Retrieves the most used tag by user with highest cost of orders.
+     * It is read from the purchase aggregates while they are current, otherwise computed from the orders.
      *
      * @return The most used tag as a TagResponseDTO, or null if no tags exist.
      * @throws CustomizedException if there is a database error during fetch.
      */
     public TagResponseDTO getMostUsedTag(){
         try {
-            Optional<Long> tagId = tagRepository.findMostUsedTagOfUserWithHighestTotalCostOfOrders();
+            Optional<Long> tagId = purchaseAggregates.isCurrent()
+                ? purchaseAggregates.findMostUsedTagOfTopSpender()
+                : tagRepository.findMostUsedTagOfUserWithHighestTotalCostOfOrders();
             if(tagId.isPresent()) {
                 Tag tag = tagRepository.getReferenceById(tagId.get());
                 return convertTagToTagReturnDTO(tag);
@@ -101,6 +198,79 @@ public class TagService {
     }
 
 
+    /**
+     * Retrieves the tags ordered by descending number of certificates, then by id.
+     * The ranking is read from the in-memory tag statistics; the database only aggregates it until they are built.
+     *
+     * @param pageable Details for the paging of the results. Its sort is ignored.
+     * @return A page of tags with their number of certificates as TagUsageDTOs.
+     * @throws CustomizedException if there is a database error during fetch.
+     */
+    public Page<TagUsageDTO> getTagsByUsage(Pageable pageable) {
+        try {
+            Page<TagUsage> usages = tagStatistics.findByUsage(pageable)
+                .orElseGet(() -> new PageImpl<>(tagJdbcRepository.findUsage(pageable.getOffset(), pageable.getPageSize()),
+                    pageable, tagRepository.count()));
+            Map<Long, String> names = findNames(usages.getContent());
+            return usages.map(usage -> new TagUsageDTO(usage.tagId(), names.get(usage.tagId()), usage.count()));
+        } catch (DataAccessException ex) {
+            throw new CustomizedException("Failed to fetch tags from the database", ErrorCode.TAG_DATABASE_ERROR, ex);
+        }
+    }
+
+    /**
+     * Retrieves the tags most often found on the same certificates as a tag, by descending shared count, then by id.
+     * They are read from the in-memory co-occurrence matrix; the database only aggregates them until it is built.
+     *
+     * @param tagId The id of the tag.
+     * @param limit The maximum number of tags to return.
+     * @return The related tags with the number of certificates they share with the tag, as TagUsageDTOs.
+     * @throws CustomizedException if limit is out of range, if the tag does not exist,
+     * or if there is a database error during fetch.
+     */
+    public List<TagUsageDTO> getRelatedTags(long tagId, int limit) {
+        if (limit < 1 || limit > MAX_RELATED_TAGS) {
+            throw new CustomizedException(INVALID_RELATED_TAG_LIMIT.formatted(MAX_RELATED_TAGS), ErrorCode.TAG_BAD_REQUEST);
+        }
+        try {
+            if (!tagRepository.existsById(tagId)) {
+                throw new CustomizedException(TAG_ID_NOT_FOUND.formatted(tagId), ErrorCode.TAG_NOT_FOUND);
+            }
+            List<TagUsage> related = tagStatistics.findRelated(tagId, limit)
+                .orElseGet(() -> tagJdbcRepository.findRelated(tagId, limit));
+            Map<Long, String> names = findNames(related);
+            return related.stream()
+                .map(usage -> new TagUsageDTO(usage.tagId(), names.get(usage.tagId()), usage.count()))
+                .toList();
+        } catch (DataAccessException ex) {
+            throw new CustomizedException("Database error while fetching related tags", ErrorCode.TAG_DATABASE_ERROR, ex);
+        }
+    }
+
+    /**
+     * Searches the tags whose name starts with prefix, ignoring case, in name order.
+     * They are read from the in-memory tag dictionary; the database is only queried until it is built.
+     *
+     * @param prefix The beginning of the tag names.
+     * @param limit  The maximum number of tags to return.
+     * @return The matching tags as TagResponseDTOs.
+     * @throws CustomizedException if limit is out of range, or if there is a database error during fetch.
+     */
+    public List<TagResponseDTO> searchTags(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new CustomizedException(INVALID_TAG_SEARCH_LIMIT.formatted(MAX_SEARCH_RESULTS), ErrorCode.TAG_BAD_REQUEST);
+        }
+        try {
+            return tagDictionary.findByPrefix(prefix, limit)
+                .orElseGet(() -> tagRepository.findByNameStartingWithIgnoreCaseOrderByNameAsc(prefix, PageRequest.of(0, limit))
+                    .stream()
+                    .map(this::convertTagToTagReturnDTO)
+                    .toList());
+        } catch (DataAccessException ex) {
+            throw new CustomizedException("Database error while searching tags", ErrorCode.TAG_DATABASE_ERROR, ex);
+        }
+    }
+
     /**
      * Retrieves a Tag by id, represented as a TagResponseDTO.
      *
@@ -108,6 +278,7 @@ public class TagService {
      * @return A TagResponseDTO of the Tag.
      * @throws CustomizedException If the Tag id is not found or there is an error retrieving the Tag from the database.
      */
+    @Cacheable(cacheNames = CacheConfig.TAGS, key = "#tagId")
     public TagResponseDTO getTag(Long tagId){
         try {
             return tagRepository.findById(tagId)
@@ -120,32 +291,42 @@ public class TagService {
 
     /**
      * Deletes the tag with the provided id.
+     * Its certificate links are removed with one set-based statement instead of saving every linked certificate,
+     * and their audit rows are written in the revision of the tag deletion.
+     * Cached certificates are all evicted, since any of them may list the deleted tag id.
      *
      * @param tagId The id of the tag to delete.
      * @throws CustomizedException if tagId does not exist, or if there is a database error during deletion.
      */
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.TAGS, key = "#tagId"),
+        @CacheEvict(cacheNames = CacheConfig.CERTIFICATES, allEntries = true)
+    })
     public void deleteTag(long tagId) {
-        if (!tagRepository.existsById(tagId)) {
-            throw new CustomizedException(TAG_ID_NOT_FOUND.formatted(tagId), ErrorCode.TAG_NOT_FOUND);
-        }
         try {
-            Tag tag = tagRepository.findById(tagId).get();
-
-            List<GiftCertificate> certificates = certificateRepository.findAllByTagsContaining(tag);
-
-            for(GiftCertificate certificate : certificates) {
-                certificate.getTags().remove(tag);
-                certificateRepository.save(certificate);
-            }
+            Tag tag = tagRepository.findById(tagId)
+                .orElseThrow(() -> new CustomizedException(TAG_ID_NOT_FOUND.formatted(tagId), ErrorCode.TAG_NOT_FOUND));
 
-            tagRepository.deleteById(tagId);
+            int unlinked = tagJdbcRepository.deleteCertificateLinks(tagId, auditReaderService.getCurrentRevisionNumber());
+            tagRepository.delete(tag);
+            log.debug("Tag {} deleted and unlinked from {} certificates", tagId, unlinked);
 
+            eventPublisher.publishEvent(TagChangedEvent.deleted(convertTagToTagReturnDTO(tag)));
         } catch (DataAccessException ex) {
             throw new CustomizedException("Database error during deleting tag with id " + tagId, ErrorCode.TAG_DATABASE_ERROR, ex);
         }
     }
 
+    private Map<Long, String> findNames(List<TagUsage> usages) {
+        Map<Long, String> names = new HashMap<>();
+        if (!usages.isEmpty()) {
+            tagRepository.findAllById(usages.stream().map(TagUsage::tagId).toList())
+                .forEach(tag -> names.put(tag.getId(), tag.getName()));
+        }
+        return names;
+    }
+
     private TagResponseDTO convertTagToTagReturnDTO(Tag tag) {
         return new TagResponseDTO(tag.getId(), tag.getName());
     }
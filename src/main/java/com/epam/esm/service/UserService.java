@@ -2,23 +2,41 @@ package com.epam.esm.service;
 
 import static com.epam.esm.exceptions.Messages.USER_ID_NOT_FOUND;
 
+import com.epam.esm.cache.CacheConfig;
 import com.epam.esm.dto.UserDTO;
+import com.epam.esm.dto.UserSpendSummaryDTO;
 import com.epam.esm.exceptions.CustomizedException;
 import com.epam.esm.exceptions.ErrorCode;
+import com.epam.esm.filter.CountMode;
+import com.epam.esm.filter.KeysetCursor;
+import com.epam.esm.filter.KeysetSpecification;
 import com.epam.esm.model.User;
+import com.epam.esm.repository.RowCountEstimator;
+import com.epam.esm.repository.SliceQueryRepository;
 import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.UserSpendJdbcRepository;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 @Service
 public class UserService {
 
   private final UserRepository userRepository;
+  private final SliceQueryRepository sliceQueryRepository;
+  private final RowCountEstimator rowCountEstimator;
+  private final UserSpendJdbcRepository userSpendJdbcRepository;
 
-  public UserService(UserRepository userRepository) {
+  public UserService(UserRepository userRepository, SliceQueryRepository sliceQueryRepository,
+      RowCountEstimator rowCountEstimator, UserSpendJdbcRepository userSpendJdbcRepository) {
     this.userRepository = userRepository;
+    this.sliceQueryRepository = sliceQueryRepository;
+    this.rowCountEstimator = rowCountEstimator;
+    this.userSpendJdbcRepository = userSpendJdbcRepository;
   }
 
   /**
@@ -37,6 +55,45 @@ public class UserService {
     }
   }
 
+  /**
+   * Retrieves a page of Users, represented as UserDTOs, obtaining its total as requested by countMode.
+   *
+   * @param pageable Paging details for the page of Users to be retrieved.
+   * @param countMode How the total number of Users is obtained.
+   * @return A Page for the EXACT and ESTIMATED modes, a Slice without total for the NONE mode.
+   * @throws CustomizedException If there is an error retrieving Users from the database.
+   */
+  public Slice<UserDTO> getAllUsers(Pageable pageable, CountMode countMode) {
+    try {
+      Slice<User> userSlice = switch (countMode) {
+        case EXACT -> userRepository.findAll(pageable);
+        case NONE -> sliceQueryRepository.findSlice(User.class, Specification.where(null), pageable);
+        case ESTIMATED -> sliceQueryRepository.findEstimatedPage(User.class, Specification.where(null), pageable,
+            () -> rowCountEstimator.estimateRows(User.class, userRepository::count));
+      };
+      return userSlice.map(user -> new UserDTO(user.getId(), user.getName()));
+    } catch (DataAccessException ex) {
+      throw new CustomizedException("Error retrieving all users", ErrorCode.USER_DATABASE_ERROR, ex);
+    }
+  }
+
+  /**
+   * Retrieves the Users that come after the given cursor, represented as UserDTOs.
+   *
+   * @param cursor The position of the last User of the previous page.
+   * @param size The number of Users to retrieve.
+   * @return A Slice of UserDTOs.
+   * @throws CustomizedException If there is an error retrieving Users from the database.
+   */
+  public Slice<UserDTO> getAllUsersAfter(KeysetCursor cursor, int size) {
+    try {
+      Slice<User> userSlice = sliceQueryRepository.findSlice(User.class, new KeysetSpecification<>(cursor), cursor.firstPage(size));
+      return userSlice.map(user -> new UserDTO(user.getId(), user.getName()));
+    } catch (DataAccessException ex) {
+      throw new CustomizedException("Error retrieving all users", ErrorCode.USER_DATABASE_ERROR, ex);
+    }
+  }
+
   /**
    * Retrieves a User by id, represented as a UserResponseDTO.
    *
@@ -44,6 +101,7 @@ public class UserService {
    * @return A UserResponseDTO of the User.
    * @throws CustomizedException If the User id is not found or there is an error retrieving the User from the database.
    */
+  @Cacheable(cacheNames = CacheConfig.USERS, key = "#userId")
   public UserDTO getUser(Long userId) {
     try {
       return userRepository.findById(userId)
@@ -53,4 +111,27 @@ public class UserService {
       throw new CustomizedException("Error retrieving user with id " + userId, ErrorCode.USER_DATABASE_ERROR, ex);
     }
   }
+
+  /**
+   * Retrieves the number and total cost of the orders of a User, over its lifetime and per month.
+   * The summary is read from rollups in a single statement, however many orders the User has;
+   * the User itself is only looked up when it has no orders.
+   *
+   * @param userId The id of the User.
+   * @return The spend summary of the User.
+   * @throws CustomizedException If the User id is not found or there is an error reading the summary from the database.
+   */
+  public UserSpendSummaryDTO getSpendSummary(Long userId) {
+    try {
+      return userSpendJdbcRepository.findSummary(userId).orElseGet(() -> {
+        if (!userRepository.existsById(userId)) {
+          throw new CustomizedException(USER_ID_NOT_FOUND.formatted(userId), ErrorCode.USER_NOT_FOUND);
+        }
+        return UserSpendSummaryDTO.empty(userId);
+      });
+    } catch (DataAccessException ex) {
+      throw new CustomizedException("Error retrieving spend summary of user with id " + userId,
+          ErrorCode.USER_DATABASE_ERROR, ex);
+    }
+  }
 }
@@ -0,0 +1,144 @@
+package aggregate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import com.epam.esm.aggregate.PurchaseAggregates;
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.TagResponseDTO;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.event.OrderPlacedEvent;
+import com.epam.esm.event.TagChangedEvent;
+import com.epam.esm.repository.OrderJdbcRepository;
+import com.epam.esm.repository.TagRepository;
+import com.epam.esm.repository.UserTagUsage;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class PurchaseAggregatesTest {
+
+  @InjectMocks
+  private PurchaseAggregates aggregates;
+
+  @Mock
+  private OrderJdbcRepository orderJdbcRepository;
+
+  @Mock
+  private TagRepository tagRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @BeforeEach
+  public void setup() {
+    // user 1 spent 30 on two orders of certificate 10 (tags 5, 6); user 2 spent 20 on certificate 11 (tag 7)
+    when(orderJdbcRepository.findMaxOrderId()).thenReturn(3L);
+    when(orderJdbcRepository.sumPriceByUser(3L)).thenReturn(Map.of(1L, 30.0, 2L, 20.0));
+    doAnswer(invocation -> {
+      Consumer<UserTagUsage> action = invocation.getArgument(1);
+      action.accept(new UserTagUsage(1L, 5L, 2));
+      action.accept(new UserTagUsage(1L, 6L, 2));
+      action.accept(new UserTagUsage(2L, 7L, 1));
+      return null;
+    }).when(orderJdbcRepository).countTagsByUser(eq(3L), any());
+    when(orderJdbcRepository.findPurchasedCertificateIds(3L)).thenReturn(List.of(10L, 11L));
+    aggregates.build();
+  }
+
+  @Test
+  public void build_answersWithLowestTagIdOfTopSpender() {
+    assertTrue(aggregates.isCurrent());
+    assertEquals(Optional.of(5L), aggregates.findMostUsedTagOfTopSpender());
+  }
+
+  @Test
+  public void onOrderPlaced_newTopSpenderAndTagCounts() {
+    aggregates.onOrderPlaced(new OrderPlacedEvent(4L, 2L, 11L, 15.0, List.of(7L)));
+    assertEquals(Optional.of(7L), aggregates.findMostUsedTagOfTopSpender());
+
+    aggregates.onOrderPlaced(new OrderPlacedEvent(5L, 1L, 12L, 10.0, List.of(6L)));
+    assertEquals(Optional.of(6L), aggregates.findMostUsedTagOfTopSpender());
+  }
+
+  @Test
+  public void onOrderPlaced_orderNotAboveTheSnapshot_isNotCountedAndMakesStale() {
+    aggregates.onOrderPlaced(new OrderPlacedEvent(3L, 2L, 11L, 100.0, List.of(7L)));
+    assertEquals(Optional.of(5L), aggregates.findMostUsedTagOfTopSpender());
+    assertFalse(aggregates.isCurrent());
+  }
+
+  @Test
+  public void rebuild_ordersPlacedDuringTheRebuild_areAppliedUnlessInTheSnapshot() {
+    // Given: order 1 is in the snapshot; order 2 took a lower id than the snapshot's highest one but committed later
+    when(orderJdbcRepository.sumPriceByUser(3L)).thenAnswer(invocation -> {
+      aggregates.onOrderPlaced(new OrderPlacedEvent(1L, 1L, 10L, 100.0, List.of(6L)));
+      aggregates.onOrderPlaced(new OrderPlacedEvent(2L, 2L, 11L, 15.0, List.of(7L)));
+      aggregates.onOrderPlaced(new OrderPlacedEvent(2L, 2L, 11L, 15.0, List.of(7L)));
+      return Map.of(1L, 30.0, 2L, 20.0);
+    });
+    when(orderJdbcRepository.findExistingOrderIds(List.of(1L, 2L))).thenReturn(Set.of(1L));
+
+    // When
+    aggregates.rebuild();
+
+    // Then: user 2 now spent 35, once
+    assertTrue(aggregates.isCurrent());
+    assertEquals(Optional.of(7L), aggregates.findMostUsedTagOfTopSpender());
+    aggregates.onOrderPlaced(new OrderPlacedEvent(4L, 1L, 10L, 5.5, List.of(5L)));
+    assertEquals(Optional.of(5L), aggregates.findMostUsedTagOfTopSpender());
+  }
+
+  @Test
+  public void onCertificateChanged_tagsOfPurchasedCertificate_makesStale() {
+    CertificateResponseDTO before = new CertificateResponseDTO(12L, "n", "d", 1.0, 1L, List.of(5L));
+    aggregates.onCertificateChanged(new CertificateChangedEvent(before,
+        new CertificateResponseDTO(12L, "n", "d", 1.0, 1L, List.of(6L))));
+    assertTrue(aggregates.isCurrent());
+
+    before = new CertificateResponseDTO(10L, "n", "d", 1.0, 1L, List.of(5L, 6L));
+    aggregates.onCertificateChanged(new CertificateChangedEvent(before,
+        new CertificateResponseDTO(10L, "renamed", "d", 1.0, 1L, List.of(6L, 5L))));
+    assertTrue(aggregates.isCurrent());
+
+    aggregates.onCertificateChanged(new CertificateChangedEvent(before,
+        new CertificateResponseDTO(10L, "n", "d", 1.0, 1L, List.of(5L))));
+    assertFalse(aggregates.isCurrent());
+
+    aggregates.rebuildIfStale();
+    assertTrue(aggregates.isCurrent());
+  }
+
+  @Test
+  public void onTagChanged_deletedCountedTag_makesStale() {
+    aggregates.onTagChanged(TagChangedEvent.deleted(new TagResponseDTO(8L, "unused")));
+    assertTrue(aggregates.isCurrent());
+
+    aggregates.onTagChanged(TagChangedEvent.deleted(new TagResponseDTO(7L, "used")));
+    assertFalse(aggregates.isCurrent());
+  }
+
+  @Test
+  public void rebuildAndVerify_comparesWithQuery() {
+    when(tagRepository.findMostUsedTagOfUserWithHighestTotalCostOfOrders()).thenReturn(Optional.of(5L));
+
+    aggregates.rebuildAndVerify();
+
+    assertEquals(Optional.of(5L), aggregates.findMostUsedTagOfTopSpender());
+  }
+}
@@ -0,0 +1,178 @@
+package analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.esm.analytics.CertificateRevenue;
+import com.epam.esm.analytics.DailyRevenue;
+import com.epam.esm.analytics.OrderAnalytics;
+import com.epam.esm.analytics.TagRevenue;
+import com.epam.esm.event.CatalogueClearedEvent;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.CertificateTagLink;
+import com.epam.esm.repository.OrderJdbcRepository;
+import com.epam.esm.repository.OrderJdbcRepository.OrderFactSink;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderAnalyticsTest {
+
+  private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+  @Mock
+  private OrderJdbcRepository orderJdbcRepository;
+
+  @Mock
+  private CertificateRepository certificateRepository;
+
+  private OrderAnalytics analytics;
+
+  @BeforeEach
+  public void setup() {
+    analytics = new OrderAnalytics(orderJdbcRepository, certificateRepository, TransactionOperations.withoutTransaction(),
+        0L);
+    when(certificateRepository.streamAllTagLinks()).thenAnswer(invocation -> Stream.of(
+        new CertificateTagLink(10L, 1L), new CertificateTagLink(10L, 2L), new CertificateTagLink(20L, 2L)));
+  }
+
+  @Test
+  public void build_aggregatesRevenueByCertificateTagAndDay() {
+    // Given
+    streamOrders(0L, List.of(
+        new Fact(1L, 10L, 25.0, DAY),
+        new Fact(2L, 20L, 5.0, DAY),
+        new Fact(3L, 30L, 40.0, DAY.plusDays(2)),
+        new Fact(4L, 20L, 5.0, DAY.plusDays(2))));
+
+    // When
+    analytics.build();
+
+    // Then
+    assertEquals(4L, analytics.getWatermark());
+    assertEquals(List.of(new CertificateRevenue(30L, 1, 40.0), new CertificateRevenue(10L, 1, 25.0)),
+        analytics.findTopCertificates(2));
+    assertEquals(List.of(new TagRevenue(2L, 3, 35.0), new TagRevenue(1L, 1, 25.0)), analytics.findRevenueByTag());
+    assertEquals(List.of(new DailyRevenue(DAY, 2, 30.0), new DailyRevenue(DAY.plusDays(2), 2, 45.0)),
+        analytics.findRevenueByDay(null, null));
+    assertEquals(List.of(new DailyRevenue(DAY.plusDays(2), 2, 45.0)),
+        analytics.findRevenueByDay(DAY.plusDays(1), DAY.plusYears(1)));
+    assertEquals(List.of(), analytics.findRevenueByDay(DAY.minusYears(1), DAY.minusDays(1)));
+  }
+
+  @Test
+  public void refresh_appendsOnlyTheOrdersAfterTheWatermark() {
+    // Given
+    streamOrders(0L, List.of(new Fact(1L, 10L, 25.0, DAY)));
+    analytics.build();
+    streamOrders(1L, List.of(new Fact(2L, 10L, 25.0, DAY.plusDays(1)), new Fact(3L, 20L, 5.0, DAY.plusDays(1))));
+
+    // When
+    analytics.refresh();
+
+    // Then
+    verify(orderJdbcRepository).streamOrdersAfter(eq(1L), any());
+    assertEquals(3L, analytics.getWatermark());
+    assertEquals(List.of(new CertificateRevenue(10L, 2, 50.0), new CertificateRevenue(20L, 1, 5.0)),
+        analytics.findTopCertificates(10));
+    assertEquals(List.of(new DailyRevenue(DAY, 1, 25.0), new DailyRevenue(DAY.plusDays(1), 2, 30.0)),
+        analytics.findRevenueByDay(null, null));
+  }
+
+  @Test
+  public void refresh_countsTheOrdersCommittedLateInTheWindowOnce() {
+    // Given: order 3 commits after order 4 was read
+    analytics = new OrderAnalytics(orderJdbcRepository, certificateRepository, TransactionOperations.withoutTransaction(),
+        10L);
+    streamOrders(0L, List.of(new Fact(1L, 10L, 25.0, DAY), new Fact(2L, 20L, 5.0, DAY), new Fact(4L, 20L, 5.0, DAY)));
+    analytics.build();
+    streamOrders(0L, List.of(new Fact(1L, 10L, 25.0, DAY), new Fact(2L, 20L, 5.0, DAY), new Fact(3L, 10L, 25.0, DAY),
+        new Fact(4L, 20L, 5.0, DAY), new Fact(5L, 20L, 5.0, DAY)));
+
+    // When
+    analytics.refresh();
+    analytics.refresh();
+
+    // Then
+    assertEquals(5L, analytics.getWatermark());
+    assertEquals(List.of(new CertificateRevenue(10L, 2, 50.0), new CertificateRevenue(20L, 3, 15.0)),
+        analytics.findTopCertificates(10));
+    assertEquals(List.of(new DailyRevenue(DAY, 5, 65.0)), analytics.findRevenueByDay(null, null));
+  }
+
+  @Test
+  public void onCatalogueCleared_dropsTheOrdersAndReadsTheNewOnesFromTheStart() {
+    // Given
+    streamOrders(0L, List.of(new Fact(1L, 10L, 25.0, DAY), new Fact(2L, 20L, 5.0, DAY)));
+    analytics.build();
+
+    // When
+    analytics.onCatalogueCleared(new CatalogueClearedEvent());
+
+    // Then
+    assertEquals(0L, analytics.getWatermark());
+    assertEquals(List.of(), analytics.findTopCertificates(10));
+    assertEquals(List.of(), analytics.findRevenueByTag());
+    assertEquals(List.of(), analytics.findRevenueByDay(null, null));
+
+    // When: an order is placed after the clear
+    streamOrders(0L, List.of(new Fact(3L, 20L, 5.0, DAY.plusDays(1))));
+    analytics.refresh();
+
+    // Then
+    assertEquals(List.of(new CertificateRevenue(20L, 1, 5.0)), analytics.findTopCertificates(10));
+  }
+
+  @Test
+  public void build_parallelTotalsMatchASequentialSum() {
+    // Given
+    Random random = new Random(42);
+    List<Fact> facts = new ArrayList<>();
+    double[] expectedByCertificate = new double[50];
+    for (int i = 1; i <= 300_000; i++) {
+      int certificate = random.nextInt(expectedByCertificate.length);
+      double price = random.nextInt(100);
+      expectedByCertificate[certificate] += price;
+      facts.add(new Fact(i, certificate + 1, price, DAY.plusDays(random.nextInt(365))));
+    }
+    streamOrders(0L, facts);
+
+    // When
+    analytics.build();
+
+    // Then
+    List<CertificateRevenue> top = analytics.findTopCertificates(expectedByCertificate.length);
+    assertEquals(expectedByCertificate.length, top.size());
+    for (CertificateRevenue revenue : top) {
+      assertEquals(expectedByCertificate[(int) revenue.certificateId() - 1], revenue.revenue(), 1e-6);
+    }
+    for (int i = 1; i < top.size(); i++) {
+      assertTrue(top.get(i - 1).revenue() >= top.get(i).revenue());
+    }
+    assertEquals(300_000, analytics.findRevenueByDay(null, null).stream().mapToLong(DailyRevenue::orders).sum());
+  }
+
+  private void streamOrders(long afterOrderId, List<Fact> facts) {
+    doAnswer(invocation -> {
+      OrderFactSink sink = invocation.getArgument(1);
+      facts.forEach(fact -> sink.accept(fact.orderId(), fact.certificateId(), fact.price(), fact.day()));
+      return null;
+    }).when(orderJdbcRepository).streamOrdersAfter(eq(afterOrderId), any());
+  }
+
+  private record Fact(long orderId, long certificateId, double price, LocalDate day) {}
+}
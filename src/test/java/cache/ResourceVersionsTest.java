@@ -0,0 +1,59 @@
+package cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.epam.esm.cache.CacheConfig;
+import com.epam.esm.cache.ResourceVersions;
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.event.CertificateChangedEvent;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ResourceVersionsTest {
+
+  private static final CertificateResponseDTO BEFORE = new CertificateResponseDTO(5L, "name", "old", 10.0, 5L, List.of());
+  private static final CertificateResponseDTO AFTER = new CertificateResponseDTO(5L, "name", "new", 10.0, 5L, List.of());
+
+  private Cache certificates;
+  private ResourceVersions resourceVersions;
+
+  @BeforeEach
+  void setup() {
+    CacheManager cacheManager = new TransactionAwareCacheManagerProxy(new CaffeineCacheManager(CacheConfig.CERTIFICATES));
+    certificates = cacheManager.getCache(CacheConfig.CERTIFICATES);
+    resourceVersions = new ResourceVersions(cacheManager);
+    certificates.put(5L, BEFORE);
+    TransactionSynchronizationManager.initSynchronization();
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setActualTransactionActive(false);
+    TransactionSynchronizationManager.clearSynchronization();
+  }
+
+  @Test
+  public void testOnCertificateChanged_ReadBeforeTheDeferredEvictionDoesNotGetTheOldCertificate() {
+    // Given: the update evicted the certificate with @CacheEvict, which waits for the transaction to complete
+    String oldTag = resourceVersions.certificateTag(5L);
+    certificates.evict(5L);
+    assertEquals(BEFORE, certificates.get(5L, CertificateResponseDTO.class));
+
+    // When: the version listener runs first, and a read comes in before the deferred eviction
+    resourceVersions.onCertificateChanged(new CertificateChangedEvent(BEFORE, AFTER));
+
+    // Then
+    assertNotEquals(oldTag, resourceVersions.certificateTag(5L));
+    assertNull(certificates.get(5L));
+  }
+}
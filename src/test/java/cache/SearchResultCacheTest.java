@@ -0,0 +1,107 @@
+package cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.epam.esm.cache.SearchResultCache;
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.index.CertificateSearchIndex;
+import com.epam.esm.index.TagPostingIndex;
+import com.epam.esm.model.Tag;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.TagRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class SearchResultCacheTest {
+
+  private AnnotationConfigApplicationContext context;
+
+  @BeforeEach
+  void setup() {
+    CertificateRepository certificateRepository = mock(CertificateRepository.class);
+    TagRepository tagRepository = mock(TagRepository.class);
+    when(certificateRepository.streamAllText()).thenReturn(Stream.empty());
+    when(certificateRepository.streamAllTagLinks()).thenReturn(Stream.empty());
+    Tag tag = new Tag();
+    tag.setId(1L);
+    tag.setName("blue");
+    when(tagRepository.findAll()).thenReturn(List.of(tag));
+
+    context = new AnnotationConfigApplicationContext();
+    context.registerBean(CertificateRepository.class, () -> certificateRepository);
+    context.registerBean(TagRepository.class, () -> tagRepository);
+    context.registerBean(TransactionalEventListenerFactory.class);
+    context.registerBean(RecordingSearchResultCache.class);
+    context.registerBean(CertificateSearchIndex.class);
+    context.registerBean(TagPostingIndex.class);
+    context.refresh();
+    context.getBean(CertificateSearchIndex.class).build();
+    context.getBean(TagPostingIndex.class).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    context.close();
+  }
+
+  @Test
+  public void testOnCertificateChanged_IndexesAreUpdatedBeforeTheGenerationBump() {
+    // Given
+    CertificateResponseDTO created = new CertificateResponseDTO(7L, "Spa day", "Relaxing", 10.0, 5L, List.of(1L));
+
+    // When
+    TransactionSynchronizationManager.initSynchronization();
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    try {
+      context.publishEvent(CertificateChangedEvent.created(created));
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    } finally {
+      TransactionSynchronizationManager.setActualTransactionActive(false);
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // Then
+    RecordingSearchResultCache cache = context.getBean(RecordingSearchResultCache.class);
+    assertEquals(1L, cache.getGeneration());
+    assertEquals(List.of(Optional.of(RoaringBitmap.bitmapOf(7))), cache.seenByWord);
+    assertEquals(List.of(Optional.of(RoaringBitmap.bitmapOf(7))), cache.seenByTag);
+  }
+
+  /**
+   * Records what a search would find in the indexes at the time the generation is bumped.
+   */
+  static class RecordingSearchResultCache extends SearchResultCache {
+
+    private final CertificateSearchIndex searchIndex;
+    private final TagPostingIndex tagIndex;
+    private final List<Optional<RoaringBitmap>> seenByWord = new ArrayList<>();
+    private final List<Optional<RoaringBitmap>> seenByTag = new ArrayList<>();
+
+    RecordingSearchResultCache(CertificateSearchIndex searchIndex, TagPostingIndex tagIndex) {
+      super("maximumSize=10");
+      this.searchIndex = searchIndex;
+      this.tagIndex = tagIndex;
+    }
+
+    @Override
+    public void onCertificateChanged(CertificateChangedEvent event) {
+      seenByWord.add(searchIndex.findCandidates("spa"));
+      seenByTag.add(tagIndex.findCandidates(List.of("blue")));
+      super.onCertificateChanged(event);
+    }
+  }
+}
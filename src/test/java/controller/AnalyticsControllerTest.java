@@ -0,0 +1,81 @@
+package controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
+
+import com.epam.esm.controller.AnalyticsController;
+import com.epam.esm.dto.CertificateRevenueDTO;
+import com.epam.esm.dto.DailyRevenueDTO;
+import com.epam.esm.dto.TagRevenueDTO;
+import com.epam.esm.service.AnalyticsService;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+@ExtendWith(MockitoExtension.class)
+public class AnalyticsControllerTest {
+
+  @InjectMocks
+  private AnalyticsController analyticsController;
+
+  @Mock
+  private AnalyticsService analyticsService;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  public void setup() {
+    mockMvc = standaloneSetup(analyticsController).build();
+  }
+
+  @Test
+  public void testGetTopCertificates() throws Exception {
+    // Mocks
+    when(analyticsService.getTopCertificates(2)).thenReturn(List.of(
+        new CertificateRevenueDTO(3L, "spa", 4, 200.0), new CertificateRevenueDTO(1L, "dinner", 5, 150.0)));
+
+    // When & Then
+    mockMvc.perform(get("/analytics/certificates/top").param("limit", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].certificateId").value(3L))
+        .andExpect(jsonPath("$[0].revenue").value(200.0))
+        .andExpect(jsonPath("$[1].name").value("dinner"));
+  }
+
+  @Test
+  public void testGetRevenueByTag() throws Exception {
+    // Mocks
+    when(analyticsService.getRevenueByTag()).thenReturn(List.of(new TagRevenueDTO(2L, "relax", 9, 350.0)));
+
+    // When & Then
+    mockMvc.perform(get("/analytics/tags/revenue"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("relax"))
+        .andExpect(jsonPath("$[0].orders").value(9));
+  }
+
+  @Test
+  public void testGetRevenueByDay() throws Exception {
+    // Given
+    LocalDate from = LocalDate.of(2024, 1, 1);
+    LocalDate to = LocalDate.of(2024, 1, 31);
+
+    // Mocks
+    when(analyticsService.getRevenueByDay(from, to)).thenReturn(List.of(new DailyRevenueDTO(from, 2, 30.0)));
+
+    // When & Then
+    mockMvc.perform(get("/analytics/revenue/daily").param("from", "2024-01-01").param("to", "2024-01-31"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].orders").value(2))
+        .andExpect(jsonPath("$[0].revenue").value(30.0));
+  }
+}
@@ -0,0 +1,47 @@
+package controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.epam.esm.cache.CacheConfig;
+import com.epam.esm.cache.SearchResultCache;
+import com.epam.esm.controller.CacheController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+public class CacheControllerTest {
+
+  private CacheManager cacheManager;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  public void setup() {
+    cacheManager = new CacheConfig().cacheManager("maximumSize=100");
+    mockMvc = MockMvcBuilders.standaloneSetup(new CacheController(cacheManager, new SearchResultCache("maximumSize=100"))).build();
+  }
+
+  @Test
+  public void testGetCacheStats() throws Exception {
+    // Given
+    Cache tags = cacheManager.getCache(CacheConfig.TAGS);
+    tags.put(1L, "tag1");
+    tags.get(1L);
+    tags.get(2L);
+
+    // When & Then
+    mockMvc.perform(get("/cache/stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.tags.size").value(1))
+        .andExpect(jsonPath("$.tags.hitCount").value(1))
+        .andExpect(jsonPath("$.tags.missCount").value(1))
+        .andExpect(jsonPath("$.certificates.hitCount").value(0))
+        .andExpect(jsonPath("$.users.evictionCount").value(0))
+        .andExpect(jsonPath("$.certificateSearches.size").value(0));
+  }
+}
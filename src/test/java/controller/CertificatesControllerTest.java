@@ -3,18 +3,25 @@ package controller;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.epam.esm.cache.ResourceVersions;
 import com.epam.esm.controller.CertificatesController;
 import com.epam.esm.dto.CertificateRequestDTO;
 import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.filter.CountMode;
 import com.epam.esm.model.GiftCertificate;
 import com.epam.esm.service.AuditReaderService;
 import com.epam.esm.service.CertificateService;
@@ -30,9 +37,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -50,6 +60,9 @@ public class CertificatesControllerTest {
     @Mock
     private AuditReaderService auditReaderService;
 
+    @Spy
+    private ResourceVersions resourceVersions = new ResourceVersions(new ConcurrentMapCacheManager());
+
     @Mock
     AuditReader auditReader;
 
@@ -98,6 +111,27 @@ public class CertificatesControllerTest {
         .andExpect(jsonPath("$.tagIds[1]").value(2L));
   }
 
+  @Test
+  public void testGetCertificate_withCurrentEntityTag_returnsNotModifiedWithoutLoading() throws Exception {
+    // Given
+    CertificateResponseDTO responseDTO = new CertificateResponseDTO(1L, "name", "description", 100.0, 5L, List.of(1L));
+    when(certificateService.getGiftCertificate(1L)).thenReturn(responseDTO);
+    String etag = mockMvc.perform(get("/certificate/1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // When & Then
+    mockMvc.perform(get("/certificate/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag));
+    verify(certificateService, times(1)).getGiftCertificate(1L);
+
+    resourceVersions.onCertificateChanged(new CertificateChangedEvent(responseDTO, responseDTO));
+    mockMvc.perform(get("/certificate/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk());
+  }
+
   @Test
   public void testGetCertificate() throws Exception {
     // Given
@@ -138,7 +172,7 @@ public class CertificatesControllerTest {
     Page<CertificateResponseDTO> certificateDTOPage = new PageImpl<>(certificates);
 
     // Mocks
-    when(certificateService.getFilteredCertificates(any(), any(), any())).thenReturn(certificateDTOPage);
+    when(certificateService.getFilteredCertificates(any(), any(), any(), eq(CountMode.EXACT))).thenReturn(certificateDTOPage);
 
     // When & Then
     mockMvc.perform(get("/certificate")
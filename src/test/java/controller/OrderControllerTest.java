@@ -1,25 +1,36 @@
 package controller;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
 
 import com.epam.esm.controller.OrderController;
 import com.epam.esm.dto.CertificateDTO;
+import com.epam.esm.dto.CheckoutItemDTO;
+import com.epam.esm.dto.CheckoutRequestDTO;
+import com.epam.esm.dto.CheckoutResponseDTO;
 import com.epam.esm.dto.OrderRequestDTO;
 import com.epam.esm.dto.OrderResponseDTO;
+import com.epam.esm.dto.OrderStatusDTO;
 import com.epam.esm.dto.UserDTO;
+import com.epam.esm.filter.CountMode;
 import com.epam.esm.model.GiftCertificate;
 import com.epam.esm.model.Order;
 import com.epam.esm.model.User;
 import com.epam.esm.service.AuditReaderService;
+import com.epam.esm.service.OrderIdempotencyService;
+import com.epam.esm.service.OrderIngestionService;
 import com.epam.esm.service.OrderService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDateTime;
@@ -35,7 +46,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -52,6 +66,12 @@ public class OrderControllerTest {
   @Mock
   private AuditReaderService auditReaderService;
 
+  @Mock
+  private OrderIngestionService orderIngestionService;
+
+  @Mock
+  private OrderIdempotencyService orderIdempotencyService;
+
   @Mock
   AuditReader auditReader;
 
@@ -101,6 +121,59 @@ public class OrderControllerTest {
         .andExpect(jsonPath("$.purchaseCost").value(100.0));
   }
 
+  @Test
+  public void testPurchaseGiftCertificate_withIdempotencyKey_placesThroughIdempotencyService() throws Exception {
+    // Given
+    OrderResponseDTO orderResponseDTO = new OrderResponseDTO(7L, new UserDTO(1L, "User1"),
+        new CertificateDTO(2L, "Certificate1", "Description1", 100.0, 5L, List.of()), 100.0, LocalDateTime.now());
+    when(orderIdempotencyService.purchaseGiftCertificate("retry-1", 1L, 2L)).thenReturn(orderResponseDTO);
+
+    // When & Then
+    mockMvc.perform(post("/order")
+            .header("Idempotency-Key", "retry-1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(new OrderRequestDTO(1L, 2L))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.orderId").value(7L));
+    verifyNoInteractions(orderService);
+  }
+
+  @Test
+  public void testCheckout_returnsOrdersWithLinks() throws Exception {
+    // Given
+    UserDTO userDTO = new UserDTO(1L, "User1");
+    CertificateDTO certificateDTO = new CertificateDTO(2L, "Certificate1", "Description1", 100.0, 5L, List.of());
+    LocalDateTime purchaseDate = LocalDateTime.now();
+    CheckoutRequestDTO request = new CheckoutRequestDTO(1L, List.of(new CheckoutItemDTO(2L, 2)));
+    when(orderService.checkout(request)).thenReturn(new CheckoutResponseDTO(userDTO, List.of(
+        new OrderResponseDTO(7L, userDTO, certificateDTO, 100.0, purchaseDate),
+        new OrderResponseDTO(8L, userDTO, certificateDTO, 100.0, purchaseDate)), 200.0, purchaseDate));
+
+    // When & Then
+    mockMvc.perform(post("/order/checkout")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.orders[1].orderId").value(8L))
+        .andExpect(jsonPath("$.totalCost").value(200.0))
+        .andExpect(jsonPath("$.links[1].href").value("http://localhost/order/8"));
+  }
+
+  @Test
+  public void testSubmitGiftCertificatePurchase_returnsAcceptedWithStatusLocation() throws Exception {
+    // Given
+    when(orderIngestionService.submit(1L, 2L)).thenReturn(OrderStatusDTO.queued("abc"));
+
+    // When & Then
+    mockMvc.perform(post("/order/async")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(new OrderRequestDTO(1L, 2L))))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/order/async/abc"))
+        .andExpect(jsonPath("$.trackingId").value("abc"))
+        .andExpect(jsonPath("$.status").value("QUEUED"));
+  }
+
   @Test
   public void testGetOrder() throws Exception {
     // Given
@@ -136,7 +209,7 @@ public class OrderControllerTest {
         = new PageImpl<>(orders);
 
     // Mocks
-    when(orderService.getAllOrders(any(Pageable.class)))
+    when(orderService.getAllOrders(any(Pageable.class), eq(CountMode.EXACT)))
         .thenReturn(orderDTOPage);
 
     // When & Then
@@ -209,4 +282,27 @@ public class OrderControllerTest {
         .andExpect(jsonPath("$[0].price").value(order1.getPrice()))
         .andExpect(jsonPath("$[0].createDate").value(order1.getCreateDate()));
   }
+
+  @Test
+  public void testGetAllOrders_InPurchaseTimeRange() throws Exception {
+    // Given
+    LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+    OrderResponseDTO order = new OrderResponseDTO(7L, new UserDTO(1L, "User"),
+        new CertificateDTO(1L, "Certificate", "Description", 20.50, 5L, List.of()), 20.50,
+        LocalDateTime.of(2024, 1, 15, 12, 30));
+
+    // Mocks
+    when(orderService.getOrdersBetween(from, to, null, 1))
+        .thenReturn(new SliceImpl<>(List.of(order), PageRequest.of(0, 1), true));
+
+    // When & Then
+    mockMvc.perform(get("/order").param("from", "2024-01-01T00:00:00").param("to", "2024-02-01T00:00:00")
+            .param("size", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].orderId").value(7L))
+        .andExpect(jsonPath("$.page").doesNotExist())
+        .andExpect(jsonPath("$.links[?(@.rel=='next')].href", hasItem(containsString("cursor="))))
+        .andExpect(jsonPath("$.links[?(@.rel=='next')].href", hasItem(containsString("from=2024-01-01T00%3A00%3A00"))));
+  }
 }
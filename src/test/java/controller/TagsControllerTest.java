@@ -2,6 +2,8 @@ package controller;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -10,9 +12,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.epam.esm.cache.ResourceVersions;
 import com.epam.esm.controller.TagsController;
 import com.epam.esm.dto.TagRequestDTO;
 import com.epam.esm.dto.TagResponseDTO;
+import com.epam.esm.event.TagChangedEvent;
 import com.epam.esm.model.Tag;
 import com.epam.esm.service.AuditReaderService;
 import com.epam.esm.service.TagService;
@@ -27,9 +31,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -47,6 +54,9 @@ public class TagsControllerTest {
   @Mock
   private AuditReaderService auditReaderService;
 
+  @Spy
+  private ResourceVersions resourceVersions = new ResourceVersions(new ConcurrentMapCacheManager());
+
   @Mock
   AuditReader auditReader;
 
@@ -113,6 +123,24 @@ public class TagsControllerTest {
         .andExpect(jsonPath("$.name").value("ExistingTag"));
   }
 
+  @Test
+  public void testGetTag_withCurrentEntityTag_returnsNotModifiedWithoutLoading() throws Exception {
+    // Given
+    when(tagService.getTag(1L)).thenReturn(new TagResponseDTO(1L, "ExistingTag"));
+    String etag = mockMvc.perform(get("/tag/1"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // When & Then
+    mockMvc.perform(get("/tag/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+    verify(tagService, times(1)).getTag(1L);
+
+    resourceVersions.onTagChanged(TagChangedEvent.created(new TagResponseDTO(2L, "NewTag")));
+    mockMvc.perform(get("/tag/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk());
+  }
+
   @Test
   public void testDeleteTagById() throws Exception {
 
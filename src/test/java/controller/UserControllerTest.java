@@ -2,16 +2,22 @@ package controller;
 
 import static org.hamcrest.Matchers.endsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.epam.esm.controller.UserController;
+import com.epam.esm.dto.MonthlySpendDTO;
 import com.epam.esm.dto.UserDTO;
+import com.epam.esm.dto.UserSpendSummaryDTO;
+import com.epam.esm.filter.CountMode;
+import com.epam.esm.filter.KeysetCursor;
 import com.epam.esm.model.User;
 import com.epam.esm.service.AuditReaderService;
 import com.epam.esm.service.UserService;
+import java.time.YearMonth;
 import java.util.List;
 import org.hamcrest.Matchers;
 import org.hibernate.envers.AuditReader;
@@ -25,6 +31,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -67,7 +76,7 @@ public class UserControllerTest {
     Page<UserDTO> userDTOPage = new PageImpl<>(users);
 
     // Mocks
-    when(userService.getAllUsers(any())).thenReturn(userDTOPage);
+    when(userService.getAllUsers(any(), eq(CountMode.EXACT))).thenReturn(userDTOPage);
 
     // When & Then
     mockMvc.perform(get("/users"))
@@ -75,6 +84,40 @@ public class UserControllerTest {
         .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("User1")));
   }
 
+  @Test
+  public void testGetAllUsers_WithCursor() throws Exception {
+    // Given
+    KeysetCursor cursor = new KeysetCursor("name", "User1", 1L);
+    List<UserDTO> users = List.of(new UserDTO(2L, "User2"));
+    Slice<UserDTO> userDTOSlice = new SliceImpl<>(users, cursor.firstPage(1), true);
+    String nextCursor = new KeysetCursor("name", "User2", 2L).encode();
+
+    // Mocks
+    when(userService.getAllUsersAfter(cursor, 1)).thenReturn(userDTOSlice);
+
+    // When & Then
+    mockMvc.perform(get("/users").param("size", "1").param("sort", "name").param("cursor", cursor.encode()))
+        .andExpect(status().isOk())
+        .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("User2")))
+        .andExpect(jsonPath("$.links[?(@.rel=='next')].href", Matchers.hasItem(Matchers.containsString("cursor=" + nextCursor))));
+  }
+
+  @Test
+  public void testGetAllUsers_WithoutCount() throws Exception {
+    // Given
+    List<UserDTO> users = List.of(new UserDTO(1L, "User1"));
+    Slice<UserDTO> userDTOSlice = new SliceImpl<>(users, PageRequest.of(0, 1), true);
+
+    // Mocks
+    when(userService.getAllUsers(any(), eq(CountMode.NONE))).thenReturn(userDTOSlice);
+
+    // When & Then
+    mockMvc.perform(get("/users").param("size", "1").param("count", "none"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.page").doesNotExist())
+        .andExpect(jsonPath("$.links[?(@.rel=='next')].href", Matchers.hasItem(Matchers.containsString("cursor="))));
+  }
+
   @Test
   public void testGetUser() throws Exception {
     // Given
@@ -113,4 +156,25 @@ public class UserControllerTest {
         .andExpect(jsonPath("$.[0].id").value(1L))
         .andExpect(jsonPath("$.[0].name").value("user name"));
   }
+
+  @Test
+  public void testGetUserSummary() throws Exception {
+    // Given
+    UserSpendSummaryDTO summary = new UserSpendSummaryDTO(1L, 3, 35.0, List.of(
+        new MonthlySpendDTO(YearMonth.of(2024, 1), 2, 15.0),
+        new MonthlySpendDTO(YearMonth.of(2024, 2), 1, 20.0)));
+
+    // Mocks
+    when(userService.getSpendSummary(1L)).thenReturn(summary);
+
+    // When & Then
+    mockMvc.perform(get("/users/1/summary"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.userId").value(1L))
+        .andExpect(jsonPath("$.orderCount").value(3))
+        .andExpect(jsonPath("$.totalSpend").value(35.0))
+        .andExpect(jsonPath("$.months[0].month").value("2024-01"))
+        .andExpect(jsonPath("$.months[1].spend").value(20.0))
+        .andExpect(jsonPath("$.links[0].href", endsWith("/users/1/summary")));
+  }
 }
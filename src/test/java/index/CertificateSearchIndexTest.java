@@ -0,0 +1,74 @@
+package index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.index.CertificateSearchIndex;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.CertificateText;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.RoaringBitmap;
+
+@ExtendWith(MockitoExtension.class)
+public class CertificateSearchIndexTest {
+
+  @InjectMocks
+  private CertificateSearchIndex searchIndex;
+
+  @Mock
+  private CertificateRepository certificateRepository;
+
+  @BeforeEach
+  public void setup() {
+    when(certificateRepository.streamAllText()).thenReturn(Stream.of(
+        new CertificateText(1L, "Spa Weekend", "Two nights of relaxation"),
+        new CertificateText(2L, "Cooking class", "Italian pasta workshop"),
+        new CertificateText(3L, "Wine tasting", "Italian wines and cheese")));
+    searchIndex.build();
+  }
+
+  @Test
+  public void findCandidates_matchesNameAndDescriptionIgnoringCase() {
+    assertEquals(Optional.of(RoaringBitmap.bitmapOf(2, 3)), searchIndex.findCandidates("ITALIAN"));
+    assertEquals(Optional.of(RoaringBitmap.bitmapOf(1)), searchIndex.findCandidates("weekend"));
+    assertEquals(Optional.of(new RoaringBitmap()), searchIndex.findCandidates("diving"));
+  }
+
+  @Test
+  public void findCandidates_wordTooShortOrWithWildcards_returnsEmpty() {
+    assertTrue(searchIndex.findCandidates("sp").isEmpty());
+    assertTrue(searchIndex.findCandidates("spa%").isEmpty());
+    assertTrue(searchIndex.findCandidates(null).isEmpty());
+  }
+
+  @Test
+  public void onCertificateChanged_renameReplacesOldTrigrams() {
+    CertificateResponseDTO before = new CertificateResponseDTO(1L, "Spa Weekend", "Two nights of relaxation", 10.0, 5L, List.of());
+    CertificateResponseDTO after = new CertificateResponseDTO(1L, "Diving course", "Two nights of relaxation", 10.0, 5L, List.of());
+
+    searchIndex.onCertificateChanged(new CertificateChangedEvent(before, after));
+
+    assertEquals(Optional.of(new RoaringBitmap()), searchIndex.findCandidates("weekend"));
+    assertEquals(Optional.of(RoaringBitmap.bitmapOf(1)), searchIndex.findCandidates("diving"));
+  }
+
+  @Test
+  public void onCertificateChanged_deleteRemovesCertificate() {
+    CertificateResponseDTO deleted = new CertificateResponseDTO(3L, "Wine tasting", "Italian wines and cheese", 10.0, 5L, List.of());
+
+    searchIndex.onCertificateChanged(CertificateChangedEvent.deleted(deleted));
+
+    assertEquals(Optional.of(RoaringBitmap.bitmapOf(2)), searchIndex.findCandidates("italian"));
+  }
+}
@@ -0,0 +1,75 @@
+package index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.SuggestionDTO;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.index.CertificateSuggestIndex;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.CertificateText;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class CertificateSuggestIndexTest {
+
+  @InjectMocks
+  private CertificateSuggestIndex suggestIndex;
+
+  @Mock
+  private CertificateRepository certificateRepository;
+
+  private void build() {
+    when(certificateRepository.streamAllText()).thenReturn(Stream.of(
+        new CertificateText(1L, "Spa Weekend", "Two nights of relaxation"),
+        new CertificateText(2L, "Spanish lessons", "Ten lessons"),
+        new CertificateText(3L, "Gift card", "Any shop"),
+        new CertificateText(4L, "Cooking class", "Italian pasta workshop")));
+    suggestIndex.build();
+  }
+
+  @Test
+  public void suggest_beforeBuild_returnsEmpty() {
+    assertTrue(suggestIndex.suggest("spa", 5).isEmpty());
+  }
+
+  @Test
+  public void suggest_prefix_returnsNamesInOrderIgnoringCase() {
+    build();
+
+    assertEquals(Optional.of(List.of(new SuggestionDTO(1L, "Spa Weekend"), new SuggestionDTO(2L, "Spanish lessons"))),
+        suggestIndex.suggest("SPA", 5));
+    assertEquals(Optional.of(List.of(new SuggestionDTO(1L, "Spa Weekend"))), suggestIndex.suggest("spa", 1));
+  }
+
+  @Test
+  public void suggest_typo_fillsWithFuzzyMatches() {
+    build();
+
+    assertEquals(Optional.of(List.of(new SuggestionDTO(3L, "Gift card"))), suggestIndex.suggest("gfit card", 5));
+    assertEquals(Optional.of(List.of()), suggestIndex.suggest("diving", 5));
+  }
+
+  @Test
+  public void onCertificateChanged_renameAndDelete_updateSuggestions() {
+    build();
+    CertificateResponseDTO before = new CertificateResponseDTO(1L, "Spa Weekend", "d", 10.0, 5L, List.of());
+    CertificateResponseDTO after = new CertificateResponseDTO(1L, "Diving course", "d", 10.0, 5L, List.of());
+
+    suggestIndex.onCertificateChanged(new CertificateChangedEvent(before, after));
+    suggestIndex.onCertificateChanged(CertificateChangedEvent.deleted(
+        new CertificateResponseDTO(2L, "Spanish lessons", "d", 10.0, 5L, List.of())));
+
+    assertEquals(Optional.of(List.of()), suggestIndex.suggest("spa", 5));
+    assertEquals(Optional.of(List.of(new SuggestionDTO(1L, "Diving course"))), suggestIndex.suggest("div", 5));
+  }
+}
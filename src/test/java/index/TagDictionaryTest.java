@@ -0,0 +1,72 @@
+package index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.epam.esm.dto.TagResponseDTO;
+import com.epam.esm.event.CatalogueClearedEvent;
+import com.epam.esm.event.TagChangedEvent;
+import com.epam.esm.index.TagDictionary;
+import com.epam.esm.model.Tag;
+import com.epam.esm.repository.TagRepository;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class TagDictionaryTest {
+
+  @InjectMocks
+  private TagDictionary tagDictionary;
+
+  @Mock
+  private TagRepository tagRepository;
+
+  private void build() {
+    when(tagRepository.findAll()).thenReturn(List.of(tag(1L, "Sport"), tag(2L, "spa"), tag(3L, "Travel"),
+        tag(4L, "sports")));
+    tagDictionary.build();
+  }
+
+  @Test
+  public void findByPrefix_beforeBuild_returnsEmpty() {
+    assertTrue(tagDictionary.findByPrefix("sp", 5).isEmpty());
+  }
+
+  @Test
+  public void findByPrefix_returnsMatchesInFoldedNameOrder() {
+    build();
+
+    assertEquals(Optional.of(List.of(new TagResponseDTO(2L, "spa"), new TagResponseDTO(1L, "Sport"),
+        new TagResponseDTO(4L, "sports"))), tagDictionary.findByPrefix("SP", 5));
+    assertEquals(Optional.of(List.of(new TagResponseDTO(2L, "spa"))), tagDictionary.findByPrefix("sp", 1));
+    assertEquals(Optional.of(List.of()), tagDictionary.findByPrefix("zz", 5));
+    assertEquals(4, tagDictionary.findByPrefix("", 10).get().size());
+  }
+
+  @Test
+  public void onTagChanged_keepsDictionaryInSync() {
+    build();
+
+    tagDictionary.onTagChanged(TagChangedEvent.created(new TagResponseDTO(5L, "Spain")));
+    tagDictionary.onTagChanged(TagChangedEvent.deleted(new TagResponseDTO(1L, "Sport")));
+
+    assertEquals(Optional.of(List.of(new TagResponseDTO(2L, "spa"), new TagResponseDTO(5L, "Spain"),
+        new TagResponseDTO(4L, "sports"))), tagDictionary.findByPrefix("sp", 5));
+
+    tagDictionary.onCatalogueCleared(new CatalogueClearedEvent());
+    assertEquals(Optional.of(List.of()), tagDictionary.findByPrefix("sp", 5));
+  }
+
+  private static Tag tag(Long id, String name) {
+    Tag tag = new Tag();
+    tag.setName(name);
+    tag.setId(id);
+    return tag;
+  }
+}
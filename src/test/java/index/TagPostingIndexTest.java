@@ -0,0 +1,88 @@
+package index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.TagResponseDTO;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.event.TagChangedEvent;
+import com.epam.esm.index.TagPostingIndex;
+import com.epam.esm.model.Tag;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.CertificateTagLink;
+import com.epam.esm.repository.TagRepository;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.RoaringBitmap;
+
+@ExtendWith(MockitoExtension.class)
+public class TagPostingIndexTest {
+
+  @InjectMocks
+  private TagPostingIndex tagIndex;
+
+  @Mock
+  private CertificateRepository certificateRepository;
+
+  @Mock
+  private TagRepository tagRepository;
+
+  @BeforeEach
+  public void setup() {
+    when(tagRepository.findAll()).thenReturn(List.of(tag(1L, "tag 1"), tag(2L, "tag 2"), tag(3L, "Blue")));
+    when(certificateRepository.streamAllTagLinks()).thenReturn(Stream.of(
+        new CertificateTagLink(10L, 1L),
+        new CertificateTagLink(10L, 3L),
+        new CertificateTagLink(20L, 2L),
+        new CertificateTagLink(30L, 1L),
+        new CertificateTagLink(30L, 2L),
+        new CertificateTagLink(30L, 3L)));
+    tagIndex.build();
+  }
+
+  @Test
+  public void findCandidates_termMatchesEveryTagContainingIt() {
+    assertEquals(Optional.of(RoaringBitmap.bitmapOf(10, 20, 30)), tagIndex.findCandidates(List.of("tag")));
+  }
+
+  @Test
+  public void findCandidates_intersectsTerms() {
+    assertEquals(Optional.of(RoaringBitmap.bitmapOf(10, 30)), tagIndex.findCandidates(List.of(" TAG 1 ", "blue")));
+    assertEquals(Optional.of(RoaringBitmap.bitmapOf(30)), tagIndex.findCandidates(List.of("tag 1", "tag 2", "blue")));
+    assertEquals(Optional.of(new RoaringBitmap()), tagIndex.findCandidates(List.of("tag 2", "green")));
+  }
+
+  @Test
+  public void findCandidates_noTermsOrWildcards_returnsEmpty() {
+    assertTrue(tagIndex.findCandidates(null).isEmpty());
+    assertTrue(tagIndex.findCandidates(List.of()).isEmpty());
+    assertTrue(tagIndex.findCandidates(List.of("tag_1")).isEmpty());
+  }
+
+  @Test
+  public void onChanges_keepPostingsCurrent() {
+    CertificateResponseDTO before = new CertificateResponseDTO(20L, "name", "description", 10.0, 5L, List.of(2L));
+    CertificateResponseDTO after = new CertificateResponseDTO(20L, "name", "description", 10.0, 5L, List.of(3L));
+    tagIndex.onCertificateChanged(new CertificateChangedEvent(before, after));
+    tagIndex.onTagChanged(TagChangedEvent.deleted(new TagResponseDTO(1L, "tag 1")));
+
+    assertEquals(Optional.of(RoaringBitmap.bitmapOf(30)), tagIndex.findCandidates(List.of("tag")));
+    assertEquals(Optional.of(RoaringBitmap.bitmapOf(10, 20, 30)), tagIndex.findCandidates(List.of("blue")));
+  }
+
+  private static Tag tag(Long id, String name) {
+    Tag tag = new Tag();
+    tag.setId(id);
+    tag.setName(name);
+    return tag;
+  }
+}
@@ -0,0 +1,145 @@
+package index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.TagResponseDTO;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.event.TagChangedEvent;
+import com.epam.esm.index.LongIntHashMap;
+import com.epam.esm.index.TagStatistics;
+import com.epam.esm.model.Tag;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.CertificateTagLink;
+import com.epam.esm.repository.TagRepository;
+import com.epam.esm.repository.TagUsage;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+@ExtendWith(MockitoExtension.class)
+public class TagStatisticsTest {
+
+  @InjectMocks
+  private TagStatistics tagStatistics;
+
+  @Mock
+  private CertificateRepository certificateRepository;
+
+  @Mock
+  private TagRepository tagRepository;
+
+  @BeforeEach
+  public void setup() {
+    when(tagRepository.findAll()).thenReturn(List.of(tag(1L), tag(2L), tag(3L), tag(4L)));
+    when(certificateRepository.streamAllTagLinksByCertificate()).thenReturn(Stream.of(
+        new CertificateTagLink(10L, 1L),
+        new CertificateTagLink(10L, 3L),
+        new CertificateTagLink(20L, 2L),
+        new CertificateTagLink(30L, 1L),
+        new CertificateTagLink(30L, 2L),
+        new CertificateTagLink(30L, 3L)));
+    tagStatistics.build();
+  }
+
+  @Test
+  public void findByUsage_ordersByCountThenId() {
+    List<TagUsage> page = tagStatistics.findByUsage(PageRequest.of(0, 10)).orElseThrow().getContent();
+
+    assertEquals(List.of(new TagUsage(1L, 2), new TagUsage(2L, 2), new TagUsage(3L, 2), new TagUsage(4L, 0)), page);
+    assertEquals(List.of(new TagUsage(3L, 2), new TagUsage(4L, 0)),
+        tagStatistics.findByUsage(PageRequest.of(1, 2)).orElseThrow().getContent());
+  }
+
+  @Test
+  public void findRelated_ordersBySharedCountThenId() {
+    assertEquals(Optional.of(List.of(new TagUsage(3L, 2), new TagUsage(2L, 1))), tagStatistics.findRelated(1L, 5));
+    assertEquals(Optional.of(List.of(new TagUsage(3L, 2))), tagStatistics.findRelated(1L, 1));
+    assertEquals(Optional.of(List.of()), tagStatistics.findRelated(4L, 5));
+  }
+
+  @Test
+  public void build_changesReportedDuringTheBuildAreCountedOnce() {
+    // Given: certificate 40 was created before the snapshot was read, certificate 50 after, and 30 changed before it
+    CertificateResponseDTO created = new CertificateResponseDTO(40L, "name", "description", 10.0, 5L, List.of(1L, 4L));
+    CertificateResponseDTO createdLater = new CertificateResponseDTO(50L, "name", "description", 10.0, 5L, List.of(4L));
+    CertificateResponseDTO before = new CertificateResponseDTO(30L, "name", "description", 10.0, 5L, List.of(1L, 2L, 3L));
+    CertificateResponseDTO after = new CertificateResponseDTO(30L, "name", "description", 10.0, 5L, List.of(2L));
+    when(certificateRepository.streamAllTagLinksByCertificate()).thenAnswer(invocation -> {
+      tagStatistics.onCertificateChanged(CertificateChangedEvent.created(created));
+      tagStatistics.onCertificateChanged(CertificateChangedEvent.created(createdLater));
+      tagStatistics.onCertificateChanged(new CertificateChangedEvent(before, after));
+      return Stream.of(
+          new CertificateTagLink(10L, 1L),
+          new CertificateTagLink(10L, 3L),
+          new CertificateTagLink(20L, 2L),
+          new CertificateTagLink(30L, 2L),
+          new CertificateTagLink(40L, 1L),
+          new CertificateTagLink(40L, 4L));
+    });
+    when(certificateRepository.findTagLinksByCertificateIds(Set.of(30L, 40L, 50L))).thenReturn(List.of(
+        new CertificateTagLink(30L, 2L),
+        new CertificateTagLink(40L, 1L),
+        new CertificateTagLink(40L, 4L)));
+
+    // When
+    tagStatistics.build();
+
+    // Then
+    assertEquals(List.of(new TagUsage(1L, 2), new TagUsage(2L, 2), new TagUsage(4L, 2), new TagUsage(3L, 1)),
+        tagStatistics.findByUsage(PageRequest.of(0, 10)).orElseThrow().getContent());
+    assertEquals(Optional.of(List.of(new TagUsage(3L, 1), new TagUsage(4L, 1))), tagStatistics.findRelated(1L, 5));
+  }
+
+  @Test
+  public void onChanges_keepCountsCurrent() {
+    CertificateResponseDTO before = new CertificateResponseDTO(20L, "name", "description", 10.0, 5L, List.of(2L));
+    CertificateResponseDTO after = new CertificateResponseDTO(20L, "name", "description", 10.0, 5L, List.of(1L, 4L));
+    tagStatistics.onCertificateChanged(new CertificateChangedEvent(before, after));
+    tagStatistics.onTagChanged(TagChangedEvent.deleted(new TagResponseDTO(3L, "tag 3")));
+    tagStatistics.onTagChanged(TagChangedEvent.created(new TagResponseDTO(5L, "tag 5")));
+
+    assertEquals(List.of(new TagUsage(1L, 3), new TagUsage(2L, 1), new TagUsage(4L, 1), new TagUsage(5L, 0)),
+        tagStatistics.findByUsage(PageRequest.of(0, 10)).orElseThrow().getContent());
+    assertEquals(Optional.of(List.of(new TagUsage(2L, 1), new TagUsage(4L, 1))), tagStatistics.findRelated(1L, 5));
+    assertEquals(Optional.of(List.of(new TagUsage(1L, 1))), tagStatistics.findRelated(2L, 5));
+  }
+
+  @Test
+  public void longIntHashMap_matchesHashMapUnderRandomUpdates() {
+    LongIntHashMap map = new LongIntHashMap();
+    Map<Long, Integer> expected = new HashMap<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 20_000; i++) {
+      long key = random.nextInt(500);
+      int delta = random.nextInt(5) - 2;
+      map.add(key, delta);
+      expected.merge(key, delta, Integer::sum);
+      expected.remove(key, 0);
+    }
+
+    Map<Long, Integer> actual = new HashMap<>();
+    map.forEach(actual::put);
+    assertEquals(expected, actual);
+    assertEquals(expected.size(), map.size());
+  }
+
+  private static Tag tag(Long id) {
+    Tag tag = new Tag();
+    tag.setId(id);
+    tag.setName("tag " + id);
+    return tag;
+  }
+}
@@ -0,0 +1,80 @@
+package partition;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.esm.partition.OrderPartitionMaintenance;
+import com.epam.esm.repository.OrderPartitionRepository;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderPartitionMaintenanceTest {
+
+  private static final YearMonth CURRENT = YearMonth.of(2024, 5);
+
+  @Mock
+  private OrderPartitionRepository orderPartitionRepository;
+
+  @Test
+  public void maintain_leavesTheTableAloneOnOtherDatabases() {
+    // Given
+    when(orderPartitionRepository.isSupported()).thenReturn(false);
+
+    // When
+    maintenance(0).maintain(CURRENT);
+
+    // Then
+    verify(orderPartitionRepository).isSupported();
+    verifyNoMoreInteractions(orderPartitionRepository);
+  }
+
+  @Test
+  public void maintain_partitionsThePlainTableThroughTheMonthsAhead() {
+    // Given
+    when(orderPartitionRepository.isSupported()).thenReturn(true);
+    when(orderPartitionRepository.isPartitioned()).thenReturn(false);
+
+    // When
+    maintenance(0).maintain(CURRENT);
+
+    // Then
+    verify(orderPartitionRepository).partition(CURRENT, YearMonth.of(2024, 7));
+    verify(orderPartitionRepository, never()).createPartition(any());
+    verify(orderPartitionRepository, never()).findPartitions();
+  }
+
+  @Test
+  public void maintain_createsTheMonthsAheadAndDetachesThoseOlderThanTheRetention() {
+    // Given
+    when(orderPartitionRepository.isSupported()).thenReturn(true);
+    when(orderPartitionRepository.isPartitioned()).thenReturn(true);
+    when(orderPartitionRepository.findPartitions()).thenReturn(List.of(
+        YearMonth.of(2024, 1), YearMonth.of(2024, 2), YearMonth.of(2024, 3), YearMonth.of(2024, 5)));
+
+    // When
+    maintenance(2).maintain(CURRENT);
+
+    // Then
+    verify(orderPartitionRepository).createPartition(YearMonth.of(2024, 5));
+    verify(orderPartitionRepository).createPartition(YearMonth.of(2024, 6));
+    verify(orderPartitionRepository).createPartition(YearMonth.of(2024, 7));
+    verify(orderPartitionRepository).detachPartition(YearMonth.of(2024, 1));
+    verify(orderPartitionRepository).detachPartition(YearMonth.of(2024, 2));
+    verify(orderPartitionRepository, never()).detachPartition(YearMonth.of(2024, 3));
+    verify(orderPartitionRepository, never()).partition(any(), any());
+  }
+
+  private OrderPartitionMaintenance maintenance(int retentionMonths) {
+    return new OrderPartitionMaintenance(orderPartitionRepository, TransactionOperations.withoutTransaction(),
+        2, retentionMonths);
+  }
+}
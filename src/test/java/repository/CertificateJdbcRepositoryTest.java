@@ -0,0 +1,152 @@
+package repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.SuggestionDTO;
+import com.epam.esm.filter.CertificateSpecification;
+import com.epam.esm.filter.KeysetCursor;
+import com.epam.esm.repository.CertificateJdbcRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+public class CertificateJdbcRepositoryTest {
+
+  private static final int CERTIFICATES = 20;
+  private static final int TAGS_PER_CERTIFICATE = 3;
+
+  private EmbeddedDatabase database;
+  private StatementCountingDataSource dataSource;
+  private CertificateJdbcRepository repository;
+
+  @BeforeEach
+  public void setup() {
+    database = new EmbeddedDatabaseBuilder()
+        .setType(EmbeddedDatabaseType.H2)
+        .generateUniqueName(true)
+        .build();
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+    jdbcTemplate.execute("CREATE TABLE certificates (certificate_id BIGINT PRIMARY KEY, certificate_name VARCHAR(255),"
+        + " description VARCHAR(255), price DOUBLE PRECISION, duration BIGINT, create_date VARCHAR(255),"
+        + " last_update_date VARCHAR(255))");
+    jdbcTemplate.execute("CREATE TABLE tag (tag_id BIGINT PRIMARY KEY, tag_name VARCHAR(255))");
+    jdbcTemplate.execute("CREATE TABLE gift_certificate_tag (certificate_id BIGINT, tag_id BIGINT)");
+
+    for (long tagId = 1; tagId <= CERTIFICATES + TAGS_PER_CERTIFICATE; tagId++) {
+      jdbcTemplate.update("INSERT INTO tag VALUES (?, ?)", tagId, "tag" + tagId);
+    }
+    for (long id = 1; id <= CERTIFICATES; id++) {
+      jdbcTemplate.update("INSERT INTO certificates VALUES (?, ?, ?, ?, ?, NULL, NULL)",
+          id, "certificate" + id, "description" + id, 10.0 * id, id);
+      for (long tagId = id; tagId < id + TAGS_PER_CERTIFICATE; tagId++) {
+        jdbcTemplate.update("INSERT INTO gift_certificate_tag VALUES (?, ?)", id, tagId);
+      }
+    }
+
+    dataSource = new StatementCountingDataSource(database);
+    repository = new CertificateJdbcRepository(new NamedParameterJdbcTemplate(dataSource));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    database.shutdown();
+  }
+
+  @Test
+  public void testFindSlice_ReadsPageWithTagIdsInOneStatement() {
+    // When
+    Slice<CertificateResponseDTO> slice = repository.findSlice(new CertificateSpecification(null, null), null,
+        PageRequest.of(0, 10, KeysetCursor.sortBy("price")));
+
+    // Then
+    assertEquals(1, dataSource.getStatementCount());
+    assertEquals(10, slice.getNumberOfElements());
+    assertTrue(slice.hasNext());
+    assertEquals(new CertificateResponseDTO(1L, "certificate1", "description1", 10.0, 1L, List.of(1L, 2L, 3L)),
+        slice.getContent().get(0));
+  }
+
+  @Test
+  public void testFindAllById_ReadsExistingCertificatesInOneStatement() {
+    // When
+    Map<Long, CertificateResponseDTO> certificates = repository.findAllById(List.of(1L, 2L, 999L));
+
+    // Then
+    assertEquals(1, dataSource.getStatementCount());
+    assertEquals(Set.of(1L, 2L), certificates.keySet());
+    assertEquals(new CertificateResponseDTO(1L, "certificate1", "description1", 10.0, 1L, List.of(1L, 2L, 3L)),
+        certificates.get(1L));
+  }
+
+  @Test
+  public void testFindPage_CountsOnlyWhenPageIsFull() {
+    // When
+    Page<CertificateResponseDTO> fullPage = repository.findPage(new CertificateSpecification(null, null),
+        PageRequest.of(0, 5, KeysetCursor.sortBy("id")));
+
+    // Then
+    assertEquals(2, dataSource.getStatementCount());
+    assertEquals(CERTIFICATES, fullPage.getTotalElements());
+
+    // When
+    dataSource.reset();
+    Page<CertificateResponseDTO> lastPage = repository.findPage(new CertificateSpecification(List.of("tag3"), null),
+        PageRequest.of(0, 5, KeysetCursor.sortBy("id")));
+
+    // Then
+    assertEquals(1, dataSource.getStatementCount());
+    assertEquals(3, lastPage.getTotalElements());
+  }
+
+  @Test
+  public void testFindSlice_FiltersAndSeeksPastCursor() {
+    // Given
+    CertificateSpecification filter = new CertificateSpecification(List.of("TAG1"), "certificate", List.of(1L, 9L, 10L, 11L));
+    KeysetCursor cursor = new KeysetCursor("name", "certificate1", 1L);
+
+    // When
+    Slice<CertificateResponseDTO> slice = repository.findSlice(filter, cursor, cursor.firstPage(10));
+
+    // Then
+    assertEquals(List.of(10L, 11L, 9L), slice.getContent().stream().map(CertificateResponseDTO::certificateId).toList());
+    assertFalse(slice.hasNext());
+    assertEquals(1, dataSource.getStatementCount());
+  }
+
+  @Test
+  public void testStreamAll_PassesEveryMatchingRowInSortOrderFromOneStatement() {
+    // Given
+    List<CertificateResponseDTO> rows = new ArrayList<>();
+
+    // When
+    repository.streamAll(new CertificateSpecification(List.of("tag3"), null), KeysetCursor.sortBy("price")
+        .reverse(), rows::add);
+
+    // Then
+    assertEquals(1, dataSource.getStatementCount());
+    assertEquals(List.of(3L, 2L, 1L), rows.stream().map(CertificateResponseDTO::certificateId).toList());
+    assertEquals(List.of(3L, 4L, 5L), rows.get(0).tagIds());
+  }
+
+  @Test
+  public void testFindSuggestions_MatchesPrefixIgnoringCaseAndWildcards() {
+    assertEquals(List.of(new SuggestionDTO(1L, "certificate1"), new SuggestionDTO(10L, "certificate10")),
+        repository.findSuggestions("CERTIFICATE1", 2));
+    assertEquals(List.of(), repository.findSuggestions("certificate_", 2));
+  }
+}
@@ -0,0 +1,100 @@
+package repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.epam.esm.repository.CertificatePrice;
+import com.epam.esm.repository.NewOrder;
+import com.epam.esm.repository.OrderJdbcRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+public class OrderJdbcRepositoryTest {
+
+  private EmbeddedDatabase database;
+  private JdbcTemplate jdbcTemplate;
+  private StatementCountingDataSource dataSource;
+  private OrderJdbcRepository repository;
+
+  @BeforeEach
+  public void setup() {
+    database = new EmbeddedDatabaseBuilder()
+        .setType(EmbeddedDatabaseType.H2)
+        .generateUniqueName(true)
+        .build();
+    jdbcTemplate = new JdbcTemplate(database);
+    jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(255))");
+    jdbcTemplate.execute("CREATE TABLE certificates (certificate_id BIGINT PRIMARY KEY, certificate_name VARCHAR(255),"
+        + " price DOUBLE PRECISION)");
+    jdbcTemplate.execute("CREATE TABLE gift_certificate_tag (certificate_id BIGINT, tag_id BIGINT)");
+    jdbcTemplate.execute("CREATE TABLE orders (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT,"
+        + " certificate_id BIGINT, price DOUBLE PRECISION, purchase_time TIMESTAMP, create_date VARCHAR(255))");
+    jdbcTemplate.execute("CREATE TABLE orders_AUDIT_LOG (id BIGINT, rev INT, revtype SMALLINT, user_id BIGINT,"
+        + " certificate_id BIGINT, price DOUBLE PRECISION, purchase_time TIMESTAMP, create_date VARCHAR(255),"
+        + " PRIMARY KEY (id, rev))");
+
+    jdbcTemplate.update("INSERT INTO users VALUES (1, 'first'), (2, 'second')");
+    jdbcTemplate.update("INSERT INTO certificates VALUES (10, 'tagged', 25.0), (20, 'untagged', 5.0)");
+    jdbcTemplate.update("INSERT INTO gift_certificate_tag VALUES (10, 1), (10, 2)");
+
+    dataSource = new StatementCountingDataSource(database);
+    repository = new OrderJdbcRepository(new NamedParameterJdbcTemplate(dataSource));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    database.shutdown();
+  }
+
+  @Test
+  public void testFindExistingUserIdsAndPrices_OneStatementEach() {
+    assertEquals(Set.of(1L), repository.findExistingUserIds(List.of(1L, 3L)));
+    assertEquals(Map.of(10L, new CertificatePrice(10L, 25.0, List.of(1L, 2L)), 20L, new CertificatePrice(20L, 5.0, List.of())),
+        repository.findPrices(List.of(10L, 20L, 30L)));
+    assertEquals(2, dataSource.getStatementCount());
+  }
+
+  @Test
+  public void testInsertAll_InsertsAndAuditsWithTwoBatches() {
+    // Given
+    LocalDateTime purchaseTime = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+    List<NewOrder> orders = List.of(new NewOrder(1L, 10L, 25.0, purchaseTime), new NewOrder(2L, 20L, 5.0, purchaseTime));
+
+    // When
+    List<Long> ids = repository.insertAll(orders, "2024-01-02T02:04:05.000Z");
+    repository.auditInserted(7, ids, orders, "2024-01-02T02:04:05.000Z");
+
+    // Then
+    assertEquals(List.of(1L, 2L), ids);
+    assertEquals(2, dataSource.getStatementCount());
+    assertEquals(30.0, jdbcTemplate.queryForObject("SELECT SUM(price) FROM orders", Double.class));
+    assertEquals(2, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM orders_AUDIT_LOG WHERE rev = 7 AND revtype = 0", Integer.class));
+  }
+
+  @Test
+  public void testStreamOrdersAfter_PassesTheLaterOrdersInIdOrder() {
+    // Given
+    jdbcTemplate.update("INSERT INTO orders (user_id, certificate_id, price, purchase_time) VALUES"
+        + " (1, 10, 25.0, '2024-01-02 23:59:00'), (2, 20, 5.0, '2024-01-03 00:01:00'), (1, 20, 5.0, '2024-02-01 12:00:00')");
+    List<String> facts = new ArrayList<>();
+
+    // When
+    repository.streamOrdersAfter(1L, (orderId, certificateId, price, purchaseDay) ->
+        facts.add(orderId + ":" + certificateId + ":" + price + ":" + purchaseDay));
+
+    // Then
+    assertEquals(List.of("2:20:5.0:2024-01-03", "3:20:5.0:2024-02-01"), facts);
+    assertEquals(1, dataSource.getStatementCount());
+  }
+}
@@ -0,0 +1,48 @@
+package repository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts the statements prepared through the connections of a DataSource.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+  private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "createStatement", "prepareCall");
+
+  private final AtomicInteger statements = new AtomicInteger();
+
+  public StatementCountingDataSource(DataSource targetDataSource) {
+    super(targetDataSource);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    Connection connection = super.getConnection();
+    return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+        (proxy, method, args) -> {
+          if (STATEMENT_METHODS.contains(method.getName())) {
+            statements.incrementAndGet();
+          }
+          try {
+            return method.invoke(connection, args);
+          } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+          }
+        });
+  }
+
+  public int getStatementCount() {
+    return statements.get();
+  }
+
+  public void reset() {
+    statements.set(0);
+  }
+}
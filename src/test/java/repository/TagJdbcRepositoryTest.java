@@ -0,0 +1,152 @@
+package repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.epam.esm.repository.TagJdbcRepository;
+import com.epam.esm.repository.TagUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+public class TagJdbcRepositoryTest {
+
+  private static final int CERTIFICATES = 50;
+
+  private EmbeddedDatabase database;
+  private JdbcTemplate jdbcTemplate;
+  private StatementCountingDataSource dataSource;
+  private TagJdbcRepository repository;
+
+  @BeforeEach
+  public void setup() {
+    database = new EmbeddedDatabaseBuilder()
+        .setType(EmbeddedDatabaseType.H2)
+        .generateUniqueName(true)
+        .build();
+    jdbcTemplate = new JdbcTemplate(database);
+    jdbcTemplate.execute("SET MODE PostgreSQL");
+    jdbcTemplate.execute("CREATE TABLE certificates (certificate_id BIGINT PRIMARY KEY, certificate_name VARCHAR(255),"
+        + " description VARCHAR(255), price DOUBLE PRECISION, duration BIGINT, create_date VARCHAR(255),"
+        + " last_update_date VARCHAR(255))");
+    jdbcTemplate.execute("CREATE TABLE certificates_AUDIT_LOG (certificate_id BIGINT, rev INT, revtype SMALLINT,"
+        + " certificate_name VARCHAR(255), description VARCHAR(255), price DOUBLE PRECISION, duration BIGINT,"
+        + " create_date VARCHAR(255), last_update_date VARCHAR(255), PRIMARY KEY (certificate_id, rev))");
+    jdbcTemplate.execute("CREATE TABLE tag (tag_id BIGINT GENERATED BY DEFAULT AS IDENTITY (START WITH 100) PRIMARY KEY,"
+        + " tag_name VARCHAR(255), CONSTRAINT uk_tag_name UNIQUE (tag_name))");
+    jdbcTemplate.execute("CREATE TABLE tag_AUDIT_LOG (tag_id BIGINT, rev INT, revtype SMALLINT, tag_name VARCHAR(255),"
+        + " PRIMARY KEY (tag_id, rev))");
+    jdbcTemplate.execute("CREATE TABLE gift_certificate_tag (certificate_id BIGINT, tag_id BIGINT)");
+    jdbcTemplate.execute("CREATE TABLE gift_certificate_tag_AUDIT_LOG (rev INT, revtype SMALLINT, certificate_id BIGINT,"
+        + " tag_id BIGINT)");
+
+    jdbcTemplate.update("INSERT INTO tag VALUES (1, 'popular'), (2, 'other')");
+    for (long id = 1; id <= CERTIFICATES; id++) {
+      jdbcTemplate.update("INSERT INTO certificates VALUES (?, ?, 'description', 10.0, 5, NULL, NULL)", id, "name" + id);
+      jdbcTemplate.update("INSERT INTO gift_certificate_tag VALUES (?, 1)", id);
+      if (id % 2 == 0) {
+        jdbcTemplate.update("INSERT INTO gift_certificate_tag VALUES (?, 2)", id);
+      }
+    }
+
+    dataSource = new StatementCountingDataSource(database);
+    repository = new TagJdbcRepository(new NamedParameterJdbcTemplate(dataSource));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    database.shutdown();
+  }
+
+  @Test
+  public void testDeleteCertificateLinks_UnlinksAndAuditsWithFixedStatementCount() {
+    // When
+    int unlinked = repository.deleteCertificateLinks(1L, 7);
+
+    // Then
+    assertEquals(CERTIFICATES, unlinked);
+    assertEquals(3, dataSource.getStatementCount());
+    assertEquals(List.of(2L), jdbcTemplate.queryForList("SELECT DISTINCT tag_id FROM gift_certificate_tag", Long.class));
+    assertEquals(CERTIFICATES, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM certificates_AUDIT_LOG WHERE rev = 7 AND revtype = 1", Integer.class));
+    assertEquals(CERTIFICATES, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM gift_certificate_tag_AUDIT_LOG WHERE rev = 7 AND revtype = 2 AND tag_id = 1", Integer.class));
+  }
+
+  @Test
+  public void testFindExistingIds_ReturnsOnlyExistingTags() {
+    assertEquals(Set.of(1L, 2L), repository.findExistingIds(List.of(1L, 2L, 3L)));
+    assertEquals(1, dataSource.getStatementCount());
+  }
+
+  @Test
+  public void testFindIdsByName_ReturnsIdsOfExistingNames() {
+    assertEquals(Map.of("popular", 1L), repository.findIdsByName(List.of("popular", "missing")));
+    assertEquals(1, dataSource.getStatementCount());
+  }
+
+  @Test
+  public void testFindIdsByName_LooksUpManyNamesInChunks() {
+    // Given
+    List<String> names = IntStream.range(0, 2 * TagJdbcRepository.INSERT_CHUNK_SIZE + 1)
+        .mapToObj(i -> "missing" + i)
+        .collect(Collectors.toCollection(ArrayList::new));
+    names.add("other");
+
+    // When
+    Map<String, Long> ids = repository.findIdsByName(names);
+
+    // Then
+    assertEquals(Map.of("other", 2L), ids);
+    assertEquals(3, dataSource.getStatementCount());
+  }
+
+  @Test
+  public void testFindDuplicateNames_ReturnsNamesOfMoreThanOneTag() {
+    // Given: the constraint could not be created over existing duplicates
+    jdbcTemplate.execute("ALTER TABLE tag DROP CONSTRAINT uk_tag_name");
+    jdbcTemplate.update("INSERT INTO tag (tag_name) VALUES ('popular'), ('other'), ('other'), ('single')");
+
+    // Then
+    assertEquals(List.of("other", "popular"), repository.findDuplicateNames(10));
+    assertEquals(List.of("other"), repository.findDuplicateNames(1));
+  }
+
+  @Test
+  public void testInsertMissing_InsertsAndAuditsOnlyNewNamesInChunks() {
+    // Given
+    List<String> names = IntStream.range(0, TagJdbcRepository.INSERT_CHUNK_SIZE + 1)
+        .mapToObj(i -> "new" + i)
+        .collect(Collectors.toCollection(ArrayList::new));
+    names.add("popular");
+
+    // When
+    Map<String, Long> ids = repository.insertMissing(names, 7);
+
+    // Then
+    assertEquals(names.size() - 1, ids.size());
+    assertFalse(ids.containsKey("popular"));
+    assertEquals(3, dataSource.getStatementCount());
+    assertEquals(names.size() + 1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tag", Integer.class));
+    assertEquals(names.size() - 1, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM tag_AUDIT_LOG WHERE rev = 7 AND revtype = 0", Integer.class));
+  }
+
+  @Test
+  public void testFindUsageAndRelated_AggregateLinks() {
+    assertEquals(List.of(new TagUsage(1L, CERTIFICATES), new TagUsage(2L, CERTIFICATES / 2)), repository.findUsage(0, 10));
+    assertEquals(List.of(new TagUsage(2L, CERTIFICATES / 2)), repository.findUsage(1, 10));
+    assertEquals(List.of(new TagUsage(1L, CERTIFICATES / 2)), repository.findRelated(2L, 5));
+  }
+}
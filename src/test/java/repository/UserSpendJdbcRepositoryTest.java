@@ -0,0 +1,89 @@
+package repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.epam.esm.dto.MonthlySpendDTO;
+import com.epam.esm.dto.UserSpendSummaryDTO;
+import com.epam.esm.repository.UserSpendJdbcRepository;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+public class UserSpendJdbcRepositoryTest {
+
+  private EmbeddedDatabase database;
+  private StatementCountingDataSource dataSource;
+  private UserSpendJdbcRepository repository;
+
+  @BeforeEach
+  public void setup() {
+    database = new EmbeddedDatabaseBuilder()
+        .setType(EmbeddedDatabaseType.H2)
+        .generateUniqueName(true)
+        .build();
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+    jdbcTemplate.execute("CREATE TABLE user_spend_summary (user_id BIGINT PRIMARY KEY, order_count BIGINT NOT NULL,"
+        + " total_spend DOUBLE PRECISION NOT NULL)");
+    jdbcTemplate.execute("CREATE TABLE user_monthly_spend (user_id BIGINT, spend_month DATE, order_count BIGINT NOT NULL,"
+        + " spend DOUBLE PRECISION NOT NULL, PRIMARY KEY (user_id, spend_month))");
+
+    dataSource = new StatementCountingDataSource(database);
+    repository = new UserSpendJdbcRepository(new NamedParameterJdbcTemplate(dataSource));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    database.shutdown();
+  }
+
+  @Test
+  public void testFindSummary_ReadsTotalsAndMonthsInOneStatement() {
+    // Given
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+    jdbcTemplate.update("INSERT INTO user_spend_summary VALUES (1, 3, 17.5), (2, 1, 5.0)");
+    jdbcTemplate.update("INSERT INTO user_monthly_spend VALUES (1, DATE '2024-02-01', 1, 10.0),"
+        + " (1, DATE '2024-01-01', 2, 7.5), (2, DATE '2024-01-01', 1, 5.0)");
+
+    // When
+    UserSpendSummaryDTO summary = repository.findSummary(1L).orElseThrow();
+
+    // Then
+    assertEquals(1, dataSource.getStatementCount());
+    assertEquals(new UserSpendSummaryDTO(1L, 3, 17.5, List.of(
+        new MonthlySpendDTO(YearMonth.of(2024, 1), 2, 7.5),
+        new MonthlySpendDTO(YearMonth.of(2024, 2), 1, 10.0))), summary);
+  }
+
+  @Test
+  public void testFindSummary_OneStatementEmptyWithoutOrders() {
+    assertTrue(repository.findSummary(3L).isEmpty());
+    assertEquals(1, dataSource.getStatementCount());
+  }
+
+  @Test
+  public void testDeleteAll_RegeneratedUserDoesNotInheritTheOldRollups() {
+    // Given
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+    jdbcTemplate.update("INSERT INTO user_spend_summary VALUES (1, 3, 17.5), (2, 1, 5.0)");
+    jdbcTemplate.update("INSERT INTO user_monthly_spend VALUES (1, DATE '2024-01-01', 3, 17.5),"
+        + " (2, DATE '2024-01-01', 1, 5.0)");
+
+    // When: the data is deleted and user id 1 is given to a new user who places one order
+    repository.deleteAll();
+    jdbcTemplate.update("INSERT INTO user_spend_summary VALUES (1, 1, 8.0)");
+    jdbcTemplate.update("INSERT INTO user_monthly_spend VALUES (1, DATE '2024-03-01', 1, 8.0)");
+
+    // Then
+    assertEquals(new UserSpendSummaryDTO(1L, 1, 8.0, List.of(new MonthlySpendDTO(YearMonth.of(2024, 3), 1, 8.0))),
+        repository.findSummary(1L).orElseThrow());
+    assertTrue(repository.findSummary(2L).isEmpty());
+  }
+}
@@ -0,0 +1,65 @@
+package security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.epam.esm.security.AuthenticatedUser;
+import com.epam.esm.security.JwtAuthenticationFilter;
+import com.epam.esm.security.JwtTokenService;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class JwtAuthenticationFilterTest {
+
+  private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS1hdC1sZWFzdC0yNTYtYml0cy1sb25n";
+
+  private final JwtTokenService tokenService = new JwtTokenService(SECRET, false, Duration.ofMinutes(5));
+  private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(tokenService);
+
+  @AfterEach
+  public void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  public void doFilter_authenticatesABearerTokenWithItsRoles() throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.issue(7L, "buyer", List.of("ADMIN")));
+    MockFilterChain chain = new MockFilterChain();
+
+    // When
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+    // Then
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    assertEquals(new AuthenticatedUser(7L, "buyer", List.of("ADMIN")), authentication.getPrincipal());
+    assertEquals(List.of("ROLE_ADMIN"),
+        authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    assertEquals(request, chain.getRequest());
+  }
+
+  @Test
+  public void doFilter_leavesARequestWithAnInvalidTokenUnauthenticated() throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer not-a-token");
+    MockFilterChain chain = new MockFilterChain();
+
+    // When
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+    // Then
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+    assertEquals(request, chain.getRequest());
+  }
+}
@@ -0,0 +1,59 @@
+package security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.epam.esm.security.AuthenticatedUser;
+import com.epam.esm.security.JwtTokenService;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class JwtTokenServiceTest {
+
+  private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS1hdC1sZWFzdC0yNTYtYml0cy1sb25n";
+  private static final String OTHER_SECRET = "YW5vdGhlci1zZWNyZXQta2V5LWZvci10ZXN0cy1hdC1sZWFzdC0yNTYtYml0cw==";
+
+  private final JwtTokenService tokenService = new JwtTokenService(SECRET, false, Duration.ofMinutes(5));
+
+  @Test
+  public void verify_readsTheUserTheTokenWasIssuedFor() {
+    String token = tokenService.issue(7L, "buyer", List.of("USER", "ADMIN"));
+
+    assertEquals(new AuthenticatedUser(7L, "buyer", List.of("USER", "ADMIN")), tokenService.verify(token));
+  }
+
+  @Test
+  public void verify_acceptsTokensOfAnotherInstanceSharingTheSecret() {
+    String token = new JwtTokenService(SECRET, false, Duration.ofMinutes(5)).issue(7L, "buyer", List.of());
+
+    assertEquals(new AuthenticatedUser(7L, "buyer", List.of()), tokenService.verify(token));
+  }
+
+  @Test
+  public void verify_rejectsTokensSignedWithAnotherKey() {
+    String token = new JwtTokenService(OTHER_SECRET, false, Duration.ofMinutes(5))
+        .issue(7L, "buyer", List.of("ADMIN"));
+
+    assertThrows(JwtException.class, () -> tokenService.verify(token));
+  }
+
+  @Test
+  public void verify_rejectsExpiredTokens() {
+    String token = new JwtTokenService(SECRET, false, Duration.ofMinutes(-5)).issue(7L, "buyer", List.of());
+
+    assertThrows(ExpiredJwtException.class, () -> tokenService.verify(token));
+  }
+
+  @Test
+  public void constructor_withoutSecret_failsUnlessARandomKeyIsAllowed() {
+    assertThrows(IllegalStateException.class, () -> new JwtTokenService(" ", false, Duration.ofMinutes(5)));
+
+    JwtTokenService randomKeyService = new JwtTokenService("", true, Duration.ofMinutes(5));
+    String token = randomKeyService.issue(7L, "buyer", List.of());
+    assertEquals(new AuthenticatedUser(7L, "buyer", List.of()), randomKeyService.verify(token));
+    assertThrows(JwtException.class, () -> tokenService.verify(token));
+  }
+}
@@ -0,0 +1,72 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.esm.analytics.CertificateRevenue;
+import com.epam.esm.analytics.OrderAnalytics;
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.CertificateRevenueDTO;
+import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.exceptions.ErrorCode;
+import com.epam.esm.repository.CertificateJdbcRepository;
+import com.epam.esm.repository.TagRepository;
+import com.epam.esm.service.AnalyticsService;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class AnalyticsServiceTest {
+
+  @InjectMocks
+  private AnalyticsService analyticsService;
+
+  @Mock
+  private OrderAnalytics orderAnalytics;
+
+  @Mock
+  private CertificateJdbcRepository certificateJdbcRepository;
+
+  @Mock
+  private TagRepository tagRepository;
+
+  @Test
+  public void testGetTopCertificates_NamesTheCertificatesThatStillExist() {
+    // Given
+    when(orderAnalytics.findTopCertificates(2)).thenReturn(
+        List.of(new CertificateRevenue(3L, 4, 200.0), new CertificateRevenue(1L, 5, 150.0)));
+    when(certificateJdbcRepository.findAllById(List.of(3L, 1L))).thenReturn(
+        Map.of(3L, new CertificateResponseDTO(3L, "spa", "description", 50.0, 30L, List.of())));
+
+    // When & Then
+    assertEquals(List.of(new CertificateRevenueDTO(3L, "spa", 4, 200.0), new CertificateRevenueDTO(1L, null, 5, 150.0)),
+        analyticsService.getTopCertificates(2));
+  }
+
+  @Test
+  public void testGetTopCertificates_ThrowsBadRequest_WhenLimitIsOutOfRange() {
+    CustomizedException exception = assertThrows(CustomizedException.class,
+        () -> analyticsService.getTopCertificates(AnalyticsService.MAX_LIMIT + 1));
+
+    assertEquals(ErrorCode.ORDER_BAD_REQUEST, exception.getCode());
+    verifyNoInteractions(orderAnalytics);
+  }
+
+  @Test
+  public void testGetRevenueByDay_ThrowsBadRequest_WhenRangeIsEmpty() {
+    LocalDate day = LocalDate.of(2024, 1, 2);
+
+    CustomizedException exception = assertThrows(CustomizedException.class,
+        () -> analyticsService.getRevenueByDay(day, day.minusDays(1)));
+
+    assertEquals(ErrorCode.ORDER_BAD_REQUEST, exception.getCode());
+  }
+}
@@ -0,0 +1,269 @@
+package service;
+
+import static com.epam.esm.exceptions.Messages.CERTIFICATE_ALREADY_EXISTS;
+import static com.epam.esm.exceptions.Messages.CERTIFICATE_ALREADY_IMPORTED;
+import static com.epam.esm.exceptions.Messages.NON_EXISTING_TAGS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.esm.bulk.CertificateRecordWriter;
+import com.epam.esm.bulk.DataFormat;
+import com.epam.esm.dto.CertificateRequestDTO;
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.ImportErrorDTO;
+import com.epam.esm.dto.ImportReportDTO;
+import com.epam.esm.event.CertificateChangedEvent;
+import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.exceptions.ErrorCode;
+import com.epam.esm.repository.CertificateJdbcRepository;
+import com.epam.esm.repository.TagJdbcRepository;
+import com.epam.esm.service.AuditReaderService;
+import com.epam.esm.service.CertificateImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+@ExtendWith(MockitoExtension.class)
+public class CertificateImportServiceTest {
+
+  @Mock
+  CertificateJdbcRepository certificateJdbcRepository;
+
+  @Mock
+  TagJdbcRepository tagJdbcRepository;
+
+  @Mock
+  AuditReaderService auditReaderService;
+
+  @Mock
+  ApplicationEventPublisher eventPublisher;
+
+  private CertificateImportService importService;
+
+  @BeforeEach
+  void setUp() {
+    importService = new CertificateImportService(certificateJdbcRepository, tagJdbcRepository, auditReaderService,
+        TransactionOperations.withoutTransaction(), new ObjectMapper(), eventPublisher);
+  }
+
+  @Test
+  void importCertificates_ndjson_insertsValidLinesAndReportsInvalidOnes() {
+    String body = """
+        {"name":"first","description":"desc","price":10.0,"duration":5,"tagIds":[1]}
+
+        {"name":"second","description":"desc","price":-1.0,"duration":5}
+        not json
+        {"name":"first","description":"again","price":10.0,"duration":5}
+        {"name":"third","description":"desc","price":1.0,"duration":1,"tagIds":[1,7]}
+        """;
+    when(tagJdbcRepository.findExistingIds(Set.of(1L, 7L))).thenReturn(Set.of(1L));
+    when(certificateJdbcRepository.findIdsByName(anyList())).thenReturn(Map.of());
+    when(certificateJdbcRepository.insertAll(anyList(), anyString())).thenReturn(List.of(100L));
+    when(auditReaderService.getCurrentRevisionNumber()).thenReturn(3);
+
+    ImportReportDTO report = importService.importCertificates(stream(body), DataFormat.NDJSON);
+
+    assertEquals(1, report.imported());
+    assertEquals(4, report.failed());
+    assertEquals(List.of(3L, 4L, 5L, 6L), report.errors().stream().map(ImportErrorDTO::line).toList());
+    assertEquals(CERTIFICATE_ALREADY_IMPORTED.formatted("first"), report.errors().get(2).message());
+    assertEquals(NON_EXISTING_TAGS.formatted(List.of(7L)), report.errors().get(3).message());
+
+    ArgumentCaptor<List<CertificateRequestDTO>> inserted = ArgumentCaptor.forClass(List.class);
+    verify(certificateJdbcRepository).insertAll(inserted.capture(), anyString());
+    assertEquals(List.of(new CertificateRequestDTO("first", "desc", 10.0, 5L, List.of(1L))), inserted.getValue());
+    verify(certificateJdbcRepository).auditInserted(eq(3), eq(List.of(100L)), anyList(), anyString());
+    verify(eventPublisher).publishEvent(any(CertificateChangedEvent.class));
+  }
+
+  @Test
+  void importCertificates_ndjson_rejectsNullRecordsAndTagIdsAndDropsDuplicateTagIds() {
+    String body = """
+        null
+        {"name":"first","description":"desc","price":1.0,"duration":1,"tagIds":[1,1]}
+        {"name":"second","description":"desc","price":1.0,"duration":1,"tagIds":[null]}
+        """;
+    when(tagJdbcRepository.findExistingIds(Set.of(1L))).thenReturn(Set.of(1L));
+    when(certificateJdbcRepository.findIdsByName(anyList())).thenReturn(Map.of());
+    when(certificateJdbcRepository.insertAll(anyList(), anyString())).thenReturn(List.of(100L));
+
+    ImportReportDTO report = importService.importCertificates(stream(body), DataFormat.NDJSON);
+
+    assertEquals(1, report.imported());
+    assertEquals(List.of(new ImportErrorDTO(1, "Expected a certificate but found null"),
+        new ImportErrorDTO(3, "Null tag id in [null]")), report.errors());
+    verify(certificateJdbcRepository).insertAll(
+        eq(List.of(new CertificateRequestDTO("first", "desc", 1.0, 1L, List.of(1L)))), anyString());
+  }
+
+  @Test
+  void importCertificates_csv_readsColumnsByHeaderAndSkipsExistingNames() {
+    String body = """
+        price,name,duration,description,tagIds
+        5.5,"Spa, deluxe",30,"A ""quoted"" description",1|2
+        7,existing,10,desc,
+        oops,broken,10,desc,
+        """;
+    when(tagJdbcRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(Set.of(1L, 2L));
+    when(certificateJdbcRepository.findIdsByName(anyList())).thenReturn(Map.of("existing", 42L));
+    when(certificateJdbcRepository.insertAll(anyList(), anyString())).thenReturn(List.of(100L));
+
+    ImportReportDTO report = importService.importCertificates(stream(body), DataFormat.CSV);
+
+    assertEquals(1, report.imported());
+    assertEquals(List.of(new ImportErrorDTO(3, CERTIFICATE_ALREADY_EXISTS.formatted(42L)),
+        new ImportErrorDTO(4, "Invalid number oops")), report.errors());
+    verify(certificateJdbcRepository).insertAll(
+        eq(List.of(new CertificateRequestDTO("Spa, deluxe", "A \"quoted\" description", 5.5, 30L, List.of(1L, 2L)))),
+        anyString());
+  }
+
+  @Test
+  void importCertificates_csvExport_importsMultiLineDescriptionsAgain() throws IOException {
+    // Given
+    String description = "First line\nSecond line, with \"quotes\"\n\nAfter a blank line";
+    ByteArrayOutputStream export = new ByteArrayOutputStream();
+    CertificateRecordWriter writer = new CertificateRecordWriter(DataFormat.CSV, export, new ObjectMapper());
+    writer.accept(new CertificateResponseDTO(1L, "Spa", description, 5.5, 30L, List.of(1L)));
+    writer.accept(new CertificateResponseDTO(2L, "Dinner", "desc", 7.0, 10L, List.of()));
+    writer.finish();
+    String body = export.toString(StandardCharsets.UTF_8) + "3,broken,desc,oops,10,\n";
+    when(tagJdbcRepository.findExistingIds(Set.of(1L))).thenReturn(Set.of(1L));
+    when(certificateJdbcRepository.insertAll(anyList(), anyString())).thenReturn(List.of(100L, 101L));
+
+    // When
+    ImportReportDTO report = importService.importCertificates(stream(body), DataFormat.CSV);
+
+    // Then: the first record spans lines 2 to 5
+    assertEquals(2, report.imported());
+    assertEquals(List.of(new ImportErrorDTO(7, "Invalid number oops")), report.errors());
+    verify(certificateJdbcRepository).insertAll(eq(List.of(
+        new CertificateRequestDTO("Spa", description, 5.5, 30L, List.of(1L)),
+        new CertificateRequestDTO("Dinner", "desc", 7.0, 10L, List.of()))), anyString());
+  }
+
+  @Test
+  void importCertificates_tagIdsAreCheckedOncePerImport() {
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < 501; i++) {
+      body.append("{\"name\":\"name").append(i).append("\",\"description\":\"d\",\"price\":1.0,\"duration\":1,\"tagIds\":[1]}\n");
+    }
+    when(tagJdbcRepository.findExistingIds(anyCollection())).thenReturn(Set.of(1L));
+    when(certificateJdbcRepository.findIdsByName(anyList())).thenReturn(Map.of());
+    when(certificateJdbcRepository.insertAll(anyList(), anyString()))
+        .thenAnswer(invocation -> invocation.<List<?>>getArgument(0).stream().map(row -> 1L).toList());
+
+    ImportReportDTO report = importService.importCertificates(stream(body.toString()), DataFormat.NDJSON);
+
+    assertEquals(501, report.imported());
+    verify(certificateJdbcRepository, times(2)).insertAll(anyList(), anyString());
+    verify(tagJdbcRepository).findExistingIds(anyCollection());
+  }
+
+  @Test
+  void importCertificates_failedBatch_isSplitUntilTheFailingLine() {
+    StringBuilder body = new StringBuilder();
+    for (int i = 1; i <= 5; i++) {
+      body.append("{\"name\":\"name").append(i).append("\",\"description\":\"d\",\"price\":1.0,\"duration\":1}\n");
+    }
+    when(certificateJdbcRepository.findIdsByName(anyList())).thenReturn(Map.of());
+    when(certificateJdbcRepository.insertAll(anyList(), anyString())).thenAnswer(invocation -> {
+      List<CertificateRequestDTO> certificates = invocation.getArgument(0);
+      if (certificates.stream().anyMatch(certificate -> certificate.name().equals("name4"))) {
+        throw new DataIntegrityViolationException("value too long");
+      }
+      return certificates.stream().map(certificate -> 1L).toList();
+    });
+
+    ImportReportDTO report = importService.importCertificates(stream(body.toString()), DataFormat.NDJSON);
+
+    assertEquals(4, report.imported());
+    assertEquals(List.of(new ImportErrorDTO(4, "Database error while importing certificate")), report.errors());
+  }
+
+  @Test
+  void importCertificates_reportsTheLowestFailedLines() {
+    // Given: the existing names of lines 1 to 499 are only found after the malformed lines 500 to 1500 are read
+    StringBuilder body = new StringBuilder();
+    for (int i = 1; i < 500; i++) {
+      body.append("{\"name\":\"name").append(i).append("\",\"description\":\"d\",\"price\":1.0,\"duration\":1}\n");
+    }
+    for (int i = 500; i <= 1500; i++) {
+      body.append("not json\n");
+    }
+    when(certificateJdbcRepository.findIdsByName(anyList())).thenAnswer(invocation ->
+        invocation.<List<String>>getArgument(0).stream().collect(Collectors.toMap(name -> name, name -> 1L)));
+
+    // When
+    ImportReportDTO report = importService.importCertificates(stream(body.toString()), DataFormat.NDJSON);
+
+    // Then
+    assertEquals(1500, report.failed());
+    assertEquals(LongStream.rangeClosed(1, 1000).boxed().toList(),
+        report.errors().stream().map(ImportErrorDTO::line).toList());
+  }
+
+  @Test
+  void importCertificates_csvWithoutRequiredColumns_throws() {
+    assertThrows(CustomizedException.class,
+        () -> importService.importCertificates(stream("name,price\nx,1\n"), DataFormat.CSV));
+    verifyNoInteractions(certificateJdbcRepository);
+  }
+
+  @Test
+  void importCertificates_csvWithMalformedHeader_throws() {
+    CustomizedException ex = assertThrows(CustomizedException.class,
+        () -> importService.importCertificates(stream("name,\"description,price,duration\n"), DataFormat.CSV));
+    assertEquals(ErrorCode.CERTIFICATE_BAD_REQUEST, ex.getCode());
+    verifyNoInteractions(certificateJdbcRepository);
+  }
+
+  @Test
+  void importCertificates_csvTagIds_rejectsEmptySegmentsAndDropsDuplicates() {
+    String body = """
+        name,description,price,duration,tagIds
+        first,desc,1,1,1|1|2
+        second,desc,1,1,1||2
+        """;
+    when(tagJdbcRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(Set.of(1L, 2L));
+    when(certificateJdbcRepository.findIdsByName(anyList())).thenReturn(Map.of());
+    when(certificateJdbcRepository.insertAll(anyList(), anyString())).thenReturn(List.of(100L));
+
+    ImportReportDTO report = importService.importCertificates(stream(body), DataFormat.CSV);
+
+    assertEquals(1, report.imported());
+    assertEquals(List.of(new ImportErrorDTO(3, "Empty tag id in 1||2")), report.errors());
+    verify(certificateJdbcRepository).insertAll(
+        eq(List.of(new CertificateRequestDTO("first", "desc", 1.0, 1L, List.of(1L, 2L)))), anyString());
+  }
+
+  private static InputStream stream(String body) {
+    return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -7,14 +7,27 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.epam.esm.cache.SearchResultCache;
 import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.SuggestionDTO;
+import com.epam.esm.event.CertificateChangedEvent;
 import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.filter.CertificateSpecification;
+import com.epam.esm.filter.CountMode;
+import com.epam.esm.index.CertificateSearchIndex;
+import com.epam.esm.index.CertificateSuggestIndex;
+import com.epam.esm.index.TagPostingIndex;
 import com.epam.esm.model.GiftCertificate;
 import com.epam.esm.model.Tag;
+import com.epam.esm.repository.CertificateJdbcRepository;
 import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.RowCountEstimator;
 import com.epam.esm.repository.TagRepository;
 import com.epam.esm.service.CertificateService;
 import java.util.Arrays;
@@ -25,13 +38,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 @ExtendWith(MockitoExtension.class)
 public class CertificateServiceTest {
@@ -45,6 +62,27 @@ public class CertificateServiceTest {
     @Mock
     TagRepository tagRepository;
 
+    @Mock
+    CertificateSearchIndex searchIndex;
+
+    @Mock
+    TagPostingIndex tagIndex;
+
+    @Mock
+    CertificateSuggestIndex suggestIndex;
+
+    @Mock
+    CertificateJdbcRepository certificateJdbcRepository;
+
+    @Mock
+    RowCountEstimator rowCountEstimator;
+
+    @Spy
+    SearchResultCache searchResultCache = new SearchResultCache("maximumSize=100");
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     public static final Long CERTIFICATE_ID = 3L;
     private static final String NAME = "Test Certificate";
     private static final String EXISTING_NAME = "name";
@@ -189,15 +227,12 @@ public class CertificateServiceTest {
     Pageable pageable = PageRequest.of(0, 5);
 
     // Mocks
-    when(giftCertificate.getName()).thenReturn(NAME);
-
-    GiftCertificate anotherGiftCertificate = mock(GiftCertificate.class);
-    when(anotherGiftCertificate.getName()).thenReturn("Another Certificate");
+    List<CertificateResponseDTO> certificates = Arrays.asList(
+        new CertificateResponseDTO(CERTIFICATE_ID, NAME, DESCRIPTION, PRICE, DURATION, List.of(1L)),
+        new CertificateResponseDTO(2L, "Another Certificate", DESCRIPTION, PRICE, DURATION, List.of()));
 
-    List<GiftCertificate> mockCertificates = Arrays.asList(giftCertificate, anotherGiftCertificate);
-
-    Page<GiftCertificate> certificatesPage = new PageImpl<>(mockCertificates);
-    when(certificateRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(certificatesPage);
+    Page<CertificateResponseDTO> certificatesPage = new PageImpl<>(certificates);
+    when(certificateJdbcRepository.findPage(any(CertificateSpecification.class), eq(pageable))).thenReturn(certificatesPage);
 
     // When
     Page<CertificateResponseDTO> results = certificateService.getFilteredCertificates(tagNames, searchWord, pageable);
@@ -207,6 +242,84 @@ public class CertificateServiceTest {
     assertEquals(NAME, results.getContent().get(0).name());
     assertEquals("Another Certificate", results.getContent().get(1).name());
   }
+  @Test
+  public void testGetFilteredCertificates_NoIndexCandidates_SkipsDatabase() {
+    // Given
+    Pageable pageable = PageRequest.of(0, 5);
+
+    // Mocks
+    when(searchIndex.findCandidates("missing")).thenReturn(Optional.of(new RoaringBitmap()));
+
+    // When
+    Page<CertificateResponseDTO> results = certificateService.getFilteredCertificates(null, "missing", pageable);
+
+    // Then
+    assertEquals(0, results.getNumberOfElements());
+    verifyNoInteractions(certificateRepository, certificateJdbcRepository);
+  }
+
+  @Test
+  public void testGetFilteredCertificates_Estimated_UsesIndexCandidateCount() {
+    // Given
+    List<String> tagNames = List.of("tag1");
+    Pageable pageable = PageRequest.of(0, 1);
+    CertificateResponseDTO certificate = new CertificateResponseDTO(1L, NAME, DESCRIPTION, PRICE, DURATION, List.of());
+
+    // Mocks
+    when(tagIndex.findCandidates(tagNames)).thenReturn(Optional.of(RoaringBitmap.bitmapOf(1, 2, 3)));
+    when(certificateJdbcRepository.findSlice(any(CertificateSpecification.class), isNull(), eq(pageable)))
+        .thenReturn(new SliceImpl<>(List.of(certificate), pageable, true));
+
+    // When
+    Slice<CertificateResponseDTO> results =
+        certificateService.getFilteredCertificates(tagNames, null, pageable, CountMode.ESTIMATED);
+
+    // Then
+    assertEquals(1, results.getNumberOfElements());
+    assertEquals(3, ((Page<CertificateResponseDTO>) results).getTotalElements());
+    verifyNoInteractions(certificateRepository, rowCountEstimator);
+  }
+
+  @Test
+  public void testGetFilteredCertificates_SameNormalizedSearch_ReadsOnceUntilChange() {
+    // Given
+    Pageable pageable = PageRequest.of(0, 1);
+    CertificateResponseDTO certificate = new CertificateResponseDTO(1L, NAME, DESCRIPTION, PRICE, DURATION, List.of());
+
+    // Mocks
+    when(certificateJdbcRepository.findSlice(any(CertificateSpecification.class), isNull(), eq(pageable)))
+        .thenReturn(new SliceImpl<>(List.of(certificate), pageable, false));
+
+    // When
+    certificateService.getFilteredCertificates(List.of("b", "A "), "Word", pageable, CountMode.NONE);
+    Slice<CertificateResponseDTO> cached =
+        certificateService.getFilteredCertificates(List.of("a", "B", "b"), "word", pageable, CountMode.NONE);
+    searchResultCache.onCertificateChanged(CertificateChangedEvent.created(certificate));
+    certificateService.getFilteredCertificates(List.of("a", "b"), "word", pageable, CountMode.NONE);
+
+    // Then
+    assertEquals(List.of(certificate), cached.getContent());
+    verify(certificateJdbcRepository, times(2)).findSlice(any(CertificateSpecification.class), isNull(), eq(pageable));
+  }
+
+  @Test
+  public void testGetFilteredCertificates_DisjointIndexCandidates_SkipsDatabase() {
+    // Given
+    List<String> tagNames = List.of("tag1");
+    Pageable pageable = PageRequest.of(0, 5);
+
+    // Mocks
+    when(tagIndex.findCandidates(tagNames)).thenReturn(Optional.of(RoaringBitmap.bitmapOf(1, 2)));
+    when(searchIndex.findCandidates("text")).thenReturn(Optional.of(RoaringBitmap.bitmapOf(3)));
+
+    // When
+    Page<CertificateResponseDTO> results = certificateService.getFilteredCertificates(tagNames, "text", pageable);
+
+    // Then
+    assertEquals(0, results.getNumberOfElements());
+    verifyNoInteractions(certificateRepository, certificateJdbcRepository);
+  }
+
   @Test
   public void testGetFilteredCertificates_DatabaseError() {
     // Given
@@ -215,7 +328,7 @@ public class CertificateServiceTest {
     Pageable pageable = PageRequest.of(0, 5);
 
     // Mocks
-    when(certificateRepository.findAll(any(Specification.class), eq(pageable)))
+    when(certificateJdbcRepository.findPage(any(CertificateSpecification.class), eq(pageable)))
         .thenThrow(new DataAccessException("Test Exception") {});
 
     // When / Then
@@ -271,4 +384,24 @@ public class CertificateServiceTest {
         certificateService.updateGiftCertificate(CERTIFICATE_ID, giftCertificate, TAG_IDS));
     assertEquals("Database error during update certificate with id " + CERTIFICATE_ID, exception.getMessage());
   }
+
+  @Test
+  public void testSuggestCertificates_IndexNotBuilt_ReadsPrefixFromDatabase() {
+    // Given
+    List<SuggestionDTO> suggestions = List.of(new SuggestionDTO(1L, "Spa Weekend"));
+
+    // Mocks
+    when(suggestIndex.suggest(" spa", 5)).thenReturn(Optional.empty());
+    when(certificateJdbcRepository.findSuggestions("spa", 5)).thenReturn(suggestions);
+
+    // When & Then
+    assertEquals(suggestions, certificateService.suggestCertificates(" spa", 5));
+  }
+
+  @Test
+  public void testSuggestCertificates_LimitOutOfRange_Throws() {
+    assertThrows(CustomizedException.class, () -> certificateService.suggestCertificates("spa", 0));
+    assertThrows(CustomizedException.class, () -> certificateService.suggestCertificates("spa", 51));
+    verifyNoInteractions(suggestIndex, certificateJdbcRepository);
+  }
 }
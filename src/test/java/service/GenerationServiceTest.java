@@ -0,0 +1,57 @@
+package service;
+
+import static org.mockito.Mockito.inOrder;
+
+import com.epam.esm.event.CatalogueClearedEvent;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.TagRepository;
+import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.UserSpendJdbcRepository;
+import com.epam.esm.service.GenerationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+public class GenerationServiceTest {
+
+  @InjectMocks
+  private GenerationService generationService;
+
+  @Mock
+  private OrderRepository orderRepository;
+
+  @Mock
+  private UserSpendJdbcRepository userSpendJdbcRepository;
+
+  @Mock
+  private CertificateRepository certificateRepository;
+
+  @Mock
+  private TagRepository tagRepository;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Test
+  public void testDeleteData_ClearsTheSpendRollupsWithTheOrdersAndUsers() {
+    // When
+    generationService.deleteData();
+
+    // Then
+    InOrder order = inOrder(orderRepository, userSpendJdbcRepository, userRepository, eventPublisher);
+    order.verify(orderRepository).deleteAll();
+    order.verify(userSpendJdbcRepository).deleteAll();
+    order.verify(userRepository).deleteAll();
+    order.verify(userRepository).flush();
+    order.verify(eventPublisher).publishEvent(new CatalogueClearedEvent());
+  }
+}
@@ -0,0 +1,38 @@
+package service;
+
+import com.epam.esm.model.Order;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.UserRepository;
+import javax.sql.DataSource;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import repository.StatementCountingDataSource;
+
+/**
+ * The JPA slice of the order tests: the entities and the order, user and certificate repositories,
+ * on an H2 database whose statements are counted.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = Order.class)
+@EnableJpaRepositories(basePackageClasses = OrderRepository.class, includeFilters = @Filter(type = FilterType.ASSIGNABLE_TYPE,
+    classes = {OrderRepository.class, UserRepository.class, CertificateRepository.class}))
+public class JpaTestApplication {
+
+  @Bean
+  StatementCountingDataSource dataSource() {
+    DataSource database = new EmbeddedDatabaseBuilder()
+        .setType(EmbeddedDatabaseType.H2)
+        .generateUniqueName(true)
+        .build();
+    return new StatementCountingDataSource(database);
+  }
+}
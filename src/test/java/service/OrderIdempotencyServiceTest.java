@@ -0,0 +1,197 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.esm.dto.CertificateDTO;
+import com.epam.esm.dto.OrderResponseDTO;
+import com.epam.esm.dto.UserDTO;
+import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.exceptions.ErrorCode;
+import com.epam.esm.service.OrderIdempotencyService;
+import com.epam.esm.service.OrderService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderIdempotencyServiceTest {
+
+  private static final OrderResponseDTO ORDER = new OrderResponseDTO(100L, new UserDTO(1L, "user"),
+      new CertificateDTO(2L, "name", "description", 10.0, 5L, List.of()), 10.0, LocalDateTime.of(2024, 1, 2, 3, 4));
+
+  @Mock
+  OrderService orderService;
+
+  private OrderIdempotencyService idempotencyService;
+
+  @BeforeEach
+  void setup() {
+    idempotencyService = new OrderIdempotencyService(orderService, "maximumSize=100,expireAfterWrite=1h",
+        Duration.ofSeconds(5));
+  }
+
+  @Test
+  void purchase_retryWithSameKeyReturnsTheOriginalOrder() {
+    // Given
+    when(orderService.purchaseGiftCertificate(1L, 2L)).thenReturn(ORDER);
+
+    // When
+    OrderResponseDTO first = idempotencyService.purchaseGiftCertificate("key", 1L, 2L);
+    OrderResponseDTO retry = idempotencyService.purchaseGiftCertificate("key", 1L, 2L);
+
+    // Then
+    assertSame(first, retry);
+    verify(orderService, times(1)).purchaseGiftCertificate(1L, 2L);
+  }
+
+  @Test
+  void purchase_keyReusedForAnotherPurchaseIsRejected() {
+    // Given
+    when(orderService.purchaseGiftCertificate(1L, 2L)).thenReturn(ORDER);
+    idempotencyService.purchaseGiftCertificate("key", 1L, 2L);
+
+    // When
+    CustomizedException exception = assertThrows(CustomizedException.class,
+        () -> idempotencyService.purchaseGiftCertificate("key", 1L, 3L));
+
+    // Then
+    assertEquals(ErrorCode.IDEMPOTENCY_KEY_REUSED, exception.getCode());
+    verify(orderService, times(1)).purchaseGiftCertificate(1L, 2L);
+  }
+
+  @Test
+  void purchase_failedPurchaseReleasesTheKey() {
+    // Given
+    when(orderService.purchaseGiftCertificate(1L, 2L))
+        .thenThrow(new CustomizedException("Certificate with ID 2 not found.", ErrorCode.CERTIFICATE_NOT_FOUND))
+        .thenReturn(ORDER);
+
+    // When
+    assertThrows(CustomizedException.class, () -> idempotencyService.purchaseGiftCertificate("key", 1L, 2L));
+    OrderResponseDTO retry = idempotencyService.purchaseGiftCertificate("key", 1L, 2L);
+
+    // Then
+    assertSame(ORDER, retry);
+    verify(orderService, times(2)).purchaseGiftCertificate(1L, 2L);
+  }
+
+  @Test
+  void purchase_blankKeyIsRejected() {
+    CustomizedException exception = assertThrows(CustomizedException.class,
+        () -> idempotencyService.purchaseGiftCertificate(" ", 1L, 2L));
+
+    assertEquals(ErrorCode.ORDER_BAD_REQUEST, exception.getCode());
+    verifyNoInteractions(orderService);
+  }
+
+  @Test
+  void purchase_concurrentDuplicateWaitsForTheInFlightPurchase() throws Exception {
+    // Given
+    CountDownLatch placing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(orderService.purchaseGiftCertificate(1L, 2L)).thenAnswer(invocation -> {
+      placing.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return ORDER;
+    });
+
+    // When
+    CompletableFuture<OrderResponseDTO> first = CompletableFuture.supplyAsync(
+        () -> idempotencyService.purchaseGiftCertificate("key", 1L, 2L));
+    placing.await(5, TimeUnit.SECONDS);
+    CompletableFuture<OrderResponseDTO> duplicate = CompletableFuture.supplyAsync(
+        () -> idempotencyService.purchaseGiftCertificate("key", 1L, 2L));
+    release.countDown();
+
+    // Then
+    assertSame(ORDER, first.get(5, TimeUnit.SECONDS));
+    assertSame(ORDER, duplicate.get(5, TimeUnit.SECONDS));
+    verify(orderService, times(1)).purchaseGiftCertificate(1L, 2L);
+  }
+
+  @Test
+  void purchase_sameKeyFromAnotherUserPlacesItsOwnOrder() {
+    // Given
+    OrderResponseDTO otherOrder = new OrderResponseDTO(101L, new UserDTO(3L, "other"), ORDER.certificate(), 10.0,
+        LocalDateTime.of(2024, 1, 2, 3, 5));
+    when(orderService.purchaseGiftCertificate(1L, 2L)).thenReturn(ORDER);
+    when(orderService.purchaseGiftCertificate(3L, 2L)).thenReturn(otherOrder);
+
+    // When
+    OrderResponseDTO first = idempotencyService.purchaseGiftCertificate("key", 1L, 2L);
+    OrderResponseDTO other = idempotencyService.purchaseGiftCertificate("key", 3L, 2L);
+
+    // Then
+    assertSame(ORDER, first);
+    assertSame(otherOrder, other);
+  }
+
+  @Test
+  void purchase_errorInTheInFlightPurchaseReleasesTheWaitingDuplicate() throws Exception {
+    // Given
+    CountDownLatch placing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(orderService.purchaseGiftCertificate(1L, 2L)).thenAnswer(invocation -> {
+      placing.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      throw new StackOverflowError();
+    });
+
+    // When
+    CompletableFuture<OrderResponseDTO> first = CompletableFuture.supplyAsync(
+        () -> idempotencyService.purchaseGiftCertificate("key", 1L, 2L));
+    placing.await(5, TimeUnit.SECONDS);
+    CompletableFuture<OrderResponseDTO> duplicate = CompletableFuture.supplyAsync(
+        () -> idempotencyService.purchaseGiftCertificate("key", 1L, 2L));
+    release.countDown();
+
+    // Then
+    ExecutionException firstFailure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+    ExecutionException duplicateFailure = assertThrows(ExecutionException.class,
+        () -> duplicate.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(StackOverflowError.class, firstFailure.getCause());
+    assertInstanceOf(StackOverflowError.class, duplicateFailure.getCause());
+  }
+
+  @Test
+  void purchase_duplicateGivesUpAfterTheWaitTimeout() throws Exception {
+    // Given
+    idempotencyService = new OrderIdempotencyService(orderService, "maximumSize=100,expireAfterWrite=1h",
+        Duration.ofMillis(50));
+    CountDownLatch placing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(orderService.purchaseGiftCertificate(1L, 2L)).thenAnswer(invocation -> {
+      placing.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return ORDER;
+    });
+    CompletableFuture<OrderResponseDTO> first = CompletableFuture.supplyAsync(
+        () -> idempotencyService.purchaseGiftCertificate("key", 1L, 2L));
+    placing.await(5, TimeUnit.SECONDS);
+
+    // When
+    CustomizedException exception = assertThrows(CustomizedException.class,
+        () -> idempotencyService.purchaseGiftCertificate("key", 1L, 2L));
+    release.countDown();
+
+    // Then
+    assertEquals(ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS, exception.getCode());
+    assertSame(ORDER, first.get(5, TimeUnit.SECONDS));
+  }
+}
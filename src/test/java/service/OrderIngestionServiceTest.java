@@ -0,0 +1,138 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.esm.dto.OrderStatusDTO;
+import com.epam.esm.dto.OrderStatusDTO.Status;
+import com.epam.esm.event.OrderPlacedEvent;
+import com.epam.esm.exceptions.CustomizedException;
+import com.epam.esm.exceptions.ErrorCode;
+import com.epam.esm.repository.CertificatePrice;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.OrderJdbcRepository;
+import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.UserSpendJdbcRepository;
+import com.epam.esm.service.AuditReaderService;
+import com.epam.esm.service.OrderIngestionService;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderIngestionServiceTest {
+
+  @Mock
+  UserRepository userRepository;
+
+  @Mock
+  CertificateRepository certificateRepository;
+
+  @Mock
+  OrderJdbcRepository orderJdbcRepository;
+
+  @Mock
+  AuditReaderService auditReaderService;
+
+  @Mock
+  UserSpendJdbcRepository userSpendJdbcRepository;
+
+  @Mock
+  ApplicationEventPublisher eventPublisher;
+
+  private OrderIngestionService ingestionService;
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    if (ingestionService != null) {
+      ingestionService.stop();
+    }
+  }
+
+  @Test
+  void submit_queuedOrdersArePlacedInOneBatch() throws InterruptedException {
+    // Given
+    ingestionService = service(10);
+    when(userRepository.existsById(any())).thenReturn(true);
+    when(certificateRepository.existsById(2L)).thenReturn(true);
+    when(orderJdbcRepository.findExistingUserIds(anyList())).thenReturn(Set.of(1L));
+    when(orderJdbcRepository.findPrices(anyList())).thenReturn(Map.of(2L, new CertificatePrice(2L, 10.0, List.of(5L))));
+    when(orderJdbcRepository.insertAll(anyList(), anyString())).thenReturn(List.of(100L, 101L));
+    when(auditReaderService.getCurrentRevisionNumber()).thenReturn(3);
+
+    OrderStatusDTO first = ingestionService.submit(1L, 2L);
+    OrderStatusDTO second = ingestionService.submit(1L, 2L);
+    OrderStatusDTO deletedUser = ingestionService.submit(9L, 2L);
+    assertEquals(Status.QUEUED, ingestionService.getStatus(first.trackingId()).status());
+
+    // When
+    ingestionService.start();
+    awaitPlacement(List.of(first, second, deletedUser));
+
+    // Then
+    assertEquals(OrderStatusDTO.placed(first.trackingId(), 100L), ingestionService.getStatus(first.trackingId()));
+    assertEquals(OrderStatusDTO.placed(second.trackingId(), 101L), ingestionService.getStatus(second.trackingId()));
+    assertEquals(Status.FAILED, ingestionService.getStatus(deletedUser.trackingId()).status());
+    verify(orderJdbcRepository, times(1)).insertAll(anyList(), anyString());
+    verify(orderJdbcRepository).auditInserted(eq(3), eq(List.of(100L, 101L)), anyList(), anyString());
+    verify(eventPublisher).publishEvent(new OrderPlacedEvent(100L, 1L, 2L, 10.0, List.of(5L)));
+  }
+
+  @Test
+  void submit_whenQueueIsFull_rejectsPurchase() {
+    ingestionService = service(1);
+    when(userRepository.existsById(1L)).thenReturn(true);
+    when(certificateRepository.existsById(2L)).thenReturn(true);
+    ingestionService.submit(1L, 2L);
+
+    CustomizedException exception = assertThrows(CustomizedException.class, () -> ingestionService.submit(1L, 2L));
+    assertEquals(ErrorCode.ORDER_QUEUE_FULL, exception.getCode());
+  }
+
+  @Test
+  void submit_unknownUser_isRejectedBeforeQueueing() {
+    ingestionService = service(1);
+    when(userRepository.existsById(1L)).thenReturn(false);
+
+    CustomizedException exception = assertThrows(CustomizedException.class, () -> ingestionService.submit(1L, 2L));
+    assertEquals(ErrorCode.USER_NOT_FOUND, exception.getCode());
+    verifyNoInteractions(certificateRepository);
+  }
+
+  @Test
+  void getStatus_unknownTrackingId_throwsNotFound() {
+    ingestionService = service(1);
+
+    CustomizedException exception = assertThrows(CustomizedException.class, () -> ingestionService.getStatus("unknown"));
+    assertEquals(ErrorCode.ORDER_NOT_FOUND, exception.getCode());
+  }
+
+  private OrderIngestionService service(int queueCapacity) {
+    return new OrderIngestionService(userRepository, certificateRepository, orderJdbcRepository, auditReaderService,
+        userSpendJdbcRepository, TransactionOperations.withoutTransaction(), eventPublisher, queueCapacity, 500, "maximumSize=100");
+  }
+
+  private void awaitPlacement(List<OrderStatusDTO> submitted) throws InterruptedException {
+    for (int attempt = 0; attempt < 500; attempt++) {
+      if (submitted.stream().noneMatch(status -> ingestionService.getStatus(status.trackingId()).status() == Status.QUEUED)) {
+        return;
+      }
+      Thread.sleep(10);
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.epam.esm.dto.CertificateDTO;
+import com.epam.esm.dto.OrderResponseDTO;
+import com.epam.esm.dto.UserDTO;
+import com.epam.esm.filter.CountMode;
+import com.epam.esm.filter.KeysetCursor;
+import com.epam.esm.filter.PurchaseTimeSpecification;
+import com.epam.esm.repository.CertificateJdbcRepository;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.OrderJdbcRepository;
+import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.RowCountEstimator;
+import com.epam.esm.repository.SliceQueryRepository;
+import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.UserSpendJdbcRepository;
+import com.epam.esm.service.AuditReaderService;
+import com.epam.esm.service.OrderService;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import repository.StatementCountingDataSource;
+
+/**
+ * Guards the number of statements of an order page, which must not grow with the number of users and certificates
+ * the page refers to.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.org.hibernate.envers.audit_table_suffix=_AUDIT_LOG"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderListingStatementsTest {
+
+  private static final int USERS = 20;
+  private static final int CERTIFICATES = 25;
+  private static final int ORDERS = 60;
+  private static final long FIRST_USER_ID = 1001;
+  private static final long FIRST_CERTIFICATE_ID = 1001;
+
+  @Autowired
+  private StatementCountingDataSource dataSource;
+  @Autowired
+  private EntityManager entityManager;
+  @Autowired
+  private OrderRepository orderRepository;
+  @Autowired
+  private UserRepository userRepository;
+  @Autowired
+  private CertificateRepository certificateRepository;
+
+  private OrderService orderService;
+
+  @BeforeEach
+  public void setup() {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.update("DELETE FROM orders");
+    jdbcTemplate.update("DELETE FROM gift_certificate_tag WHERE certificate_id >= ?", FIRST_CERTIFICATE_ID);
+    jdbcTemplate.update("MERGE INTO tag (tag_id, tag_name) KEY (tag_id) VALUES (1001, 'listing1'), (1002, 'listing2')");
+    for (int i = 0; i < USERS; i++) {
+      jdbcTemplate.update("MERGE INTO users (id, name) KEY (id) VALUES (?, ?)", FIRST_USER_ID + i, "user" + i);
+    }
+    for (int i = 0; i < CERTIFICATES; i++) {
+      long certificateId = FIRST_CERTIFICATE_ID + i;
+      jdbcTemplate.update("MERGE INTO certificates (certificate_id, certificate_name, description, price, duration)"
+          + " KEY (certificate_id) VALUES (?, ?, 'description', ?, 30)", certificateId, "certificate" + i, 10.0 + i);
+      jdbcTemplate.update("INSERT INTO gift_certificate_tag (certificate_id, tag_id) VALUES (?, 1001), (?, 1002)",
+          certificateId, certificateId);
+    }
+    for (int i = 0; i < ORDERS; i++) {
+      jdbcTemplate.update("INSERT INTO orders (user_id, certificate_id, price, purchase_time) VALUES (?, ?, ?, ?)",
+          FIRST_USER_ID + i % USERS, FIRST_CERTIFICATE_ID + i % CERTIFICATES, 10.0 + i % CERTIFICATES,
+          LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+    }
+
+    orderService = new OrderService(orderRepository, userRepository, certificateRepository,
+        new CertificateJdbcRepository(new NamedParameterJdbcTemplate(dataSource)), mock(OrderJdbcRepository.class),
+        mock(AuditReaderService.class), mock(UserSpendJdbcRepository.class), new SliceQueryRepository(entityManager),
+        mock(RowCountEstimator.class), mock(ApplicationEventPublisher.class));
+    dataSource.reset();
+  }
+
+  @Test
+  public void testGetAllOrders_PageCostsQueryCountAndTwoLookups() {
+    // When
+    Slice<OrderResponseDTO> page = orderService.getAllOrders(PageRequest.of(0, 50, KeysetCursor.sortBy("id")), CountMode.EXACT);
+
+    // Then
+    assertEquals(4, dataSource.getStatementCount());
+    assertEquals(50, page.getNumberOfElements());
+    OrderResponseDTO first = page.getContent().get(0);
+    assertEquals(new UserDTO(FIRST_USER_ID, "user0"), first.user());
+    assertEquals(new CertificateDTO(FIRST_CERTIFICATE_ID, "certificate0", "description", 10.0, 30L, List.of(1001L, 1002L)),
+        first.certificate());
+  }
+
+  @Test
+  public void testGetAllOrdersAfter_SliceCostsQueryAndTwoLookups() {
+    // When
+    Slice<OrderResponseDTO> slice = orderService.getAllOrdersAfter(new KeysetCursor("id", null, 0L), 50);
+
+    // Then
+    assertEquals(3, dataSource.getStatementCount());
+    assertEquals(50, slice.getNumberOfElements());
+  }
+
+  @Test
+  public void testGetOrdersByUserId_PageCostsQueryAndTwoLookups() {
+    // When
+    Page<OrderResponseDTO> page = orderService.getOrdersByUserId(FIRST_USER_ID, PageRequest.of(0, 50));
+
+    // Then
+    assertEquals(3, dataSource.getStatementCount());
+    assertEquals(ORDERS / USERS, page.getNumberOfElements());
+  }
+
+  @Test
+  public void testGetOrdersBetween_PagesThroughTheRangeByPurchaseTime() {
+    // Given
+    List<OrderResponseDTO> all = orderService.getOrdersBetween(null, null, null, ORDERS).getContent();
+    LocalDateTime from = all.get(10).purchaseDate();
+    LocalDateTime to = all.get(40).purchaseDate();
+    dataSource.reset();
+
+    // When
+    Slice<OrderResponseDTO> first = orderService.getOrdersBetween(from, to, null, 20);
+    OrderResponseDTO last = first.getContent().get(first.getNumberOfElements() - 1);
+    Slice<OrderResponseDTO> second = orderService.getOrdersBetween(from, to,
+        new KeysetCursor(PurchaseTimeSpecification.PURCHASE_TIME, last.purchaseDate().toString(), last.orderId()), 20);
+
+    // Then
+    assertEquals(6, dataSource.getStatementCount());
+    assertEquals(20, first.getNumberOfElements());
+    assertTrue(first.hasNext());
+    assertEquals(all.subList(10, 30), first.getContent());
+    assertEquals(all.subList(30, 40), second.getContent());
+    assertFalse(second.hasNext());
+  }
+}
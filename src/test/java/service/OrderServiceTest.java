@@ -5,28 +5,51 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.epam.esm.dto.CertificateDTO;
+import com.epam.esm.dto.CertificateResponseDTO;
+import com.epam.esm.dto.CheckoutItemDTO;
+import com.epam.esm.dto.CheckoutRequestDTO;
+import com.epam.esm.dto.CheckoutResponseDTO;
 import com.epam.esm.dto.OrderResponseDTO;
+import com.epam.esm.dto.UserDTO;
+import com.epam.esm.event.OrderPlacedEvent;
 import com.epam.esm.exceptions.CustomizedException;
 import com.epam.esm.exceptions.ErrorCode;
 import com.epam.esm.model.GiftCertificate;
 import com.epam.esm.model.Order;
-import com.epam.esm.model.Tag;
 import com.epam.esm.model.User;
+import com.epam.esm.repository.CertificateJdbcRepository;
 import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.NewOrder;
+import com.epam.esm.repository.OrderJdbcRepository;
 import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.RowCountEstimator;
+import com.epam.esm.repository.SliceQueryRepository;
 import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.UserSpendJdbcRepository;
+import com.epam.esm.service.AuditReaderService;
 import com.epam.esm.service.OrderService;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -49,21 +72,45 @@ public class OrderServiceTest {
   @Mock
   private CertificateRepository certificateRepository;
 
+  @Mock
+  private CertificateJdbcRepository certificateJdbcRepository;
+
+  @Mock
+  private OrderJdbcRepository orderJdbcRepository;
+
+  @Mock
+  private AuditReaderService auditReaderService;
+
+  @Mock
+  private UserSpendJdbcRepository userSpendJdbcRepository;
+
   @Mock
   private UserRepository userRepository;
 
   @Mock
-  User user;
+  private SliceQueryRepository sliceQueryRepository;
 
   @Mock
-  GiftCertificate certificate;
+  private ApplicationEventPublisher eventPublisher;
 
   @Mock
-  List<Tag> tags;
+  private RowCountEstimator rowCountEstimator;
+
+  @Mock
+  User user;
+
+  @Mock
+  GiftCertificate certificate;
 
   @Mock
   Order order;
 
+  private void stubOrderDetails() {
+    when(userRepository.findSummariesByIdIn(Set.of(USER_ID))).thenReturn(List.of(new UserDTO(USER_ID, "user")));
+    when(certificateJdbcRepository.findAllById(Set.of(CERTIFICATE_ID))).thenReturn(Map.of(CERTIFICATE_ID,
+        new CertificateResponseDTO(CERTIFICATE_ID, "name", "description", 10.0, 5L, List.of(7L))));
+  }
+
   @Test
   public void testGetAllOrders_ReturnsOrderDTOs() {
     // Given
@@ -71,7 +118,7 @@ public class OrderServiceTest {
     given(user.getId()).willReturn(USER_ID);
     given(certificate.getId()).willReturn(CERTIFICATE_ID);
 
-    given(certificate.getTags()).willReturn(tags);
+    stubOrderDetails();
     given(order.getUser()).willReturn(user);
     given(order.getCertificate()).willReturn(certificate);
 
@@ -125,7 +172,7 @@ public class OrderServiceTest {
     given(user.getId()).willReturn(USER_ID);
     given(certificate.getId()).willReturn(CERTIFICATE_ID);
 
-    given(certificate.getTags()).willReturn(tags);
+    stubOrderDetails();
     given(order.getUser()).willReturn(user);
     given(order.getCertificate()).willReturn(certificate);
 
@@ -176,8 +223,11 @@ public class OrderServiceTest {
   public void testGetOrder_ValidId_ReturnsOrderDTO() {
     // Given
     when(order.getId()).thenReturn(ORDER_ID);
+    when(user.getId()).thenReturn(USER_ID);
+    when(certificate.getId()).thenReturn(CERTIFICATE_ID);
     when(order.getUser()).thenReturn(user);
     when(order.getCertificate()).thenReturn(certificate);
+    stubOrderDetails();
 
     when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
 
@@ -231,8 +281,12 @@ public class OrderServiceTest {
   @Test
   public void testPurchaseGiftCertificate_ValidInputs_ReturnsOrderDTO() {
     // Given
+    CertificateResponseDTO snapshot = new CertificateResponseDTO(CERTIFICATE_ID, "name", "description", 10.0, 5L, List.of(7L));
     when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
-    when(certificateRepository.findById(CERTIFICATE_ID)).thenReturn(Optional.of(certificate));
+    when(user.getId()).thenReturn(USER_ID);
+    when(user.getName()).thenReturn("user");
+    when(certificateJdbcRepository.findById(CERTIFICATE_ID)).thenReturn(Optional.of(snapshot));
+    when(certificateRepository.getReferenceById(CERTIFICATE_ID)).thenReturn(certificate);
     when(orderRepository.save(any())).thenAnswer(invocation -> {
       Order order = invocation.getArgument(0);
       order.setId(ORDER_ID);
@@ -244,6 +298,12 @@ public class OrderServiceTest {
 
     // Then
     assertEquals(ORDER_ID, result.orderId());
+    assertEquals(new UserDTO(USER_ID, "user"), result.user());
+    assertEquals(new CertificateDTO(CERTIFICATE_ID, "name", "description", 10.0, 5L, List.of(7L)), result.certificate());
+    assertEquals(10.0, result.purchaseCost());
+    verify(eventPublisher).publishEvent(new OrderPlacedEvent(ORDER_ID, USER_ID, CERTIFICATE_ID, 10.0, List.of(7L)));
+    verify(userSpendJdbcRepository).addOrders(List.of(new NewOrder(USER_ID, CERTIFICATE_ID, 10.0, result.purchaseDate())));
+    verifyNoInteractions(certificate);
   }
 
   @Test
@@ -261,12 +321,76 @@ public class OrderServiceTest {
 
   @Test
   public void testPurchaseGiftCertificate_InvalidCertificateId_ThrowsException() {
+    // Given
+    when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+    when(certificateJdbcRepository.findById(CERTIFICATE_ID)).thenReturn(Optional.empty());
 
     // When / Then
     CustomizedException exception = assertThrows(CustomizedException.class, () -> orderService.purchaseGiftCertificate(USER_ID, CERTIFICATE_ID));
 
     // Then
-    assertTrue(exception.getMessage().contains("User with id " + USER_ID + " not found"));
-    assertEquals(exception.getCode(), ErrorCode.USER_NOT_FOUND);
+    assertTrue(exception.getMessage().contains("Certificate with ID " + CERTIFICATE_ID + " not found"));
+    assertEquals(exception.getCode(), ErrorCode.CERTIFICATE_NOT_FOUND);
+  }
+
+  @Test
+  public void testCheckout_PlacesEveryItemInOneBatchAndOneRevision() {
+    // Given
+    CertificateResponseDTO first = new CertificateResponseDTO(CERTIFICATE_ID, "first", "description", 10.0, 5L, List.of(7L));
+    CertificateResponseDTO second = new CertificateResponseDTO(4L, "second", "description", 2.5, 5L, List.of());
+    when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+    when(user.getId()).thenReturn(USER_ID);
+    when(user.getName()).thenReturn("user");
+    when(certificateJdbcRepository.findAllById(Set.of(CERTIFICATE_ID, 4L))).thenReturn(Map.of(CERTIFICATE_ID, first, 4L, second));
+    when(orderJdbcRepository.insertAll(anyList(), anyString())).thenReturn(List.of(100L, 101L, 102L));
+    when(auditReaderService.getCurrentRevisionNumber()).thenReturn(4);
+
+    // When
+    CheckoutResponseDTO result = orderService.checkout(new CheckoutRequestDTO(USER_ID,
+        List.of(new CheckoutItemDTO(CERTIFICATE_ID, 2), new CheckoutItemDTO(4L, null))));
+
+    // Then
+    assertEquals(List.of(100L, 101L, 102L), result.orders().stream().map(OrderResponseDTO::orderId).toList());
+    assertEquals(22.5, result.totalCost());
+    assertEquals(new UserDTO(USER_ID, "user"), result.user());
+    verify(orderJdbcRepository).insertAll(argThat(orders -> orders.size() == 3), anyString());
+    verify(orderJdbcRepository).auditInserted(eq(4), eq(List.of(100L, 101L, 102L)), anyList(), anyString());
+    verify(userSpendJdbcRepository).addOrders(argThat(orders -> orders.size() == 3));
+    verify(eventPublisher).publishEvent(new OrderPlacedEvent(102L, USER_ID, 4L, 2.5, List.of()));
+  }
+
+  @Test
+  public void testCheckout_UnknownCertificate_PlacesNothing() {
+    // Given
+    when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+    when(certificateJdbcRepository.findAllById(Set.of(CERTIFICATE_ID))).thenReturn(Map.of());
+
+    // When
+    CustomizedException exception = assertThrows(CustomizedException.class, () -> orderService.checkout(
+        new CheckoutRequestDTO(USER_ID, List.of(new CheckoutItemDTO(CERTIFICATE_ID, 1)))));
+
+    // Then
+    assertEquals(ErrorCode.CERTIFICATE_NOT_FOUND, exception.getCode());
+    verifyNoInteractions(orderJdbcRepository, auditReaderService);
+  }
+
+  @Test
+  public void testCheckout_InvalidQuantity_ThrowsBadRequest() {
+    CustomizedException exception = assertThrows(CustomizedException.class, () -> orderService.checkout(
+        new CheckoutRequestDTO(USER_ID, List.of(new CheckoutItemDTO(CERTIFICATE_ID, 0)))));
+
+    assertEquals(ErrorCode.ORDER_BAD_REQUEST, exception.getCode());
+    verifyNoInteractions(userRepository, orderJdbcRepository);
+  }
+
+  @Test
+  public void testGetOrdersBetween_ThrowsBadRequest_WhenRangeIsEmpty() {
+    LocalDateTime time = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    CustomizedException exception = assertThrows(CustomizedException.class,
+        () -> orderService.getOrdersBetween(time, time, null, 10));
+
+    assertEquals(ErrorCode.ORDER_BAD_REQUEST, exception.getCode());
+    verifyNoInteractions(sliceQueryRepository);
   }
 }
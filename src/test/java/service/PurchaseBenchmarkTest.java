@@ -0,0 +1,169 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.epam.esm.dto.CertificateDTO;
+import com.epam.esm.dto.OrderResponseDTO;
+import com.epam.esm.dto.UserDTO;
+import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.model.Order;
+import com.epam.esm.model.Tag;
+import com.epam.esm.model.User;
+import com.epam.esm.repository.CertificateJdbcRepository;
+import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.OrderJdbcRepository;
+import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.RowCountEstimator;
+import com.epam.esm.repository.SliceQueryRepository;
+import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.UserSpendJdbcRepository;
+import com.epam.esm.service.AuditReaderService;
+import com.epam.esm.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import repository.StatementCountingDataSource;
+
+/**
+ * Compares the statements, loaded entities and latency of a purchase placed with the entity-hydrating flow
+ * the service used to run and with the current lightweight one, each purchase in its own committed transaction.
+ * The timed runs are tagged {@code benchmark} and only run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.org.hibernate.envers.audit_table_suffix=_AUDIT_LOG"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PurchaseBenchmarkTest {
+
+  private static final long USER_ID = 1L;
+  private static final long CERTIFICATE_ID = 1L;
+  private static final int CHECKED_PURCHASES = 5;
+  private static final int WARMUP = 200;
+  private static final int TIMED_PURCHASES = 1000;
+
+  @Autowired
+  private StatementCountingDataSource dataSource;
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+  @Autowired
+  private OrderRepository orderRepository;
+  @Autowired
+  private UserRepository userRepository;
+  @Autowired
+  private CertificateRepository certificateRepository;
+
+  private TransactionTemplate transactionTemplate;
+  private OrderService orderService;
+  private Statistics statistics;
+
+  @BeforeEach
+  public void setup() {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.update("DELETE FROM orders");
+    jdbcTemplate.update("MERGE INTO users (id, name) KEY (id) VALUES (1, 'buyer')");
+    jdbcTemplate.update("MERGE INTO certificates (certificate_id, certificate_name, description, price, duration)"
+        + " KEY (certificate_id) VALUES (1, 'spa', 'a day at the spa', 50.0, 30)");
+    jdbcTemplate.update("MERGE INTO tag (tag_id, tag_name) KEY (tag_id) VALUES (1, 'relax'), (2, 'health'), (3, 'gift')");
+    jdbcTemplate.update("DELETE FROM gift_certificate_tag WHERE certificate_id = 1");
+    jdbcTemplate.update("INSERT INTO gift_certificate_tag (certificate_id, tag_id) VALUES (1, 1), (1, 2), (1, 3)");
+
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    orderService = new OrderService(orderRepository, userRepository, certificateRepository,
+        new CertificateJdbcRepository(new NamedParameterJdbcTemplate(dataSource)), mock(OrderJdbcRepository.class),
+        mock(AuditReaderService.class), mock(UserSpendJdbcRepository.class), mock(SliceQueryRepository.class),
+        mock(RowCountEstimator.class), mock(ApplicationEventPublisher.class));
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  public void testPurchase_LightweightPathLoadsOnlyTheUserAndNoMoreStatements() {
+    assertLightweightPathIsCheaper(1, CHECKED_PURCHASES);
+  }
+
+  @Test
+  @org.junit.jupiter.api.Tag("benchmark")
+  public void benchmarkPurchase_HydratedAgainstLightweight() {
+    assertLightweightPathIsCheaper(WARMUP, TIMED_PURCHASES);
+  }
+
+  private void assertLightweightPathIsCheaper(int warmup, int purchases) {
+    Measurement hydrated = measure("hydrated", this::purchaseWithEntities, warmup, purchases);
+    Measurement lightweight = measure("lightweight", () -> orderService.purchaseGiftCertificate(USER_ID, CERTIFICATE_ID),
+        warmup, purchases);
+
+    assertEquals(1, lightweight.entityLoads());
+    assertEquals(0, lightweight.collectionLoads());
+    assertTrue(lightweight.entityLoads() < hydrated.entityLoads());
+    assertTrue(lightweight.statements() <= hydrated.statements(),
+        () -> "lightweight " + lightweight + " vs hydrated " + hydrated);
+  }
+
+  private Measurement measure(String name, Supplier<OrderResponseDTO> purchase, int warmup, int purchases) {
+    for (int i = 0; i < warmup; i++) {
+      transactionTemplate.execute(status -> purchase.get());
+    }
+
+    dataSource.reset();
+    statistics.clear();
+    long start = System.nanoTime();
+    for (int i = 0; i < purchases; i++) {
+      OrderResponseDTO order = transactionTemplate.execute(status -> purchase.get());
+      assertEquals(List.of(1L, 2L, 3L), order.certificate().tagIds().stream().sorted().toList());
+    }
+    long elapsed = System.nanoTime() - start;
+
+    Measurement measurement = new Measurement((double) dataSource.getStatementCount() / purchases,
+        (double) statistics.getEntityLoadCount() / purchases,
+        (double) statistics.getCollectionLoadCount() / purchases,
+        elapsed / 1000.0 / purchases);
+    log.info("{} purchase: {}", name, measurement);
+    return measurement;
+  }
+
+  /**
+   * The purchase flow as it was before the lightweight lookups: both entities are loaded, the certificate with
+   * its EAGER tags, and the response is built by walking them.
+   */
+  private OrderResponseDTO purchaseWithEntities() {
+    User user = userRepository.findById(USER_ID).orElseThrow();
+    GiftCertificate certificate = certificateRepository.findById(CERTIFICATE_ID).orElseThrow();
+    Order saved = orderRepository.save(new Order(user, certificate, certificate.getPrice(), LocalDateTime.now()));
+    return new OrderResponseDTO(saved.getId(), new UserDTO(user.getId(), user.getName()),
+        new CertificateDTO(certificate.getId(), certificate.getName(), certificate.getDescription(),
+            certificate.getPrice(), certificate.getDuration(), certificate.getTags().stream().map(Tag::getId).toList()),
+        saved.getPrice(), saved.getPurchaseTime());
+  }
+
+  record Measurement(double statements, double entityLoads, double collectionLoads, double micros) {
+
+    @Override
+    public String toString() {
+      return String.format("%.2f statements, %.2f entity loads, %.2f collection loads, %.1f us per purchase",
+          statements, entityLoads, collectionLoads, micros);
+    }
+  }
+}
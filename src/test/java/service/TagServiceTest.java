@@ -9,22 +9,35 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
+import com.epam.esm.aggregate.PurchaseAggregates;
 import com.epam.esm.dto.TagResponseDTO;
+import com.epam.esm.dto.TagUsageDTO;
+import com.epam.esm.event.TagChangedEvent;
 import com.epam.esm.exceptions.CustomizedException;
 import com.epam.esm.exceptions.ErrorCode;
+import com.epam.esm.index.TagDictionary;
+import com.epam.esm.index.TagStatistics;
 import com.epam.esm.model.Tag;
-import com.epam.esm.repository.CertificateRepository;
+import com.epam.esm.repository.TagJdbcRepository;
 import com.epam.esm.repository.TagRepository;
+import com.epam.esm.repository.TagUsage;
+import com.epam.esm.service.AuditReaderService;
 import com.epam.esm.service.TagService;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
@@ -45,7 +58,22 @@ public class TagServiceTest {
     private TagRepository tagRepository;
 
     @Mock
-    private CertificateRepository certificateRepository;
+    private TagJdbcRepository tagJdbcRepository;
+
+    @Mock
+    private AuditReaderService auditReaderService;
+
+    @Mock
+    private TagDictionary tagDictionary;
+
+    @Mock
+    private TagStatistics tagStatistics;
+
+    @Mock
+    private PurchaseAggregates purchaseAggregates;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
     Tag tag;
@@ -93,6 +121,82 @@ public class TagServiceTest {
         assertEquals(ErrorCode.TAG_DATABASE_ERROR, exception.getCode());
     }
 
+    @Test
+    public void saveTags_insertsOnlyMissingNamesAndKeepsRequestOrder() {
+        // Given
+        given(tagJdbcRepository.findIdsByName(Set.of("old", "new")))
+            .willReturn(new HashMap<>(Map.of("old", 1L)));
+        given(auditReaderService.getCurrentRevisionNumber()).willReturn(7);
+        given(tagJdbcRepository.insertMissing(List.of("new"), 7)).willReturn(Map.of("new", 2L));
+
+        // When
+        Map<String, Long> actual = tagService.saveTags(List.of("new", "old", "new"));
+
+        // Then
+        assertEquals(List.of("new", "old"), List.copyOf(actual.keySet()));
+        assertEquals(List.of(2L, 1L), List.copyOf(actual.values()));
+        verify(eventPublisher).publishEvent(TagChangedEvent.created(new TagResponseDTO(2L, "new")));
+    }
+
+    @Test
+    public void saveTags_whenAllExist_doesNotInsert() {
+        given(tagJdbcRepository.findIdsByName(Set.of("old"))).willReturn(new HashMap<>(Map.of("old", 1L)));
+
+        assertEquals(Map.of("old", 1L), tagService.saveTags(List.of("old")));
+        verifyNoInteractions(auditReaderService, eventPublisher);
+    }
+
+    @Test
+    public void saveTags_emptyName_throwsException() {
+        CustomizedException exception = assertThrows(CustomizedException.class,
+            () -> tagService.saveTags(List.of("tag", "")));
+        assertEquals(ErrorCode.TAG_BAD_REQUEST, exception.getCode());
+    }
+
+    @Test
+    public void checkTagNamesAreUnique_duplicateNames_throwsException() {
+        given(tagJdbcRepository.findDuplicateNames(10)).willReturn(List.of("blue", "red"));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> tagService.checkTagNamesAreUnique());
+        assertTrue(exception.getMessage().contains("[blue, red]"));
+    }
+
+    @Test
+    public void checkTagNamesAreUnique_uniqueNames_passes() {
+        given(tagJdbcRepository.findDuplicateNames(10)).willReturn(List.of());
+
+        assertDoesNotThrow(() -> tagService.checkTagNamesAreUnique());
+    }
+
+    @Test
+    public void getRelatedTags_beforeStatisticsAreBuilt_aggregatesInDatabase() {
+        // Given
+        given(tagRepository.existsById(TAG_ID)).willReturn(true);
+        given(tagStatistics.findRelated(TAG_ID, 5)).willReturn(Optional.empty());
+        given(tagJdbcRepository.findRelated(TAG_ID, 5)).willReturn(List.of(new TagUsage(2L, 3)));
+        given(tagRepository.findAllById(List.of(2L))).willReturn(List.of(tag));
+        given(tag.getId()).willReturn(2L);
+        given(tag.getName()).willReturn(TAG_NAME);
+
+        // When
+        List<TagUsageDTO> actual = tagService.getRelatedTags(TAG_ID, 5);
+
+        // Then
+        assertEquals(List.of(new TagUsageDTO(2L, TAG_NAME, 3)), actual);
+    }
+
+    @Test
+    public void getRelatedTags_invalidLimitOrUnknownTag_throwsException() {
+        CustomizedException exception = assertThrows(CustomizedException.class, () -> tagService.getRelatedTags(TAG_ID, 0));
+        assertEquals(ErrorCode.TAG_BAD_REQUEST, exception.getCode());
+
+        given(tagRepository.existsById(TAG_ID)).willReturn(false);
+        exception = assertThrows(CustomizedException.class, () -> tagService.getRelatedTags(TAG_ID, 5));
+        assertEquals(ErrorCode.TAG_NOT_FOUND, exception.getCode());
+        verifyNoInteractions(tagStatistics);
+    }
+
     @Test
     public void getTag_whenExists_ReturnsTag() {
         // Given
@@ -143,6 +247,19 @@ public class TagServiceTest {
         assertEquals(TAG_ID, actual.id());
     }
 
+    @Test
+    public void getMostUsedTag_aggregatesCurrent_skipsOrderQuery() {
+        Mockito.when(tag.getId()).thenReturn(TAG_ID);
+        Mockito.when(purchaseAggregates.isCurrent()).thenReturn(true);
+        Mockito.when(purchaseAggregates.findMostUsedTagOfTopSpender()).thenReturn(Optional.of(TAG_ID));
+        Mockito.when(tagRepository.getReferenceById(TAG_ID)).thenReturn(tag);
+
+        TagResponseDTO actual = tagService.getMostUsedTag();
+
+        assertEquals(TAG_ID, actual.id());
+        verify(tagRepository, Mockito.never()).findMostUsedTagOfUserWithHighestTotalCostOfOrders();
+    }
+
     @Test
     public void getMostUsedTag_noTag_returnsNull() {
         Mockito.when(tagRepository.findMostUsedTagOfUserWithHighestTotalCostOfOrders()).thenReturn(Optional.empty());
@@ -218,17 +335,30 @@ public class TagServiceTest {
 //    }
 
     @Test
-    public void deleteTag_whenTagExistsButNotAssociatedWithAnyCertificate_thenDeletesTag() {
+    public void deleteTag_whenTagExists_thenUnlinksCertificatesInOneStatementAndDeletesTag() {
         // Given
-        given(tagRepository.existsById(TAG_ID)).willReturn(true);
         given(tagRepository.findById(TAG_ID)).willReturn(Optional.of(tag));
-        given(certificateRepository.findAllByTagsContaining(tag)).willReturn(Collections.emptyList());
+        given(auditReaderService.getCurrentRevisionNumber()).willReturn(7);
 
         // When
         assertDoesNotThrow(() -> tagService.deleteTag(TAG_ID));
 
         // Then
-        verify(tagRepository).deleteById(TAG_ID);
+        verify(tagJdbcRepository).deleteCertificateLinks(TAG_ID, 7);
+        verify(tagRepository).delete(tag);
+        verify(eventPublisher).publishEvent(any(TagChangedEvent.class));
+    }
+
+    @Test
+    public void deleteTag_whenTagDoesNotExist_thenThrowsNotFound() {
+        // Given
+        given(tagRepository.findById(TAG_ID)).willReturn(Optional.empty());
+
+        // When & Then
+        CustomizedException exception = assertThrows(CustomizedException.class, () -> tagService.deleteTag(TAG_ID));
+        assertEquals(TAG_ID_NOT_FOUND.formatted(TAG_ID), exception.getMessage());
+        assertEquals(ErrorCode.TAG_NOT_FOUND, exception.getCode());
+        verifyNoInteractions(tagJdbcRepository);
     }
 
 //    @Test
@@ -255,4 +385,19 @@ public class TagServiceTest {
 //        assertEquals("Database error during deleting tag with id " + TAG_ID, exception.getMessage());
 //        assertEquals(ErrorCode.TAG_DATABASE_ERROR, exception.getCode());
 //    }
+
+    @Test
+    public void searchTags_dictionaryBuilt_doesNotQueryDatabase() {
+        List<TagResponseDTO> tags = List.of(new TagResponseDTO(TAG_ID, TAG_NAME));
+        Mockito.when(tagDictionary.findByPrefix("na", 20)).thenReturn(Optional.of(tags));
+
+        assertEquals(tags, tagService.searchTags("na", 20));
+        verifyNoInteractions(tagRepository);
+    }
+
+    @Test
+    public void searchTags_limitOutOfRange_throwsException() {
+        CustomizedException exception = assertThrows(CustomizedException.class, () -> tagService.searchTags("na", 101));
+        assertEquals(ErrorCode.TAG_BAD_REQUEST, exception.getCode());
+    }
 }
@@ -3,14 +3,25 @@ package service;
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
 
+import com.epam.esm.dto.MonthlySpendDTO;
 import com.epam.esm.dto.UserDTO;
+import com.epam.esm.dto.UserSpendSummaryDTO;
 import com.epam.esm.exceptions.CustomizedException;
 import com.epam.esm.exceptions.ErrorCode;
+import com.epam.esm.filter.CountMode;
 import com.epam.esm.model.User;
+import com.epam.esm.repository.RowCountEstimator;
+import com.epam.esm.repository.SliceQueryRepository;
 import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.UserSpendJdbcRepository;
 import com.epam.esm.service.UserService;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,6 +34,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTest {
@@ -36,6 +49,15 @@ public class UserServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private SliceQueryRepository sliceQueryRepository;
+
+  @Mock
+  private RowCountEstimator rowCountEstimator;
+
+  @Mock
+  private UserSpendJdbcRepository userSpendJdbcRepository;
+
   @Mock
   User user;
 
@@ -58,6 +80,25 @@ public class UserServiceTest {
     assertEquals(USER_NAME, resultPage.getContent().get(0).name());
   }
 
+  @Test
+  public void getAllUsers_withoutCount_returnsSliceWithoutCounting() {
+    // Given
+    given(user.getId()).willReturn(USER_ID);
+    given(user.getName()).willReturn(USER_NAME);
+
+    Pageable pageable = PageRequest.of(0, 10);
+    Mockito.when(sliceQueryRepository.findSlice(eq(User.class), any(), eq(pageable)))
+        .thenReturn(new SliceImpl<>(singletonList(user), pageable, false));
+
+    // When
+    Slice<UserDTO> resultSlice = userService.getAllUsers(pageable, CountMode.NONE);
+
+    // Then
+    assertEquals(1, resultSlice.getNumberOfElements());
+    assertEquals(USER_NAME, resultSlice.getContent().get(0).name());
+    verifyNoInteractions(userRepository, rowCountEstimator);
+  }
+
   @Test
   public void getAllUsers_throwsExceptionWhenDataAccessErrorOccurs() {
     // Given
@@ -111,4 +152,39 @@ public class UserServiceTest {
     assertEquals("Error retrieving user with id " + USER_ID, exception.getMessage());
     assertEquals(ErrorCode.USER_DATABASE_ERROR, exception.getCode());
   }
+
+  @Test
+  public void getSpendSummary_readsRollupsWithoutLookingUpTheUser() {
+    // Given
+    UserSpendSummaryDTO summary = new UserSpendSummaryDTO(USER_ID, 2, 15.0,
+        List.of(new MonthlySpendDTO(YearMonth.of(2024, 1), 2, 15.0)));
+    Mockito.when(userSpendJdbcRepository.findSummary(USER_ID)).thenReturn(Optional.of(summary));
+
+    // When & Then
+    assertEquals(summary, userService.getSpendSummary(USER_ID));
+    Mockito.verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  public void getSpendSummary_isEmptyForUserWithoutOrders() {
+    // Given
+    Mockito.when(userSpendJdbcRepository.findSummary(USER_ID)).thenReturn(Optional.empty());
+    Mockito.when(userRepository.existsById(USER_ID)).thenReturn(true);
+
+    // When & Then
+    assertEquals(UserSpendSummaryDTO.empty(USER_ID), userService.getSpendSummary(USER_ID));
+  }
+
+  @Test
+  public void getSpendSummary_throwsNotFoundException_WhenUserIdDoesNotExist() {
+    // Given
+    Mockito.when(userSpendJdbcRepository.findSummary(USER_ID)).thenReturn(Optional.empty());
+    Mockito.when(userRepository.existsById(USER_ID)).thenReturn(false);
+
+    // When & Then
+    CustomizedException exception = assertThrows(CustomizedException.class,
+        () -> userService.getSpendSummary(USER_ID));
+
+    assertEquals(ErrorCode.USER_NOT_FOUND, exception.getCode());
+  }
 }